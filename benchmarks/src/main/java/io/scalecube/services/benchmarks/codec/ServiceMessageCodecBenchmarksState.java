@@ -51,6 +51,10 @@ public class ServiceMessageCodecBenchmarksState
     return serviceMessageCodec;
   }
 
+  public DataCodec dataCodec() {
+    return dataCodec;
+  }
+
   public ByteBuf dataBuffer() {
     return payloadMessage.sliceData();
   }
@@ -169,7 +173,11 @@ public class ServiceMessageCodecBenchmarksState
     private static final JacksonCodec CODEC = new JacksonCodec();
 
     public Jackson(BenchmarksSettings settings) {
-      super(settings, CODEC, CODEC);
+      this(settings, CODEC);
+    }
+
+    public Jackson(BenchmarksSettings settings, JacksonCodec codec) {
+      super(settings, codec, codec);
     }
   }
 
@@ -0,0 +1,69 @@
+package io.scalecube.services.benchmarks.codec.compression;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.benchmarks.BenchmarksSettings;
+import io.scalecube.services.codec.CompressionCodec;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import reactor.core.Exceptions;
+
+/**
+ * Measures compression round trip (compress and decompress) of json payloads of different sizes
+ * with <code>encoding=lz4|zstd</code>. For every size it reports time of the round trip
+ * (<code>timer-SIZE</code>) and compressed size (<code>bytes-SIZE</code>).
+ *
+ * <p>Compression pays off once time it costs is less than time saved on the wire: <code>
+ * (SIZE - bytes) / bandwidth &gt; timer</code>. E.g. on 1 Gbit/s link a byte takes 8ns, so payload
+ * of 1KB compressed to 300 bytes saves ~5.6us, what has to be compared with <code>timer-1024
+ * </code>. Compression threshold of the codec ({@link
+ * io.scalecube.services.codec.ServiceMessageCodec#COMPRESSION_THRESHOLD_PROPERTY}) should be set to
+ * the size where it happens.
+ */
+public class CompressionBenchmarks {
+
+  /**
+   * Main method.
+   *
+   * @param args - params of main method.
+   */
+  public static void main(String[] args) {
+    BenchmarksSettings settings =
+        BenchmarksSettings.from(args).durationUnit(TimeUnit.NANOSECONDS).build();
+    CompressionCodec codec = CompressionCodec.getInstance(settings.find("encoding", "lz4"));
+    new CompressionBenchmarksState(settings, codec)
+        .runForSync(
+            state -> {
+              int[] sizes = state.sizes();
+              Timer[] timers = new Timer[sizes.length];
+              Histogram[] histograms = new Histogram[sizes.length];
+              for (int i = 0; i < sizes.length; i++) {
+                timers[i] = state.timer("timer-" + sizes[i]);
+                histograms[i] = state.histogram("bytes-" + sizes[i]);
+              }
+              CompressionCodec compressionCodec = state.compressionCodec();
+
+              return i -> {
+                int sizeIndex = (int) (i % sizes.length);
+                ByteBuf payload = state.payload(sizeIndex);
+                ByteBuf compressed = null;
+                ByteBuf decompressed = null;
+                Timer.Context timeContext = timers[sizeIndex].time();
+                try {
+                  compressed = compressionCodec.compress(payload);
+                  decompressed = compressionCodec.decompress(compressed);
+                  timeContext.stop();
+                  histograms[sizeIndex].update(compressed.readableBytes());
+                  return decompressed;
+                } catch (IOException e) {
+                  throw Exceptions.propagate(e);
+                } finally {
+                  ReferenceCountUtil.safeRelease(compressed);
+                  ReferenceCountUtil.safeRelease(decompressed);
+                }
+              };
+            });
+  }
+}
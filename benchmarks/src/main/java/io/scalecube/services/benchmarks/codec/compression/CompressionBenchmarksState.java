@@ -0,0 +1,77 @@
+package io.scalecube.services.benchmarks.codec.compression;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.scalecube.benchmarks.BenchmarksSettings;
+import io.scalecube.benchmarks.BenchmarksState;
+import io.scalecube.services.codec.CompressionCodec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class CompressionBenchmarksState extends BenchmarksState<CompressionBenchmarksState> {
+
+  private static final String DEFAULT_SIZES = "64,256,512,1024,4096,16384,65536";
+
+  private final CompressionCodec compressionCodec;
+  private int[] sizes;
+  private ByteBuf[] payloads;
+
+  /**
+   * State for benchmarking {@link CompressionCodec} on payloads of different sizes.
+   *
+   * @param settings - setting of this benchmark test, <code>sizes</code> is comma separated list
+   *     of payload sizes in bytes.
+   * @param compressionCodec - compression codec under test.
+   */
+  public CompressionBenchmarksState(
+      BenchmarksSettings settings, CompressionCodec compressionCodec) {
+    super(settings);
+    this.compressionCodec = compressionCodec;
+  }
+
+  @Override
+  protected void beforeAll() {
+    this.sizes =
+        Arrays.stream(settings.find("sizes", DEFAULT_SIZES).split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    this.payloads = Arrays.stream(sizes).mapToObj(this::generatePayload).toArray(ByteBuf[]::new);
+  }
+
+  public CompressionCodec compressionCodec() {
+    return compressionCodec;
+  }
+
+  public int[] sizes() {
+    return sizes;
+  }
+
+  public ByteBuf payload(int sizeIndex) {
+    return payloads[sizeIndex].slice();
+  }
+
+  /**
+   * Generates json array of market data ticks, which is what compression is meant for.
+   *
+   * @param size size of payload in bytes
+   * @return payload buffer
+   */
+  private ByteBuf generatePayload(int size) {
+    Random random = new Random(size);
+    StringBuilder json = new StringBuilder("[");
+    while (json.length() < size) {
+      json.append("{\"symbol\":\"EURUSD\",\"bid\":")
+          .append(1.1 + random.nextInt(10000) / 100000.0)
+          .append(",\"ask\":")
+          .append(1.1 + random.nextInt(10000) / 100000.0)
+          .append(",\"timestamp\":")
+          .append(1530000000000L + random.nextInt(1000000))
+          .append("},");
+    }
+    json.setLength(size - 1);
+    json.append(']');
+    return Unpooled.unreleasableBuffer(
+        Unpooled.directBuffer(size).writeBytes(json.toString().getBytes(StandardCharsets.UTF_8)));
+  }
+}
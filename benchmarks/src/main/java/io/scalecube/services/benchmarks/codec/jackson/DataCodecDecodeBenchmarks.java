@@ -0,0 +1,53 @@
+package io.scalecube.services.benchmarks.codec.jackson;
+
+import com.codahale.metrics.Timer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.scalecube.benchmarks.BenchmarksSettings;
+import io.scalecube.services.benchmarks.codec.ServiceMessageCodecBenchmarksState;
+import io.scalecube.services.codec.DataCodec;
+import io.scalecube.services.codec.jackson.JacksonCodec;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import reactor.core.Exceptions;
+
+/**
+ * Compares data decoding done over {@link java.io.InputStream} (<code>mode=stream</code>, as it
+ * used to be) with decoding done directly from {@link ByteBuf} (<code>mode=buffer</code>).
+ * Afterburner module is turned on with <code>afterburner=true</code>.
+ */
+public class DataCodecDecodeBenchmarks {
+
+  /**
+   * Main method.
+   *
+   * @param args - params of main method.
+   */
+  public static void main(String[] args) {
+    BenchmarksSettings settings =
+        BenchmarksSettings.from(args).durationUnit(TimeUnit.NANOSECONDS).build();
+    boolean streamMode = "stream".equals(settings.find("mode", "buffer"));
+    boolean afterburner = Boolean.parseBoolean(settings.find("afterburner", "false"));
+    new ServiceMessageCodecBenchmarksState.Jackson(settings, new JacksonCodec(afterburner))
+        .runForSync(
+            state -> {
+              Timer timer = state.timer("timer");
+              DataCodec dataCodec = state.dataCodec();
+              Class<?> dataType = state.dataType();
+
+              return i -> {
+                Timer.Context timeContext = timer.time();
+                ByteBuf dataBuffer = state.dataBuffer();
+                try {
+                  return streamMode
+                      ? dataCodec.decode(new ByteBufInputStream(dataBuffer), dataType)
+                      : dataCodec.decode(dataBuffer, dataType);
+                } catch (IOException e) {
+                  throw Exceptions.propagate(e);
+                } finally {
+                  timeContext.stop();
+                }
+              };
+            });
+  }
+}
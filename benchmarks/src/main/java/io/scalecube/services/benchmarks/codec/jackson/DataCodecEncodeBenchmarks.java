@@ -0,0 +1,63 @@
+package io.scalecube.services.benchmarks.codec.jackson;
+
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.benchmarks.BenchmarksSettings;
+import io.scalecube.services.benchmarks.codec.ServiceMessageCodecBenchmarksState;
+import io.scalecube.services.codec.DataCodec;
+import io.scalecube.services.codec.jackson.JacksonCodec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import reactor.core.Exceptions;
+
+/**
+ * Compares data encoding done with {@link ObjectMapper#writeValue(java.io.OutputStream, Object)}
+ * (<code>mode=stream</code>, as it used to be) with encoding done by the codec with cached writers
+ * (<code>mode=buffer</code>). Afterburner module is turned on with <code>afterburner=true</code>.
+ */
+public class DataCodecEncodeBenchmarks {
+
+  /**
+   * Main method.
+   *
+   * @param args - params of main method.
+   */
+  public static void main(String[] args) {
+    BenchmarksSettings settings =
+        BenchmarksSettings.from(args).durationUnit(TimeUnit.NANOSECONDS).build();
+    boolean streamMode = "stream".equals(settings.find("mode", "buffer"));
+    boolean afterburner = Boolean.parseBoolean(settings.find("afterburner", "false"));
+    JacksonCodec codec = new JacksonCodec(afterburner);
+    ObjectMapper mapper = codec.mapper();
+    new ServiceMessageCodecBenchmarksState.Jackson(settings, codec)
+        .runForSync(
+            state -> {
+              Timer timer = state.timer("timer");
+              DataCodec dataCodec = state.dataCodec();
+              Object data = state.message().data();
+
+              return i -> {
+                Timer.Context timeContext = timer.time();
+                ByteBuf dataBuffer = ByteBufAllocator.DEFAULT.buffer();
+                try {
+                  if (streamMode) {
+                    mapper.writeValue((OutputStream) new ByteBufOutputStream(dataBuffer), data);
+                  } else {
+                    dataCodec.encode(dataBuffer, data);
+                  }
+                  return dataBuffer;
+                } catch (IOException e) {
+                  throw Exceptions.propagate(e);
+                } finally {
+                  ReferenceCountUtil.release(dataBuffer);
+                  timeContext.stop();
+                }
+              };
+            });
+  }
+}
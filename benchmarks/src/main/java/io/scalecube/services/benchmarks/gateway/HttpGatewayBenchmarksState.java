@@ -0,0 +1,93 @@
+package io.scalecube.services.benchmarks.gateway;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.scalecube.benchmarks.BenchmarksSettings;
+import io.scalecube.benchmarks.BenchmarksState;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.gateway.GatewayConfig;
+import io.scalecube.services.gateway.http.HttpGateway;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClient;
+
+public class HttpGatewayBenchmarksState extends BenchmarksState<HttpGatewayBenchmarksState> {
+
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(6);
+  private static final String GATEWAY_NAME = "http";
+
+  private final Object[] services;
+
+  private Microservices node;
+  private Microservices gateway;
+  private ExecutorService gatewayExecutor;
+  private HttpClient client;
+
+  /**
+   * State for benchmarking {@link HttpGateway} with keep-alive http client.
+   *
+   * @param settings - settings of this benchmark test, <code>gatewayWorkers</code> is number of
+   *     threads of gateway worker pool, 0 (default) means transport event loops.
+   * @param services - services behind gateway.
+   */
+  public HttpGatewayBenchmarksState(BenchmarksSettings settings, Object... services) {
+    super(settings);
+    this.services = services;
+  }
+
+  @Override
+  public void beforeAll() {
+    node = Microservices.builder().metrics(settings.registry()).services(services).startAwait();
+
+    GatewayConfig.Builder gatewayConfig = GatewayConfig.builder(GATEWAY_NAME, HttpGateway.class);
+    int gatewayWorkers = Integer.parseInt(settings.find("gatewayWorkers", "0"));
+    if (gatewayWorkers > 0) {
+      gatewayExecutor = Executors.newFixedThreadPool(gatewayWorkers);
+      gatewayConfig.executorService(gatewayExecutor);
+    }
+
+    gateway =
+        Microservices.builder()
+            .metrics(settings.registry())
+            .seeds(node.discovery().address())
+            .gateway(gatewayConfig.build())
+            .startAwait();
+
+    int port = gateway.gatewayAddress(GATEWAY_NAME, HttpGateway.class).getPort();
+    client =
+        HttpClient.create(
+            options -> options.connectAddress(() -> new InetSocketAddress("localhost", port)));
+  }
+
+  @Override
+  public void afterAll() {
+    try {
+      Mono.when(gateway.shutdown(), node.shutdown()).block(SHUTDOWN_TIMEOUT);
+    } catch (Throwable ignore) {
+      // ignore
+    }
+    if (gatewayExecutor != null) {
+      gatewayExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Posts json body to gateway and receives response body.
+   *
+   * @param uri uri of service method, <code>/namespace/action</code>
+   * @param body json body
+   * @return response body
+   */
+  public Mono<String> post(String uri, String body) {
+    return client
+        .post(
+            uri,
+            request ->
+                request
+                    .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendString(Mono.just(body)))
+        .flatMap(response -> response.receive().aggregate().asString());
+  }
+}
@@ -0,0 +1,34 @@
+package io.scalecube.services.benchmarks.gateway;
+
+import com.codahale.metrics.Timer;
+import io.scalecube.benchmarks.BenchmarksSettings;
+import io.scalecube.services.benchmarks.services.BenchmarkService;
+import io.scalecube.services.benchmarks.services.BenchmarkServiceImpl;
+
+/**
+ * Load of request-response calls through {@link io.scalecube.services.gateway.http.HttpGateway},
+ * over keep-alive connections of http client.
+ */
+public class HttpGatewayRequestOneBenchmarks {
+
+  private static final String URI = "/" + BenchmarkService.class.getName() + "/requestOne";
+
+  /**
+   * Main method.
+   *
+   * @param args - params of main method.
+   */
+  public static void main(String[] args) {
+    BenchmarksSettings settings = BenchmarksSettings.from(args).build();
+    new HttpGatewayBenchmarksState(settings, new BenchmarkServiceImpl())
+        .runForAsync(
+            state -> {
+              Timer timer = state.timer("timer");
+
+              return i -> {
+                Timer.Context timeContext = timer.time();
+                return state.post(URI, "\"hello\"").doOnTerminate(timeContext::stop);
+              };
+            });
+  }
+}
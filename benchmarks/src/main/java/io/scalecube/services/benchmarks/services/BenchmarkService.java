@@ -14,6 +14,9 @@ public interface BenchmarkService {
   @ServiceMethod
   Mono<String> requestOne(String request);
 
+  @ServiceMethod
+  Mono<String> requestLarge(int size);
+
   @ServiceMethod
   Flux<String> requestMany(int count);
 
@@ -1,5 +1,7 @@
 package io.scalecube.services.benchmarks.services;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
@@ -7,6 +9,8 @@ import reactor.core.publisher.Mono;
 
 public class BenchmarkServiceImpl implements BenchmarkService {
 
+  private final Map<Integer, String> largeResponses = new ConcurrentHashMap<>();
+
   @Override
   public Mono<Void> oneWay(String request) {
     return Mono.empty();
@@ -17,6 +21,11 @@ public class BenchmarkServiceImpl implements BenchmarkService {
     return Mono.just(request);
   }
 
+  @Override
+  public Mono<String> requestLarge(int size) {
+    return Mono.just(largeResponses.computeIfAbsent(size, this::largeResponse));
+  }
+
   @Override
   public Flux<String> requestMany(int count) {
     return Flux.fromStream(IntStream.range(0, count).mapToObj(i -> "response-" + i));
@@ -37,4 +46,12 @@ public class BenchmarkServiceImpl implements BenchmarkService {
     return EmitterProcessor.create(
         emitter -> counts.subscribe(emitter::next, emitter::error, emitter::complete));
   }
+
+  private String largeResponse(int size) {
+    StringBuilder sb = new StringBuilder(size);
+    for (int i = 0; i < size; i++) {
+      sb.append((char) ('a' + i % 26));
+    }
+    return sb.toString();
+  }
 }
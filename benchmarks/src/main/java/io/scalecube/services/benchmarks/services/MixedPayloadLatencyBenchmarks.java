@@ -0,0 +1,43 @@
+package io.scalecube.services.benchmarks.services;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import io.scalecube.benchmarks.BenchmarksSettings;
+
+/**
+ * Latency of small request-response calls sharing connection with large responses. Run with and
+ * without {@code fragmentMtu} setting to compare tail latency of small calls.
+ */
+public class MixedPayloadLatencyBenchmarks {
+
+  private static final String LARGE_SIZE = "1048576";
+  private static final String LARGE_EVERY = "10";
+
+  /**
+   * Main method.
+   *
+   * @param args - params of main method.
+   */
+  public static void main(String[] args) {
+    BenchmarksSettings settings = BenchmarksSettings.from(args).build();
+    new ServicesBenchmarksState(settings, new BenchmarkServiceImpl())
+        .runForAsync(
+            state -> {
+              BenchmarkService benchmarkService = state.service(BenchmarkService.class);
+              int largeSize = Integer.parseInt(settings.find("largeSize", LARGE_SIZE));
+              int largeEvery = Integer.parseInt(settings.find("largeEvery", LARGE_EVERY));
+              Timer smallTimer = state.timer("smallTimer");
+              Meter largeResponses = state.meter("largeResponses");
+
+              return i -> {
+                if (i % largeEvery == 0) {
+                  return benchmarkService
+                      .requestLarge(largeSize)
+                      .doOnSuccess(response -> largeResponses.mark());
+                }
+                Timer.Context timeContext = smallTimer.time();
+                return benchmarkService.requestOne("hello").doOnTerminate(timeContext::stop);
+              };
+            });
+  }
+}
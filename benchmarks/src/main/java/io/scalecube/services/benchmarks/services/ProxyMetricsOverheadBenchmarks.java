@@ -0,0 +1,73 @@
+package io.scalecube.services.benchmarks.services;
+
+import com.codahale.metrics.Timer;
+import io.scalecube.benchmarks.BenchmarksSettings;
+import io.scalecube.benchmarks.BenchmarksState;
+import io.scalecube.services.Microservices;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures per-call overhead of service proxy with metrics turned on (<code>metrics=true</code>,
+ * the default) or off (<code>metrics=false</code>). Service is called locally, so that timings
+ * consist of proxy, metrics and invoker only, without transport.
+ */
+public class ProxyMetricsOverheadBenchmarks {
+
+  /**
+   * Main method.
+   *
+   * @param args - params of main method.
+   */
+  public static void main(String[] args) {
+    BenchmarksSettings settings =
+        BenchmarksSettings.from(args).durationUnit(TimeUnit.NANOSECONDS).build();
+    new LocalServiceState(settings, new BenchmarkServiceImpl())
+        .runForSync(
+            state -> {
+              BenchmarkService benchmarkService = state.service(BenchmarkService.class);
+              Timer timer = state.timer("timer");
+
+              return i -> {
+                Timer.Context timeContext = timer.time();
+                try {
+                  return benchmarkService.requestOne("hello").block();
+                } finally {
+                  timeContext.stop();
+                }
+              };
+            });
+  }
+
+  private static class LocalServiceState extends BenchmarksState<LocalServiceState> {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(6);
+
+    private final Object service;
+
+    private Microservices node;
+
+    private LocalServiceState(BenchmarksSettings settings, Object service) {
+      super(settings);
+      this.service = service;
+    }
+
+    @Override
+    public void beforeAll() {
+      Microservices.Builder builder = Microservices.builder().services(service);
+      if (Boolean.parseBoolean(settings.find("metrics", "true"))) {
+        builder.metrics(settings.registry());
+      }
+      node = builder.startAwait();
+    }
+
+    @Override
+    public void afterAll() {
+      node.shutdown().block(SHUTDOWN_TIMEOUT);
+    }
+
+    private <T> T service(Class<T> serviceInterface) {
+      return node.call().create().api(serviceInterface);
+    }
+  }
+}
@@ -4,7 +4,10 @@ import io.scalecube.benchmarks.BenchmarksSettings;
 import io.scalecube.benchmarks.BenchmarksState;
 import io.scalecube.services.Microservices;
 import io.scalecube.services.ServiceCall;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
@@ -27,12 +30,33 @@ public class ServicesBenchmarksState extends BenchmarksState<ServicesBenchmarksS
 
   @Override
   public void beforeAll() {
-    seed = Microservices.builder().metrics(settings.registry()).startAwait();
+    // client side micro-batching of request-response calls, flush consolidation and
+    // fragmentation, off by default
+    RSocketTransportConfig.Builder transportConfigBuilder =
+        RSocketTransportConfig.builder()
+            .batchMaxMessages(Integer.parseInt(settings.find("batchMaxMessages", "1")))
+            .batchMaxDelay(
+                Duration.of(
+                    Long.parseLong(settings.find("batchMaxDelayMicros", "100")), ChronoUnit.MICROS))
+            .flushConsolidationMaxFlushes(
+                Integer.parseInt(settings.find("flushConsolidationMaxFlushes", "0")));
+    int fragmentMtu = Integer.parseInt(settings.find("fragmentMtu", "0"));
+    if (fragmentMtu > 0) {
+      transportConfigBuilder.fragmentation(fragmentMtu);
+    }
+    RSocketTransportConfig transportConfig = transportConfigBuilder.build();
+
+    seed =
+        Microservices.builder()
+            .metrics(settings.registry())
+            .transport(new RSocketServiceTransport(transportConfig))
+            .startAwait();
 
     node =
         Microservices.builder()
             .metrics(settings.registry())
             .seeds(seed.discovery().address())
+            .transport(new RSocketServiceTransport(transportConfig))
             .services(services)
             .startAwait();
 
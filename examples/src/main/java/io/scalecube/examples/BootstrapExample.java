@@ -1,11 +1,11 @@
 package io.scalecube.examples;
 
 import io.scalecube.examples.gateway.HttpStubGateway;
-import io.scalecube.examples.gateway.WebsocketStubGateway;
 import io.scalecube.services.Microservices;
 import io.scalecube.services.annotations.Service;
 import io.scalecube.services.annotations.ServiceMethod;
 import io.scalecube.services.gateway.GatewayConfig;
+import io.scalecube.services.gateway.ws.WebsocketGateway;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.concurrent.TimeUnit;
@@ -30,11 +30,11 @@ public class BootstrapExample {
                     .port(8181)
                     .build()) // override default port
             .gateway(
-                GatewayConfig.builder("ws", WebsocketStubGateway.class)
+                GatewayConfig.builder("ws", WebsocketGateway.class)
                     .port(9191)
                     .addOption(
-                        WebsocketStubGateway.WS_SPECIFIC_OPTION_NAME,
-                        "500") // override default value of specific option
+                        WebsocketGateway.STREAM_PREFETCH,
+                        "64") // override default value of specific option
                     .build())
             .startAwait();
 
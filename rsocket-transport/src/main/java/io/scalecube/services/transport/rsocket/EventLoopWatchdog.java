@@ -0,0 +1,104 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Detects event loop tasks which run longer than threshold, such as service methods which block.
+ * Each event loop runs heartbeat task every half of threshold, and watchdog thread logs stack trace
+ * of event loop thread which heartbeat is late by more than threshold, once per stall.
+ */
+final class EventLoopWatchdog implements Disposable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopWatchdog.class);
+
+  private static final long MIN_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final long thresholdNanos;
+  private final long periodNanos;
+  private final List<Heartbeat> heartbeats = new ArrayList<>();
+  private final Scheduler scheduler;
+
+  /**
+   * Creates watchdog and starts heartbeats on event loops of given groups.
+   *
+   * @param threshold max duration of event loop task
+   * @param name name of watchdog thread
+   * @param groups event loop groups
+   */
+  EventLoopWatchdog(Duration threshold, String name, List<EventLoopGroup> groups) {
+    this.thresholdNanos = threshold.toNanos();
+    this.periodNanos = Math.max(MIN_PERIOD_NANOS, thresholdNanos / 2);
+    for (EventLoopGroup group : groups) {
+      for (EventExecutor executor : group) {
+        heartbeats.add(new Heartbeat(executor));
+      }
+    }
+    this.scheduler = Schedulers.newSingle(name, true);
+    scheduler.schedulePeriodically(this::check, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void dispose() {
+    scheduler.dispose();
+    heartbeats.forEach(heartbeat -> heartbeat.future.cancel(false));
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return scheduler.isDisposed();
+  }
+
+  private void check() {
+    long now = System.nanoTime();
+    for (Heartbeat heartbeat : heartbeats) {
+      long lastBeat = heartbeat.lastBeat;
+      Thread thread = heartbeat.thread;
+      long stallNanos = now - lastBeat - periodNanos;
+      if (thread != null && stallNanos > thresholdNanos && lastBeat != heartbeat.reportedBeat) {
+        heartbeat.reportedBeat = lastBeat;
+        LOGGER.warn(
+            "Event loop {} is blocked by a task for over {} ms, at:{}",
+            thread.getName(),
+            TimeUnit.NANOSECONDS.toMillis(stallNanos),
+            stackTrace(thread));
+      }
+    }
+  }
+
+  private static String stackTrace(Thread thread) {
+    StringBuilder sb = new StringBuilder();
+    for (StackTraceElement element : thread.getStackTrace()) {
+      sb.append(System.lineSeparator()).append("\tat ").append(element);
+    }
+    return sb.toString();
+  }
+
+  private final class Heartbeat {
+
+    private final ScheduledFuture<?> future;
+    private volatile long lastBeat = System.nanoTime();
+    private volatile Thread thread;
+    private long reportedBeat; // accessed by watchdog thread only
+
+    private Heartbeat(EventExecutor executor) {
+      this.future =
+          executor.scheduleAtFixedRate(this::beat, 0, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void beat() {
+      thread = Thread.currentThread();
+      lastBeat = System.nanoTime();
+    }
+  }
+}
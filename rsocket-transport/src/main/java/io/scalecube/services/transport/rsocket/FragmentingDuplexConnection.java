@@ -0,0 +1,282 @@
+package io.scalecube.services.transport.rsocket;
+
+import static io.rsocket.frame.FrameHeaderFlyweight.FLAGS_C;
+import static io.rsocket.frame.FrameHeaderFlyweight.FLAGS_F;
+import static io.rsocket.frame.FrameHeaderFlyweight.FLAGS_N;
+import static io.rsocket.frame.FrameHeaderFlyweight.FRAME_HEADER_LENGTH;
+import static io.rsocket.frame.FrameHeaderFlyweight.FRAME_LENGTH_SIZE;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.rsocket.Closeable;
+import io.rsocket.DuplexConnection;
+import io.rsocket.Frame;
+import io.rsocket.framing.FrameType;
+import io.rsocket.transport.ClientTransport;
+import io.rsocket.transport.ServerTransport;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * Connection which splits frames larger than mtu into fragments and reassembles fragments it
+ * receives. Frames are queued per stream and streams with queued frames send one fragment each in
+ * turns, as fast as underlying connection takes them, so that small frames of one stream aren't
+ * held back by large frame of another one.
+ *
+ * <p>Fragment is PAYLOAD frame with neither NEXT nor COMPLETE flag, which rsocket never sends. Its
+ * data is the next part of original frame (including its header) and its FOLLOWS flag is set on
+ * all fragments but the last one. Fragments are sliced off original frame on sending and composed
+ * into original frame on receiving, so frame contents aren't copied. Connection is closed once
+ * reassembled frame exceeds {@link RSocketTransportConfig#fragmentMaxFrameLength()}.
+ */
+final class FragmentingDuplexConnection implements DuplexConnection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FragmentingDuplexConnection.class);
+
+  private static final int TYPE_AND_FLAGS_OFFSET = FRAME_LENGTH_SIZE + Integer.BYTES;
+  private static final int TYPE_SHIFT = 10;
+  private static final int FRAGMENT_TYPE = FrameType.PAYLOAD.getEncodedType();
+
+  private final DuplexConnection connection;
+  private final ByteBufAllocator allocator;
+  private final int mtu;
+  private final int maxFrameLength;
+
+  // outbound state, guarded by this object's monitor
+  private final Map<Integer, OutboundStream> streams = new HashMap<>();
+  private final Queue<OutboundStream> turns = new ArrayDeque<>();
+  private FluxSink<Frame> outbound;
+  private boolean draining;
+  private boolean closed;
+
+  // inbound state, accessed by the only subscriber of received frames
+  private final Map<Integer, CompositeByteBuf> reassemblies = new HashMap<>();
+
+  /**
+   * Creates connection and starts sending fragments to underlying connection.
+   *
+   * @param connection underlying connection
+   * @param config transport config
+   * @param allocator allocator of fragments and reassembled frames
+   */
+  FragmentingDuplexConnection(
+      DuplexConnection connection, RSocketTransportConfig config, ByteBufAllocator allocator) {
+    this.connection = connection;
+    this.allocator = allocator;
+    this.mtu = config.fragmentMtu();
+    this.maxFrameLength = config.fragmentMaxFrameLength();
+
+    connection
+        .send(Flux.create(this::onOutbound))
+        .subscribe(
+            null,
+            ex -> {
+              LOGGER.warn("Failed to send fragments, cause: {}", ex.toString());
+              connection.dispose();
+            });
+    connection.onClose().doFinally(s -> releaseQueued()).subscribe();
+  }
+
+  /**
+   * Wraps connections of given client transport in fragmenting connections.
+   *
+   * @param transport client transport
+   * @param config transport config
+   * @param allocator allocator of fragments and reassembled frames
+   * @return client transport
+   */
+  static ClientTransport wrap(
+      ClientTransport transport, RSocketTransportConfig config, ByteBufAllocator allocator) {
+    return () ->
+        transport
+            .connect()
+            .map(connection -> new FragmentingDuplexConnection(connection, config, allocator));
+  }
+
+  /**
+   * Wraps connections accepted by given server transport in fragmenting connections.
+   *
+   * @param transport server transport
+   * @param config transport config
+   * @param allocator allocator of fragments and reassembled frames
+   * @param <T> type of server closeable
+   * @return server transport
+   */
+  static <T extends Closeable> ServerTransport<T> wrap(
+      ServerTransport<T> transport, RSocketTransportConfig config, ByteBufAllocator allocator) {
+    return acceptor ->
+        transport.start(
+            connection ->
+                acceptor.apply(new FragmentingDuplexConnection(connection, config, allocator)));
+  }
+
+  @Override
+  public Mono<Void> send(Publisher<Frame> frames) {
+    return Flux.from(frames).doOnNext(this::enqueue).then();
+  }
+
+  @Override
+  public Flux<Frame> receive() {
+    return connection
+        .receive()
+        .<Frame>handle(this::reassemble)
+        .doFinally(s -> reassemblies.values().forEach(ByteBuf::release));
+  }
+
+  @Override
+  public double availability() {
+    return connection.availability();
+  }
+
+  @Override
+  public Mono<Void> onClose() {
+    return connection.onClose();
+  }
+
+  @Override
+  public void dispose() {
+    connection.dispose();
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return connection.isDisposed();
+  }
+
+  private synchronized void onOutbound(FluxSink<Frame> sink) {
+    outbound = sink;
+    sink.onRequest(n -> drain());
+  }
+
+  private synchronized void enqueue(Frame frame) {
+    if (closed) {
+      frame.release();
+      return;
+    }
+    int streamId = frame.getStreamId();
+    OutboundStream stream = streams.get(streamId);
+    if (stream == null) {
+      stream = new OutboundStream(streamId);
+      streams.put(streamId, stream);
+      turns.add(stream);
+    }
+    stream.frames.add(frame);
+    drain();
+  }
+
+  private synchronized void drain() {
+    if (draining || outbound == null) {
+      return;
+    }
+    draining = true;
+    try {
+      while (!closed && !turns.isEmpty() && outbound.requestedFromDownstream() > 0) {
+        OutboundStream stream = turns.poll();
+        Frame fragment = stream.nextFragment();
+        if (stream.frames.isEmpty()) {
+          streams.remove(stream.streamId);
+        } else {
+          turns.add(stream);
+        }
+        outbound.next(fragment);
+      }
+    } finally {
+      draining = false;
+    }
+  }
+
+  private synchronized void releaseQueued() {
+    closed = true;
+    streams.values().forEach(stream -> stream.frames.forEach(Frame::release));
+    streams.clear();
+    turns.clear();
+    if (outbound != null) {
+      outbound.complete();
+    }
+  }
+
+  private void reassemble(Frame frame, SynchronousSink<Frame> sink) {
+    ByteBuf content = frame.content();
+    int typeAndFlags = content.getUnsignedShort(content.readerIndex() + TYPE_AND_FLAGS_OFFSET);
+    if (typeAndFlags >>> TYPE_SHIFT != FRAGMENT_TYPE || (typeAndFlags & (FLAGS_N | FLAGS_C)) != 0) {
+      sink.next(frame);
+      return;
+    }
+
+    int streamId = frame.getStreamId();
+    CompositeByteBuf composite = reassemblies.get(streamId);
+    if (composite == null) {
+      composite = allocator.compositeBuffer(Integer.MAX_VALUE);
+      reassemblies.put(streamId, composite);
+    }
+    int length = content.readableBytes() - FRAME_HEADER_LENGTH;
+    if (composite.readableBytes() + length > maxFrameLength) {
+      LOGGER.warn(
+          "Closing connection, reassembled frame of stream {} exceeds max length {}",
+          streamId,
+          maxFrameLength);
+      reassemblies.remove(streamId).release();
+      frame.release();
+      connection.dispose();
+      return;
+    }
+    composite.addComponent(
+        true, content.retainedSlice(content.readerIndex() + FRAME_HEADER_LENGTH, length));
+    frame.release();
+
+    if ((typeAndFlags & FLAGS_F) == 0) {
+      reassemblies.remove(streamId);
+      sink.next(Frame.from(composite));
+    }
+  }
+
+  /** Queued frames of one stream, the first of which may be partially sent. */
+  private final class OutboundStream {
+
+    private final int streamId;
+    private final Queue<Frame> frames = new ArrayDeque<>();
+    private int offset; // sent bytes of the first frame
+
+    private OutboundStream(int streamId) {
+      this.streamId = streamId;
+    }
+
+    private Frame nextFragment() {
+      Frame frame = frames.peek();
+      ByteBuf content = frame.content();
+      int remaining = content.readableBytes() - offset;
+      if (offset == 0 && remaining <= mtu) {
+        return frames.poll(); // small enough
+      }
+
+      int length = Math.min(remaining, mtu - FRAME_HEADER_LENGTH);
+      boolean follows = length < remaining;
+      ByteBuf header =
+          allocator
+              .buffer(FRAME_HEADER_LENGTH)
+              .writeMedium(FRAME_HEADER_LENGTH - FRAME_LENGTH_SIZE + length)
+              .writeInt(streamId)
+              .writeShort(FRAGMENT_TYPE << TYPE_SHIFT | (follows ? FLAGS_F : 0));
+      ByteBuf data = content.retainedSlice(content.readerIndex() + offset, length);
+      CompositeByteBuf fragment = allocator.compositeBuffer(2).addComponents(true, header, data);
+
+      if (follows) {
+        offset += length;
+      } else {
+        offset = 0;
+        frames.poll().release();
+      }
+      return Frame.from(fragment);
+    }
+  }
+}
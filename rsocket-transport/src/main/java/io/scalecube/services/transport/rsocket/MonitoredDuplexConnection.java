@@ -0,0 +1,209 @@
+package io.scalecube.services.transport.rsocket;
+
+import static io.rsocket.frame.FrameHeaderFlyweight.FLAGS_C;
+import static io.rsocket.frame.FrameHeaderFlyweight.FLAGS_N;
+
+import io.rsocket.DuplexConnection;
+import io.rsocket.Frame;
+import io.rsocket.framing.FrameType;
+import java.util.HashMap;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Connection which inspects frames it sends and receives to keep track of outstanding requests,
+ * i.e. streams which are open in either direction, and of request-n credits of these streams.
+ * Inbound credits are payloads the other side may still send to this one, outbound credits are
+ * payloads this side may still send. Credits of {@link Integer#MAX_VALUE} mean unbounded demand.
+ */
+final class MonitoredDuplexConnection implements DuplexConnection {
+
+  private static final long UNBOUNDED = Integer.MAX_VALUE;
+
+  private final DuplexConnection connection;
+
+  // guarded by this object's monitor, frames are sent and received on different threads
+  private final Map<Integer, Stream> streams = new HashMap<>();
+
+  MonitoredDuplexConnection(DuplexConnection connection) {
+    this.connection = connection;
+    connection.onClose().doFinally(s -> clear()).subscribe();
+  }
+
+  @Override
+  public Mono<Void> send(Publisher<Frame> frames) {
+    return connection.send(Flux.from(frames).doOnNext(frame -> onFrame(frame, true)));
+  }
+
+  @Override
+  public Flux<Frame> receive() {
+    return connection.receive().doOnNext(frame -> onFrame(frame, false));
+  }
+
+  @Override
+  public double availability() {
+    return connection.availability();
+  }
+
+  @Override
+  public Mono<Void> onClose() {
+    return connection.onClose();
+  }
+
+  @Override
+  public void dispose() {
+    connection.dispose();
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return connection.isDisposed();
+  }
+
+  /**
+   * Returns number of streams which are open in either direction.
+   *
+   * @return number of outstanding requests
+   */
+  synchronized int outstandingRequests() {
+    return streams.size();
+  }
+
+  /**
+   * Returns sum of credits of open streams which this side granted to the other one.
+   *
+   * @return inbound credits, at most {@link Integer#MAX_VALUE}
+   */
+  synchronized long inboundCredits() {
+    long credits = 0;
+    for (Stream stream : streams.values()) {
+      credits = Math.min(UNBOUNDED, credits + stream.inboundCredits);
+    }
+    return credits;
+  }
+
+  /**
+   * Returns sum of credits of open streams which the other side granted to this one.
+   *
+   * @return outbound credits, at most {@link Integer#MAX_VALUE}
+   */
+  synchronized long outboundCredits() {
+    long credits = 0;
+    for (Stream stream : streams.values()) {
+      credits = Math.min(UNBOUNDED, credits + stream.outboundCredits);
+    }
+    return credits;
+  }
+
+  private synchronized void onFrame(Frame frame, boolean outbound) {
+    int streamId = frame.getStreamId();
+    if (streamId == 0) {
+      return; // connection frames
+    }
+    FrameType type = frame.getType();
+    switch (type) {
+      case REQUEST_RESPONSE:
+        open(streamId, outbound, 1, true);
+        break;
+      case REQUEST_STREAM:
+        open(streamId, outbound, Frame.Request.initialRequestN(frame), true);
+        break;
+      case REQUEST_CHANNEL:
+        open(
+            streamId,
+            outbound,
+            Frame.Request.initialRequestN(frame),
+            Frame.Request.isRequestChannelComplete(frame));
+        break;
+      case REQUEST_N:
+        Stream stream = streams.get(streamId);
+        if (stream != null) {
+          stream.grant(outbound, Frame.RequestN.requestN(frame));
+        }
+        break;
+      case CANCEL:
+      case ERROR:
+        streams.remove(streamId);
+        break;
+      case PAYLOAD:
+      case NEXT:
+      case COMPLETE:
+      case NEXT_COMPLETE:
+        onPayload(streamId, type, frame.flags(), outbound);
+        break;
+      default:
+        // other frames don't affect streams
+    }
+  }
+
+  private void open(int streamId, boolean outbound, int initialRequestN, boolean requesterDone) {
+    Stream stream = new Stream(outbound, requesterDone);
+    // request grants credits to responder, i.e. to the other side of requester
+    stream.grant(outbound, initialRequestN);
+    streams.put(streamId, stream);
+  }
+
+  private void onPayload(int streamId, FrameType type, int flags, boolean outbound) {
+    Stream stream = streams.get(streamId);
+    if (stream == null) {
+      return;
+    }
+    if (type == FrameType.NEXT
+        || type == FrameType.NEXT_COMPLETE
+        || Frame.isFlagSet(flags, FLAGS_N)) {
+      stream.consume(outbound);
+    }
+    if (type == FrameType.COMPLETE
+        || type == FrameType.NEXT_COMPLETE
+        || Frame.isFlagSet(flags, FLAGS_C)) {
+      if (stream.localRequester == outbound) {
+        stream.requesterDone = true;
+      } else {
+        stream.responderDone = true;
+      }
+      if (stream.requesterDone && stream.responderDone) {
+        streams.remove(streamId);
+      }
+    }
+  }
+
+  private synchronized void clear() {
+    streams.clear();
+  }
+
+  private static final class Stream {
+
+    private final boolean localRequester;
+    private boolean requesterDone;
+    private boolean responderDone;
+    private long inboundCredits;
+    private long outboundCredits;
+
+    private Stream(boolean localRequester, boolean requesterDone) {
+      this.localRequester = localRequester;
+      this.requesterDone = requesterDone;
+    }
+
+    private void grant(boolean byLocal, int n) {
+      if (byLocal) {
+        inboundCredits = Math.min(UNBOUNDED, inboundCredits + n);
+      } else {
+        outboundCredits = Math.min(UNBOUNDED, outboundCredits + n);
+      }
+    }
+
+    private void consume(boolean byLocal) {
+      if (byLocal) {
+        if (outboundCredits > 0 && outboundCredits < UNBOUNDED) {
+          outboundCredits--;
+        }
+      } else {
+        if (inboundCredits > 0 && inboundCredits < UNBOUNDED) {
+          inboundCredits--;
+        }
+      }
+    }
+  }
+}
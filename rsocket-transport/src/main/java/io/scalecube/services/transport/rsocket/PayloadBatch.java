@@ -0,0 +1,149 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.rsocket.Payload;
+import io.rsocket.util.ByteBufPayload;
+import io.scalecube.services.api.ServiceMessage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs several request-response payloads (or their replies) into data of a single frame.
+ *
+ * <p>Each payload is written as {@code [int metadataLength][metadata][int dataLength][data]}.
+ * Missing payload (empty reply) is written as {@code [-1]}. Batch frame is marked by {@link
+ * #HEADER_MESSAGE_BATCH} header holding the number of payloads. It is sent as request-stream, and
+ * each reply is streamed back as soon as it is ready, packed alone into frame which {@link
+ * #HEADER_MESSAGE_BATCH_INDEX} header holds index of its request in the batch, so that slow
+ * request doesn't hold back replies of others.
+ *
+ * <p>Servers which accept batches advertise {@link #HEADER_MESSAGE_BATCH} in endpoint metadata
+ * (see {@link #isSupported(Map)}).
+ *
+ * <p>Batch frame takes one lease permit at client, while server counts each request of batch as
+ * in progress when it issues leases (see {@link RSocketLeaseIssuer}).
+ */
+final class PayloadBatch {
+
+  static final String HEADER_MESSAGE_BATCH = "_message_batch";
+  static final String HEADER_MESSAGE_BATCH_INDEX = "_message_batch_index";
+
+  /** Endpoint metadata of server which accepts batches. */
+  static final Map<String, String> ENDPOINT_METADATA =
+      Collections.singletonMap(HEADER_MESSAGE_BATCH, Boolean.TRUE.toString());
+
+  private static final int EMPTY = -1;
+
+  private PayloadBatch() {
+    // Do not instantiate
+  }
+
+  static boolean isBatch(ServiceMessage message) {
+    return message.header(HEADER_MESSAGE_BATCH) != null;
+  }
+
+  /**
+   * Checks whether server accepts batches.
+   *
+   * @param endpointMetadata endpoint metadata of server
+   * @return true if server advertises batches
+   */
+  static boolean isSupported(Map<String, String> endpointMetadata) {
+    return Boolean.parseBoolean(endpointMetadata.get(HEADER_MESSAGE_BATCH));
+  }
+
+  /**
+   * Packs payloads into new buffer. Payloads are released.
+   *
+   * @param allocator allocator of the buffer
+   * @param payloads payloads to pack, null element stands for empty reply
+   * @return buffer with packed payloads
+   */
+  static ByteBuf pack(ByteBufAllocator allocator, List<Payload> payloads) {
+    int capacity = 0;
+    for (Payload payload : payloads) {
+      capacity += 4;
+      if (payload != null) {
+        capacity += 4 + payload.sliceMetadata().readableBytes();
+        capacity += payload.sliceData().readableBytes();
+      }
+    }
+    ByteBuf buffer = allocator.buffer(capacity);
+    for (Payload payload : payloads) {
+      if (payload == null) {
+        buffer.writeInt(EMPTY);
+        continue;
+      }
+      try {
+        ByteBuf metadata = payload.sliceMetadata();
+        buffer.writeInt(metadata.readableBytes()).writeBytes(metadata);
+        ByteBuf data = payload.sliceData();
+        buffer.writeInt(data.readableBytes()).writeBytes(data);
+      } finally {
+        payload.release();
+      }
+    }
+    return buffer;
+  }
+
+  /**
+   * Unpacks payloads from the buffer. Returned payloads hold retained slices of the buffer, the
+   * buffer itself is neither modified nor released.
+   *
+   * @param buffer buffer with packed payloads
+   * @return payloads, null element stands for empty reply
+   * @throws IllegalArgumentException if a length doesn't fit into the buffer, payloads unpacked by
+   *     then are released
+   */
+  static List<Payload> unpack(ByteBuf buffer) {
+    List<Payload> payloads = new ArrayList<>();
+    try {
+      int index = buffer.readerIndex();
+      int end = buffer.writerIndex();
+      while (index < end) {
+        int metadataLength = getLength(buffer, index, end);
+        index += 4;
+        if (metadataLength == EMPTY) {
+          payloads.add(null);
+          continue;
+        }
+        checkLength(metadataLength, index, end);
+        final int metadataIndex = index;
+        index += metadataLength;
+        int dataLength = getLength(buffer, index, end);
+        index += 4;
+        checkLength(dataLength, index, end);
+        payloads.add(
+            ByteBufPayload.create(
+                buffer.retainedSlice(index, dataLength),
+                buffer.retainedSlice(metadataIndex, metadataLength)));
+        index += dataLength;
+      }
+      return payloads;
+    } catch (RuntimeException ex) {
+      for (Payload payload : payloads) {
+        if (payload != null) {
+          payload.release();
+        }
+      }
+      throw ex;
+    }
+  }
+
+  private static int getLength(ByteBuf buffer, int index, int end) {
+    if (end - index < 4) {
+      throw new IllegalArgumentException("Malformed batch: truncated length at " + index);
+    }
+    return buffer.getInt(index);
+  }
+
+  private static void checkLength(int length, int index, int end) {
+    if (length < 0 || length > end - index) {
+      throw new IllegalArgumentException(
+          "Malformed batch: length " + length + " at " + index + " exceeds " + (end - index));
+    }
+  }
+}
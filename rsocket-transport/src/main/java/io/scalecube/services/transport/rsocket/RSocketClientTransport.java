@@ -1,19 +1,28 @@
 package io.scalecube.services.transport.rsocket;
 
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.rsocket.RSocket;
 import io.rsocket.RSocketFactory;
 import io.rsocket.transport.netty.client.TcpClientTransport;
 import io.rsocket.util.ByteBufPayload;
+import io.scalecube.services.ServiceEndpoint;
+import io.scalecube.services.ServiceReference;
 import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.jfr.ServiceEvents;
+import io.scalecube.services.metrics.GaugeMetrics;
 import io.scalecube.services.transport.api.ClientChannel;
 import io.scalecube.services.transport.api.ClientTransport;
 import io.scalecube.transport.Address;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.ipc.netty.tcp.TcpClient;
 
 public class RSocketClientTransport implements ClientTransport {
@@ -23,53 +32,339 @@ public class RSocketClientTransport implements ClientTransport {
   private final ThreadLocal<Map<Address, Mono<RSocket>>> rsockets =
       ThreadLocal.withInitial(ConcurrentHashMap::new);
 
+  private final ThreadLocal<Map<String, Mono<RSocket>>> domainSocketRSockets =
+      ThreadLocal.withInitial(ConcurrentHashMap::new);
+
+  // leases of connections of all threads, by remote address
+  private final Map<Address, Set<RSocketLease>> leases = new ConcurrentHashMap<>();
+
+  // batchers by remote address, removed once all connections to the address are closed
+  private final Map<Address, RSocketRequestBatcher> batchers = new ConcurrentHashMap<>();
+  private final LongAdder sentBatches = new LongAdder();
+  private final LongAdder batchedRequests = new LongAdder();
+
+  // connections of all threads, by remote address
+  private final Map<Address, Set<RSocket>> connections = new ConcurrentHashMap<>();
+
+  // discovered nodes which connections aren't warmed up yet
+  private final Set<Address> warmingUp = ConcurrentHashMap.newKeySet();
+
+  // unix domain sockets which failed to connect, their nodes are reached over tcp from then on
+  private final Set<String> unreachableDomainSockets = ConcurrentHashMap.newKeySet();
+
   private final ServiceMessageCodec codec;
   private final EventLoopGroup eventLoopGroup;
+  private final EventLoopGroup warmUpGroup;
+  private final RSocketTransportConfig config;
+  private final TransportGauges gauges; // null if gauges aren't published
 
   public RSocketClientTransport(ServiceMessageCodec codec, EventLoopGroup eventLoopGroup) {
+    this(codec, eventLoopGroup, RSocketTransportConfig.builder().build());
+  }
+
+  /**
+   * Creates client transport.
+   *
+   * @param codec message codec
+   * @param eventLoopGroup event loop group for connections
+   * @param config transport config
+   */
+  public RSocketClientTransport(
+      ServiceMessageCodec codec, EventLoopGroup eventLoopGroup, RSocketTransportConfig config) {
+    this(codec, eventLoopGroup, eventLoopGroup, config);
+  }
+
+  /**
+   * Creates client transport.
+   *
+   * @param codec message codec
+   * @param eventLoopGroup event loop group for connections
+   * @param warmUpGroup event loop group which threads send requests; since connections are owned
+   *     by thread, they are warmed up from each of its event loops (see {@link
+   *     RSocketTransportConfig#warmUpConnections()})
+   * @param config transport config
+   */
+  public RSocketClientTransport(
+      ServiceMessageCodec codec,
+      EventLoopGroup eventLoopGroup,
+      EventLoopGroup warmUpGroup,
+      RSocketTransportConfig config) {
+    this(codec, eventLoopGroup, warmUpGroup, config, GaugeMetrics.NOOP);
+  }
+
+  /**
+   * Creates client transport which publishes gauges of its connections (see {@link
+   * TransportGauges}), named after this class and unique instance id.
+   *
+   * @param codec message codec
+   * @param eventLoopGroup event loop group for connections
+   * @param warmUpGroup event loop group which threads send requests
+   * @param config transport config
+   * @param gauges gauge metrics
+   */
+  public RSocketClientTransport(
+      ServiceMessageCodec codec,
+      EventLoopGroup eventLoopGroup,
+      EventLoopGroup warmUpGroup,
+      RSocketTransportConfig config,
+      GaugeMetrics gauges) {
+    this(codec, eventLoopGroup, warmUpGroup, config, gauges, null);
+  }
+
+  /**
+   * Creates client transport which publishes gauges of its connections (see {@link
+   * TransportGauges}), named with given prefix.
+   *
+   * @param codec message codec
+   * @param eventLoopGroup event loop group for connections
+   * @param warmUpGroup event loop group which threads send requests
+   * @param config transport config
+   * @param gauges gauge metrics
+   * @param gaugePrefix prefix of gauge names, null for class name and unique instance id
+   */
+  public RSocketClientTransport(
+      ServiceMessageCodec codec,
+      EventLoopGroup eventLoopGroup,
+      EventLoopGroup warmUpGroup,
+      RSocketTransportConfig config,
+      GaugeMetrics gauges,
+      String gaugePrefix) {
     this.codec = codec;
     this.eventLoopGroup = eventLoopGroup;
+    this.warmUpGroup = warmUpGroup;
+    this.config = config;
+    this.gauges =
+        gauges != GaugeMetrics.NOOP
+            ? new TransportGauges(
+                gauges,
+                gaugePrefix != null
+                    ? gaugePrefix
+                    : TransportGauges.instancePrefix(RSocketClientTransport.class))
+            : null;
+    if (this.gauges != null) {
+      this.gauges.gauge(TransportGauges.BATCHES, sentBatches::sum);
+      this.gauges.gauge(TransportGauges.BATCHED_REQUESTS, batchedRequests::sum);
+    }
   }
 
   @Override
   public ClientChannel create(Address address) {
-    final Map<Address, Mono<RSocket>> monoMap = rsockets.get(); // keep reference for threadsafety
-    Mono<RSocket> rsocket =
-        monoMap.computeIfAbsent(address, address1 -> connect(address1, monoMap));
+    return new RSocketServiceClientAdapter(rsocket(address, null), codec);
+  }
+
+  @Override
+  public ClientChannel create(ServiceReference reference) {
+    Address address = reference.address();
+    String domainSocketPath =
+        domainSocketPath(reference.host(), reference.endpointMetadata());
+    Mono<RSocket> rsocket = rsocket(address, domainSocketPath);
+    // batches are sent only to servers which advertise that they accept them
+    if (config.isBatchingEnabled() && PayloadBatch.isSupported(reference.endpointMetadata())) {
+      RSocketRequestBatcher batcher =
+          batchers.computeIfAbsent(address, address1 -> createBatcher(address1, domainSocketPath));
+      return new RSocketServiceClientAdapter(rsocket, codec, batcher);
+    }
     return new RSocketServiceClientAdapter(rsocket, codec);
   }
 
-  private Mono<RSocket> connect(Address address, Map<Address, Mono<RSocket>> monoMap) {
-    TcpClient tcpClient =
-        TcpClient.create(
-            options ->
-                options
-                    .disablePool()
-                    .eventLoopGroup(eventLoopGroup)
-                    .host(address.host())
-                    .port(address.port()));
+  @Override
+  public Mono<Void> warmUp(ServiceEndpoint endpoint) {
+    if (!config.warmUpConnections()) {
+      return Mono.empty();
+    }
+    Address address = Address.create(endpoint.host(), endpoint.port());
+    String domainSocketPath = domainSocketPath(endpoint.host(), endpoint.metadata());
+    warmingUp.add(address);
+    // connect on each event loop, so that connections get into their thread local pools
+    return Flux.fromIterable(warmUpGroup)
+        .flatMap(
+            executor ->
+                Mono.defer(() -> rsocket(address, domainSocketPath))
+                    .subscribeOn(Schedulers.fromExecutor(executor)))
+        .then()
+        .doOnSuccess(avoid -> LOGGER.debug("Warmed up connections to {}", address))
+        .doOnError(ex -> LOGGER.warn("Failed to warm up connections to {}: {}", address, ex))
+        .doOnTerminate(() -> warmingUp.remove(address))
+        .doOnCancel(() -> warmingUp.remove(address));
+  }
 
-    TcpClientTransport tcpClientTransport = TcpClientTransport.create(tcpClient);
+  @Override
+  public Mono<Void> tearDown(ServiceEndpoint endpoint) {
+    String domainSocketPath = endpoint.metadata().get(UnixDomainSockets.ENDPOINT_METADATA);
+    if (domainSocketPath != null) {
+      unreachableDomainSockets.remove(domainSocketPath);
+    }
+    // connections are opened on demand too, so they are released whether warm up is on or not
+    Address address = Address.create(endpoint.host(), endpoint.port());
+    warmingUp.remove(address);
+    batchers.remove(address);
+    Set<RSocket> addressConnections = connections.remove(address);
+    if (addressConnections == null) {
+      return Mono.empty();
+    }
+    return Flux.fromIterable(addressConnections)
+        .flatMap(
+            rsocket -> {
+              rsocket.dispose();
+              return rsocket.onClose();
+            })
+        .then()
+        .doOnSuccess(avoid -> LOGGER.debug("Closed connections to {}", address));
+  }
+
+  /**
+   * Removes gauges of this transport, called once its event loops are shut down, as client
+   * transport has no stop of its own.
+   */
+  void removeGauges() {
+    if (gauges != null) {
+      gauges.removeAll();
+    }
+  }
+
+  private String domainSocketPath(String host, Map<String, String> endpointMetadata) {
+    if (config.preferUnixDomainSocket() && UnixDomainSockets.isSupported(eventLoopGroup)) {
+      return UnixDomainSockets.localSocketPath(host, endpointMetadata);
+    }
+    return null;
+  }
+
+  private Mono<RSocket> rsocket(Address address, String domainSocketPath) {
+    if (domainSocketPath == null || unreachableDomainSockets.contains(domainSocketPath)) {
+      final Map<Address, Mono<RSocket>> monoMap = rsockets.get(); // keep reference for threadsafety
+      return monoMap.computeIfAbsent(
+          address, address1 -> connect(address1, tcpClient(address1), monoMap, address1));
+    }
+    final Map<String, Mono<RSocket>> monoMap = domainSocketRSockets.get();
+    return monoMap
+        .computeIfAbsent(
+            domainSocketPath, path -> connect(path, domainSocketClient(path), monoMap, address))
+        .onErrorResume(
+            throwable -> {
+              // fallback to tcp, once for all
+              if (unreachableDomainSockets.add(domainSocketPath)) {
+                LOGGER.warn(
+                    "Unix domain socket {} is unreachable, using tcp to {} instead",
+                    domainSocketPath,
+                    address);
+              }
+              return rsocket(address, null);
+            });
+  }
+
+  private RSocketRequestBatcher createBatcher(Address address, String domainSocketPath) {
+    // batches are sent from batcher's event loop, so over connection owned by that thread
+    return new RSocketRequestBatcher(
+        config,
+        eventLoopGroup.next(),
+        codec,
+        Mono.defer(() -> rsocket(address, domainSocketPath)),
+        this::onBatchSent);
+  }
+
+  private void onBatchSent(int requests) {
+    sentBatches.increment();
+    batchedRequests.add(requests);
+  }
+
+  private TcpClient tcpClient(Address address) {
+    return TcpClient.create(
+        options -> {
+          options
+              .disablePool()
+              .eventLoopGroup(eventLoopGroup)
+              .host(address.host())
+              .port(address.port());
+          if (gauges != null) {
+            options.afterNettyContextInit(gauges::onChannelActive);
+          }
+          TcpChannelOptions.apply(options, config, codec.allocator());
+        });
+  }
 
+  private TcpClient domainSocketClient(String path) {
+    return UnixDomainSockets.tcpClient(
+        eventLoopGroup,
+        options -> {
+          options.disablePool().connectAddress(() -> new DomainSocketAddress(path));
+          if (gauges != null) {
+            options.afterNettyContextInit(gauges::onChannelActive);
+          }
+          TcpChannelOptions.applyDomainSocket(options, config, codec.allocator());
+        });
+  }
+
+  @Override
+  public double availability(ServiceReference reference) {
+    if (!warmingUp.isEmpty() && warmingUp.contains(reference.address())) {
+      return 0.0; // not ready until connected
+    }
+    Set<RSocketLease> addressLeases = leases.get(reference.address());
+    return addressLeases != null ? RSocketLease.availability(addressLeases) : 1.0;
+  }
+
+  private <K> Mono<RSocket> connect(
+      K address, TcpClient tcpClient, Map<K, Mono<RSocket>> monoMap, Address remoteAddress) {
+    io.rsocket.transport.ClientTransport clientTransport = TcpClientTransport.create(tcpClient);
+    if (config.isFragmentationEnabled()) {
+      clientTransport =
+          FragmentingDuplexConnection.wrap(clientTransport, config, codec.allocator());
+    }
+    if (config.isResumeEnabled()) {
+      clientTransport = new ResumableClientTransport(clientTransport, eventLoopGroup, config);
+    }
+    if (gauges != null) {
+      clientTransport = gauges.wrap(clientTransport);
+    }
+
+    // lease is honored if server issues it
+    RSocketLease lease = new RSocketLease();
+    leases.compute(
+        remoteAddress,
+        (address1, set) -> {
+          Set<RSocketLease> result = set != null ? set : ConcurrentHashMap.newKeySet();
+          result.add(lease);
+          return result;
+        });
     Mono<RSocket> rsocketMono =
         RSocketFactory.connect()
             .frameDecoder(
                 frame ->
                     ByteBufPayload.create(
                         frame.sliceData().retain(), frame.sliceMetadata().retain()))
-            .transport(tcpClientTransport)
-            .start();
+            .acceptor(rsocket -> lease.responder(codec))
+            .transport(clientTransport)
+            .start()
+            .map(lease::wrap);
 
-    return rsocketMono
+    return ServiceEvents.connection(String.valueOf(address), rsocketMono, RSocket::onClose)
         .doOnSuccess(
             rsocket -> {
               LOGGER.info("Connected successfully on {}", address);
+              connections.compute(
+                  remoteAddress,
+                  (address1, set) -> {
+                    Set<RSocket> result = set != null ? set : ConcurrentHashMap.newKeySet();
+                    result.add(rsocket);
+                    return result;
+                  });
               // setup shutdown hook
               rsocket
                   .onClose()
                   .doOnTerminate(
                       () -> {
                         monoMap.remove(address);
+                        removeLease(remoteAddress, lease);
+                        connections.computeIfPresent(
+                            remoteAddress,
+                            (address1, set) -> {
+                              set.remove(rsocket);
+                              if (!set.isEmpty()) {
+                                return set;
+                              }
+                              batchers.remove(remoteAddress);
+                              return null;
+                            });
                         LOGGER.info("Connection closed on {} and removed from the pool", address);
                       })
                   .subscribe();
@@ -78,7 +373,17 @@ public class RSocketClientTransport implements ClientTransport {
             throwable -> {
               LOGGER.warn("Connect failed on {}, cause: {}", address, throwable);
               monoMap.remove(address);
+              removeLease(remoteAddress, lease);
             })
         .cache();
   }
+
+  private void removeLease(Address address, RSocketLease lease) {
+    leases.computeIfPresent(
+        address,
+        (address1, set) -> {
+          set.remove(lease);
+          return set.isEmpty() ? null : set;
+        });
+  }
 }
@@ -0,0 +1,207 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.ByteBufPayload;
+import io.rsocket.util.RSocketProxy;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.exceptions.ServiceUnavailableException;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lease of client connection: number of requests which server allows client to send until lease
+ * expires. Server sends leases as fire-and-forget requests to client. Connection of server which
+ * hasn't sent any lease isn't limited.
+ *
+ * <p>RSocket lease frames aren't used since rsocket-java of this version doesn't implement lease
+ * semantics.
+ */
+final class RSocketLease {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RSocketLease.class);
+
+  static final String QUALIFIER = "io.scalecube.services.transport/lease";
+  static final String HEADER_PERMITS = "_lease_permits";
+  static final String HEADER_TIME_TO_LIVE = "_lease_ttl";
+
+  private final AtomicInteger permits = new AtomicInteger();
+  private volatile int issuedPermits = -1; // no lease received
+  private volatile long expiresAt;
+
+  /**
+   * Creates lease payload.
+   *
+   * @param codec message codec
+   * @param permits number of allowed requests
+   * @param timeToLiveMillis lease time to live
+   * @return payload
+   */
+  static Payload toPayload(ServiceMessageCodec codec, int permits, long timeToLiveMillis) {
+    ServiceMessage message =
+        ServiceMessage.builder()
+            .qualifier(QUALIFIER)
+            .header(HEADER_PERMITS, String.valueOf(permits))
+            .header(HEADER_TIME_TO_LIVE, String.valueOf(timeToLiveMillis))
+            .build();
+    return codec.encodeAndTransform(message, ByteBufPayload::create);
+  }
+
+  /**
+   * Replaces current lease.
+   *
+   * @param permits number of allowed requests
+   * @param timeToLiveMillis lease time to live
+   */
+  void update(int permits, long timeToLiveMillis) {
+    this.permits.set(permits);
+    this.expiresAt = System.currentTimeMillis() + timeToLiveMillis;
+    this.issuedPermits = permits;
+  }
+
+  /**
+   * Takes one permit of current lease.
+   *
+   * @return true if request may be sent
+   */
+  boolean tryAcquire() {
+    if (issuedPermits < 0) {
+      return true;
+    }
+    if (System.currentTimeMillis() >= expiresAt) {
+      return false;
+    }
+    int current;
+    do {
+      current = permits.get();
+      if (current <= 0) {
+        return false;
+      }
+    } while (!permits.compareAndSet(current, current - 1));
+    return true;
+  }
+
+  /**
+   * Returns share of permits of current lease left, 1.0 when server issues no leases.
+   *
+   * @return availability
+   */
+  double availability() {
+    int issued = issuedPermits;
+    if (issued < 0) {
+      return 1.0;
+    }
+    if (issued == 0 || System.currentTimeMillis() >= expiresAt) {
+      return 0.0;
+    }
+    return Math.max(0, permits.get()) / (double) issued;
+  }
+
+  /**
+   * Returns share of permits left over leases of all connections to the same server, so that it
+   * doesn't depend on which thread's connection is asked. 1.0 if some connection isn't limited.
+   *
+   * @param leases leases of connections to the server
+   * @return availability
+   */
+  static double availability(Collection<RSocketLease> leases) {
+    long now = System.currentTimeMillis();
+    long issued = 0;
+    long left = 0;
+    for (RSocketLease lease : leases) {
+      int leaseIssued = lease.issuedPermits;
+      if (leaseIssued < 0) {
+        return 1.0;
+      }
+      issued += leaseIssued;
+      if (now < lease.expiresAt) {
+        left += Math.max(0, lease.permits.get());
+      }
+    }
+    if (issued == 0) {
+      return leases.isEmpty() ? 1.0 : 0.0;
+    }
+    return left / (double) issued;
+  }
+
+  /**
+   * Returns client side responder, which accepts leases sent by server.
+   *
+   * @param codec message codec
+   * @return responder
+   */
+  RSocket responder(ServiceMessageCodec codec) {
+    return new AbstractRSocket() {
+      @Override
+      public Mono<Void> fireAndForget(Payload payload) {
+        try {
+          ServiceMessage message = codec.decode(payload.sliceData(), payload.sliceMetadata());
+          if (message.hasData(ByteBuf.class)) {
+            ReferenceCountUtil.safeRelease(message.data());
+          }
+          if (QUALIFIER.equals(message.qualifier())) {
+            update(
+                Integer.parseInt(message.header(HEADER_PERMITS)),
+                Long.parseLong(message.header(HEADER_TIME_TO_LIVE)));
+          }
+        } catch (Exception ex) {
+          LOGGER.warn("Failed to accept lease, cause: {}", ex.toString());
+        }
+        return Mono.empty();
+      }
+    };
+  }
+
+  /**
+   * Wraps requester so that it sends requests only within lease.
+   *
+   * @param rsocket requester
+   * @return requester which honors lease
+   */
+  RSocket wrap(RSocket rsocket) {
+    return new RSocketProxy(rsocket) {
+      @Override
+      public Mono<Void> fireAndForget(Payload payload) {
+        return Mono.defer(() -> tryAcquire() ? source.fireAndForget(payload) : reject(payload));
+      }
+
+      @Override
+      public Mono<Payload> requestResponse(Payload payload) {
+        return Mono.defer(
+            () -> tryAcquire() ? source.requestResponse(payload) : reject(payload));
+      }
+
+      @Override
+      public Flux<Payload> requestStream(Payload payload) {
+        return Flux.defer(
+            () -> tryAcquire() ? source.requestStream(payload) : reject(payload));
+      }
+
+      @Override
+      public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+        return Flux.defer(() -> tryAcquire() ? source.requestChannel(payloads) : reject(null));
+      }
+
+      @Override
+      public double availability() {
+        return Math.min(super.availability(), RSocketLease.this.availability());
+      }
+    };
+  }
+
+  private static <T> Mono<T> reject(Payload payload) {
+    if (payload != null) {
+      ReferenceCountUtil.safeRelease(payload);
+    }
+    return Mono.error(new ServiceUnavailableException("Server didn't grant lease for request"));
+  }
+}
@@ -0,0 +1,227 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.RSocketProxy;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Issues leases to clients connected to server transport, twice per lease time to live. Number of
+ * requests allowed per time to live is reduced in proportion to server load and split between
+ * connections. Since new lease replaces previous one, each lease carries half of connection share,
+ * rounded up so that every connection may send a request unless server is fully loaded. Load is
+ * the larger of:
+ *
+ * <ul>
+ *   <li>event loop lag, measured by probe task submitted to each event loop of the worker group,
+ *       relative to lease time to live
+ *   <li>number of request-response calls in progress (which includes invocations queued for
+ *       event loop), relative to max number of requests per time to live
+ * </ul>
+ *
+ * <p>Each request of request-response batch (see {@link PayloadBatch}) is counted as in progress
+ * until its reply is sent, though client takes one permit per batch. Streams and channels are
+ * leased but not counted as in progress since they can be long lived while not loading server.
+ */
+final class RSocketLeaseIssuer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RSocketLeaseIssuer.class);
+
+  private final ServiceMessageCodec codec;
+  private final long timeToLiveMillis;
+  private final int maxRequests;
+  private final List<Probe> probes = new ArrayList<>();
+  private final Set<RSocket> connections = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile int permits;
+  private Disposable task;
+
+  RSocketLeaseIssuer(
+      ServiceMessageCodec codec, EventLoopGroup eventLoopGroup, RSocketTransportConfig config) {
+    this.codec = codec;
+    this.timeToLiveMillis = config.leaseTimeToLive().toMillis();
+    this.maxRequests = config.leaseMaxRequests();
+    this.permits = maxRequests;
+    for (EventExecutor executor : eventLoopGroup) {
+      probes.add(new Probe(executor));
+    }
+  }
+
+  /** Starts issuing leases. */
+  void start() {
+    long period = timeToLiveMillis / 2;
+    task =
+        Schedulers.parallel()
+            .schedulePeriodically(this::issueLeases, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops issuing leases. */
+  void stop() {
+    if (task != null) {
+      task.dispose();
+    }
+  }
+
+  /**
+   * Server responder interceptor, counts request-response calls in progress, including requests
+   * of batches.
+   *
+   * @param rsocket responder
+   * @return responder which counts calls
+   */
+  RSocket onResponder(RSocket rsocket) {
+    return new RSocketProxy(rsocket) {
+      @Override
+      public Mono<Payload> requestResponse(Payload payload) {
+        return Mono.defer(
+            () -> {
+              inFlight.incrementAndGet();
+              return source.requestResponse(payload).doFinally(s -> inFlight.decrementAndGet());
+            });
+      }
+
+      @Override
+      public Flux<Payload> requestStream(Payload payload) {
+        int batchSize = batchSize(payload);
+        if (batchSize == 0) {
+          return source.requestStream(payload);
+        }
+        return Flux.defer(
+            () -> {
+              // each reply of batch is sent in its own frame
+              AtomicInteger remaining = new AtomicInteger(batchSize);
+              inFlight.addAndGet(batchSize);
+              return source
+                  .requestStream(payload)
+                  .doOnNext(
+                      reply -> {
+                        if (remaining.getAndDecrement() > 0) {
+                          inFlight.decrementAndGet();
+                        }
+                      })
+                  .doFinally(s -> inFlight.addAndGet(-Math.max(0, remaining.getAndSet(0))));
+            });
+      }
+    };
+  }
+
+  private int batchSize(Payload payload) {
+    ByteBuf metadata = payload.sliceMetadata();
+    if (!metadata.isReadable()) {
+      return 0;
+    }
+    try {
+      // decode only headers (decoder releases them), payload itself is left for responder
+      ServiceMessage message = codec.decode(Unpooled.EMPTY_BUFFER, metadata.retain());
+      String batchSize = message.header(PayloadBatch.HEADER_MESSAGE_BATCH);
+      return batchSize != null ? Math.max(0, Integer.parseInt(batchSize)) : 0;
+    } catch (Exception ex) {
+      return 0;
+    }
+  }
+
+  /**
+   * Server requester interceptor, registers connection and sends it initial lease.
+   *
+   * @param rsocket requester of accepted connection
+   * @return the same requester
+   */
+  RSocket onRequester(RSocket rsocket) {
+    connections.add(rsocket);
+    rsocket.onClose().doFinally(s -> connections.remove(rsocket)).subscribe();
+    sendLease(rsocket, connectionPermits(connections.size()));
+    return rsocket;
+  }
+
+  private void issueLeases() {
+    try {
+      long now = System.nanoTime();
+      long maxLagNanos = 0;
+      for (Probe probe : probes) {
+        maxLagNanos = Math.max(maxLagNanos, probe.lag(now));
+        probe.submit(now);
+      }
+
+      double eventLoopLoad =
+          maxLagNanos / (double) TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+      double requestLoad = inFlight.get() / (double) maxRequests;
+      double load = Math.min(1.0, Math.max(eventLoopLoad, requestLoad));
+      permits = (int) (maxRequests * (1.0 - load));
+
+      int connectionCount = connections.size();
+      if (connectionCount > 0) {
+        int connectionPermits = connectionPermits(connectionCount);
+        for (RSocket connection : connections) {
+          sendLease(connection, connectionPermits);
+        }
+      }
+      if (load > 0.5) {
+        LOGGER.debug(
+            "Server load: {}, issued {} permits per {} ms", load, permits, timeToLiveMillis);
+      }
+    } catch (Exception ex) {
+      LOGGER.warn("Failed to issue leases, cause: {}", ex.toString());
+    }
+  }
+
+  private int connectionPermits(int connectionCount) {
+    // leases are issued twice per time to live, ceiling of permits / (2 * connections)
+    long leases = 2L * Math.max(1, connectionCount);
+    return (int) ((permits + leases - 1) / leases);
+  }
+
+  private void sendLease(RSocket connection, int connectionPermits) {
+    connection
+        .fireAndForget(RSocketLease.toPayload(codec, connectionPermits, timeToLiveMillis))
+        .subscribe(
+            null,
+            ex -> LOGGER.debug("Failed to send lease to {}, cause: {}", connection, ex.toString()));
+  }
+
+  /** Measures how long task submitted to event loop waits before it is run. */
+  private static final class Probe {
+
+    private final EventExecutor executor;
+    private final AtomicLong submittedAt = new AtomicLong(); // 0 when probe isn't pending
+    private volatile long lastLag;
+
+    private Probe(EventExecutor executor) {
+      this.executor = executor;
+    }
+
+    private long lag(long now) {
+      long submitted = submittedAt.get();
+      // probe which isn't run yet lags at least since submission
+      return submitted != 0 ? Math.max(lastLag, now - submitted) : lastLag;
+    }
+
+    private void submit(long now) {
+      if (submittedAt.compareAndSet(0, now)) {
+        executor.execute(
+            () -> {
+              lastLag = System.nanoTime() - submittedAt.get();
+              submittedAt.set(0);
+            });
+      }
+    }
+  }
+}
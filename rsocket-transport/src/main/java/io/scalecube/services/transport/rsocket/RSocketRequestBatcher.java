@@ -0,0 +1,275 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.ByteBufPayload;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Collects request-response payloads going to the same remote address and sends them as one batch
+ * frame (see {@link PayloadBatch}) once either max number of messages is collected or max delay
+ * since the first collected message expires. Replies are streamed back one by one as soon as they
+ * are ready, and delivered to the callers by their index in the batch.
+ *
+ * <p>Batches are flushed on a single event loop, so flushing itself is never concurrent.
+ */
+final class RSocketRequestBatcher {
+
+  private final int maxMessages;
+  private final long maxDelayNanos;
+  private final EventLoop eventLoop;
+  private final ServiceMessageCodec codec;
+  private final Mono<RSocket> rsocket;
+  private final IntConsumer onBatchSent;
+
+  private final Queue<PendingRequest> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  /**
+   * Creates batcher.
+   *
+   * @param config transport config with batch settings
+   * @param eventLoop event loop to flush batches on
+   * @param codec message codec
+   * @param rsocket connection to the remote address
+   * @param onBatchSent callback which is given number of requests of each batch frame sent
+   */
+  RSocketRequestBatcher(
+      RSocketTransportConfig config,
+      EventLoop eventLoop,
+      ServiceMessageCodec codec,
+      Mono<RSocket> rsocket,
+      IntConsumer onBatchSent) {
+    this.maxMessages = config.batchMaxMessages();
+    this.maxDelayNanos = config.batchMaxDelay().toNanos();
+    this.eventLoop = eventLoop;
+    this.codec = codec;
+    this.rsocket = rsocket;
+    this.onBatchSent = onBatchSent;
+  }
+
+  /**
+   * Adds request to the batch. Reply (or error) is delivered to the given sink.
+   *
+   * @param payload request payload
+   * @param sink reply sink
+   */
+  void add(Payload payload, MonoSink<Payload> sink) {
+    PendingRequest request = new PendingRequest(payload, sink);
+    sink.onCancel(request::cancel);
+    queue.offer(request);
+    if (pending.incrementAndGet() >= maxMessages) {
+      eventLoop.execute(this::flush);
+    } else {
+      scheduleFlush();
+    }
+  }
+
+  private void scheduledFlush() {
+    flushScheduled.set(false);
+    flush();
+  }
+
+  private void flush() {
+    while (true) {
+      List<PendingRequest> batch = new ArrayList<>(Math.min(pending.get(), maxMessages));
+      PendingRequest request;
+      while (batch.size() < maxMessages && (request = queue.poll()) != null) {
+        pending.decrementAndGet();
+        if (request.isCancelled()) {
+          ReferenceCountUtil.safeRelease(request.payload);
+        } else {
+          batch.add(request);
+        }
+      }
+      if (batch.isEmpty()) {
+        break;
+      }
+      if (batch.size() == 1) {
+        send(batch.get(0));
+      } else {
+        send(batch);
+      }
+      if (pending.get() < maxMessages) {
+        break;
+      }
+    }
+    // make sure the rest isn't left without scheduled flush
+    if (pending.get() > 0) {
+      scheduleFlush();
+    }
+  }
+
+  private void scheduleFlush() {
+    if (flushScheduled.compareAndSet(false, true)) {
+      eventLoop.schedule(this::scheduledFlush, maxDelayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void send(PendingRequest request) {
+    RSocketServiceClientAdapter.requestResponse(rsocket, request.payload)
+        .subscribe(request::success, request.sink::error, request.sink::success);
+  }
+
+  private void send(List<PendingRequest> batch) {
+    List<Payload> payloads = new ArrayList<>(batch.size());
+    for (PendingRequest request : batch) {
+      payloads.add(request.payload);
+    }
+    ServiceMessage message =
+        ServiceMessage.builder()
+            .header(PayloadBatch.HEADER_MESSAGE_BATCH, String.valueOf(batch.size()))
+            .data(PayloadBatch.pack(codec.allocator(), payloads))
+            .build();
+
+    BatchReplies replies = new BatchReplies(batch);
+    RSocketServiceClientAdapter.requestStream(
+            rsocket, codec.encodeAndTransform(message, ByteBufPayload::create))
+        .subscribe(replies::onReply, replies::onError, replies::onComplete);
+    onBatchSent.accept(batch.size());
+  }
+
+  /** Delivers replies of the batch to its requests, signals are serial. */
+  private final class BatchReplies {
+
+    private final List<PendingRequest> batch;
+    private final boolean[] replied;
+    private int remaining;
+
+    private BatchReplies(List<PendingRequest> batch) {
+      this.batch = batch;
+      this.replied = new boolean[batch.size()];
+      this.remaining = batch.size();
+    }
+
+    private void onReply(Payload payload) {
+      ServiceMessage message;
+      try {
+        message = codec.decode(payload.sliceData(), payload.sliceMetadata());
+      } catch (Throwable ex) {
+        onError(ex);
+        return;
+      }
+      String index = message.header(PayloadBatch.HEADER_MESSAGE_BATCH_INDEX);
+      if (index == null) {
+        // whole batch failed on the remote side, error message is decoded to exception
+        Throwable error;
+        try {
+          ServiceMessageCodec.decodeData(message, Object.class);
+          error = new IllegalStateException("Unexpected reply on message batch: " + message);
+        } catch (Throwable ex) {
+          error = ex;
+        }
+        onError(error);
+        return;
+      }
+
+      int i = indexOf(index);
+      if (i < 0) {
+        ReferenceCountUtil.safeRelease(message.data());
+        onError(
+            new IllegalStateException(
+                "Invalid index '" + index + "' of reply on message batch of " + batch.size()));
+        return;
+      }
+
+      List<Payload> replies;
+      try {
+        replies = PayloadBatch.unpack(message.data());
+      } catch (Throwable ex) {
+        onError(ex);
+        return;
+      } finally {
+        ReferenceCountUtil.safeRelease(message.data());
+      }
+
+      if (replied[i] || replies.size() != 1) {
+        replies.forEach(ReferenceCountUtil::safeRelease);
+        onError(new IllegalStateException("Unexpected reply on message batch: " + message));
+        return;
+      }
+      replied[i] = true;
+      remaining--;
+      batch.get(i).success(replies.get(0));
+    }
+
+    /**
+     * Parses index header of reply, it comes from the remote side so isn't trusted.
+     *
+     * @param index index header value
+     * @return index of request in the batch, or -1 if header isn't a valid index
+     */
+    private int indexOf(String index) {
+      int i;
+      try {
+        i = Integer.parseInt(index);
+      } catch (NumberFormatException ex) {
+        return -1;
+      }
+      return i >= 0 && i < replied.length ? i : -1;
+    }
+
+    private void onError(Throwable ex) {
+      for (int i = 0; i < replied.length; i++) {
+        if (!replied[i]) {
+          replied[i] = true;
+          batch.get(i).sink.error(ex);
+        }
+      }
+      remaining = 0;
+    }
+
+    private void onComplete() {
+      if (remaining > 0) {
+        onError(
+            new IllegalStateException(
+                "Expected " + batch.size() + " replies on message batch, got "
+                    + (batch.size() - remaining)));
+      }
+    }
+  }
+
+  private static final class PendingRequest {
+
+    private final Payload payload;
+    private final MonoSink<Payload> sink;
+    private volatile boolean cancelled;
+
+    private PendingRequest(Payload payload, MonoSink<Payload> sink) {
+      this.payload = payload;
+      this.sink = sink;
+    }
+
+    private void cancel() {
+      cancelled = true;
+    }
+
+    private boolean isCancelled() {
+      return cancelled;
+    }
+
+    private void success(Payload reply) {
+      if (reply == null) {
+        sink.success();
+      } else if (cancelled) {
+        ReferenceCountUtil.safeRelease(reply);
+      } else {
+        sink.success(reply);
+      }
+    }
+  }
+}
@@ -1,21 +1,33 @@
 package io.scalecube.services.transport.rsocket;
 
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.rsocket.RSocketFactory;
+import io.rsocket.RSocketFactory.ServerRSocketFactory;
 import io.rsocket.transport.netty.server.NettyContextCloseable;
 import io.rsocket.transport.netty.server.TcpServerTransport;
 import io.rsocket.util.ByteBufPayload;
 import io.scalecube.services.codec.ServiceMessageCodec;
 import io.scalecube.services.methods.ServiceMethodRegistry;
+import io.scalecube.services.metrics.GaugeMetrics;
 import io.scalecube.services.transport.api.ServerTransport;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.resources.LoopResources;
 import reactor.ipc.netty.tcp.TcpServer;
 
 public class RSocketServerTransport implements ServerTransport {
@@ -23,68 +35,268 @@ public class RSocketServerTransport implements ServerTransport {
   private static final Logger LOGGER = LoggerFactory.getLogger(RSocketServerTransport.class);
 
   private final ServiceMessageCodec codec;
+  private final EventLoopGroup bossGroup;
   private final EventLoopGroup eventLoopGroup;
+  private final RSocketTransportConfig config;
+  private final TransportGauges gauges; // null if gauges aren't published
+  // unix domain socket is named after it, so that it is unique among servers sharing directory
+  private final String instanceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
 
   private NettyContextCloseable server;
+  private NettyContextCloseable domainSocketServer;
+  private Path domainSocketPath;
   private List<NettyContext> channels = new CopyOnWriteArrayList<>();
+  private RSocketLeaseIssuer leaseIssuer;
+  private final List<ResumableServerTransport<NettyContextCloseable>> resumableTransports =
+      new CopyOnWriteArrayList<>();
 
   public RSocketServerTransport(ServiceMessageCodec codec, EventLoopGroup eventLoopGroup) {
+    this(codec, eventLoopGroup, eventLoopGroup, RSocketTransportConfig.builder().build());
+  }
+
+  /**
+   * Creates server transport.
+   *
+   * @param codec message codec
+   * @param bossGroup event loop group which accepts connections, may be the same as eventLoopGroup
+   * @param eventLoopGroup event loop group for accepted connections
+   * @param config transport config
+   */
+  public RSocketServerTransport(
+      ServiceMessageCodec codec,
+      EventLoopGroup bossGroup,
+      EventLoopGroup eventLoopGroup,
+      RSocketTransportConfig config) {
+    this(codec, bossGroup, eventLoopGroup, config, GaugeMetrics.NOOP);
+  }
+
+  /**
+   * Creates server transport which publishes gauges of accepted connections (see {@link
+   * TransportGauges}), named after this class and unique instance id.
+   *
+   * @param codec message codec
+   * @param bossGroup event loop group which accepts connections, may be the same as eventLoopGroup
+   * @param eventLoopGroup event loop group for accepted connections
+   * @param config transport config
+   * @param gauges gauge metrics
+   */
+  public RSocketServerTransport(
+      ServiceMessageCodec codec,
+      EventLoopGroup bossGroup,
+      EventLoopGroup eventLoopGroup,
+      RSocketTransportConfig config,
+      GaugeMetrics gauges) {
+    this(codec, bossGroup, eventLoopGroup, config, gauges, null);
+  }
+
+  /**
+   * Creates server transport which publishes gauges of accepted connections (see {@link
+   * TransportGauges}), named with given prefix.
+   *
+   * @param codec message codec
+   * @param bossGroup event loop group which accepts connections, may be the same as eventLoopGroup
+   * @param eventLoopGroup event loop group for accepted connections
+   * @param config transport config
+   * @param gauges gauge metrics
+   * @param gaugePrefix prefix of gauge names, null for class name and unique instance id
+   */
+  public RSocketServerTransport(
+      ServiceMessageCodec codec,
+      EventLoopGroup bossGroup,
+      EventLoopGroup eventLoopGroup,
+      RSocketTransportConfig config,
+      GaugeMetrics gauges,
+      String gaugePrefix) {
     this.codec = codec;
+    this.bossGroup = bossGroup;
     this.eventLoopGroup = eventLoopGroup;
+    this.config = config;
+    this.gauges =
+        gauges != GaugeMetrics.NOOP
+            ? new TransportGauges(
+                gauges,
+                gaugePrefix != null
+                    ? gaugePrefix
+                    : TransportGauges.instancePrefix(RSocketServerTransport.class))
+            : null;
   }
 
   @Override
   public InetSocketAddress bindAwait(
       InetSocketAddress address, ServiceMethodRegistry methodRegistry) {
+    if (config.isLeaseEnabled()) {
+      leaseIssuer = new RSocketLeaseIssuer(codec, eventLoopGroup, config);
+      leaseIssuer.start();
+    }
+
+    TcpServer tcpServer =
+        TcpServer.create(
+            options -> {
+              options
+                  .loopResources(loopResources())
+                  .listenAddress(address)
+                  .afterNettyContextInit(this::onConnectionAccepted);
+              TcpChannelOptions.apply(options, config, codec.allocator());
+            });
+
+    this.server = start(tcpServer, methodRegistry);
+    InetSocketAddress boundAddress = server.address();
+
+    if (config.unixDomainSocketDir() != null) {
+      bindDomainSocket(boundAddress.getPort(), methodRegistry);
+    }
+
+    return boundAddress;
+  }
+
+  @Override
+  public Map<String, String> endpointMetadata() {
+    if (domainSocketPath == null) {
+      return PayloadBatch.ENDPOINT_METADATA;
+    }
+    Map<String, String> metadata = new HashMap<>(PayloadBatch.ENDPOINT_METADATA);
+    metadata.put(UnixDomainSockets.ENDPOINT_METADATA, domainSocketPath.toString());
+    return metadata;
+  }
+
+  private void bindDomainSocket(int port, ServiceMethodRegistry methodRegistry) {
+    if (!UnixDomainSockets.isSupported(bossGroup)
+        || !UnixDomainSockets.isSupported(eventLoopGroup)) {
+      LOGGER.warn("Unix domain socket requires native epoll transport, using only tcp socket");
+      return;
+    }
+
+    Path path = UnixDomainSockets.socketPath(config.unixDomainSocketDir(), port, instanceId);
+    try {
+      Files.createDirectories(path.getParent());
+      Files.deleteIfExists(path);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to prepare unix domain socket " + path, ex);
+    }
+
     TcpServer tcpServer =
         TcpServer.create(
-            options ->
-                options
-                    .eventLoopGroup(eventLoopGroup)
-                    .listenAddress(address)
-                    .afterNettyContextInit(
-                        nettyContext -> {
-                          LOGGER.info("Accepted connection on {}", nettyContext.channel());
-                          nettyContext.onClose(
-                              () -> {
-                                LOGGER.info("Connection closed on {}", nettyContext.channel());
-                                channels.remove(nettyContext);
-                              });
-                          channels.add(nettyContext);
-                        }));
-
-    this.server =
+            options -> {
+              options
+                  .loopResources(UnixDomainSockets.serverLoopResources(bossGroup, eventLoopGroup))
+                  .listenAddress(new DomainSocketAddress(path.toString()))
+                  .afterNettyContextInit(this::onConnectionAccepted);
+              TcpChannelOptions.applyDomainSocket(options, config, codec.allocator());
+            });
+
+    this.domainSocketServer = start(tcpServer, methodRegistry);
+    this.domainSocketPath = path;
+    LOGGER.info("Bound unix domain socket {}", path);
+  }
+
+  private NettyContextCloseable start(TcpServer tcpServer, ServiceMethodRegistry methodRegistry) {
+    ServerRSocketFactory factory =
         RSocketFactory.receive()
             .frameDecoder(
                 frame ->
                     ByteBufPayload.create(
-                        frame.sliceData().retain(), frame.sliceMetadata().retain()))
-            .acceptor(new RSocketServiceAcceptor(codec, methodRegistry))
-            .transport(TcpServerTransport.create(tcpServer))
-            .start()
-            .block();
+                        frame.sliceData().retain(), frame.sliceMetadata().retain()));
+    if (leaseIssuer != null) {
+      factory =
+          factory
+              .addServerPlugin(leaseIssuer::onResponder)
+              .addClientPlugin(leaseIssuer::onRequester);
+    }
+    io.rsocket.transport.ServerTransport<NettyContextCloseable> transport =
+        TcpServerTransport.create(tcpServer);
+    if (config.isFragmentationEnabled()) {
+      transport = FragmentingDuplexConnection.wrap(transport, config, codec.allocator());
+    }
+    if (config.isResumeEnabled()) {
+      ResumableServerTransport<NettyContextCloseable> resumableTransport =
+          new ResumableServerTransport<>(transport, config);
+      resumableTransports.add(resumableTransport);
+      transport = resumableTransport;
+    }
+    if (gauges != null) {
+      transport = gauges.wrap(transport);
+    }
+    return factory
+        .acceptor(new RSocketServiceAcceptor(codec, methodRegistry, config))
+        .transport(transport)
+        .start()
+        .block();
+  }
+
+  private void onConnectionAccepted(NettyContext nettyContext) {
+    LOGGER.info("Accepted connection on {}", nettyContext.channel());
+    nettyContext.onClose(
+        () -> {
+          LOGGER.info("Connection closed on {}", nettyContext.channel());
+          channels.remove(nettyContext);
+        });
+    channels.add(nettyContext);
+    if (gauges != null) {
+      gauges.onChannelActive(nettyContext);
+    }
+  }
+
+  private LoopResources loopResources() {
+    return new LoopResources() {
+      @Override
+      public EventLoopGroup onServer(boolean useNative) {
+        return eventLoopGroup;
+      }
 
-    return server.address();
+      @Override
+      public EventLoopGroup onServerSelect(boolean useNative) {
+        return bossGroup;
+      }
+    };
   }
 
   @Override
   public Mono<Void> stop() {
-    if (server != null) {
-      server.dispose();
-
-      List<Mono<Void>> onCloseList =
-          channels
-              .stream()
-              .map(
-                  nettyContext -> {
-                    nettyContext.dispose();
-                    return nettyContext.onClose();
-                  })
-              .collect(Collectors.toList());
-
-      return server.onClose().then(Mono.when(onCloseList));
-    } else {
+    if (leaseIssuer != null) {
+      leaseIssuer.stop();
+    }
+    if (gauges != null) {
+      gauges.removeAll();
+    }
+    if (server == null) {
       return Mono.empty();
     }
+    if (!resumableTransports.isEmpty()) {
+      // close resumable sessions first, so that clients don't try to resume them
+      return Flux.fromIterable(resumableTransports)
+          .flatMap(ResumableServerTransport::closeSessions)
+          .then(Mono.defer(this::stopServers));
+    }
+    return stopServers();
+  }
+
+  private Mono<Void> stopServers() {
+    server.dispose();
+
+    Mono<Void> domainSocketClose = Mono.empty();
+    if (domainSocketServer != null) {
+      domainSocketServer.dispose();
+      domainSocketClose = domainSocketServer.onClose().doFinally(s -> deleteDomainSocket());
+    }
+
+    List<Mono<Void>> onCloseList =
+        channels
+            .stream()
+            .map(
+                nettyContext -> {
+                  nettyContext.dispose();
+                  return nettyContext.onClose();
+                })
+            .collect(Collectors.toList());
+
+    return server.onClose().then(domainSocketClose).then(Mono.when(onCloseList));
+  }
+
+  private void deleteDomainSocket() {
+    try {
+      Files.deleteIfExists(domainSocketPath);
+    } catch (IOException ex) {
+      LOGGER.warn("Failed to delete unix domain socket {}, cause: {}", domainSocketPath, ex);
+    }
   }
 }
@@ -1,5 +1,7 @@
 package io.scalecube.services.transport.rsocket;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
 import io.rsocket.AbstractRSocket;
 import io.rsocket.ConnectionSetupPayload;
 import io.rsocket.Payload;
@@ -11,7 +13,12 @@ import io.scalecube.services.api.ServiceMessage;
 import io.scalecube.services.codec.ServiceMessageCodec;
 import io.scalecube.services.exceptions.ExceptionProcessor;
 import io.scalecube.services.exceptions.ServiceUnavailableException;
+import io.scalecube.services.methods.ServiceMethodInvoker;
 import io.scalecube.services.methods.ServiceMethodRegistry;
+import io.scalecube.services.metrics.LatencyRecorder;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,12 +29,33 @@ public class RSocketServiceAcceptor implements SocketAcceptor {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RSocketServiceAcceptor.class);
 
+  /** Max number of requests of one batch which are invoked at the same time. */
+  private static final int BATCH_CONCURRENCY = 32;
+
   private final ServiceMessageCodec messageCodec;
   private final ServiceMethodRegistry methodRegistry;
+  private final int streamBatchMaxSize;
+  private final Duration streamBatchMaxDelay;
 
   public RSocketServiceAcceptor(ServiceMessageCodec codec, ServiceMethodRegistry methodRegistry) {
+    this(codec, methodRegistry, RSocketTransportConfig.builder().build());
+  }
+
+  /**
+   * Creates acceptor.
+   *
+   * @param codec message codec
+   * @param methodRegistry registry of service methods
+   * @param config transport config with limits of request-stream batches
+   */
+  public RSocketServiceAcceptor(
+      ServiceMessageCodec codec,
+      ServiceMethodRegistry methodRegistry,
+      RSocketTransportConfig config) {
     this.messageCodec = codec;
     this.methodRegistry = methodRegistry;
+    this.streamBatchMaxSize = config.streamBatchMaxSize();
+    this.streamBatchMaxDelay = config.streamBatchMaxDelay();
   }
 
   @Override
@@ -40,28 +68,88 @@ public class RSocketServiceAcceptor implements SocketAcceptor {
           public Mono<Payload> requestResponse(Payload payload) {
             return Mono.just(payload)
                 .map(this::toMessage)
-                .doOnNext(this::checkMethodInvokerExist)
-                .flatMap(
-                    message ->
-                        methodRegistry
-                            .getInvoker(message.qualifier())
-                            .invokeOne(message, ServiceMessageCodec::decodeData))
+                .flatMap(this::invokeOne)
+                .onErrorResume(t -> Mono.just(toPayload(ExceptionProcessor.toMessage(t), null)));
+          }
+
+          private Mono<Payload> invokeOne(ServiceMessage message) {
+            checkMethodInvokerExist(message);
+            ServiceMethodInvoker invoker = methodRegistry.getInvoker(message.qualifier());
+            String contentEncoding = acceptEncoding(message);
+            return invoker
+                .invokeOne(
+                    ServiceMessageCodec.withoutAcceptEncoding(message),
+                    ServiceMessageCodec::decodeData)
                 .onErrorResume(t -> Mono.just(ExceptionProcessor.toMessage(t)))
-                .map(this::toPayload);
+                .map(response -> encode(invoker, response, contentEncoding));
+          }
+
+          private Flux<Payload> requestResponseBatch(ServiceMessage batch) {
+            // requests are invoked concurrently, each reply is sent as soon as it is ready
+            AtomicReferenceArray<Payload> payloads;
+            try {
+              payloads =
+                  new AtomicReferenceArray<>(
+                      PayloadBatch.unpack(batch.data()).toArray(new Payload[0]));
+            } finally {
+              ReferenceCountUtil.safeRelease(batch.data());
+            }
+            return Flux.range(0, payloads.length())
+                .flatMap(
+                    index ->
+                        requestResponse(payloads.getAndSet(index, null))
+                            .map(reply -> toBatchReply(index, reply))
+                            .switchIfEmpty(Mono.fromCallable(() -> toBatchReply(index, null))),
+                    BATCH_CONCURRENCY)
+                .doFinally(s -> releaseNotInvoked(payloads));
+          }
+
+          private void releaseNotInvoked(AtomicReferenceArray<Payload> payloads) {
+            for (int i = 0; i < payloads.length(); i++) {
+              Payload payload = payloads.getAndSet(i, null);
+              if (payload != null) {
+                payload.release();
+              }
+            }
+          }
+
+          private Payload toBatchReply(int index, Payload reply) {
+            ByteBuf data =
+                PayloadBatch.pack(messageCodec.allocator(), Collections.singletonList(reply));
+            ServiceMessage message =
+                ServiceMessage.builder()
+                    .header(PayloadBatch.HEADER_MESSAGE_BATCH_INDEX, String.valueOf(index))
+                    .data(data)
+                    .build();
+            return messageCodec.encodeAndTransform(message, ByteBufPayload::create);
           }
 
           @Override
           public Flux<Payload> requestStream(Payload payload) {
             return Flux.just(payload)
                 .map(this::toMessage)
-                .doOnNext(this::checkMethodInvokerExist)
                 .flatMap(
                     message ->
-                        methodRegistry
-                            .getInvoker(message.qualifier())
-                            .invokeMany(message, ServiceMessageCodec::decodeData))
-                .onErrorResume(t -> Flux.just(ExceptionProcessor.toMessage(t)))
-                .map(this::toPayload);
+                        PayloadBatch.isBatch(message)
+                            ? requestResponseBatch(message)
+                            : invokeMany(message))
+                .onErrorResume(t -> Flux.just(toPayload(ExceptionProcessor.toMessage(t), null)));
+          }
+
+          private Flux<Payload> invokeMany(ServiceMessage message) {
+            checkMethodInvokerExist(message);
+            ServiceMethodInvoker invoker = methodRegistry.getInvoker(message.qualifier());
+            Flux<ServiceMessage> responses =
+                invoker
+                    .invokeMany(
+                        ServiceMessageCodec.withoutAcceptEncoding(message),
+                        ServiceMessageCodec::decodeData)
+                    .onErrorResume(t -> Flux.just(ExceptionProcessor.toMessage(t)));
+            String contentEncoding = acceptEncoding(message);
+            int batchSize = ServiceMessageCodec.streamBatchSize(message, streamBatchMaxSize);
+            return batchSize > 1
+                ? toBatchPayloads(responses, batchSize, contentEncoding)
+                : responses.map(response -> encode(invoker, response, contentEncoding));
           }
 
           @Override
@@ -71,17 +159,50 @@ public class RSocketServiceAcceptor implements SocketAcceptor {
                     pair -> {
                       ServiceMessage message = pair.head();
                       checkMethodInvokerExist(message);
-                      Flux<ServiceMessage> messages = Flux.from(pair.tail()).startWith(message);
-                      return methodRegistry
-                          .getInvoker(message.qualifier())
-                          .invokeBidirectional(messages, ServiceMessageCodec::decodeData);
+                      String contentEncoding = acceptEncoding(message);
+                      Flux<ServiceMessage> messages =
+                          Flux.from(pair.tail())
+                              .startWith(message)
+                              .map(ServiceMessageCodec::withoutAcceptEncoding);
+                      ServiceMethodInvoker invoker = methodRegistry.getInvoker(message.qualifier());
+                      return invoker
+                          .invokeBidirectional(messages, ServiceMessageCodec::decodeData)
+                          .onErrorResume(t -> Flux.just(ExceptionProcessor.toMessage(t)))
+                          .map(response -> encode(invoker, response, contentEncoding));
                     })
-                .onErrorResume(t -> Flux.just(ExceptionProcessor.toMessage(t)))
-                .map(this::toPayload);
+                .onErrorResume(t -> Flux.just(toPayload(ExceptionProcessor.toMessage(t), null)));
+          }
+
+          private Payload toPayload(ServiceMessage response, String contentEncoding) {
+            return messageCodec.encodeAndTransform(
+                response, contentEncoding, ByteBufPayload::create);
+          }
+
+          private Payload encode(
+              ServiceMethodInvoker invoker, ServiceMessage response, String contentEncoding) {
+            LatencyRecorder latency = invoker.encodeLatency();
+            if (latency == LatencyRecorder.NOOP) {
+              return toPayload(response, contentEncoding);
+            }
+            long start = System.nanoTime();
+            Payload payload = toPayload(response, contentEncoding);
+            latency.record(System.nanoTime() - start);
+            return payload;
+          }
+
+          private Flux<Payload> toBatchPayloads(
+              Flux<ServiceMessage> responses, int batchSize, String contentEncoding) {
+            // responses carry error as message, so elements emitted before error aren't dropped
+            // along with incomplete batch; incomplete batch of slow stream is sent after max delay
+            return StreamBatches.batch(responses, batchSize, streamBatchMaxDelay)
+                .concatMapIterable(
+                    messages ->
+                        messageCodec.encodeBatchAndTransform(
+                            messages, contentEncoding, ByteBufPayload::create));
           }
 
-          private Payload toPayload(ServiceMessage response) {
-            return messageCodec.encodeAndTransform(response, ByteBufPayload::create);
+          private String acceptEncoding(ServiceMessage request) {
+            return request.header(ServiceMessageCodec.HEADER_ACCEPT_ENCODING);
           }
 
           private ServiceMessage toMessage(Payload payload) {
@@ -15,21 +15,32 @@ public class RSocketServiceClientAdapter implements ClientChannel {
 
   private Mono<RSocket> rsocket;
   private ServiceMessageCodec messageCodec;
+  private RSocketRequestBatcher batcher;
 
   public RSocketServiceClientAdapter(Mono<RSocket> rsocket, ServiceMessageCodec codec) {
+    this(rsocket, codec, null);
+  }
+
+  RSocketServiceClientAdapter(
+      Mono<RSocket> rsocket, ServiceMessageCodec codec, RSocketRequestBatcher batcher) {
     this.rsocket = rsocket;
     this.messageCodec = codec;
+    this.batcher = batcher;
   }
 
   @Override
   public Mono<ServiceMessage> requestResponse(ServiceMessage message) {
-    return rsocket
-        .flatMap(
-            rsocket ->
-                rsocket
-                    .requestResponse(toPayload(message))
-                    .takeUntilOther(listenConnectionClose(rsocket)))
-        .map(this::toMessage);
+    if (batcher != null) {
+      return Mono.<Payload>create(sink -> batcher.add(toPayload(message), sink))
+          .map(this::toMessage);
+    }
+    return Mono.defer(() -> requestResponse(rsocket, toPayload(message))).map(this::toMessage);
+  }
+
+  static Mono<Payload> requestResponse(Mono<RSocket> rsocket, Payload payload) {
+    return rsocket.flatMap(
+        rsocket1 ->
+            rsocket1.requestResponse(payload).takeUntilOther(listenConnectionClose(rsocket1)));
   }
 
   @Override
@@ -43,6 +54,12 @@ public class RSocketServiceClientAdapter implements ClientChannel {
         .map(this::toMessage);
   }
 
+  static Flux<Payload> requestStream(Mono<RSocket> rsocket, Payload payload) {
+    return rsocket.flatMapMany(
+        rsocket1 ->
+            rsocket1.requestStream(payload).takeUntilOther(listenConnectionClose(rsocket1)));
+  }
+
   @Override
   public Flux<ServiceMessage> requestChannel(Publisher<ServiceMessage> publisher) {
     return rsocket
@@ -55,7 +72,9 @@ public class RSocketServiceClientAdapter implements ClientChannel {
   }
 
   private Payload toPayload(ServiceMessage request) {
-    return messageCodec.encodeAndTransform(request, ByteBufPayload::create);
+    // accept encoding is set only when responder is known to support it
+    String contentEncoding = request.header(ServiceMessageCodec.HEADER_ACCEPT_ENCODING);
+    return messageCodec.encodeAndTransform(request, contentEncoding, ByteBufPayload::create);
   }
 
   private ServiceMessage toMessage(Payload payload) {
@@ -63,14 +82,14 @@ public class RSocketServiceClientAdapter implements ClientChannel {
   }
 
   @SuppressWarnings("unchecked")
-  private <T> Mono<T> listenConnectionClose(RSocket rsocket) {
+  private static <T> Mono<T> listenConnectionClose(RSocket rsocket) {
     return rsocket
         .onClose()
         .map(empty -> (T) empty)
-        .switchIfEmpty(Mono.defer(this::toConnectionClosedException));
+        .switchIfEmpty(Mono.defer(RSocketServiceClientAdapter::toConnectionClosedException));
   }
 
-  private <T> Mono<T> toConnectionClosedException() {
+  private static <T> Mono<T> toConnectionClosedException() {
     return Mono.error(new ConnectionClosedException("Connection closed"));
   }
 }
@@ -1,22 +1,31 @@
 package io.scalecube.services.transport.rsocket;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.util.NettyRuntime;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.Future;
 import io.netty.util.internal.PlatformDependent;
 import io.scalecube.services.codec.HeadersCodec;
 import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.metrics.GaugeMetrics;
 import io.scalecube.services.transport.api.ClientTransport;
 import io.scalecube.services.transport.api.ServerTransport;
 import io.scalecube.services.transport.api.ServiceTransport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.FutureMono;
 
@@ -26,6 +35,11 @@ public class RSocketServiceTransport implements ServiceTransport {
 
   private static final String DEFAULT_HEADERS_FORMAT = "application/json";
   private static final String THREAD_FACTORY_POOL_NAME = "scalecube-rsocket";
+  private static final String BOSS_POOL_NAME = THREAD_FACTORY_POOL_NAME + "-boss";
+  private static final String CLIENT_POOL_NAME = THREAD_FACTORY_POOL_NAME + "-client";
+  private static final String WATCHDOG_NAME = THREAD_FACTORY_POOL_NAME + "-watchdog";
+  private static final String CLIENT_GAUGE_PREFIX = "client";
+  private static final String SERVER_GAUGE_PREFIX = "server";
 
   private static boolean isEpollSupported = false;
 
@@ -43,25 +57,131 @@ public class RSocketServiceTransport implements ServiceTransport {
     LOGGER.debug("Epoll support: " + isEpollSupported);
   }
 
+  private final RSocketTransportConfig config;
+
+  // boss and client event loop groups, created along with worker one (the transport executor)
+  private final Map<ExecutorService, EventLoopGroup> bossGroups = new ConcurrentHashMap<>();
+  private final Map<ExecutorService, EventLoopGroup> clientGroups = new ConcurrentHashMap<>();
+  private final Map<ExecutorService, EventLoopWatchdog> watchdogs = new ConcurrentHashMap<>();
+  // buffer allocators, created on first use for worker event loop group
+  private final Map<ExecutorService, ByteBufAllocator> allocators = new ConcurrentHashMap<>();
+  // gauge name prefixes, one per worker event loop group, that is per service node
+  private final Map<ExecutorService, String> gaugePrefixes = new ConcurrentHashMap<>();
+  // removals of gauges registered for worker event loop group, done on its shutdown
+  private final Map<ExecutorService, List<Disposable>> gaugeRemovals = new ConcurrentHashMap<>();
+
+  public RSocketServiceTransport() {
+    this(RSocketTransportConfig.builder().build());
+  }
+
+  public RSocketServiceTransport(RSocketTransportConfig config) {
+    this.config = config;
+  }
+
   @Override
   public ClientTransport getClientTransport(ExecutorService executorService) {
+    return getClientTransport(executorService, GaugeMetrics.NOOP);
+  }
+
+  @Override
+  public ClientTransport getClientTransport(
+      ExecutorService executorService, GaugeMetrics gauges) {
     HeadersCodec headersCodec = HeadersCodec.getInstance(DEFAULT_HEADERS_FORMAT);
-    EventLoopGroup eventLoopGroup = (EventLoopGroup) executorService;
-    return new RSocketClientTransport(new ServiceMessageCodec(headersCodec), eventLoopGroup);
+    EventLoopGroup clientGroup = clientGroups.get(executorService);
+    String gaugePrefix = gaugePrefix(executorService);
+    if (clientGroup != null && gauges != GaugeMetrics.NOOP) {
+      gaugeRemovals(executorService)
+          .add(TransportGauges.eventLoops(gauges, gaugePrefix, CLIENT_POOL_NAME, clientGroup));
+    }
+    RSocketClientTransport clientTransport =
+        new RSocketClientTransport(
+            new ServiceMessageCodec(headersCodec, allocator(executorService)),
+            clientGroup != null ? clientGroup : (EventLoopGroup) executorService,
+            (EventLoopGroup) executorService,
+            config,
+            gauges,
+            gaugePrefix + "." + CLIENT_GAUGE_PREFIX);
+    if (gauges != GaugeMetrics.NOOP) {
+      gaugeRemovals(executorService).add(clientTransport::removeGauges);
+    }
+    return clientTransport;
   }
 
   @Override
   public ServerTransport getServerTransport(ExecutorService executorService) {
+    return getServerTransport(executorService, GaugeMetrics.NOOP);
+  }
+
+  @Override
+  public ServerTransport getServerTransport(
+      ExecutorService executorService, GaugeMetrics gauges) {
     HeadersCodec headersCodec = HeadersCodec.getInstance(DEFAULT_HEADERS_FORMAT);
     EventLoopGroup eventLoopGroup = (EventLoopGroup) executorService;
-    return new RSocketServerTransport(new ServiceMessageCodec(headersCodec), eventLoopGroup);
+    EventLoopGroup bossGroup = bossGroups.get(executorService);
+    String gaugePrefix = gaugePrefix(executorService);
+    if (gauges != GaugeMetrics.NOOP) {
+      List<Disposable> removals = gaugeRemovals(executorService);
+      removals.add(
+          TransportGauges.eventLoops(
+              gauges, gaugePrefix, THREAD_FACTORY_POOL_NAME, eventLoopGroup));
+      if (bossGroup != null) {
+        removals.add(TransportGauges.eventLoops(gauges, gaugePrefix, BOSS_POOL_NAME, bossGroup));
+      }
+    }
+    return new RSocketServerTransport(
+        new ServiceMessageCodec(headersCodec, allocator(executorService)),
+        bossGroup != null ? bossGroup : eventLoopGroup,
+        eventLoopGroup,
+        config,
+        gauges,
+        gaugePrefix + "." + SERVER_GAUGE_PREFIX);
+  }
+
+  private String gaugePrefix(ExecutorService executorService) {
+    return gaugePrefixes.computeIfAbsent(
+        executorService,
+        key ->
+            config.gaugePrefix() != null
+                ? config.gaugePrefix()
+                : TransportGauges.instancePrefix(RSocketServiceTransport.class));
+  }
+
+  private List<Disposable> gaugeRemovals(ExecutorService executorService) {
+    return gaugeRemovals.computeIfAbsent(executorService, key -> new CopyOnWriteArrayList<>());
+  }
+
+  private ByteBufAllocator allocator(ExecutorService executorService) {
+    Supplier<ByteBufAllocator> factory = config.allocatorFactory();
+    if (factory == null) {
+      return ByteBufAllocator.DEFAULT;
+    }
+    return allocators.computeIfAbsent(executorService, key -> factory.get());
   }
 
   @Override
   public EventLoopGroup getExecutorService() {
-    int numberThreads = NettyRuntime.availableProcessors();
-    ThreadFactory threadFactory = new DefaultThreadFactory(THREAD_FACTORY_POOL_NAME, true);
-    return isEpollSupported
+    EventLoopGroup workerGroup =
+        newEventLoopGroup(config.workerThreads(), THREAD_FACTORY_POOL_NAME);
+    if (config.bossThreads() > 0) {
+      bossGroups.put(workerGroup, newEventLoopGroup(config.bossThreads(), BOSS_POOL_NAME));
+    }
+    if (config.clientThreads() > 0) {
+      clientGroups.put(workerGroup, newEventLoopGroup(config.clientThreads(), CLIENT_POOL_NAME));
+    }
+    if (config.isSlowTaskDetectionEnabled()) {
+      List<EventLoopGroup> groups = new ArrayList<>();
+      groups.add(workerGroup);
+      Optional.ofNullable(bossGroups.get(workerGroup)).ifPresent(groups::add);
+      Optional.ofNullable(clientGroups.get(workerGroup)).ifPresent(groups::add);
+      watchdogs.put(
+          workerGroup, new EventLoopWatchdog(config.slowTaskThreshold(), WATCHDOG_NAME, groups));
+    }
+    return workerGroup;
+  }
+
+  private EventLoopGroup newEventLoopGroup(int numberThreads, String poolName) {
+    ThreadFactory threadFactory = new DefaultThreadFactory(poolName, true);
+    return isEpollSupported && config.preferEpoll()
         ? new EpollEventLoopGroup(numberThreads, threadFactory)
         : new NioEventLoopGroup(numberThreads, threadFactory);
   }
@@ -69,6 +189,24 @@ public class RSocketServiceTransport implements ServiceTransport {
   @Override
   public Mono<Void> shutdown(ExecutorService executorService) {
     return Mono.defer(
-        () -> FutureMono.from((Future) ((EventLoopGroup) executorService).shutdownGracefully()));
+        () -> {
+          Optional.ofNullable(watchdogs.remove(executorService))
+              .ifPresent(EventLoopWatchdog::dispose);
+          allocators.remove(executorService);
+          gaugePrefixes.remove(executorService);
+          Optional.ofNullable(gaugeRemovals.remove(executorService))
+              .ifPresent(removals -> removals.forEach(Disposable::dispose));
+          List<Mono<Void>> shutdowns = new ArrayList<>();
+          shutdowns.add(shutdown((EventLoopGroup) executorService));
+          Optional.ofNullable(bossGroups.remove(executorService))
+              .ifPresent(group -> shutdowns.add(shutdown(group)));
+          Optional.ofNullable(clientGroups.remove(executorService))
+              .ifPresent(group -> shutdowns.add(shutdown(group)));
+          return Mono.when(shutdowns);
+        });
+  }
+
+  private Mono<Void> shutdown(EventLoopGroup eventLoopGroup) {
+    return FutureMono.from((Future) eventLoopGroup.shutdownGracefully());
   }
 }
@@ -0,0 +1,809 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.NettyRuntime;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Represents rsocket service transport configuration.
+ */
+public final class RSocketTransportConfig {
+
+  public static final int DEFAULT_BATCH_MAX_MESSAGES = 1;
+  public static final int DEFAULT_STREAM_BATCH_MAX_SIZE = 1024;
+  public static final Duration DEFAULT_STREAM_BATCH_MAX_DELAY = Duration.ofMillis(1);
+  public static final Duration DEFAULT_BATCH_MAX_DELAY = Duration.ofNanos(100_000);
+  public static final int DEFAULT_LEASE_MAX_REQUESTS = 10_000;
+  public static final int DEFAULT_RESUME_MAX_BUFFERED_FRAMES = 1024;
+  public static final int MIN_FRAGMENT_MTU = 64;
+  public static final int DEFAULT_FRAGMENT_MAX_FRAME_LENGTH = 16 << 20;
+
+  private final int workerThreads;
+  private final int bossThreads;
+  private final int clientThreads;
+  private final boolean preferEpoll;
+  private final Supplier<ByteBufAllocator> allocatorFactory;
+  private final Path unixDomainSocketDir;
+  private final boolean preferUnixDomainSocket;
+  private final int batchMaxMessages;
+  private final Duration batchMaxDelay;
+  private final int streamBatchMaxSize;
+  private final Duration streamBatchMaxDelay;
+  private final int flushConsolidationMaxFlushes;
+  private final int sendBufferSize;
+  private final int receiveBufferSize;
+  private final boolean tcpNoDelay;
+  private final int writeBufferLowWaterMark;
+  private final int writeBufferHighWaterMark;
+  private final Duration leaseTimeToLive;
+  private final int leaseMaxRequests;
+  private final boolean warmUpConnections;
+  private final Duration resumeSessionDuration;
+  private final int resumeMaxBufferedFrames;
+  private final int fragmentMtu;
+  private final int fragmentMaxFrameLength;
+  private final Duration slowTaskThreshold;
+  private final String gaugePrefix;
+
+  private RSocketTransportConfig(Builder builder) {
+    workerThreads = builder.workerThreads;
+    bossThreads = builder.bossThreads;
+    clientThreads = builder.clientThreads;
+    preferEpoll = builder.preferEpoll;
+    allocatorFactory = builder.allocatorFactory;
+    unixDomainSocketDir = builder.unixDomainSocketDir;
+    preferUnixDomainSocket = builder.preferUnixDomainSocket;
+    batchMaxMessages = builder.batchMaxMessages;
+    batchMaxDelay = builder.batchMaxDelay;
+    streamBatchMaxSize = builder.streamBatchMaxSize;
+    streamBatchMaxDelay = builder.streamBatchMaxDelay;
+    flushConsolidationMaxFlushes = builder.flushConsolidationMaxFlushes;
+    sendBufferSize = builder.sendBufferSize;
+    receiveBufferSize = builder.receiveBufferSize;
+    tcpNoDelay = builder.tcpNoDelay;
+    writeBufferLowWaterMark = builder.writeBufferLowWaterMark;
+    writeBufferHighWaterMark = builder.writeBufferHighWaterMark;
+    leaseTimeToLive = builder.leaseTimeToLive;
+    leaseMaxRequests = builder.leaseMaxRequests;
+    warmUpConnections = builder.warmUpConnections;
+    resumeSessionDuration = builder.resumeSessionDuration;
+    resumeMaxBufferedFrames = builder.resumeMaxBufferedFrames;
+    fragmentMtu = builder.fragmentMtu;
+    fragmentMaxFrameLength = builder.fragmentMaxFrameLength;
+    slowTaskThreshold = builder.slowTaskThreshold;
+    gaugePrefix = builder.gaugePrefix;
+  }
+
+  /**
+   * Number of threads of worker event loop group, which serves accepted connections. This group is
+   * also the transport executor service. Default is number of available processors.
+   *
+   * @return number of worker threads
+   */
+  public int workerThreads() {
+    return workerThreads;
+  }
+
+  /**
+   * Number of threads of separate boss event loop group, which accepts connections. Value 0
+   * (default) means connections are accepted on worker event loop group.
+   *
+   * @return number of boss threads
+   */
+  public int bossThreads() {
+    return bossThreads;
+  }
+
+  /**
+   * Number of threads of separate client event loop group, which serves outgoing connections, so
+   * they don't share event loops (and don't block each other) with accepted connections. Value 0
+   * (default) means outgoing connections are served by worker event loop group.
+   *
+   * @return number of client threads
+   */
+  public int clientThreads() {
+    return clientThreads;
+  }
+
+  /**
+   * Whether native epoll transport is used when it's available. Otherwise NIO is used. Default is
+   * true.
+   *
+   * @return prefer epoll flag
+   */
+  public boolean preferEpoll() {
+    return preferEpoll;
+  }
+
+  /**
+   * Factory of allocator of channel and message buffers, null (default) leaves netty default
+   * allocator. Allocator is created lazily, once per transport event loop group (see {@link
+   * RSocketServiceTransport}), so configs copied with {@link #from(RSocketTransportConfig)} don't
+   * share it.
+   *
+   * @return buffer allocator factory
+   */
+  public Supplier<ByteBufAllocator> allocatorFactory() {
+    return allocatorFactory;
+  }
+
+  /**
+   * Directory where server transport binds unix domain socket in addition to tcp one and
+   * advertises it to other nodes, null (default) means no unix domain socket. Requires native
+   * epoll transport.
+   *
+   * @return unix domain socket directory
+   */
+  public Path unixDomainSocketDir() {
+    return unixDomainSocketDir;
+  }
+
+  /**
+   * Whether client transport connects via unix domain socket to nodes on the same host which
+   * advertise it (see {@link #unixDomainSocketDir()}), instead of tcp. Default is true.
+   *
+   * @return prefer unix domain socket flag
+   */
+  public boolean preferUnixDomainSocket() {
+    return preferUnixDomainSocket;
+  }
+
+  /**
+   * Max number of request-response (and so fire-and-forget) calls which client packs into one
+   * frame per remote address. Value 1 (default) turns client side batching off.
+   *
+   * @return max number of messages per batch frame
+   */
+  public int batchMaxMessages() {
+    return batchMaxMessages;
+  }
+
+  /**
+   * Max time the first call of not yet full batch waits for other calls before batch frame is
+   * sent.
+   *
+   * @return max batch delay
+   */
+  public Duration batchMaxDelay() {
+    return batchMaxDelay;
+  }
+
+  public boolean isBatchingEnabled() {
+    return batchMaxMessages > 1;
+  }
+
+  /**
+   * Max number of request-stream elements which server packs into one frame, whatever batch size
+   * requester asks for (see {@link
+   * io.scalecube.services.codec.ServiceMessageCodec#HEADER_STREAM_BATCH_SIZE}).
+   *
+   * @return max number of stream elements per frame
+   */
+  public int streamBatchMaxSize() {
+    return streamBatchMaxSize;
+  }
+
+  /**
+   * Max time the first element of not yet full stream batch waits for other elements before batch
+   * frame is sent, so slow streams don't hold elements back.
+   *
+   * @return max stream batch delay
+   */
+  public Duration streamBatchMaxDelay() {
+    return streamBatchMaxDelay;
+  }
+
+  /**
+   * Max number of explicit flushes which are consolidated into one socket flush while channel is
+   * read, see {@link io.netty.handler.flush.FlushConsolidationHandler}. Consolidated flushes are
+   * done on read complete or once max number is reached. Value 0 (default) turns flush
+   * consolidation off.
+   *
+   * @return max number of consolidated flushes
+   */
+  public int flushConsolidationMaxFlushes() {
+    return flushConsolidationMaxFlushes;
+  }
+
+  public boolean isFlushConsolidationEnabled() {
+    return flushConsolidationMaxFlushes > 0;
+  }
+
+  /**
+   * Socket send buffer size (SO_SNDBUF). Value 0 (default) leaves system default.
+   *
+   * @return send buffer size in bytes
+   */
+  public int sendBufferSize() {
+    return sendBufferSize;
+  }
+
+  /**
+   * Socket receive buffer size (SO_RCVBUF). Value 0 (default) leaves system default.
+   *
+   * @return receive buffer size in bytes
+   */
+  public int receiveBufferSize() {
+    return receiveBufferSize;
+  }
+
+  /**
+   * Whether Nagle's algorithm is disabled (TCP_NODELAY). Default is true.
+   *
+   * @return tcp no delay flag
+   */
+  public boolean tcpNoDelay() {
+    return tcpNoDelay;
+  }
+
+  /**
+   * Channel write buffer low water mark, see {@link io.netty.channel.WriteBufferWaterMark}. Value
+   * 0 (default) leaves netty default.
+   *
+   * @return low water mark in bytes
+   */
+  public int writeBufferLowWaterMark() {
+    return writeBufferLowWaterMark;
+  }
+
+  /**
+   * Channel write buffer high water mark, see {@link io.netty.channel.WriteBufferWaterMark}. Value
+   * 0 (default) leaves netty default.
+   *
+   * @return high water mark in bytes
+   */
+  public int writeBufferHighWaterMark() {
+    return writeBufferHighWaterMark;
+  }
+
+  /**
+   * Time to live of leases which server transport issues to connected clients, null (default)
+   * means server issues no leases. Lease allows client to send given number of requests within
+   * its time to live, client doesn't send requests to server without valid lease and reports such
+   * server unavailable to router. Server issues new leases twice per time to live.
+   *
+   * @return lease time to live
+   */
+  public Duration leaseTimeToLive() {
+    return leaseTimeToLive;
+  }
+
+  /**
+   * Number of requests server allows per lease time to live when it is idle, split between
+   * connected clients. The number is reduced in proportion to server load, which is the larger of
+   * event loop lag relative to lease time to live and number of requests in progress relative to
+   * this number. Since leases are issued twice per time to live, each lease allows half of client
+   * share, rounded up, so a client may send at least one request per half of time to live unless
+   * server is fully loaded.
+   *
+   * @return max number of requests per lease time to live
+   */
+  public int leaseMaxRequests() {
+    return leaseMaxRequests;
+  }
+
+  public boolean isLeaseEnabled() {
+    return leaseTimeToLive != null;
+  }
+
+  /**
+   * Whether client transport connects to service node as soon as it is discovered, from each of
+   * its event loops, instead of on the first request. Node isn't reported available to router
+   * until it is connected. Connections to node are closed once it leaves the cluster either way.
+   * Default is false.
+   *
+   * @return warm up connections flag
+   */
+  public boolean warmUpConnections() {
+    return warmUpConnections;
+  }
+
+  /**
+   * How long server and client keep rsocket session of broken connection, so that client may
+   * reconnect and resume it, null (default) means connections aren't resumable. Requests and
+   * streams of resumed session continue where they were, frames lost with broken connection are
+   * sent again.
+   *
+   * @return resume session duration
+   */
+  public Duration resumeSessionDuration() {
+    return resumeSessionDuration;
+  }
+
+  /**
+   * Max number of sent frames which each side of resumable session keeps until the other side
+   * acknowledges them. Session can't be resumed if more frames than that were lost with broken
+   * connection.
+   *
+   * @return max number of buffered frames
+   */
+  public int resumeMaxBufferedFrames() {
+    return resumeMaxBufferedFrames;
+  }
+
+  public boolean isResumeEnabled() {
+    return resumeSessionDuration != null;
+  }
+
+  /**
+   * Max size of frame on the wire, 0 (default) means frames aren't fragmented. Larger frames are
+   * split into fragments, and fragments of different streams are sent in turns, so that large
+   * responses don't hold small ones back. Fragments are reassembled by the other side without
+   * copying, so both sides of connection must enable fragmentation.
+   *
+   * @return fragment mtu
+   */
+  public int fragmentMtu() {
+    return fragmentMtu;
+  }
+
+  public boolean isFragmentationEnabled() {
+    return fragmentMtu > 0;
+  }
+
+  /**
+   * Max length of frame reassembled from received fragments. Connection whose peer sends larger
+   * frame is closed, so that peer can't make the other side buffer unbounded amount of fragments.
+   * Default is 16 MB.
+   *
+   * @return max length of reassembled frame
+   */
+  public int fragmentMaxFrameLength() {
+    return fragmentMaxFrameLength;
+  }
+
+  /**
+   * Duration of event loop task after which its event loop is considered blocked and warning with
+   * stack trace of event loop thread is logged, null (default) means blocked event loops aren't
+   * detected.
+   *
+   * @return slow task threshold
+   */
+  public Duration slowTaskThreshold() {
+    return slowTaskThreshold;
+  }
+
+  public boolean isSlowTaskDetectionEnabled() {
+    return slowTaskThreshold != null;
+  }
+
+  /**
+   * Prefix of names of transport gauges (see {@link TransportGauges}) which each service node
+   * publishes: {@code prefix.client}, {@code prefix.server} and event loop gauges. Null (default)
+   * means prefix is class name of the transport followed by id of the node's transport instance,
+   * unique in the process, so that nodes sharing metric registry don't overwrite each other's
+   * gauges.
+   *
+   * @return gauge prefix, may be null
+   */
+  public String gaugePrefix() {
+    return gaugePrefix;
+  }
+
+  public static Builder from(RSocketTransportConfig config) {
+    return new Builder(config);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("RSocketTransportConfig{");
+    sb.append("workerThreads=").append(workerThreads);
+    sb.append(", bossThreads=").append(bossThreads);
+    sb.append(", clientThreads=").append(clientThreads);
+    sb.append(", preferEpoll=").append(preferEpoll);
+    sb.append(", allocatorFactory=").append(allocatorFactory);
+    sb.append(", unixDomainSocketDir=").append(unixDomainSocketDir);
+    sb.append(", preferUnixDomainSocket=").append(preferUnixDomainSocket);
+    sb.append(", batchMaxMessages=").append(batchMaxMessages);
+    sb.append(", batchMaxDelay=").append(batchMaxDelay);
+    sb.append(", streamBatchMaxSize=").append(streamBatchMaxSize);
+    sb.append(", streamBatchMaxDelay=").append(streamBatchMaxDelay);
+    sb.append(", flushConsolidationMaxFlushes=").append(flushConsolidationMaxFlushes);
+    sb.append(", sendBufferSize=").append(sendBufferSize);
+    sb.append(", receiveBufferSize=").append(receiveBufferSize);
+    sb.append(", tcpNoDelay=").append(tcpNoDelay);
+    sb.append(", writeBufferLowWaterMark=").append(writeBufferLowWaterMark);
+    sb.append(", writeBufferHighWaterMark=").append(writeBufferHighWaterMark);
+    sb.append(", leaseTimeToLive=").append(leaseTimeToLive);
+    sb.append(", leaseMaxRequests=").append(leaseMaxRequests);
+    sb.append(", warmUpConnections=").append(warmUpConnections);
+    sb.append(", resumeSessionDuration=").append(resumeSessionDuration);
+    sb.append(", resumeMaxBufferedFrames=").append(resumeMaxBufferedFrames);
+    sb.append(", fragmentMtu=").append(fragmentMtu);
+    sb.append(", fragmentMaxFrameLength=").append(fragmentMaxFrameLength);
+    sb.append(", slowTaskThreshold=").append(slowTaskThreshold);
+    sb.append(", gaugePrefix=").append(gaugePrefix);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  public static class Builder {
+
+    private int workerThreads = NettyRuntime.availableProcessors();
+    private int bossThreads = 0;
+    private int clientThreads = 0;
+    private boolean preferEpoll = true;
+    private Supplier<ByteBufAllocator> allocatorFactory;
+    private Path unixDomainSocketDir;
+    private boolean preferUnixDomainSocket = true;
+    private int batchMaxMessages = DEFAULT_BATCH_MAX_MESSAGES;
+    private Duration batchMaxDelay = DEFAULT_BATCH_MAX_DELAY;
+    private int streamBatchMaxSize = DEFAULT_STREAM_BATCH_MAX_SIZE;
+    private Duration streamBatchMaxDelay = DEFAULT_STREAM_BATCH_MAX_DELAY;
+    private int flushConsolidationMaxFlushes = 0;
+    private int sendBufferSize = 0;
+    private int receiveBufferSize = 0;
+    private boolean tcpNoDelay = true;
+    private int writeBufferLowWaterMark = 0;
+    private int writeBufferHighWaterMark = 0;
+    private Duration leaseTimeToLive;
+    private int leaseMaxRequests = DEFAULT_LEASE_MAX_REQUESTS;
+    private boolean warmUpConnections = false;
+    private Duration resumeSessionDuration;
+    private int resumeMaxBufferedFrames = DEFAULT_RESUME_MAX_BUFFERED_FRAMES;
+    private int fragmentMtu = 0;
+    private int fragmentMaxFrameLength = DEFAULT_FRAGMENT_MAX_FRAME_LENGTH;
+    private Duration slowTaskThreshold;
+    private String gaugePrefix;
+
+    private Builder() {}
+
+    private Builder(RSocketTransportConfig config) {
+      this.workerThreads = config.workerThreads;
+      this.bossThreads = config.bossThreads;
+      this.clientThreads = config.clientThreads;
+      this.preferEpoll = config.preferEpoll;
+      this.allocatorFactory = config.allocatorFactory;
+      this.unixDomainSocketDir = config.unixDomainSocketDir;
+      this.preferUnixDomainSocket = config.preferUnixDomainSocket;
+      this.batchMaxMessages = config.batchMaxMessages;
+      this.batchMaxDelay = config.batchMaxDelay;
+      this.streamBatchMaxSize = config.streamBatchMaxSize;
+      this.streamBatchMaxDelay = config.streamBatchMaxDelay;
+      this.flushConsolidationMaxFlushes = config.flushConsolidationMaxFlushes;
+      this.sendBufferSize = config.sendBufferSize;
+      this.receiveBufferSize = config.receiveBufferSize;
+      this.tcpNoDelay = config.tcpNoDelay;
+      this.writeBufferLowWaterMark = config.writeBufferLowWaterMark;
+      this.writeBufferHighWaterMark = config.writeBufferHighWaterMark;
+      this.leaseTimeToLive = config.leaseTimeToLive;
+      this.leaseMaxRequests = config.leaseMaxRequests;
+      this.warmUpConnections = config.warmUpConnections;
+      this.resumeSessionDuration = config.resumeSessionDuration;
+      this.resumeMaxBufferedFrames = config.resumeMaxBufferedFrames;
+      this.fragmentMtu = config.fragmentMtu;
+      this.fragmentMaxFrameLength = config.fragmentMaxFrameLength;
+      this.slowTaskThreshold = config.slowTaskThreshold;
+      this.gaugePrefix = config.gaugePrefix;
+    }
+
+    /**
+     * Sets number of worker event loop threads.
+     *
+     * @param workerThreads number of worker threads
+     * @return this builder
+     */
+    public Builder workerThreads(int workerThreads) {
+      if (workerThreads < 1) {
+        throw new IllegalArgumentException("workerThreads must be positive");
+      }
+      this.workerThreads = workerThreads;
+      return this;
+    }
+
+    /**
+     * Sets number of threads of separate boss event loop group.
+     *
+     * @param bossThreads number of boss threads, 0 means accepting on worker event loop group
+     * @return this builder
+     */
+    public Builder bossThreads(int bossThreads) {
+      if (bossThreads < 0) {
+        throw new IllegalArgumentException("bossThreads must not be negative");
+      }
+      this.bossThreads = bossThreads;
+      return this;
+    }
+
+    /**
+     * Sets number of threads of separate client event loop group.
+     *
+     * @param clientThreads number of client threads, 0 means sharing worker event loop group
+     * @return this builder
+     */
+    public Builder clientThreads(int clientThreads) {
+      if (clientThreads < 0) {
+        throw new IllegalArgumentException("clientThreads must not be negative");
+      }
+      this.clientThreads = clientThreads;
+      return this;
+    }
+
+    public Builder preferEpoll(boolean preferEpoll) {
+      this.preferEpoll = preferEpoll;
+      return this;
+    }
+
+    /**
+     * Sets allocator of channel and message buffers, which is shared by all transports created
+     * with this config.
+     *
+     * @param allocator buffer allocator, null leaves netty default allocator
+     * @return this builder
+     */
+    public Builder allocator(ByteBufAllocator allocator) {
+      this.allocatorFactory = allocator != null ? () -> allocator : null;
+      return this;
+    }
+
+    /**
+     * Sets factory of allocator of channel and message buffers, which is called once per transport
+     * event loop group.
+     *
+     * @param allocatorFactory buffer allocator factory, null leaves netty default allocator
+     * @return this builder
+     */
+    public Builder allocatorFactory(Supplier<ByteBufAllocator> allocatorFactory) {
+      this.allocatorFactory = allocatorFactory;
+      return this;
+    }
+
+    /**
+     * Sets pooled allocator of channel and message buffers, created for each transport event loop
+     * group with default page size, max order and thread cache sizes.
+     *
+     * @param preferDirect whether direct buffers are preferred over heap ones
+     * @param arenas number of arenas (of preferred kind); fewer arenas save memory, more arenas
+     *     reduce contention between event loops
+     * @return this builder
+     */
+    public Builder pooledAllocator(boolean preferDirect, int arenas) {
+      if (arenas < 0) {
+        throw new IllegalArgumentException("arenas must not be negative");
+      }
+      this.allocatorFactory =
+          () ->
+              new PooledByteBufAllocator(
+                  preferDirect,
+                  preferDirect ? PooledByteBufAllocator.defaultNumHeapArena() : arenas,
+                  preferDirect ? arenas : PooledByteBufAllocator.defaultNumDirectArena(),
+                  PooledByteBufAllocator.defaultPageSize(),
+                  PooledByteBufAllocator.defaultMaxOrder(),
+                  PooledByteBufAllocator.defaultTinyCacheSize(),
+                  PooledByteBufAllocator.defaultSmallCacheSize(),
+                  PooledByteBufAllocator.defaultNormalCacheSize(),
+                  PooledByteBufAllocator.defaultUseCacheForAllThreads());
+      return this;
+    }
+
+    public Builder unixDomainSocketDir(Path unixDomainSocketDir) {
+      this.unixDomainSocketDir = unixDomainSocketDir;
+      return this;
+    }
+
+    public Builder preferUnixDomainSocket(boolean preferUnixDomainSocket) {
+      this.preferUnixDomainSocket = preferUnixDomainSocket;
+      return this;
+    }
+
+    /**
+     * Sets max number of request-response calls packed into one frame.
+     *
+     * @param batchMaxMessages max number of messages per batch frame, 1 turns batching off
+     * @return this builder
+     */
+    public Builder batchMaxMessages(int batchMaxMessages) {
+      if (batchMaxMessages < 1) {
+        throw new IllegalArgumentException("batchMaxMessages must be positive");
+      }
+      this.batchMaxMessages = batchMaxMessages;
+      return this;
+    }
+
+    /**
+     * Sets max time a call waits for other calls to be packed with.
+     *
+     * @param batchMaxDelay max batch delay
+     * @return this builder
+     */
+    public Builder batchMaxDelay(Duration batchMaxDelay) {
+      Objects.requireNonNull(batchMaxDelay, "batchMaxDelay");
+      if (batchMaxDelay.isNegative()) {
+        throw new IllegalArgumentException("batchMaxDelay must not be negative");
+      }
+      this.batchMaxDelay = batchMaxDelay;
+      return this;
+    }
+
+    /**
+     * Sets max number of request-stream elements packed into one frame.
+     *
+     * @param streamBatchMaxSize max number of stream elements per frame, 1 turns stream batching
+     *     off
+     * @return this builder
+     */
+    public Builder streamBatchMaxSize(int streamBatchMaxSize) {
+      if (streamBatchMaxSize < 1) {
+        throw new IllegalArgumentException("streamBatchMaxSize must be positive");
+      }
+      this.streamBatchMaxSize = streamBatchMaxSize;
+      return this;
+    }
+
+    /**
+     * Sets max time a stream element waits for other elements to be packed with.
+     *
+     * @param streamBatchMaxDelay max stream batch delay
+     * @return this builder
+     */
+    public Builder streamBatchMaxDelay(Duration streamBatchMaxDelay) {
+      Objects.requireNonNull(streamBatchMaxDelay, "streamBatchMaxDelay");
+      if (streamBatchMaxDelay.isNegative() || streamBatchMaxDelay.isZero()) {
+        throw new IllegalArgumentException("streamBatchMaxDelay must be positive");
+      }
+      this.streamBatchMaxDelay = streamBatchMaxDelay;
+      return this;
+    }
+
+    /**
+     * Sets max number of explicit flushes consolidated while channel is read.
+     *
+     * @param maxFlushes max number of explicit flushes before forced socket flush, 0 turns flush
+     *     consolidation off
+     * @return this builder
+     */
+    public Builder flushConsolidationMaxFlushes(int maxFlushes) {
+      if (maxFlushes < 0) {
+        throw new IllegalArgumentException("maxFlushes must not be negative");
+      }
+      this.flushConsolidationMaxFlushes = maxFlushes;
+      return this;
+    }
+
+    public Builder sendBufferSize(int sendBufferSize) {
+      this.sendBufferSize = sendBufferSize;
+      return this;
+    }
+
+    public Builder receiveBufferSize(int receiveBufferSize) {
+      this.receiveBufferSize = receiveBufferSize;
+      return this;
+    }
+
+    public Builder tcpNoDelay(boolean tcpNoDelay) {
+      this.tcpNoDelay = tcpNoDelay;
+      return this;
+    }
+
+    /**
+     * Sets channel write buffer water marks. Channel becomes not writable once outbound buffer
+     * exceeds high water mark and writable again when it drops below low water mark.
+     *
+     * @param low low water mark in bytes
+     * @param high high water mark in bytes
+     * @return this builder
+     */
+    public Builder writeBufferWaterMark(int low, int high) {
+      if (low < 0 || high < low) {
+        throw new IllegalArgumentException(
+            "write buffer water mark: low=" + low + " must be non negative and <= high=" + high);
+      }
+      this.writeBufferLowWaterMark = low;
+      this.writeBufferHighWaterMark = high;
+      return this;
+    }
+
+    /**
+     * Turns on leases issued by server transport.
+     *
+     * @param timeToLive lease time to live
+     * @param maxRequests number of requests allowed per time to live when server is idle
+     * @return this builder
+     */
+    public Builder lease(Duration timeToLive, int maxRequests) {
+      Objects.requireNonNull(timeToLive, "timeToLive");
+      if (timeToLive.toMillis() < 2) {
+        throw new IllegalArgumentException("lease timeToLive must be at least 2 ms");
+      }
+      if (maxRequests < 1) {
+        throw new IllegalArgumentException("lease maxRequests must be positive");
+      }
+      this.leaseTimeToLive = timeToLive;
+      this.leaseMaxRequests = maxRequests;
+      return this;
+    }
+
+    public Builder warmUpConnections(boolean warmUpConnections) {
+      this.warmUpConnections = warmUpConnections;
+      return this;
+    }
+
+    /**
+     * Turns on resumption of rsocket sessions of broken connections.
+     *
+     * @param sessionDuration how long session of broken connection is kept
+     * @param maxBufferedFrames max number of sent frames kept until acknowledged
+     * @return this builder
+     */
+    public Builder resume(Duration sessionDuration, int maxBufferedFrames) {
+      Objects.requireNonNull(sessionDuration, "sessionDuration");
+      if (sessionDuration.isNegative() || sessionDuration.isZero()) {
+        throw new IllegalArgumentException("resume sessionDuration must be positive");
+      }
+      if (maxBufferedFrames < 1) {
+        throw new IllegalArgumentException("resume maxBufferedFrames must be positive");
+      }
+      this.resumeSessionDuration = sessionDuration;
+      this.resumeMaxBufferedFrames = maxBufferedFrames;
+      return this;
+    }
+
+    /**
+     * Turns on fragmentation of frames larger than given mtu.
+     *
+     * @param mtu max size of frame on the wire, at least {@link #MIN_FRAGMENT_MTU}
+     * @return this builder
+     */
+    public Builder fragmentation(int mtu) {
+      return fragmentation(mtu, DEFAULT_FRAGMENT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Turns on fragmentation of frames larger than given mtu.
+     *
+     * @param mtu max size of frame on the wire, at least {@link #MIN_FRAGMENT_MTU}
+     * @param maxFrameLength max length of frame reassembled from received fragments
+     * @return this builder
+     */
+    public Builder fragmentation(int mtu, int maxFrameLength) {
+      if (mtu < MIN_FRAGMENT_MTU) {
+        throw new IllegalArgumentException("fragment mtu must be at least " + MIN_FRAGMENT_MTU);
+      }
+      if (maxFrameLength < mtu) {
+        throw new IllegalArgumentException("fragment maxFrameLength must be at least mtu");
+      }
+      this.fragmentMtu = mtu;
+      this.fragmentMaxFrameLength = maxFrameLength;
+      return this;
+    }
+
+    /**
+     * Turns on detection of event loop tasks which run longer than given threshold.
+     *
+     * @param threshold max duration of event loop task
+     * @return this builder
+     */
+    public Builder slowTaskThreshold(Duration threshold) {
+      Objects.requireNonNull(threshold, "threshold");
+      if (threshold.isNegative() || threshold.isZero()) {
+        throw new IllegalArgumentException("slowTaskThreshold must be positive");
+      }
+      this.slowTaskThreshold = threshold;
+      return this;
+    }
+
+    /**
+     * Sets prefix of transport gauge names. Nodes which share metric registry need different
+     * prefixes.
+     *
+     * @param gaugePrefix gauge prefix
+     * @return this builder
+     */
+    public Builder gaugePrefix(String gaugePrefix) {
+      this.gaugePrefix = Objects.requireNonNull(gaugePrefix, "gaugePrefix");
+      return this;
+    }
+
+    public RSocketTransportConfig build() {
+      return new RSocketTransportConfig(this);
+    }
+  }
+}
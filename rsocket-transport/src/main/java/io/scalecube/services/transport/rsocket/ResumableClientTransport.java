@@ -0,0 +1,120 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.channel.EventLoopGroup;
+import io.rsocket.DuplexConnection;
+import io.rsocket.Frame;
+import io.rsocket.exceptions.RejectedResumeException;
+import io.rsocket.framing.FrameType;
+import io.rsocket.transport.ClientTransport;
+import java.time.Duration;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client transport of resumable sessions. Connects with the given transport, starts new session
+ * on the connection and, once connection breaks, reconnects with growing delay and resumes the
+ * session until it is resumed or expired.
+ */
+final class ResumableClientTransport implements ClientTransport {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResumableClientTransport.class);
+
+  private static final Duration MIN_RECONNECT_DELAY = Duration.ofMillis(50);
+  private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(1);
+
+  private final ClientTransport transport;
+  private final EventLoopGroup eventLoopGroup;
+  private final RSocketTransportConfig config;
+
+  /**
+   * Creates client transport.
+   *
+   * @param transport transport of underlying connections
+   * @param eventLoopGroup event loop group of underlying connections, reconnecting stops once it
+   *     is shut down
+   * @param config transport config
+   */
+  ResumableClientTransport(
+      ClientTransport transport, EventLoopGroup eventLoopGroup, RSocketTransportConfig config) {
+    this.transport = transport;
+    this.eventLoopGroup = eventLoopGroup;
+    this.config = config;
+  }
+
+  @Override
+  public Mono<DuplexConnection> connect() {
+    return transport
+        .connect()
+        .map(
+            connection -> {
+              ResumableDuplexConnection session =
+                  new ResumableDuplexConnection(
+                      UUID.randomUUID(), config, session1 -> reconnect(session1, null));
+              session.connect(
+                  connection, connection.receive(), ResumeFrames.newSession(session.token()));
+              return session;
+            });
+  }
+
+  private void reconnect(ResumableDuplexConnection session, Duration lastDelay) {
+    Duration delay = MIN_RECONNECT_DELAY;
+    if (lastDelay != null) {
+      delay = lastDelay.multipliedBy(2);
+      if (delay.compareTo(MAX_RECONNECT_DELAY) > 0) {
+        delay = MAX_RECONNECT_DELAY;
+      }
+    }
+    Duration nextDelay = delay;
+
+    Mono.delay(delay)
+        .then(Mono.defer(transport::connect))
+        .flatMap(connection -> resume(session, connection))
+        .subscribe(
+            null,
+            ex -> {
+              if (session.isDisposed() || session.isConnected()) {
+                return;
+              }
+              if (ex instanceof RejectedResumeException || eventLoopGroup.isShuttingDown()) {
+                LOGGER.warn("Failed to resume session {}, cause: {}", session.token(), ex);
+                session.dispose();
+                return;
+              }
+              LOGGER.debug("Failed to resume session {}, cause: {}", session.token(), ex);
+              reconnect(session, nextDelay);
+            });
+  }
+
+  private Mono<Void> resume(ResumableDuplexConnection session, DuplexConnection connection) {
+    if (session.isDisposed()) {
+      connection.dispose();
+      return Mono.empty();
+    }
+    return ResumeFrames.receiveFirst(connection)
+        .doOnSubscribe(s -> connection.sendOne(session.resumeFrame()).subscribe())
+        .timeout(config.resumeSessionDuration())
+        .flatMap(
+            tuple -> {
+              Frame reply = tuple.getT1();
+              try {
+                if (!ResumeFrames.isPosition(reply)) {
+                  String message =
+                      reply.getType() == FrameType.ERROR
+                          ? Frame.Error.message(reply)
+                          : "Unexpected reply " + reply.getType();
+                  return Mono.error(new RejectedResumeException(message));
+                }
+                if (!session.resume(connection, tuple.getT2(), ResumeFrames.position(reply))) {
+                  return Mono.error(new RejectedResumeException("Lost frames are discarded"));
+                }
+                LOGGER.info("Resumed session {}", session.token());
+                return Mono.<Void>empty();
+              } finally {
+                reply.release();
+              }
+            })
+        .doOnError(ex -> connection.dispose());
+  }
+}
@@ -0,0 +1,338 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.rsocket.DuplexConnection;
+import io.rsocket.Frame;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.UnicastProcessor;
+
+/**
+ * Resumable rsocket session: connection given to rsocket which outlives broken underlying
+ * connections. Sent frames are kept until the other side acknowledges them. Once underlying
+ * connection breaks, client reconnects and both sides send again frames which the other side
+ * didn't receive, so rsocket requests and streams continue as if nothing happened. Session is
+ * closed if it isn't resumed within session duration.
+ *
+ * <p>All state is guarded by this object's monitor, frames received from underlying connection
+ * are delivered to rsocket under it as well, so that frames of replaced connection can't be
+ * reordered with frames of new one.
+ */
+final class ResumableDuplexConnection implements DuplexConnection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResumableDuplexConnection.class);
+
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(1);
+
+  private final UUID token;
+  private final Duration sessionDuration;
+  private final int maxBufferedFrames;
+  private final int ackInterval;
+  private final Consumer<ResumableDuplexConnection> onDisconnect;
+
+  private final UnicastProcessor<Frame> inbound = UnicastProcessor.create();
+  private final FluxSink<Frame> inboundSink = inbound.sink();
+  private final MonoProcessor<Void> onClose = MonoProcessor.create();
+
+  private final Queue<Frame> sentFrames = new ArrayDeque<>();
+  private long firstSentPosition; // position of the first of sent frames
+  private long receivedPosition;
+  private long acknowledgedPosition; // received position last sent to the other side
+
+  private DuplexConnection connection; // null while disconnected
+  private FluxSink<Frame> outbound;
+  private Disposable expiration;
+  private boolean disposed;
+
+  /**
+   * Creates session.
+   *
+   * @param token session token
+   * @param config transport config
+   * @param onDisconnect called once underlying connection breaks, client side reconnects there;
+   *     may be null
+   */
+  ResumableDuplexConnection(
+      UUID token,
+      RSocketTransportConfig config,
+      Consumer<ResumableDuplexConnection> onDisconnect) {
+    this.token = token;
+    this.sessionDuration = config.resumeSessionDuration();
+    this.maxBufferedFrames = config.resumeMaxBufferedFrames();
+    this.ackInterval = Math.max(1, maxBufferedFrames / 4);
+    this.onDisconnect = onDisconnect;
+  }
+
+  UUID token() {
+    return token;
+  }
+
+  /**
+   * Attaches the first underlying connection.
+   *
+   * @param connection underlying connection
+   * @param frames frames received from the connection
+   * @param handshake frame to send first, may be null
+   */
+  synchronized void connect(DuplexConnection connection, Flux<Frame> frames, Frame handshake) {
+    attach(connection, frames, handshake);
+  }
+
+  /**
+   * Returns RESUME frame for the next connection of client side.
+   *
+   * @return resume frame
+   */
+  synchronized Frame resumeFrame() {
+    acknowledgedPosition = receivedPosition;
+    return ResumeFrames.resumeSession(token, receivedPosition, firstSentPosition);
+  }
+
+  /**
+   * Attaches new underlying connection on client side, once server replied to RESUME frame.
+   *
+   * @param connection new underlying connection
+   * @param frames frames received from the connection
+   * @param peerReceivedPosition position of the last frame server received
+   * @return false if session can't be resumed since frames server didn't receive are discarded
+   */
+  synchronized boolean resume(
+      DuplexConnection connection, Flux<Frame> frames, long peerReceivedPosition) {
+    if (disposed || !canResendFrom(peerReceivedPosition)) {
+      return false;
+    }
+    detach();
+    release(peerReceivedPosition);
+    attach(connection, frames, null);
+    resend();
+    return true;
+  }
+
+  /**
+   * Attaches new underlying connection on server side, replying to client's RESUME frame.
+   *
+   * @param connection new underlying connection
+   * @param frames frames received from the connection
+   * @param peerReceivedPosition position of the last frame client received
+   * @param peerFirstAvailablePosition position of the first frame client can send again
+   * @return false if session can't be resumed since frames either side didn't receive are
+   *     discarded
+   */
+  synchronized boolean acceptResume(
+      DuplexConnection connection,
+      Flux<Frame> frames,
+      long peerReceivedPosition,
+      long peerFirstAvailablePosition) {
+    if (disposed
+        || !canResendFrom(peerReceivedPosition)
+        || peerFirstAvailablePosition > receivedPosition) {
+      return false;
+    }
+    detach();
+    release(peerReceivedPosition);
+    acknowledgedPosition = receivedPosition;
+    attach(connection, frames, ResumeFrames.positionFrame(receivedPosition));
+    resend();
+    return true;
+  }
+
+  synchronized boolean isConnected() {
+    return connection != null;
+  }
+
+  @Override
+  public Mono<Void> send(Publisher<Frame> frames) {
+    return Flux.from(frames).doOnNext(this::sendFrame).then();
+  }
+
+  @Override
+  public Flux<Frame> receive() {
+    return inbound;
+  }
+
+  @Override
+  public synchronized double availability() {
+    return connection != null ? connection.availability() : 0.0;
+  }
+
+  @Override
+  public Mono<Void> onClose() {
+    return onClose;
+  }
+
+  @Override
+  public void dispose() {
+    close(true);
+  }
+
+  @Override
+  public synchronized boolean isDisposed() {
+    return disposed;
+  }
+
+  private synchronized void sendFrame(Frame frame) {
+    if (disposed) {
+      frame.release();
+      return;
+    }
+    sentFrames.add(frame);
+    if (sentFrames.size() > maxBufferedFrames) {
+      // the other side is too late with acknowledgements, so that session may be not resumable
+      sentFrames.poll().release();
+      firstSentPosition++;
+    }
+    if (outbound != null) {
+      outbound.next(frame.retainedDuplicate());
+    }
+  }
+
+  private void attach(DuplexConnection connection, Flux<Frame> frames, Frame handshake) {
+    if (expiration != null) {
+      expiration.dispose();
+      expiration = null;
+    }
+
+    UnicastProcessor<Frame> processor = UnicastProcessor.create();
+    this.connection = connection;
+    this.outbound = processor.sink();
+    if (handshake != null) {
+      outbound.next(handshake);
+    }
+
+    connection
+        .send(processor)
+        .subscribe(
+            null,
+            ex -> connection.dispose(),
+            () -> {
+              if (isDisposed()) {
+                connection.dispose(); // close frame is sent
+              }
+            });
+    frames.subscribe(frame -> onFrame(connection, frame), ex -> connection.dispose());
+    connection
+        .onClose()
+        .subscribe(
+            null, ex -> onConnectionClosed(connection), () -> onConnectionClosed(connection));
+  }
+
+  private void detach() {
+    if (connection != null) {
+      final DuplexConnection current = connection;
+      connection = null;
+      outbound.complete();
+      outbound = null;
+      current.dispose();
+    }
+  }
+
+  private synchronized void onFrame(DuplexConnection source, Frame frame) {
+    if (source != connection || disposed) {
+      frame.release(); // frame of replaced connection
+      return;
+    }
+    if (ResumeFrames.isPosition(frame)) {
+      long position = ResumeFrames.position(frame);
+      frame.release();
+      release(position);
+      return;
+    }
+    if (ResumeFrames.isClose(frame)) {
+      frame.release();
+      LOGGER.debug("Session {} is closed by the other side", token);
+      close(false);
+      return;
+    }
+    receivedPosition++;
+    if (receivedPosition - acknowledgedPosition >= ackInterval) {
+      acknowledgedPosition = receivedPosition;
+      outbound.next(ResumeFrames.positionFrame(receivedPosition));
+    }
+    inboundSink.next(frame);
+  }
+
+  private void onConnectionClosed(DuplexConnection closed) {
+    synchronized (this) {
+      if (closed != connection || disposed) {
+        return;
+      }
+      connection = null;
+      outbound.complete();
+      outbound = null;
+      expiration =
+          Mono.delay(sessionDuration)
+              .subscribe(
+                  avoid -> {
+                    LOGGER.warn("Session {} isn't resumed within {}", token, sessionDuration);
+                    close(false);
+                  });
+    }
+    LOGGER.info("Connection of session {} is broken, waiting for resume", token);
+    if (onDisconnect != null) {
+      onDisconnect.accept(this);
+    }
+  }
+
+  private boolean canResendFrom(long position) {
+    return position >= firstSentPosition && position <= firstSentPosition + sentFrames.size();
+  }
+
+  private void release(long position) {
+    while (firstSentPosition < position && !sentFrames.isEmpty()) {
+      sentFrames.poll().release();
+      firstSentPosition++;
+    }
+  }
+
+  private void resend() {
+    for (Frame frame : sentFrames) {
+      outbound.next(frame.retainedDuplicate());
+    }
+  }
+
+  private void close(boolean notifyOtherSide) {
+    final DuplexConnection current;
+    synchronized (this) {
+      if (disposed) {
+        return;
+      }
+      disposed = true;
+      if (expiration != null) {
+        expiration.dispose();
+      }
+      sentFrames.forEach(Frame::release);
+      sentFrames.clear();
+      current = connection;
+      if (current != null) {
+        if (notifyOtherSide) {
+          outbound.next(ResumeFrames.close());
+        }
+        outbound.complete(); // connection is closed once close frame is sent
+        connection = null;
+        outbound = null;
+      }
+    }
+
+    inboundSink.complete();
+    if (current == null) {
+      onClose.onComplete();
+      return;
+    }
+    current.onClose().subscribe(null, ex -> onClose.onComplete(), onClose::onComplete);
+    if (!notifyOtherSide) {
+      current.dispose();
+    } else {
+      Mono.delay(CLOSE_TIMEOUT).subscribe(avoid -> current.dispose());
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.rsocket.Closeable;
+import io.rsocket.DuplexConnection;
+import io.rsocket.Frame;
+import io.rsocket.exceptions.RejectedResumeException;
+import io.rsocket.transport.ServerTransport;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Server transport of resumable sessions. Reads the first frame of accepted connection: new
+ * session is given to rsocket acceptor, connection of known session resumes it. Connections of
+ * clients which don't resume sessions are given to rsocket acceptor as they are.
+ *
+ * @param <T> type of server closeable
+ */
+final class ResumableServerTransport<T extends Closeable> implements ServerTransport<T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResumableServerTransport.class);
+
+  private final ServerTransport<T> transport;
+  private final RSocketTransportConfig config;
+  private final Map<UUID, ResumableDuplexConnection> sessions = new ConcurrentHashMap<>();
+
+  ResumableServerTransport(ServerTransport<T> transport, RSocketTransportConfig config) {
+    this.transport = transport;
+    this.config = config;
+  }
+
+  @Override
+  public Mono<T> start(ConnectionAcceptor acceptor) {
+    return transport.start(
+        connection ->
+            ResumeFrames.receiveFirst(connection)
+                .flatMap(
+                    tuple -> accept(connection, tuple.getT1(), tuple.getT2(), acceptor))
+                .doOnError(ex -> connection.dispose())
+                .onErrorResume(ex -> Mono.empty()));
+  }
+
+  /**
+   * Closes all sessions, so that clients don't try to resume them.
+   *
+   * @return mono which completes once sessions are closed
+   */
+  Mono<Void> closeSessions() {
+    return Flux.fromIterable(sessions.values())
+        .flatMap(
+            session -> {
+              session.dispose();
+              return session.onClose();
+            })
+        .then();
+  }
+
+  private Mono<Void> accept(
+      DuplexConnection connection,
+      Frame first,
+      Flux<Frame> frames,
+      ConnectionAcceptor acceptor) {
+    if (!ResumeFrames.isResume(first)) {
+      // client doesn't resume sessions
+      return acceptor.apply(new PrefetchedDuplexConnection(connection, first, frames));
+    }
+
+    try {
+      UUID token = ResumeFrames.token(first);
+      if (ResumeFrames.isNewSession(first)) {
+        ResumableDuplexConnection session = new ResumableDuplexConnection(token, config, null);
+        sessions.put(token, session);
+        session.onClose().doFinally(s -> sessions.remove(token)).subscribe();
+        session.connect(connection, frames, null);
+        return acceptor.apply(session);
+      }
+
+      ResumableDuplexConnection session = sessions.get(token);
+      if (session == null
+          || !session.acceptResume(
+              connection,
+              frames,
+              ResumeFrames.receivedPosition(first),
+              ResumeFrames.firstAvailablePosition(first))) {
+        LOGGER.warn("Rejected resume of session {}", token);
+        return connection
+            .sendOne(Frame.Error.from(0, new RejectedResumeException("Session can't be resumed")))
+            .then(Mono.fromRunnable(connection::dispose));
+      }
+      LOGGER.info("Resumed session {}", token);
+      return Mono.empty();
+    } finally {
+      first.release();
+    }
+  }
+
+  /** Connection which first frame is already received. */
+  private static final class PrefetchedDuplexConnection implements DuplexConnection {
+
+    private final DuplexConnection connection;
+    private final Flux<Frame> frames;
+
+    private PrefetchedDuplexConnection(
+        DuplexConnection connection, Frame first, Flux<Frame> frames) {
+      this.connection = connection;
+      this.frames = Flux.concat(Mono.just(first), frames);
+    }
+
+    @Override
+    public Mono<Void> send(Publisher<Frame> frames) {
+      return connection.send(frames);
+    }
+
+    @Override
+    public Flux<Frame> receive() {
+      return frames;
+    }
+
+    @Override
+    public double availability() {
+      return connection.availability();
+    }
+
+    @Override
+    public Mono<Void> onClose() {
+      return connection.onClose();
+    }
+
+    @Override
+    public void dispose() {
+      connection.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+      return connection.isDisposed();
+    }
+  }
+}
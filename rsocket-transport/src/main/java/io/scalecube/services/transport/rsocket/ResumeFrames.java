@@ -0,0 +1,157 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.rsocket.DuplexConnection;
+import io.rsocket.Frame;
+import io.rsocket.exceptions.ConnectionCloseException;
+import io.rsocket.frame.ErrorFrameFlyweight;
+import io.rsocket.frame.FrameHeaderFlyweight;
+import io.rsocket.framing.FrameType;
+import java.nio.channels.ClosedChannelException;
+import java.util.UUID;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Connection level frames of resumable sessions (see {@link ResumableDuplexConnection}). These
+ * frames are exchanged only between resumable connections and never reach rsocket:
+ *
+ * <ul>
+ *   <li>RESUME - first frame client sends on every connection of session: session token, whether
+ *       session is new, position of the last received frame and position of the first frame
+ *       client can send again
+ *   <li>RESUME_OK - position of the last received frame: server's reply to RESUME and periodic
+ *       acknowledgement of received frames by either side
+ *   <li>ERROR with CONNECTION_CLOSE code - session is closed by the other side
+ * </ul>
+ *
+ * <p>Frame types of rsocket protocol are reused, but their layout is specific to this transport.
+ * Positions count frames rather than bytes.
+ */
+final class ResumeFrames {
+
+  private static final int DATA_OFFSET = FrameHeaderFlyweight.FRAME_HEADER_LENGTH;
+  private static final byte NEW_SESSION = 0;
+  private static final byte RESUME_SESSION = 1;
+
+  private ResumeFrames() {
+    // Do not instantiate
+  }
+
+  static Frame newSession(UUID token) {
+    return resume(NEW_SESSION, token, 0, 0);
+  }
+
+  static Frame resumeSession(UUID token, long receivedPosition, long firstAvailablePosition) {
+    return resume(RESUME_SESSION, token, receivedPosition, firstAvailablePosition);
+  }
+
+  static Frame positionFrame(long receivedPosition) {
+    ByteBuf data = ByteBufAllocator.DEFAULT.buffer(Long.BYTES).writeLong(receivedPosition);
+    return frame(FrameType.RESUME_OK, data);
+  }
+
+  static Frame close() {
+    return Frame.Error.from(0, new ConnectionCloseException("Session is closed"));
+  }
+
+  static boolean isResume(Frame frame) {
+    return frame.getStreamId() == 0 && frame.getType() == FrameType.RESUME;
+  }
+
+  static boolean isPosition(Frame frame) {
+    return frame.getStreamId() == 0 && frame.getType() == FrameType.RESUME_OK;
+  }
+
+  static boolean isClose(Frame frame) {
+    return frame.getStreamId() == 0
+        && frame.getType() == FrameType.ERROR
+        && Frame.Error.errorCode(frame) == ErrorFrameFlyweight.CONNECTION_CLOSE;
+  }
+
+  static boolean isNewSession(Frame resumeFrame) {
+    return resumeFrame.content().getByte(DATA_OFFSET) == NEW_SESSION;
+  }
+
+  static UUID token(Frame resumeFrame) {
+    ByteBuf content = resumeFrame.content();
+    return new UUID(content.getLong(DATA_OFFSET + 1), content.getLong(DATA_OFFSET + 9));
+  }
+
+  static long receivedPosition(Frame resumeFrame) {
+    return resumeFrame.content().getLong(DATA_OFFSET + 17);
+  }
+
+  static long firstAvailablePosition(Frame resumeFrame) {
+    return resumeFrame.content().getLong(DATA_OFFSET + 25);
+  }
+
+  static long position(Frame positionFrame) {
+    return positionFrame.content().getLong(DATA_OFFSET);
+  }
+
+  /**
+   * Subscribes to frames of the connection and splits them into the first frame (handshake) and
+   * the rest.
+   *
+   * @param connection connection
+   * @return mono of the first frame and flux of the rest, error if connection is closed before
+   *     the first frame
+   */
+  static Mono<Tuple2<Frame, Flux<Frame>>> receiveFirst(DuplexConnection connection) {
+    MonoProcessor<Frame> first = MonoProcessor.create();
+    UnicastProcessor<Frame> rest = UnicastProcessor.create();
+    connection
+        .receive()
+        .subscribe(
+            frame -> {
+              if (first.isTerminated()) {
+                rest.onNext(frame);
+              } else {
+                first.onNext(frame);
+              }
+            },
+            ex -> {
+              first.onError(ex);
+              rest.onError(ex);
+            },
+            () -> {
+              first.onComplete();
+              rest.onComplete();
+            });
+    return first
+        .switchIfEmpty(Mono.error(new ClosedChannelException()))
+        .map(frame -> Tuples.of(frame, rest));
+  }
+
+  private static Frame resume(
+      byte kind, UUID token, long receivedPosition, long firstAvailablePosition) {
+    ByteBuf data =
+        ByteBufAllocator.DEFAULT
+            .buffer(1 + 4 * Long.BYTES)
+            .writeByte(kind)
+            .writeLong(token.getMostSignificantBits())
+            .writeLong(token.getLeastSignificantBits())
+            .writeLong(receivedPosition)
+            .writeLong(firstAvailablePosition);
+    return frame(FrameType.RESUME, data);
+  }
+
+  private static Frame frame(FrameType type, ByteBuf data) {
+    try {
+      int dataLength = data.readableBytes();
+      ByteBuf content =
+          ByteBufAllocator.DEFAULT.buffer(
+              FrameHeaderFlyweight.computeFrameHeaderLength(type, null, dataLength));
+      int length = FrameHeaderFlyweight.encode(content, 0, 0, type, null, data);
+      return Frame.from(content.writerIndex(length));
+    } finally {
+      data.release();
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package io.scalecube.services.transport.rsocket;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Packs stream elements into batches of max size, sending incomplete batch once max delay since
+ * its first element expires, so elements of slow stream aren't held back.
+ *
+ * <p>Unlike {@link Flux#bufferTimeout(int, Duration)} of this reactor version, whose timer may
+ * emit batch concurrently with source, batches are emitted under the same lock they are taken
+ * under, so their order is kept. Batches are emitted only when downstream has requested them:
+ * upstream is requested at most enough elements to fill one batch, and batch which is full or
+ * whose delay has expired waits for demand, so nothing is queued in the sink. Each stream has
+ * a single timer task at most, which is re-armed till max delay of current batch, so fast stream
+ * doesn't schedule task per batch.
+ */
+final class StreamBatches {
+
+  private StreamBatches() {
+    // Do not instantiate
+  }
+
+  /**
+   * Packs elements of the given stream into batches.
+   *
+   * @param source stream
+   * @param maxSize max number of elements per batch
+   * @param maxDelay max time the first element of batch waits for other elements
+   * @param <T> type of elements
+   * @return stream of batches
+   */
+  static <T> Flux<List<T>> batch(Flux<T> source, int maxSize, Duration maxDelay) {
+    return Flux.create(sink -> source.subscribe(new Batcher<>(sink, maxSize, maxDelay)));
+  }
+
+  private static final class Batcher<T> extends BaseSubscriber<T> {
+
+    private final FluxSink<List<T>> sink;
+    private final int maxSize;
+    private final long maxDelayNanos;
+    // one timer per stream, re-armed till max delay of current batch instead of task per batch
+    private final Scheduler.Worker timer = Schedulers.parallel().createWorker();
+
+    // guarded by this
+    private List<T> batch;
+    private long deadline; // nano time when max delay of batch passes
+    private boolean expired; // max delay of batch has passed
+    private boolean timerArmed;
+    private long demand; // batches requested by downstream, but not emitted yet
+    private long pending; // elements requested from upstream, but not received yet
+    private boolean done;
+    private boolean terminated; // sink is completed or failed
+    private Throwable error;
+
+    private Batcher(FluxSink<List<T>> sink, int maxSize, Duration maxDelay) {
+      this.sink = sink;
+      this.maxSize = maxSize;
+      this.maxDelayNanos = maxDelay.toNanos();
+      sink.onDispose(
+          () -> {
+            dispose();
+            timer.dispose();
+          });
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      sink.onRequest(this::requestBatches);
+    }
+
+    private void requestBatches(long n) {
+      synchronized (this) {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+      }
+      drain();
+    }
+
+    @Override
+    protected void hookOnNext(T value) {
+      boolean arm = false;
+      synchronized (this) {
+        pending--;
+        if (batch == null) {
+          batch = new ArrayList<>(Math.min(maxSize, 64));
+          deadline = System.nanoTime() + maxDelayNanos;
+          expired = false;
+          if (!timerArmed) {
+            timerArmed = true;
+            arm = true;
+          }
+        }
+        batch.add(value);
+      }
+      if (arm) {
+        schedule(maxDelayNanos);
+      }
+      drain();
+    }
+
+    private void onTimer() {
+      long delay;
+      synchronized (this) {
+        if (batch == null || terminated) {
+          // next batch arms timer again
+          timerArmed = false;
+          return;
+        }
+        // batch may have been emitted and new one started since timer was armed
+        delay = deadline - System.nanoTime();
+        if (delay <= 0) {
+          expired = true;
+          timerArmed = false;
+        }
+      }
+      if (delay > 0) {
+        schedule(delay);
+      } else {
+        drain();
+      }
+    }
+
+    private void schedule(long delayNanos) {
+      try {
+        timer.schedule(this::onTimer, delayNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException ex) {
+        // timer is disposed along with stream
+      }
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      synchronized (this) {
+        done = true;
+      }
+      drain();
+    }
+
+    @Override
+    protected void hookOnError(Throwable throwable) {
+      synchronized (this) {
+        done = true;
+        error = throwable;
+      }
+      drain();
+    }
+
+    private void drain() {
+      long elements;
+      synchronized (this) {
+        if (terminated) {
+          return;
+        }
+        if (batch != null && demand > 0 && (expired || done || batch.size() >= maxSize)) {
+          List<T> result = batch;
+          batch = null;
+          demand--;
+          sink.next(result);
+        }
+        if (done) {
+          if (batch == null) {
+            terminated = true;
+            timer.dispose();
+            if (error != null) {
+              sink.error(error);
+            } else {
+              sink.complete();
+            }
+          }
+          return;
+        }
+        if (demand == 0) {
+          return;
+        }
+        // elements of one batch at most, so whatever arrives fits into batch held for demand
+        elements = maxSize - pending - (batch != null ? batch.size() : 0);
+        if (elements <= 0) {
+          return;
+        }
+        pending += elements;
+      }
+      request(elements);
+    }
+  }
+}
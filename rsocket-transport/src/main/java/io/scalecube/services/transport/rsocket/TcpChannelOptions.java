@@ -0,0 +1,74 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import reactor.ipc.netty.options.NettyOptions;
+
+/**
+ * Applies socket options, buffer allocator and flush consolidation of {@link
+ * RSocketTransportConfig} to tcp client and server options, so both sides of the connection are
+ * tuned the same way.
+ */
+final class TcpChannelOptions {
+
+  private static final String FLUSH_CONSOLIDATION_HANDLER = "flushConsolidationHandler";
+
+  private TcpChannelOptions() {
+    // Do not instantiate
+  }
+
+  /**
+   * Applies transport config to netty options. For server options socket options are applied to
+   * accepted channels.
+   *
+   * @param options tcp client or server options builder
+   * @param config transport config
+   * @param allocator allocator of channel buffers
+   */
+  static void apply(
+      NettyOptions.Builder<?, ?, ?> options,
+      RSocketTransportConfig config,
+      ByteBufAllocator allocator) {
+    options.option(ChannelOption.TCP_NODELAY, config.tcpNoDelay());
+    applyDomainSocket(options, config, allocator);
+  }
+
+  /**
+   * Applies transport config to netty options of unix domain socket, i.e. all but tcp specific
+   * options.
+   *
+   * @param options client or server options builder
+   * @param config transport config
+   * @param allocator allocator of channel buffers
+   */
+  static void applyDomainSocket(
+      NettyOptions.Builder<?, ?, ?> options,
+      RSocketTransportConfig config,
+      ByteBufAllocator allocator) {
+    options.option(ChannelOption.ALLOCATOR, allocator);
+    if (config.sendBufferSize() > 0) {
+      options.option(ChannelOption.SO_SNDBUF, config.sendBufferSize());
+    }
+    if (config.receiveBufferSize() > 0) {
+      options.option(ChannelOption.SO_RCVBUF, config.receiveBufferSize());
+    }
+    if (config.writeBufferHighWaterMark() > 0) {
+      options.option(
+          ChannelOption.WRITE_BUFFER_WATER_MARK,
+          new WriteBufferWaterMark(
+              config.writeBufferLowWaterMark(), config.writeBufferHighWaterMark()));
+    }
+    if (config.isFlushConsolidationEnabled()) {
+      // first in pipeline, so it sees flushes of all other handlers
+      options.afterChannelInit(
+          channel ->
+              channel
+                  .pipeline()
+                  .addFirst(
+                      FLUSH_CONSOLIDATION_HANDLER,
+                      new FlushConsolidationHandler(config.flushConsolidationMaxFlushes())));
+    }
+  }
+}
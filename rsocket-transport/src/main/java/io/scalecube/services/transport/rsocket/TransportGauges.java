@@ -0,0 +1,227 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.unix.DomainSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.rsocket.Closeable;
+import io.rsocket.DuplexConnection;
+import io.rsocket.transport.ClientTransport;
+import io.rsocket.transport.ServerTransport;
+import io.scalecube.services.metrics.GaugeMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import reactor.core.Disposable;
+import reactor.ipc.netty.NettyContext;
+
+/**
+ * Health gauges of client or server side of transport, named {@code prefix.gauge}, where prefix
+ * is {@link RSocketTransportConfig#gaugePrefix()} or unique {@link #instancePrefix(Class)}:
+ *
+ * <ul>
+ *   <li>{@code connections}, {@code outstandingRequests}, {@code inboundCredits}, {@code
+ *       outboundCredits} - aggregated over connections (see {@link MonitoredDuplexConnection}), and
+ *       per connection as {@code prefix.connection.N.gauge}
+ *   <li>{@code pendingWriteBytes} - bytes written to channels but not yet flushed to sockets,
+ *       aggregated over channels, and per channel as {@code prefix.channel.channelId.gauge}
+ *   <li>{@code domainSocketChannels} - channels over unix domain sockets (see {@link
+ *       UnixDomainSockets})
+ *   <li>{@code batches}, {@code batchedRequests} - batch frames sent by client transport and
+ *       requests packed into them (see {@link RSocketRequestBatcher})
+ * </ul>
+ *
+ * <p>Besides, {@link #eventLoops} publishes pending tasks of event loops. Gauges hold references
+ * to connections, channels and event loops, so they are removed once transport stops (see {@link
+ * #removeAll()}), as transport instances of a process usually share metric registry.
+ */
+final class TransportGauges {
+
+  static final String CONNECTIONS = "connections";
+  static final String OUTSTANDING_REQUESTS = "outstandingRequests";
+  static final String INBOUND_CREDITS = "inboundCredits";
+  static final String OUTBOUND_CREDITS = "outboundCredits";
+  static final String PENDING_WRITE_BYTES = "pendingWriteBytes";
+  static final String DOMAIN_SOCKET_CHANNELS = "domainSocketChannels";
+  static final String PENDING_TASKS = "pendingTasks";
+  static final String BATCHES = "batches";
+  static final String BATCHED_REQUESTS = "batchedRequests";
+
+  private static final AtomicLong INSTANCE_IDS = new AtomicLong();
+
+  private final GaugeMetrics gauges;
+  private final String prefix;
+  private final AtomicLong connectionIds = new AtomicLong();
+  private final Set<MonitoredDuplexConnection> connections = ConcurrentHashMap.newKeySet();
+  private final Set<Channel> channels = ConcurrentHashMap.newKeySet();
+  private final Set<String> names = ConcurrentHashMap.newKeySet(); // of registered gauges
+
+  /**
+   * Creates gauges and registers aggregated ones.
+   *
+   * @param gauges gauge metrics
+   * @param prefix prefix of gauge names
+   */
+  TransportGauges(GaugeMetrics gauges, String prefix) {
+    this.gauges = gauges;
+    this.prefix = prefix;
+    register(name(CONNECTIONS), connections::size);
+    register(
+        name(OUTSTANDING_REQUESTS), () -> sum(MonitoredDuplexConnection::outstandingRequests));
+    register(name(INBOUND_CREDITS), () -> sum(MonitoredDuplexConnection::inboundCredits));
+    register(name(OUTBOUND_CREDITS), () -> sum(MonitoredDuplexConnection::outboundCredits));
+    register(
+        name(PENDING_WRITE_BYTES),
+        () -> channels.stream().mapToLong(TransportGauges::pendingWriteBytes).sum());
+    register(
+        name(DOMAIN_SOCKET_CHANNELS),
+        () -> channels.stream().filter(DomainSocketChannel.class::isInstance).count());
+  }
+
+  /**
+   * Returns gauge prefix of transport instance, unique in the process.
+   *
+   * @param type type of transport
+   * @return class name of transport followed by instance id
+   */
+  static String instancePrefix(Class<?> type) {
+    return type.getName() + "." + INSTANCE_IDS.incrementAndGet();
+  }
+
+  /**
+   * Registers gauges of pending tasks of each event loop of given group, named {@code
+   * prefix.groupName.N.pendingTasks}, and their sum, named {@code prefix.groupName.pendingTasks}.
+   *
+   * @param gauges gauge metrics
+   * @param prefix prefix of gauge names
+   * @param groupName name of event loop group
+   * @param group event loop group
+   * @return disposable which removes registered gauges
+   */
+  static Disposable eventLoops(
+      GaugeMetrics gauges, String prefix, String groupName, EventLoopGroup group) {
+    List<String> names = new ArrayList<>();
+    List<SingleThreadEventExecutor> executors = new ArrayList<>();
+    for (EventExecutor executor : group) {
+      if (executor instanceof SingleThreadEventExecutor) {
+        SingleThreadEventExecutor eventLoop = (SingleThreadEventExecutor) executor;
+        String name = name(name(prefix, groupName + "." + executors.size()), PENDING_TASKS);
+        gauges.gauge(name, eventLoop::pendingTasks);
+        names.add(name);
+        executors.add(eventLoop);
+      }
+    }
+    String name = name(name(prefix, groupName), PENDING_TASKS);
+    gauges.gauge(
+        name, () -> executors.stream().mapToLong(SingleThreadEventExecutor::pendingTasks).sum());
+    names.add(name);
+    return () -> names.forEach(gauges::removeGauge);
+  }
+
+  /**
+   * Registers gauge named {@code prefix.gauge}.
+   *
+   * @param gauge name of gauge
+   * @param value supplier of gauge value
+   */
+  void gauge(String gauge, LongSupplier value) {
+    register(name(gauge), value);
+  }
+
+  /** Removes all gauges of transport, including ones of connections and channels still open. */
+  void removeAll() {
+    names.forEach(this::remove);
+  }
+
+  /**
+   * Wraps connections of given client transport in monitored connections.
+   *
+   * @param transport client transport
+   * @return client transport
+   */
+  ClientTransport wrap(ClientTransport transport) {
+    return () -> transport.connect().map(this::monitor);
+  }
+
+  /**
+   * Wraps connections accepted by given server transport in monitored connections.
+   *
+   * @param transport server transport
+   * @param <T> type of server closeable
+   * @return server transport
+   */
+  <T extends Closeable> ServerTransport<T> wrap(ServerTransport<T> transport) {
+    return acceptor -> transport.start(connection -> acceptor.apply(monitor(connection)));
+  }
+
+  /**
+   * Registers gauge of pending write bytes of channel of given context, removed once channel is
+   * closed.
+   *
+   * @param nettyContext netty context of connected channel
+   */
+  void onChannelActive(NettyContext nettyContext) {
+    Channel channel = nettyContext.channel();
+    String gauge = name(name("channel." + channel.id().asShortText()), PENDING_WRITE_BYTES);
+    channels.add(channel);
+    register(gauge, () -> pendingWriteBytes(channel));
+    nettyContext.onClose(
+        () -> {
+          channels.remove(channel);
+          remove(gauge);
+        });
+  }
+
+  private MonitoredDuplexConnection monitor(DuplexConnection connection) {
+    MonitoredDuplexConnection monitored = new MonitoredDuplexConnection(connection);
+    String connectionPrefix = name("connection." + connectionIds.incrementAndGet());
+    connections.add(monitored);
+    register(name(connectionPrefix, OUTSTANDING_REQUESTS), monitored::outstandingRequests);
+    register(name(connectionPrefix, INBOUND_CREDITS), monitored::inboundCredits);
+    register(name(connectionPrefix, OUTBOUND_CREDITS), monitored::outboundCredits);
+    monitored
+        .onClose()
+        .doFinally(
+            s -> {
+              connections.remove(monitored);
+              remove(name(connectionPrefix, OUTSTANDING_REQUESTS));
+              remove(name(connectionPrefix, INBOUND_CREDITS));
+              remove(name(connectionPrefix, OUTBOUND_CREDITS));
+            })
+        .subscribe();
+    return monitored;
+  }
+
+  private void register(String name, LongSupplier value) {
+    names.add(name);
+    gauges.gauge(name, value);
+  }
+
+  private void remove(String name) {
+    names.remove(name);
+    gauges.removeGauge(name);
+  }
+
+  private long sum(ToLongFunction<MonitoredDuplexConnection> gauge) {
+    return connections.stream().mapToLong(gauge).sum();
+  }
+
+  private String name(String gauge) {
+    return name(prefix, gauge);
+  }
+
+  private static String name(String prefix, String gauge) {
+    return prefix + "." + gauge;
+  }
+
+  private static long pendingWriteBytes(Channel channel) {
+    ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+    return buffer != null ? buffer.totalPendingWriteBytes() : 0;
+  }
+}
@@ -0,0 +1,189 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.netty.handler.logging.LoggingHandler;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.MonoSink;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.NettyInbound;
+import reactor.ipc.netty.NettyOutbound;
+import reactor.ipc.netty.channel.ChannelOperations;
+import reactor.ipc.netty.channel.ContextHandler;
+import reactor.ipc.netty.options.ClientOptions;
+import reactor.ipc.netty.resources.LoopResources;
+import reactor.ipc.netty.tcp.TcpClient;
+
+/**
+ * Unix domain socket support of rsocket transport. Server binds unix domain socket next to tcp one
+ * and advertises its path in service endpoint metadata, clients on the same host connect to it
+ * instead of tcp socket. Unix domain sockets require native epoll transport.
+ */
+final class UnixDomainSockets {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSockets.class);
+
+  /** Service endpoint metadata with path of unix domain socket of the endpoint. */
+  static final String ENDPOINT_METADATA = "_rsocket_uds_path";
+
+  private static final Map<String, Boolean> LOCAL_HOSTS = new ConcurrentHashMap<>();
+
+  private UnixDomainSockets() {
+    // Do not instantiate
+  }
+
+  static boolean isSupported(EventLoopGroup eventLoopGroup) {
+    return eventLoopGroup instanceof EpollEventLoopGroup;
+  }
+
+  /**
+   * Returns path of unix domain socket of server. Socket is named after both port and instance id
+   * of server, so that servers which share the directory never bind (or delete) the same socket,
+   * even if one of them reuses the port of another one.
+   *
+   * @param dir socket directory
+   * @param port port of tcp socket of server
+   * @param instanceId id of server instance
+   * @return socket path
+   */
+  static Path socketPath(Path dir, int port, String instanceId) {
+    return dir.resolve("scalecube-rsocket-" + port + "-" + instanceId + ".sock").toAbsolutePath();
+  }
+
+  /**
+   * Returns path of unix domain socket advertised by service endpoint, if the endpoint is on the
+   * same host.
+   *
+   * @param host endpoint host
+   * @param endpointMetadata endpoint metadata
+   * @return socket path or null if endpoint doesn't advertise unix domain socket or it can't be
+   *     reached from this host
+   */
+  static String localSocketPath(String host, Map<String, String> endpointMetadata) {
+    String path = endpointMetadata.get(ENDPOINT_METADATA);
+    if (path == null || !isLocalHost(host) || !Files.exists(Paths.get(path))) {
+      return null;
+    }
+    return path;
+  }
+
+  private static boolean isLocalHost(String host) {
+    return LOCAL_HOSTS.computeIfAbsent(
+        host,
+        host1 -> {
+          try {
+            InetAddress address = InetAddress.getByName(host1);
+            return address.isLoopbackAddress()
+                || address.isAnyLocalAddress()
+                || NetworkInterface.getByInetAddress(address) != null;
+          } catch (Exception ex) {
+            LOGGER.warn("Failed to check whether {} is local host, cause: {}", host1, ex);
+            return false;
+          }
+        });
+  }
+
+  static LoopResources serverLoopResources(EventLoopGroup bossGroup, EventLoopGroup workerGroup) {
+    return new LoopResources() {
+      @Override
+      public EventLoopGroup onServer(boolean useNative) {
+        return workerGroup;
+      }
+
+      @Override
+      public EventLoopGroup onServerSelect(boolean useNative) {
+        return bossGroup;
+      }
+
+      @Override
+      public Class<? extends ServerChannel> onServerChannel(EventLoopGroup group) {
+        return EpollServerDomainSocketChannel.class;
+      }
+
+      @Override
+      public Class<? extends Channel> onChannel(EventLoopGroup group) {
+        return EpollDomainSocketChannel.class;
+      }
+    };
+  }
+
+  /**
+   * Creates tcp client which connects to unix domain socket.
+   *
+   * @param eventLoopGroup epoll event loop group
+   * @param options client options, connect address must be set to {@link DomainSocketAddress}
+   * @return tcp client
+   */
+  static TcpClient tcpClient(
+      EventLoopGroup eventLoopGroup, Consumer<? super ClientOptions.Builder<?>> options) {
+    return new DomainSocketClient(
+        TcpClient.builder()
+            .options(
+                builder -> {
+                  builder.loopResources(clientLoopResources(eventLoopGroup));
+                  options.accept(builder);
+                }));
+  }
+
+  private static LoopResources clientLoopResources(EventLoopGroup eventLoopGroup) {
+    return new LoopResources() {
+      @Override
+      public EventLoopGroup onServer(boolean useNative) {
+        return eventLoopGroup;
+      }
+
+      @Override
+      public Class<? extends Channel> onChannel(EventLoopGroup group) {
+        return EpollDomainSocketChannel.class;
+      }
+    };
+  }
+
+  /**
+   * Tcp client of reactor-netty binds its channel operations to {@code SocketChannel}, which unix
+   * domain socket channel is not, so operations are bound to plain {@link Channel} instead.
+   */
+  private static final class DomainSocketClient extends TcpClient {
+
+    private static final LoggingHandler LOGGING_HANDLER = new LoggingHandler(TcpClient.class);
+
+    private DomainSocketClient(TcpClient.Builder builder) {
+      super(builder);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected ContextHandler<SocketChannel> doHandler(
+        BiFunction<? super NettyInbound, ? super NettyOutbound, ? extends Publisher<Void>> handler,
+        MonoSink<NettyContext> sink,
+        boolean secure,
+        SocketAddress providedAddress,
+        ChannelPool pool,
+        Consumer<? super Channel> onSetup) {
+      ChannelOperations.OnNew<Channel> onNew =
+          (channel, context, msg) -> ChannelOperations.bind(channel, handler, context);
+      return (ContextHandler)
+          ContextHandler.newClientContext(
+              sink, options(), LOGGING_HANDLER, secure, providedAddress, pool, onNew);
+    }
+  }
+}
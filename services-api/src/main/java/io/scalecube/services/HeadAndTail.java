@@ -1,9 +1,12 @@
 package io.scalecube.services;
 
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.UnicastProcessor;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
 
 public final class HeadAndTail<T> {
 
@@ -16,30 +19,17 @@ public final class HeadAndTail<T> {
   }
 
   /**
-   * Create a publisher from another one, saving the head.
+   * Create a publisher from another one, saving the head. Elements of tail are requested from the
+   * original publisher as subscriber of tail requests them, so they aren't buffered.
+   *
+   * <p>The new publisher completes once the original one terminates or subscriber of tail cancels
+   * it. Cancelling the new publisher cancels the original one, whether tail is subscribed or not.
    *
    * @param publisher the original publisher
    * @return a new publisher that saves the head.
    */
   public static <U> Publisher<HeadAndTail<U>> createFrom(Publisher<U> publisher) {
-    AtomicBoolean first = new AtomicBoolean(true);
-    UnicastProcessor<U> tail = UnicastProcessor.create();
-    UnicastProcessor<HeadAndTail<U>> firstResult = UnicastProcessor.create();
-
-    return Flux.from(publisher)
-        .doOnComplete(tail::onComplete)
-        .doOnError(tail::onError)
-        .flatMap(
-            message -> {
-              if (first.compareAndSet(true, false)) {
-                firstResult.onNext(new HeadAndTail<>(message, tail));
-                firstResult.onComplete();
-                return firstResult;
-              } else {
-                tail.onNext(message);
-                return Flux.empty();
-              }
-            });
+    return Flux.create(sink -> publisher.subscribe(new Splitter<>(sink)));
   }
 
   public T head() {
@@ -49,4 +39,111 @@ public final class HeadAndTail<T> {
   public Publisher<T> tail() {
     return tail;
   }
+
+  /** Subscriber of the original publisher, which emits its head and relays the rest to tail. */
+  private static final class Splitter<U> implements CoreSubscriber<U> {
+
+    private final FluxSink<HeadAndTail<U>> sink;
+    private volatile Subscription upstream;
+    private volatile boolean first = true; // written by signals of the original publisher
+
+    private volatile Subscriber<? super U> tail; // set under this
+    private boolean subscribed; // guarded by this
+    private boolean done; // guarded by this
+    private Throwable error; // guarded by this
+
+    private Splitter(FluxSink<HeadAndTail<U>> sink) {
+      this.sink = sink;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      upstream = subscription;
+      sink.onCancel(subscription::cancel);
+      subscription.request(1);
+    }
+
+    @Override
+    public void onNext(U value) {
+      if (first) {
+        first = false;
+        sink.next(new HeadAndTail<>(value, Flux.<U>from(this::subscribeTail)));
+      } else {
+        tail.onNext(value); // requested by tail
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      if (first) {
+        sink.error(throwable);
+      } else {
+        terminate(throwable);
+      }
+    }
+
+    @Override
+    public void onComplete() {
+      if (first) {
+        sink.complete();
+      } else {
+        terminate(null);
+      }
+    }
+
+    private void terminate(Throwable throwable) {
+      Subscriber<? super U> subscriber;
+      synchronized (this) {
+        done = true;
+        error = throwable;
+        subscriber = subscribed ? tail : null;
+      }
+      if (subscriber != null) {
+        signal(subscriber, throwable);
+      }
+      sink.complete(); // error, if any, belongs to tail
+    }
+
+    private void subscribeTail(Subscriber<? super U> subscriber) {
+      synchronized (this) {
+        if (tail != null) {
+          Operators.error(
+              subscriber, new IllegalStateException("HeadAndTail allows only one tail subscriber"));
+          return;
+        }
+        tail = subscriber; // set before tail requests elements
+      }
+      subscriber.onSubscribe(
+          new Subscription() {
+            @Override
+            public void request(long n) {
+              upstream.request(n);
+            }
+
+            @Override
+            public void cancel() {
+              upstream.cancel();
+              sink.complete();
+            }
+          });
+      boolean terminated;
+      Throwable throwable;
+      synchronized (this) {
+        subscribed = true;
+        terminated = done;
+        throwable = error;
+      }
+      if (terminated) {
+        signal(subscriber, throwable);
+      }
+    }
+
+    private static void signal(Subscriber<?> subscriber, Throwable throwable) {
+      if (throwable != null) {
+        subscriber.onError(throwable);
+      } else {
+        subscriber.onComplete();
+      }
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package io.scalecube.services;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -10,7 +11,9 @@ public class ServiceEndpoint {
   private String host;
   private int port;
   private Set<String> contentTypes;
+  private Set<String> contentEncodings;
   private Map<String, String> tags;
+  private Map<String, String> metadata;
   private Collection<ServiceRegistration> serviceRegistrations;
 
   /**
@@ -36,11 +39,67 @@ public class ServiceEndpoint {
       Set<String> contentTypes,
       Map<String, String> tags,
       Collection<ServiceRegistration> serviceRegistrations) {
+    this(id, host, port, contentTypes, Collections.emptySet(), tags, serviceRegistrations);
+  }
+
+  /**
+   * Create a service endpoint.
+   *
+   * @param id the endpoint's id.
+   * @param host the endpoint's host.
+   * @param port the endpoint's port.
+   * @param contentTypes the endpoint's supported data content types.
+   * @param contentEncodings the endpoint's supported compression content encodings.
+   * @param tags the endpoint's tags (if any).
+   * @param serviceRegistrations registration for this endpoint.
+   */
+  public ServiceEndpoint(
+      String id,
+      String host,
+      int port,
+      Set<String> contentTypes,
+      Set<String> contentEncodings,
+      Map<String, String> tags,
+      Collection<ServiceRegistration> serviceRegistrations) {
+    this(
+        id,
+        host,
+        port,
+        contentTypes,
+        contentEncodings,
+        tags,
+        Collections.emptyMap(),
+        serviceRegistrations);
+  }
+
+  /**
+   * Create a service endpoint.
+   *
+   * @param id the endpoint's id.
+   * @param host the endpoint's host.
+   * @param port the endpoint's port.
+   * @param contentTypes the endpoint's supported data content types.
+   * @param contentEncodings the endpoint's supported compression content encodings.
+   * @param tags the endpoint's tags (if any).
+   * @param metadata the endpoint's transport metadata (if any).
+   * @param serviceRegistrations registration for this endpoint.
+   */
+  public ServiceEndpoint(
+      String id,
+      String host,
+      int port,
+      Set<String> contentTypes,
+      Set<String> contentEncodings,
+      Map<String, String> tags,
+      Map<String, String> metadata,
+      Collection<ServiceRegistration> serviceRegistrations) {
     this.id = id;
     this.host = host;
     this.port = port;
     this.contentTypes = contentTypes;
+    this.contentEncodings = contentEncodings;
     this.tags = tags;
+    this.metadata = metadata;
     this.serviceRegistrations = serviceRegistrations;
   }
 
@@ -60,10 +119,29 @@ public class ServiceEndpoint {
     return contentTypes;
   }
 
+  /**
+   * Returns compression content encodings supported by the endpoint.
+   *
+   * @return content encodings, empty if endpoint doesn't support compression
+   */
+  public Set<String> contentEncodings() {
+    return contentEncodings != null ? contentEncodings : Collections.emptySet();
+  }
+
   public Map<String, String> tags() {
     return tags;
   }
 
+  /**
+   * Returns transport specific properties of the endpoint (e.g. features which its server transport
+   * supports), which unlike tags aren't merged into tags of service references.
+   *
+   * @return transport metadata, empty if endpoint doesn't advertise any
+   */
+  public Map<String, String> metadata() {
+    return metadata != null ? metadata : Collections.emptyMap();
+  }
+
   public Collection<ServiceRegistration> serviceRegistrations() {
     return serviceRegistrations;
   }
@@ -79,8 +157,12 @@ public class ServiceEndpoint {
         + '\''
         + ", port="
         + port
+        + ", contentEncodings="
+        + contentEncodings
         + ", tags="
         + tags
+        + ", metadata="
+        + metadata
         + ", serviceRegistrations="
         + serviceRegistrations
         + '}';
@@ -1,7 +1,9 @@
 package io.scalecube.services;
 
 import io.scalecube.services.api.Qualifier;
+import io.scalecube.services.codec.ContentTypes;
 import io.scalecube.transport.Address;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -19,7 +21,10 @@ public class ServiceReference {
   private final int port;
   private final String namespace;
   private final Set<String> contentTypes;
+  private final BitSet contentTypeIds;
+  private final Set<String> contentEncodings;
   private final Map<String, String> tags;
+  private final Map<String, String> endpointMetadata;
   private final String action;
   private final CommunicationMode mode;
   private final Address address;
@@ -40,7 +45,18 @@ public class ServiceReference {
     this.port = serviceEndpoint.port();
     this.namespace = serviceRegistration.namespace();
     this.contentTypes = Collections.unmodifiableSet(serviceEndpoint.contentTypes());
+    this.contentTypeIds = new BitSet();
+    // content types which endpoint advertises and this node has codecs of
+    this.contentTypes.forEach(
+        contentType -> {
+          int contentTypeId = ContentTypes.idOf(contentType);
+          if (contentTypeId != ContentTypes.UNKNOWN) {
+            contentTypeIds.set(contentTypeId);
+          }
+        });
+    this.contentEncodings = Collections.unmodifiableSet(serviceEndpoint.contentEncodings());
     this.tags = mergeTags(serviceMethodDefinition, serviceRegistration, serviceEndpoint);
+    this.endpointMetadata = Collections.unmodifiableMap(serviceEndpoint.metadata());
     this.action = serviceMethodDefinition.getAction();
     this.mode = serviceMethodDefinition.getCommunicationMode();
     this.qualifier = Qualifier.asString(namespace, action);
@@ -75,10 +91,34 @@ public class ServiceReference {
     return contentTypes;
   }
 
+  /**
+   * Checks whether this reference supports given content type which this node has codec of.
+   *
+   * @param contentTypeId content type id (see {@link ContentTypes#idOf(String)})
+   * @return true if content type is supported, false if it isn't or id is {@link
+   *     ContentTypes#UNKNOWN}
+   */
+  public boolean supportsContentType(int contentTypeId) {
+    return contentTypeId >= 0 && contentTypeIds.get(contentTypeId);
+  }
+
+  public Set<String> contentEncodings() {
+    return contentEncodings;
+  }
+
   public Map<String, String> tags() {
     return tags;
   }
 
+  /**
+   * Returns transport metadata of the endpoint (see {@link ServiceEndpoint#metadata()}).
+   *
+   * @return endpoint metadata
+   */
+  public Map<String, String> endpointMetadata() {
+    return endpointMetadata;
+  }
+
   public String action() {
     return action;
   }
@@ -0,0 +1,19 @@
+package io.scalecube.services.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that an annotated service method is idempotent: identical requests (same qualifier and
+ * data) give the same response, so that concurrent identical requests may be served by one call of
+ * the method. Published to other nodes as method tag {@link #TAG} with value {@code true}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+public @interface Idempotent {
+
+  /** Name of method tag of idempotent service method. */
+  String TAG = "idempotent";
+}
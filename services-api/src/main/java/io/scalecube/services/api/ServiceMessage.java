@@ -1,5 +1,6 @@
 package io.scalecube.services.api;
 
+import io.scalecube.services.codec.ContentTypes;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,6 +35,7 @@ public final class ServiceMessage {
 
   private Map<String, String> headers = Collections.emptyMap();
   private Object data;
+  private int dataFormatId = ContentTypes.UNKNOWN; // resolved lazily
 
   /** Instantiates empty message for deserialization purpose. */
   ServiceMessage() {}
@@ -41,6 +43,7 @@ public final class ServiceMessage {
   private ServiceMessage(Builder builder) {
     this.data = builder.data();
     this.headers = builder.headers();
+    this.dataFormatId = builder.dataFormatId;
   }
 
   /**
@@ -50,7 +53,9 @@ public final class ServiceMessage {
    * @return a new message, with the same data and headers
    */
   public static Builder from(ServiceMessage message) {
-    return ServiceMessage.builder().data(message.data()).headers(message.headers());
+    Builder builder = ServiceMessage.builder().data(message.data()).headers(message.headers());
+    builder.dataFormatId = message.dataFormatId;
+    return builder;
   }
 
   /**
@@ -78,6 +83,7 @@ public final class ServiceMessage {
    */
   void setHeaders(Map<String, String> headers) {
     this.headers = Collections.unmodifiableMap(headers);
+    this.dataFormatId = ContentTypes.UNKNOWN;
   }
 
   /**
@@ -131,6 +137,21 @@ public final class ServiceMessage {
     return dataFormat != null ? dataFormat : DEFAULT_DATA_FORMAT;
   }
 
+  /**
+   * Returns interned id of {@link #dataFormatOrDefault()}. Id is resolved once per message and then
+   * cached, so repeated codec and service lookups don't have to hash the data format string again.
+   * Data format which no codec is registered for isn't interned.
+   *
+   * @return data format id, {@link ContentTypes#UNKNOWN} if data format isn't registered
+   */
+  public int dataFormatId() {
+    int id = dataFormatId;
+    if (id == ContentTypes.UNKNOWN) {
+      dataFormatId = id = ContentTypes.idOf(dataFormatOrDefault());
+    }
+    return id;
+  }
+
   /**
    * Return the message data, which can be byte array, string or any type.
    *
@@ -172,6 +193,7 @@ public final class ServiceMessage {
 
     private Map<String, String> headers = new HashMap<>();
     private Object data;
+    private int dataFormatId = ContentTypes.UNKNOWN;
 
     private Builder() {}
 
@@ -193,8 +215,15 @@ public final class ServiceMessage {
       return this;
     }
 
+    /**
+     * Sets data format header.
+     *
+     * @param dataFormat data format
+     * @return this builder
+     */
     public Builder dataFormat(String dataFormat) {
       headers.put(HEADER_DATA_FORMAT, dataFormat);
+      dataFormatId = ContentTypes.UNKNOWN;
       return this;
     }
 
@@ -202,13 +231,32 @@ public final class ServiceMessage {
       return this.headers;
     }
 
+    /**
+     * Adds all given headers.
+     *
+     * @param headers headers to add
+     * @return this builder
+     */
     public Builder headers(Map<String, String> headers) {
       this.headers.putAll(headers);
+      if (headers.containsKey(HEADER_DATA_FORMAT)) {
+        dataFormatId = ContentTypes.UNKNOWN;
+      }
       return this;
     }
 
+    /**
+     * Adds header.
+     *
+     * @param key header name
+     * @param value header value
+     * @return this builder
+     */
     public Builder header(String key, String value) {
       headers.put(key, value);
+      if (HEADER_DATA_FORMAT.equals(key)) {
+        dataFormatId = ContentTypes.UNKNOWN;
+      }
       return this;
     }
 
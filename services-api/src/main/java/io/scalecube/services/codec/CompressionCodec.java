@@ -0,0 +1,74 @@
+package io.scalecube.services.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.scalecube.services.ServiceLoaderUtil;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Payload compression service provider interface. Available compression codecs are advertised by
+ * service endpoint, so data is compressed only between peers which both support it (see {@link
+ * ServiceMessageCodec#HEADER_ACCEPT_ENCODING}). Codecs which aren't available on this jvm (see
+ * {@link #isAvailable()}) are left out.
+ */
+public interface CompressionCodec {
+
+  Map<String, CompressionCodec> INSTANCES =
+      ServiceLoaderUtil.findAll(CompressionCodec.class)
+          .filter(CompressionCodec::isAvailable)
+          .collect(Collectors.toMap(CompressionCodec::contentEncoding, Function.identity()));
+
+  static Collection<CompressionCodec> getAllInstances() {
+    return INSTANCES.values();
+  }
+
+  /**
+   * Get a CompressionCodec for a content encoding.
+   *
+   * @param contentEncoding the content encoding.
+   * @return a CompressionCodec for the content encoding or IllegalArgumentException is thrown if
+   *     non exist
+   */
+  static CompressionCodec getInstance(String contentEncoding) {
+    if (contentEncoding == null) {
+      throw new IllegalArgumentException("contentEncoding not specified");
+    }
+    CompressionCodec codec = INSTANCES.get(contentEncoding);
+    if (codec == null) {
+      throw new IllegalArgumentException(
+          "CompressionCodec for '" + contentEncoding + "' not configured");
+    }
+    return codec;
+  }
+
+  String contentEncoding();
+
+  /**
+   * Tells whether codec works on this jvm. Unavailable codec is neither advertised nor used, so
+   * data is sent uncompressed instead.
+   *
+   * @return true if codec is available
+   */
+  boolean isAvailable();
+
+  /**
+   * Compresses readable bytes of given buffer. Source buffer is neither modified nor released.
+   *
+   * @param source buffer to compress
+   * @return new buffer with compressed data, allocated by allocator of source buffer
+   * @throws IOException in case of compression error
+   */
+  ByteBuf compress(ByteBuf source) throws IOException;
+
+  /**
+   * Decompresses readable bytes of given buffer. Source buffer is neither modified nor released.
+   *
+   * @param source buffer with compressed data
+   * @return new buffer with original data, allocated by allocator of source buffer
+   * @throws IOException in case of decompression error
+   */
+  ByteBuf decompress(ByteBuf source) throws IOException;
+}
@@ -0,0 +1,87 @@
+package io.scalecube.services.codec;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns content type strings to small integer ids. Ids are dense, start from zero and never
+ * change once assigned, so they can be used as indexes in array based lookup tables (see {@link
+ * DataCodec#getInstance(int)}).
+ *
+ * <p>Only content types of codecs installed on this node are interned (see {@link
+ * DataCodec#getAllInstances()}). Content types which come with messages or which other nodes
+ * advertise in their endpoints are only looked up, so that peers and clients can't grow the table.
+ */
+public final class ContentTypes {
+
+  /** Id which is never assigned to any content type. */
+  public static final int UNKNOWN = -1;
+
+  private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+  private static volatile String[] names = new String[0];
+
+  static {
+    DataCodec.getAllInstances().forEach(codec -> register(codec.contentType()));
+  }
+
+  private ContentTypes() {
+    // Do not instantiate
+  }
+
+  /**
+   * Returns id of the given content type.
+   *
+   * @param contentType content type
+   * @return content type id or {@link #UNKNOWN} if content type is null or isn't registered
+   */
+  public static int idOf(String contentType) {
+    if (contentType == null) {
+      return UNKNOWN;
+    }
+    Integer id = IDS.get(contentType);
+    return id != null ? id : UNKNOWN;
+  }
+
+  /**
+   * Returns id of the given content type of locally installed codec, assigning a new one if
+   * content type is registered for the first time. Must not be called with content types received
+   * from other nodes.
+   *
+   * @param contentType content type of codec
+   * @return content type id
+   */
+  public static int register(String contentType) {
+    Integer id = IDS.get(contentType);
+    return id != null ? id : assign(contentType);
+  }
+
+  /**
+   * Returns content type by its id.
+   *
+   * @param id content type id
+   * @return content type or null if id was not assigned
+   */
+  public static String nameOf(int id) {
+    String[] names = ContentTypes.names;
+    return id >= 0 && id < names.length ? names[id] : null;
+  }
+
+  static int size() {
+    return names.length;
+  }
+
+  private static synchronized int assign(String contentType) {
+    Integer id = IDS.get(contentType);
+    if (id != null) {
+      return id;
+    }
+    String[] names = Arrays.copyOf(ContentTypes.names, ContentTypes.names.length + 1);
+    int newId = names.length - 1;
+    names[newId] = contentType;
+    ContentTypes.names = names;
+    IDS.put(contentType, newId);
+    return newId;
+  }
+}
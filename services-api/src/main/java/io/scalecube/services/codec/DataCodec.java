@@ -1,10 +1,15 @@
 package io.scalecube.services.codec;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.scalecube.services.ServiceLoaderUtil;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -39,9 +44,101 @@ public interface DataCodec {
     return dataCodec;
   }
 
+  /**
+   * Get a DataCodec for a content type id (see {@link ContentTypes#idOf(String)}).
+   *
+   * @param contentTypeId the content type id.
+   * @return a DataCodec for the content type or IllegalArgumentException is thrown if non exist
+   */
+  static DataCodec getInstance(int contentTypeId) {
+    DataCodec[] codecs = DataCodecs.BY_CONTENT_TYPE_ID;
+    DataCodec dataCodec =
+        contentTypeId >= 0 && contentTypeId < codecs.length ? codecs[contentTypeId] : null;
+    if (dataCodec == null) {
+      String contentType = ContentTypes.nameOf(contentTypeId);
+      throw new IllegalArgumentException(
+          contentType != null
+              ? "DataCodec for '" + contentType + "' not configured"
+              : "DataCodec for content type id " + contentTypeId + " not configured");
+    }
+    return dataCodec;
+  }
+
   String contentType();
 
+  /**
+   * Prepares codec for encoding and decoding of the given type (builds schemas, serializers, etc.),
+   * so this work isn't done lazily on the first request. Does nothing by default.
+   *
+   * @param type type of the values
+   */
+  default void warmUp(Class<?> type) {
+    // no-op
+  }
+
   void encode(OutputStream stream, Object value) throws IOException;
 
+  /**
+   * Encodes value directly into given buffer. Default implementation adapts buffer to {@link
+   * OutputStream}, codecs are encouraged to override it with buffer aware implementation.
+   *
+   * @param buffer target buffer
+   * @param value value to encode
+   * @throws IOException in case of encoding error
+   */
+  default void encode(ByteBuf buffer, Object value) throws IOException {
+    encode(new ByteBufOutputStream(buffer), value);
+  }
+
   Object decode(InputStream stream, Class<?> type) throws IOException;
+
+  /**
+   * Decodes value directly from readable bytes of given buffer. Default implementation adapts
+   * buffer to {@link InputStream}, codecs are encouraged to override it with buffer aware
+   * implementation.
+   *
+   * @param buffer source buffer
+   * @param type type of the value
+   * @return decoded value
+   * @throws IOException in case of decoding error
+   */
+  default Object decode(ByteBuf buffer, Class<?> type) throws IOException {
+    try (InputStream stream = new ByteBufInputStream(buffer)) {
+      return decode(stream, type);
+    }
+  }
+
+  /**
+   * Encodes several values as one batch into given buffer. Default implementation writes each
+   * value prefixed with its length (4 bytes), codecs may override it with native array encoding.
+   *
+   * @param buffer target buffer
+   * @param values values to encode
+   * @throws IOException in case of encoding error
+   * @see #decodeBatch(ByteBuf, Class)
+   */
+  default void encodeBatch(ByteBuf buffer, List<?> values) throws IOException {
+    for (Object value : values) {
+      int lengthIndex = buffer.writerIndex();
+      buffer.writeInt(0);
+      encode(buffer, value);
+      buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex - Integer.BYTES);
+    }
+  }
+
+  /**
+   * Decodes batch of values written by {@link #encodeBatch(ByteBuf, List)}.
+   *
+   * @param buffer source buffer
+   * @param type type of the values
+   * @return decoded values in order they were encoded
+   * @throws IOException in case of decoding error
+   */
+  default List<Object> decodeBatch(ByteBuf buffer, Class<?> type) throws IOException {
+    List<Object> values = new ArrayList<>();
+    while (buffer.isReadable()) {
+      values.add(decode(buffer.readSlice(buffer.readInt()), type));
+    }
+    return values;
+  }
 }
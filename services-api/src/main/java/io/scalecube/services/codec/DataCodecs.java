@@ -0,0 +1,27 @@
+package io.scalecube.services.codec;
+
+import java.util.Collection;
+
+/**
+ * Array based lookup table of {@link DataCodec}-s indexed by content type id.
+ */
+final class DataCodecs {
+
+  static final DataCodec[] BY_CONTENT_TYPE_ID = byContentTypeId(DataCodec.getAllInstances());
+
+  private DataCodecs() {
+    // Do not instantiate
+  }
+
+  private static DataCodec[] byContentTypeId(Collection<DataCodec> codecs) {
+    int maxId =
+        codecs
+            .stream()
+            .mapToInt(codec -> ContentTypes.idOf(codec.contentType()))
+            .max()
+            .orElse(ContentTypes.UNKNOWN);
+    DataCodec[] result = new DataCodec[maxId + 1];
+    codecs.forEach(codec -> result[ContentTypes.idOf(codec.contentType())] = codec);
+    return result;
+  }
+}
@@ -10,7 +10,16 @@ import io.scalecube.services.api.ErrorData;
 import io.scalecube.services.api.ServiceMessage;
 import io.scalecube.services.exceptions.ExceptionProcessor;
 import io.scalecube.services.exceptions.MessageCodecException;
+import io.scalecube.services.jfr.ServiceEventRecorder.CodecRecording;
+import io.scalecube.services.jfr.ServiceEvents;
+import io.scalecube.services.methods.MethodInfo;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.BiFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,10 +28,90 @@ public final class ServiceMessageCodec {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ServiceMessageCodec.class);
 
+  /**
+   * Request header with max number of stream elements which requester is ready to receive in one
+   * frame (see {@link #encodeBatchAndTransform(List, BiFunction)}).
+   */
+  public static final String HEADER_STREAM_BATCH_SIZE = "_stream_batch_size";
+
+  /**
+   * Response header with number of elements encoded in the data of batch frame.
+   */
+  public static final String HEADER_BATCH = "_batch";
+
+  /**
+   * Request header with {@link CompressionCodec#contentEncoding()} supported by both requester
+   * and responder. Data of the request and of its responses is compressed with it once data size
+   * reaches compression threshold.
+   */
+  public static final String HEADER_ACCEPT_ENCODING = "_accept_encoding";
+
+  /**
+   * Header with {@link CompressionCodec#contentEncoding()} of compressed message data. Set and
+   * removed by codec, never visible to application.
+   */
+  public static final String HEADER_CONTENT_ENCODING = "_content_encoding";
+
+  /**
+   * System property with default min size of data (in bytes) which gets compressed.
+   */
+  public static final String COMPRESSION_THRESHOLD_PROPERTY =
+      "io.scalecube.services.codec.compression.threshold";
+
+  private static final int DEFAULT_COMPRESSION_THRESHOLD =
+      Integer.getInteger(COMPRESSION_THRESHOLD_PROPERTY, 1024);
+
   private final HeadersCodec headersCodec;
+  private final int compressionThreshold;
+  private final ByteBufAllocator allocator;
 
   public ServiceMessageCodec(HeadersCodec headersCodec) {
+    this(headersCodec, DEFAULT_COMPRESSION_THRESHOLD);
+  }
+
+  /**
+   * Creates message codec.
+   *
+   * @param headersCodec headers codec
+   * @param compressionThreshold min size of data (in bytes) which gets compressed
+   */
+  public ServiceMessageCodec(HeadersCodec headersCodec, int compressionThreshold) {
+    this(headersCodec, compressionThreshold, ByteBufAllocator.DEFAULT);
+  }
+
+  /**
+   * Creates message codec.
+   *
+   * @param headersCodec headers codec
+   * @param allocator allocator of encoded headers and data, should be the one of transport
+   *     channels
+   */
+  public ServiceMessageCodec(HeadersCodec headersCodec, ByteBufAllocator allocator) {
+    this(headersCodec, DEFAULT_COMPRESSION_THRESHOLD, allocator);
+  }
+
+  /**
+   * Creates message codec.
+   *
+   * @param headersCodec headers codec
+   * @param compressionThreshold min size of data (in bytes) which gets compressed
+   * @param allocator allocator of encoded headers and data, should be the one of transport
+   *     channels
+   */
+  public ServiceMessageCodec(
+      HeadersCodec headersCodec, int compressionThreshold, ByteBufAllocator allocator) {
     this.headersCodec = headersCodec;
+    this.compressionThreshold = compressionThreshold;
+    this.allocator = allocator;
+  }
+
+  /**
+   * Returns allocator of encoded headers and data.
+   *
+   * @return buffer allocator
+   */
+  public ByteBufAllocator allocator() {
+    return allocator;
   }
 
   /**
@@ -37,28 +126,44 @@ public final class ServiceMessageCodec {
   public <T> T encodeAndTransform(
       ServiceMessage message, BiFunction<ByteBuf, ByteBuf, T> transformer)
       throws MessageCodecException {
+    return encodeAndTransform(message, null, transformer);
+  }
+
+  /**
+   * Encode a message compressing its data with given content encoding if data is large enough,
+   * transform it to T. Data which is already {@link ByteBuf} is left as is.
+   *
+   * @param message the message to transform
+   * @param contentEncoding content encoding to compress data with, may be null
+   * @param transformer a function that accepts data and header {@link ByteBuf} and return the
+   *     required T
+   * @return the object (transformed message)
+   * @throws MessageCodecException when encoding cannot be done.
+   */
+  public <T> T encodeAndTransform(
+      ServiceMessage message, String contentEncoding, BiFunction<ByteBuf, ByteBuf, T> transformer)
+      throws MessageCodecException {
     ByteBuf dataBuffer = Unpooled.EMPTY_BUFFER;
     ByteBuf headersBuffer = Unpooled.EMPTY_BUFFER;
+    Map<String, String> headers = message.headers();
 
     if (message.hasData(ByteBuf.class)) {
       dataBuffer = message.data();
     } else if (message.hasData()) {
-      dataBuffer = ByteBufAllocator.DEFAULT.buffer();
-      try {
-        DataCodec dataCodec = DataCodec.getInstance(message.dataFormatOrDefault());
-        dataCodec.encode(new ByteBufOutputStream(dataBuffer), message.data());
-      } catch (Throwable ex) {
-        ReferenceCountUtil.safeRelease(dataBuffer);
-        LOGGER.error("Failed to encode data on: {}, cause: {}", message, ex);
-        throw new MessageCodecException(
-            "Failed to encode data on message q=" + message.qualifier(), ex);
+      dataBuffer =
+          ServiceEvents.isCodecEnabled() ? encodeDataRecorded(message) : encodeData(message);
+      ByteBuf compressed = compress(message, dataBuffer, contentEncoding);
+      if (compressed != null) {
+        dataBuffer = compressed;
+        headers = new HashMap<>(headers);
+        headers.put(HEADER_CONTENT_ENCODING, contentEncoding);
       }
     }
 
-    if (!message.headers().isEmpty()) {
-      headersBuffer = ByteBufAllocator.DEFAULT.buffer();
+    if (!headers.isEmpty()) {
+      headersBuffer = allocator.buffer();
       try {
-        headersCodec.encode(new ByteBufOutputStream(headersBuffer), message.headers());
+        headersCodec.encode(new ByteBufOutputStream(headersBuffer), headers);
       } catch (Throwable ex) {
         ReferenceCountUtil.safeRelease(headersBuffer);
         LOGGER.error("Failed to encode headers on: {}, cause: {}", message, ex);
@@ -70,23 +175,172 @@ public final class ServiceMessageCodec {
     return transformer.apply(dataBuffer, headersBuffer);
   }
 
+  private ByteBuf encodeData(ServiceMessage message) {
+    ByteBuf dataBuffer = allocator.buffer();
+    try {
+      DataCodec dataCodec = dataCodec(message);
+      dataCodec.encode(dataBuffer, message.data());
+      return dataBuffer;
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(dataBuffer);
+      LOGGER.error("Failed to encode data on: {}, cause: {}", message, ex);
+      throw new MessageCodecException(
+          "Failed to encode data on message q=" + message.qualifier(), ex);
+    }
+  }
+
+  private ByteBuf encodeDataRecorded(ServiceMessage message) {
+    CodecRecording event = ServiceEvents.beginCodec(ServiceEvents.ENCODE);
+    ByteBuf dataBuffer = encodeData(message);
+    event.commit(message.qualifier(), dataBuffer.readableBytes());
+    return dataBuffer;
+  }
+
+  /**
+   * Encode several stream messages, transform them to T. Consecutive messages with the same headers
+   * and non error data are encoded as one batch frame: their data is encoded by {@link
+   * DataCodec#encodeBatch(ByteBuf, List)} and the number of elements goes to {@link #HEADER_BATCH}
+   * header. Other messages are encoded one by one as usual.
+   *
+   * @param messages messages to encode
+   * @param contentEncoding content encoding to compress data with, may be null
+   * @param transformer a function that accepts data and header {@link ByteBuf} and return the
+   *     required T
+   * @return the objects (transformed frames) in order of the messages
+   * @throws MessageCodecException when encoding cannot be done.
+   */
+  public <T> List<T> encodeBatchAndTransform(
+      List<ServiceMessage> messages,
+      String contentEncoding,
+      BiFunction<ByteBuf, ByteBuf, T> transformer)
+      throws MessageCodecException {
+    List<T> result = new ArrayList<>();
+    try {
+      int start = 0;
+      while (start < messages.size()) {
+        ServiceMessage first = messages.get(start);
+        int end = start + 1;
+        if (isBatchable(first)) {
+          while (end < messages.size()
+              && isBatchable(messages.get(end))
+              && first.headers().equals(messages.get(end).headers())) {
+            end++;
+          }
+        }
+        result.add(
+            end - start == 1
+                ? encodeAndTransform(first, contentEncoding, transformer)
+                : encodeBatch(messages.subList(start, end), contentEncoding, transformer));
+        start = end;
+      }
+    } catch (Throwable ex) {
+      result.forEach(ReferenceCountUtil::safeRelease);
+      throw ex;
+    }
+    return result;
+  }
+
+  private <T> T encodeBatch(
+      List<ServiceMessage> messages,
+      String contentEncoding,
+      BiFunction<ByteBuf, ByteBuf, T> transformer) {
+    ServiceMessage first = messages.get(0);
+    List<Object> values = new ArrayList<>(messages.size());
+    messages.forEach(message -> values.add(message.data()));
+
+    ByteBuf dataBuffer = allocator.buffer();
+    try {
+      DataCodec dataCodec = dataCodec(first);
+      dataCodec.encodeBatch(dataBuffer, values);
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(dataBuffer);
+      LOGGER.error("Failed to encode data batch on: {}, cause: {}", first, ex);
+      throw new MessageCodecException(
+          "Failed to encode data batch on message q=" + first.qualifier(), ex);
+    }
+
+    ServiceMessage.Builder batch =
+        ServiceMessage.from(first).header(HEADER_BATCH, String.valueOf(messages.size()));
+    ByteBuf compressed = compress(first, dataBuffer, contentEncoding);
+    if (compressed != null) {
+      dataBuffer = compressed;
+      batch.header(HEADER_CONTENT_ENCODING, contentEncoding);
+    }
+    return encodeAndTransform(batch.data(dataBuffer).build(), transformer);
+  }
+
+  /**
+   * Compresses data if it reaches compression threshold and content encoding is available. Data is
+   * sent as it is if compression fails or doesn't make it smaller.
+   *
+   * @return compressed data (original data is released), or null if data is left as it is
+   */
+  private ByteBuf compress(ServiceMessage message, ByteBuf dataBuffer, String contentEncoding) {
+    if (contentEncoding == null || dataBuffer.readableBytes() < compressionThreshold) {
+      return null;
+    }
+    CompressionCodec codec = CompressionCodec.INSTANCES.get(contentEncoding);
+    if (codec == null) {
+      return null;
+    }
+    ByteBuf compressed;
+    try {
+      compressed = codec.compress(dataBuffer);
+    } catch (Throwable ex) {
+      LOGGER.warn(
+          "Failed to compress data on message q={}, sending it uncompressed, cause: {}",
+          message.qualifier(),
+          ex);
+      return null;
+    }
+    if (compressed.readableBytes() >= dataBuffer.readableBytes()) {
+      ReferenceCountUtil.safeRelease(compressed); // incompressible
+      return null;
+    }
+    ReferenceCountUtil.safeRelease(dataBuffer);
+    return compressed;
+  }
+
+  private static ByteBuf decompress(ByteBuf dataBuffer, String contentEncoding) {
+    try {
+      return CompressionCodec.getInstance(contentEncoding).decompress(dataBuffer);
+    } catch (Throwable ex) {
+      LOGGER.error("Failed to decompress {} data, cause: {}", contentEncoding, ex);
+      throw new MessageCodecException("Failed to decompress " + contentEncoding + " data", ex);
+    } finally {
+      ReferenceCountUtil.safeRelease(dataBuffer);
+    }
+  }
+
+  private static DataCodec dataCodec(ServiceMessage message) {
+    int dataFormatId = message.dataFormatId();
+    // data format which isn't interned is looked up by name, so that error names it
+    return dataFormatId != ContentTypes.UNKNOWN
+        ? DataCodec.getInstance(dataFormatId)
+        : DataCodec.getInstance(message.dataFormatOrDefault());
+  }
+
+  private static boolean isBatchable(ServiceMessage message) {
+    return message.hasData()
+        && !message.hasData(ByteBuf.class)
+        && !ExceptionProcessor.isError(message);
+  }
+
   /**
    * Decode buffers.
    *
    * @param dataBuffer the buffer of the data (payload)
    * @param headersBuffer the buffer of the headers
-   * @return a new Service message with {@link ByteBuf} data and with parsed headers.
+   * @return a new Service message with {@link ByteBuf} data (decompressed if it was compressed)
+   *     and with parsed headers.
    * @throws MessageCodecException when decode fails
    */
   public ServiceMessage decode(ByteBuf dataBuffer, ByteBuf headersBuffer)
       throws MessageCodecException {
-    ServiceMessage.Builder builder = ServiceMessage.builder();
-    if (dataBuffer.isReadable()) {
-      builder.data(dataBuffer);
-    }
+    Map<String, String> headers = Collections.emptyMap();
     if (headersBuffer.isReadable()) {
       try (ByteBufInputStream stream = new ByteBufInputStream(headersBuffer.slice())) {
-        builder.headers(headersCodec.decode(stream));
+        headers = headersCodec.decode(stream);
       } catch (Throwable ex) {
         LOGGER.error(
             "Failed to decode message headers: {}, cause: {}",
@@ -97,6 +351,20 @@ public final class ServiceMessageCodec {
         ReferenceCountUtil.safeRelease(headersBuffer);
       }
     }
+
+    String contentEncoding = headers.get(HEADER_CONTENT_ENCODING);
+    if (contentEncoding != null) {
+      headers = new HashMap<>(headers);
+      headers.remove(HEADER_CONTENT_ENCODING);
+      if (dataBuffer.isReadable()) {
+        dataBuffer = decompress(dataBuffer, contentEncoding);
+      }
+    }
+
+    ServiceMessage.Builder builder = ServiceMessage.builder().headers(headers);
+    if (dataBuffer.isReadable()) {
+      builder.data(dataBuffer);
+    }
     return builder.build();
   }
 
@@ -119,9 +387,12 @@ public final class ServiceMessageCodec {
     Class<?> targetType = ExceptionProcessor.isError(message) ? ErrorData.class : dataType;
 
     ByteBuf dataBuffer = message.data();
-    try (ByteBufInputStream inputStream = new ByteBufInputStream(dataBuffer.slice())) {
-      DataCodec dataCodec = DataCodec.getInstance(message.dataFormatOrDefault());
-      data = dataCodec.decode(inputStream, targetType);
+    try {
+      DataCodec dataCodec = dataCodec(message);
+      data =
+          ServiceEvents.isCodecEnabled()
+              ? decodeRecorded(dataCodec, message.qualifier(), dataBuffer, targetType)
+              : dataCodec.decode(dataBuffer.slice(), targetType);
     } catch (Throwable ex) {
       LOGGER.error(
           "Failed to decode data on: {}, cause: {}, data buffer: {}",
@@ -140,4 +411,143 @@ public final class ServiceMessageCodec {
 
     return ServiceMessage.from(message).data(data).build();
   }
+
+  /**
+   * Decode stream message which may be a batch frame (see {@link #encodeBatchAndTransform(List,
+   * BiFunction)}) into list of messages with actual data. Message without {@link #HEADER_BATCH}
+   * header is decoded by {@link #decodeData(ServiceMessage, Class)}.
+   *
+   * @param message the original message (with {@link ByteBuf} data)
+   * @param dataType the type of the data.
+   * @return list of service messages, one per batch element
+   * @throws MessageCodecException when decode fails
+   */
+  public static List<ServiceMessage> decodeBatch(ServiceMessage message, Class<?> dataType)
+      throws MessageCodecException {
+    if (message.header(HEADER_BATCH) == null
+        || !message.hasData(ByteBuf.class)
+        || dataType == null) {
+      return Collections.singletonList(decodeData(message, dataType));
+    }
+
+    List<Object> values;
+    ByteBuf dataBuffer = message.data();
+    try {
+      DataCodec dataCodec = dataCodec(message);
+      values =
+          ServiceEvents.isCodecEnabled()
+              ? decodeBatchRecorded(dataCodec, message.qualifier(), dataBuffer, dataType)
+              : dataCodec.decodeBatch(dataBuffer.slice(), dataType);
+    } catch (Throwable ex) {
+      LOGGER.error(
+          "Failed to decode data batch on: {}, cause: {}, data buffer: {}",
+          message,
+          ex,
+          dataBuffer.toString(StandardCharsets.UTF_8));
+      throw new MessageCodecException(
+          "Failed to decode data batch on message q=" + message.qualifier(), ex);
+    } finally {
+      ReferenceCountUtil.safeRelease(dataBuffer);
+    }
+
+    Map<String, String> headers = new HashMap<>(message.headers());
+    headers.remove(HEADER_BATCH);
+
+    List<ServiceMessage> messages = new ArrayList<>(values.size());
+    for (Object value : values) {
+      messages.add(ServiceMessage.builder().headers(headers).data(value).build());
+    }
+    return messages;
+  }
+
+  private static Object decodeRecorded(
+      DataCodec dataCodec, String qualifier, ByteBuf dataBuffer, Class<?> type)
+      throws IOException {
+    CodecRecording event = ServiceEvents.beginCodec(ServiceEvents.DECODE);
+    Object data = dataCodec.decode(dataBuffer.slice(), type);
+    event.commit(qualifier, dataBuffer.readableBytes());
+    return data;
+  }
+
+  private static List<Object> decodeBatchRecorded(
+      DataCodec dataCodec, String qualifier, ByteBuf dataBuffer, Class<?> type)
+      throws IOException {
+    CodecRecording event = ServiceEvents.beginCodec(ServiceEvents.DECODE);
+    List<Object> values = dataCodec.decodeBatch(dataBuffer.slice(), type);
+    event.commit(qualifier, dataBuffer.readableBytes());
+    return values;
+  }
+
+  /**
+   * Returns max number of stream elements per frame requested by the given request message. Header
+   * comes from remote requester, so its value is clamped to [1, maxBatchSize] and malformed value
+   * is treated as if header isn't set.
+   *
+   * @param request request message
+   * @param maxBatchSize max number of stream elements per frame allowed by responder
+   * @return value of {@link #HEADER_STREAM_BATCH_SIZE} header clamped to [1, maxBatchSize], or 1 if
+   *     header isn't set or isn't a number
+   */
+  public static int streamBatchSize(ServiceMessage request, int maxBatchSize) {
+    String value = request.header(HEADER_STREAM_BATCH_SIZE);
+    if (value == null) {
+      return 1;
+    }
+    int batchSize;
+    try {
+      batchSize = Integer.parseInt(value.trim());
+    } catch (NumberFormatException ex) {
+      LOGGER.warn("Ignoring malformed {} header: {}", HEADER_STREAM_BATCH_SIZE, value);
+      return 1;
+    }
+    return Math.max(1, Math.min(batchSize, maxBatchSize));
+  }
+
+  /**
+   * Removes {@link #HEADER_ACCEPT_ENCODING} header from received request once responder has read
+   * it, so that it doesn't reach the service.
+   *
+   * @param request request message
+   * @return request without accept encoding header
+   */
+  public static ServiceMessage withoutAcceptEncoding(ServiceMessage request) {
+    if (request.header(HEADER_ACCEPT_ENCODING) == null) {
+      return request;
+    }
+    Map<String, String> headers = new HashMap<>(request.headers());
+    headers.remove(HEADER_ACCEPT_ENCODING);
+    return ServiceMessage.builder().headers(headers).data(request.data()).build();
+  }
+
+  /**
+   * Warms up all data codecs for request and response types of the given service method, so
+   * codec specific metadata (schemas, serializers) is built ahead of the first call.
+   *
+   * @param methodInfo service method info
+   */
+  public static void warmUp(MethodInfo methodInfo) {
+    warmUp(methodInfo.requestType());
+    warmUp(methodInfo.parameterizedReturnType());
+  }
+
+  private static void warmUp(Class<?> type) {
+    if (type == null
+        || type.isPrimitive()
+        || type == Void.class
+        || type == Object.class
+        || ServiceMessage.class.isAssignableFrom(type)) {
+      return;
+    }
+    for (DataCodec dataCodec : DataCodec.getAllInstances()) {
+      try {
+        dataCodec.warmUp(type);
+      } catch (Throwable ex) {
+        LOGGER.debug(
+            "Failed to warm up data codec: {} for type: {}, cause: {}",
+            dataCodec.contentType(),
+            type,
+            ex.toString());
+      }
+    }
+  }
 }
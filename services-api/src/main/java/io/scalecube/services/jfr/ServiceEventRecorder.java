@@ -0,0 +1,88 @@
+package io.scalecube.services.jfr;
+
+import io.scalecube.services.CommunicationMode;
+import io.scalecube.services.ServiceReference;
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service provider interface of flight recorder events, see {@link ServiceEvents}. Implemented by
+ * {@code scalecube-services-jfr} module, which requires runtime with {@code jdk.jfr}.
+ */
+public interface ServiceEventRecorder {
+
+  boolean isInvocationEnabled();
+
+  boolean isCodecEnabled();
+
+  boolean isRoutingEnabled();
+
+  boolean isConnectionEnabled();
+
+  /**
+   * Records invocation event spanning from subscription to termination or cancellation of given
+   * mono.
+   *
+   * @param side {@link ServiceEvents#CLIENT} or {@link ServiceEvents#SERVER}
+   * @param qualifier service method qualifier
+   * @param mode communication mode
+   * @param mono mono of invocation result
+   * @param <T> type of value
+   * @return recorded mono
+   */
+  <T> Mono<T> invocation(String side, String qualifier, CommunicationMode mode, Mono<T> mono);
+
+  /**
+   * Records invocation event spanning from subscription to termination or cancellation of given
+   * flux.
+   *
+   * @param side {@link ServiceEvents#CLIENT} or {@link ServiceEvents#SERVER}
+   * @param qualifier service method qualifier
+   * @param mode communication mode
+   * @param flux flux of invocation results
+   * @param <T> type of values
+   * @return recorded flux
+   */
+  <T> Flux<T> invocation(String side, String qualifier, CommunicationMode mode, Flux<T> flux);
+
+  /**
+   * Records connection event of connecting, and once connected, connection event of its lifetime.
+   *
+   * @param address remote address
+   * @param connect mono of connection
+   * @param onClose function returning mono which completes when connection closes
+   * @param <T> type of connection
+   * @return recorded mono
+   */
+  <T> Mono<T> connection(String address, Mono<T> connect, Function<T, Mono<Void>> onClose);
+
+  /**
+   * Commits routing event.
+   *
+   * @param qualifier service method qualifier
+   * @param candidates number of candidate service references
+   * @param chosen chosen service reference, null if none
+   */
+  void routing(String qualifier, int candidates, ServiceReference chosen);
+
+  /**
+   * Begins codec event.
+   *
+   * @param operation {@link ServiceEvents#ENCODE} or {@link ServiceEvents#DECODE}
+   * @return started event
+   */
+  CodecRecording beginCodec(String operation);
+
+  /** Codec event in progress. */
+  interface CodecRecording {
+
+    /**
+     * Ends and commits event.
+     *
+     * @param qualifier qualifier of the message
+     * @param bytes size of encoded data in bytes
+     */
+    void commit(String qualifier, long bytes);
+  }
+}
@@ -0,0 +1,133 @@
+package io.scalecube.services.jfr;
+
+import io.scalecube.services.CommunicationMode;
+import io.scalecube.services.ServiceLoaderUtil;
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.jfr.ServiceEventRecorder.CodecRecording;
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Entry point to Java Flight Recorder events of services. Events are defined in optional {@code
+ * scalecube-services-jfr} module (see {@link ServiceEventRecorder}), which is picked up when it is
+ * in the classpath and runtime has {@code jdk.jfr}; otherwise events are never emitted. Events are
+ * emitted only while recording with the event enabled is running; otherwise each call site costs a
+ * single check of event type enablement.
+ */
+public final class ServiceEvents {
+
+  /** Side of invocation: service call made by client. */
+  public static final String CLIENT = "client";
+
+  /** Side of invocation: service method invoked by server. */
+  public static final String SERVER = "server";
+
+  /** Codec operation: encoding of message data. */
+  public static final String ENCODE = "encode";
+
+  /** Codec operation: decoding of message data. */
+  public static final String DECODE = "decode";
+
+  private static final ServiceEventRecorder RECORDER = loadRecorder();
+
+  private ServiceEvents() {
+    // Do not instantiate
+  }
+
+  public static boolean isInvocationEnabled() {
+    return RECORDER != null && RECORDER.isInvocationEnabled();
+  }
+
+  public static boolean isCodecEnabled() {
+    return RECORDER != null && RECORDER.isCodecEnabled();
+  }
+
+  public static boolean isRoutingEnabled() {
+    return RECORDER != null && RECORDER.isRoutingEnabled();
+  }
+
+  public static boolean isConnectionEnabled() {
+    return RECORDER != null && RECORDER.isConnectionEnabled();
+  }
+
+  /**
+   * Records invocation event spanning from subscription to termination or cancellation of given
+   * mono.
+   *
+   * @param side {@link #CLIENT} or {@link #SERVER}
+   * @param qualifier service method qualifier
+   * @param mode communication mode
+   * @param mono mono of invocation result
+   * @param <T> type of value
+   * @return recorded mono, the given one if event is disabled
+   */
+  public static <T> Mono<T> invocation(
+      String side, String qualifier, CommunicationMode mode, Mono<T> mono) {
+    return isInvocationEnabled() ? RECORDER.invocation(side, qualifier, mode, mono) : mono;
+  }
+
+  /**
+   * Records invocation event spanning from subscription to termination or cancellation of given
+   * flux.
+   *
+   * @param side {@link #CLIENT} or {@link #SERVER}
+   * @param qualifier service method qualifier
+   * @param mode communication mode
+   * @param flux flux of invocation results
+   * @param <T> type of values
+   * @return recorded flux, the given one if event is disabled
+   */
+  public static <T> Flux<T> invocation(
+      String side, String qualifier, CommunicationMode mode, Flux<T> flux) {
+    return isInvocationEnabled() ? RECORDER.invocation(side, qualifier, mode, flux) : flux;
+  }
+
+  /**
+   * Records connection event of connecting, spanning from subscription to termination of given
+   * mono, and once connected, connection event of connection lifetime, committed when connection
+   * closes.
+   *
+   * @param address remote address
+   * @param connect mono of connection
+   * @param onClose function returning mono which completes when connection closes
+   * @param <T> type of connection
+   * @return recorded mono, the given one if event is disabled
+   */
+  public static <T> Mono<T> connection(
+      String address, Mono<T> connect, Function<T, Mono<Void>> onClose) {
+    return isConnectionEnabled() ? RECORDER.connection(address, connect, onClose) : connect;
+  }
+
+  /**
+   * Commits routing event if it's enabled.
+   *
+   * @param qualifier service method qualifier
+   * @param candidates number of candidate service references
+   * @param chosen chosen service reference, null if none
+   */
+  public static void routing(String qualifier, int candidates, ServiceReference chosen) {
+    if (isRoutingEnabled()) {
+      RECORDER.routing(qualifier, candidates, chosen);
+    }
+  }
+
+  /**
+   * Begins codec event. Must be called only if {@link #isCodecEnabled()}.
+   *
+   * @param operation {@link #ENCODE} or {@link #DECODE}
+   * @return started event
+   */
+  public static CodecRecording beginCodec(String operation) {
+    return RECORDER.beginCodec(operation);
+  }
+
+  private static ServiceEventRecorder loadRecorder() {
+    try {
+      Class.forName("jdk.jfr.Event", false, ServiceEvents.class.getClassLoader());
+      return ServiceLoaderUtil.findFirst(ServiceEventRecorder.class).orElse(null);
+    } catch (Throwable ex) {
+      return null;
+    }
+  }
+}
@@ -1,7 +1,13 @@
 package io.scalecube.services.methods;
 
+import io.scalecube.services.CommunicationMode;
+import io.scalecube.services.HeadAndTail;
 import io.scalecube.services.api.ServiceMessage;
 import io.scalecube.services.exceptions.BadRequestException;
+import io.scalecube.services.jfr.ServiceEvents;
+import io.scalecube.services.metrics.LatencyMetrics;
+import io.scalecube.services.metrics.LatencyRecorder;
+import io.scalecube.services.tracing.Tracing;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Optional;
@@ -19,6 +25,10 @@ public final class ServiceMethodInvoker {
   private final Method method;
   private final Object service;
   private final MethodInfo methodInfo;
+  private final LatencyRecorder invocationLatency;
+  private final LatencyRecorder decodeLatency;
+  private final LatencyRecorder encodeLatency;
+  private final Tracing tracing;
 
   /**
    * Constructs a service method invoker out of real service object instance and method info.
@@ -28,26 +38,136 @@ public final class ServiceMethodInvoker {
    * @param methodInfo method information
    */
   public ServiceMethodInvoker(Method method, Object service, MethodInfo methodInfo) {
+    this(method, service, methodInfo, LatencyMetrics.NOOP);
+  }
+
+  /**
+   * Constructs a service method invoker which records latencies of invocations.
+   *
+   * @param method service method
+   * @param service service instance
+   * @param methodInfo method information
+   * @param latencyMetrics latency metrics
+   */
+  public ServiceMethodInvoker(
+      Method method, Object service, MethodInfo methodInfo, LatencyMetrics latencyMetrics) {
+    this(method, service, methodInfo, latencyMetrics, Tracing.NOOP);
+  }
+
+  /**
+   * Constructs a service method invoker which records latencies of invocations and continues
+   * traces propagated by callers.
+   *
+   * @param method service method
+   * @param service service instance
+   * @param methodInfo method information
+   * @param latencyMetrics latency metrics
+   * @param tracing tracing
+   */
+  public ServiceMethodInvoker(
+      Method method,
+      Object service,
+      MethodInfo methodInfo,
+      LatencyMetrics latencyMetrics,
+      Tracing tracing) {
     this.method = method;
     this.service = service;
     this.methodInfo = methodInfo;
+    String qualifier = methodInfo.qualifier();
+    CommunicationMode mode = methodInfo.communicationMode();
+    this.invocationLatency =
+        latencyMetrics.recorder(qualifier, mode, LatencyMetrics.STAGE_SERVER);
+    this.decodeLatency =
+        latencyMetrics.recorder(qualifier, mode, LatencyMetrics.STAGE_DECODE_REQUEST);
+    this.encodeLatency =
+        latencyMetrics.recorder(qualifier, mode, LatencyMetrics.STAGE_ENCODE_RESPONSE);
+    this.tracing = tracing;
   }
 
+  /**
+   * Invokes service method which returns mono.
+   *
+   * @param message request message
+   * @param dataDecoder decoder of request data
+   * @return mono of response message
+   */
   public Mono<ServiceMessage> invokeOne(
       ServiceMessage message, BiFunction<ServiceMessage, Class<?>, ServiceMessage> dataDecoder) {
-    return Mono.from(invoke(toRequest(message, dataDecoder))).map(this::toResponse);
+    return tracing.serve(
+        message,
+        ServiceEvents.invocation(
+            ServiceEvents.SERVER,
+            methodInfo.qualifier(),
+            methodInfo.communicationMode(),
+            invocationLatency.timed(
+                Mono.defer(() -> Mono.from(invoke(toRequest(message, dataDecoder))))
+                    .map(this::toResponse))));
   }
 
+  /**
+   * Invokes service method which returns flux.
+   *
+   * @param message request message
+   * @param dataDecoder decoder of request data
+   * @return flux of response messages
+   */
   public Flux<ServiceMessage> invokeMany(
       ServiceMessage message, BiFunction<ServiceMessage, Class<?>, ServiceMessage> dataDecoder) {
-    return Flux.from(invoke(toRequest(message, dataDecoder))).map(this::toResponse);
+    return tracing.serve(
+        message,
+        ServiceEvents.invocation(
+            ServiceEvents.SERVER,
+            methodInfo.qualifier(),
+            methodInfo.communicationMode(),
+            invocationLatency.timed(
+                Flux.defer(() -> Flux.from(invoke(toRequest(message, dataDecoder))))
+                    .map(this::toResponse))));
   }
 
+  /**
+   * Invokes service method which takes publisher of requests and returns flux.
+   *
+   * @param publisher publisher of request messages
+   * @param dataDecoder decoder of request data
+   * @return flux of response messages
+   */
   public Flux<ServiceMessage> invokeBidirectional(
       Publisher<ServiceMessage> publisher,
       BiFunction<ServiceMessage, Class<?>, ServiceMessage> dataDecoder) {
-    return Flux.from(invoke(Flux.from(publisher).map(message -> toRequest(message, dataDecoder))))
-        .map(this::toResponse);
+    if (tracing.isEnabled()) { // trace is continued if the first request carries it
+      return Flux.from(HeadAndTail.createFrom(publisher))
+          .flatMap(
+              pair ->
+                  tracing.serve(
+                      pair.head(),
+                      invokeChannel(Flux.from(pair.tail()).startWith(pair.head()), dataDecoder)));
+    }
+    return invokeChannel(publisher, dataDecoder);
+  }
+
+  private Flux<ServiceMessage> invokeChannel(
+      Publisher<ServiceMessage> publisher,
+      BiFunction<ServiceMessage, Class<?>, ServiceMessage> dataDecoder) {
+    return ServiceEvents.invocation(
+        ServiceEvents.SERVER,
+        methodInfo.qualifier(),
+        methodInfo.communicationMode(),
+        invocationLatency.timed(
+            Flux.from(invoke(Flux.from(publisher).map(message -> toRequest(message, dataDecoder))))
+                .map(this::toResponse)));
+  }
+
+  public MethodInfo methodInfo() {
+    return methodInfo;
+  }
+
+  /**
+   * Returns recorder of time which transport takes to encode responses of this method.
+   *
+   * @return latency recorder
+   */
+  public LatencyRecorder encodeLatency() {
+    return encodeLatency;
   }
 
   private Publisher<?> invoke(Object arguments) {
@@ -72,7 +192,14 @@ public final class ServiceMethodInvoker {
 
   private Object toRequest(
       ServiceMessage message, BiFunction<ServiceMessage, Class<?>, ServiceMessage> dataDecoder) {
-    ServiceMessage request = dataDecoder.apply(message, methodInfo.requestType());
+    ServiceMessage request;
+    if (decodeLatency != LatencyRecorder.NOOP) {
+      long start = System.nanoTime();
+      request = dataDecoder.apply(message, methodInfo.requestType());
+      decodeLatency.record(System.nanoTime() - start);
+    } else {
+      request = dataDecoder.apply(message, methodInfo.requestType());
+    }
 
     if (!methodInfo.isRequestTypeVoid()
         && !methodInfo.isRequestTypeServiceMessage()
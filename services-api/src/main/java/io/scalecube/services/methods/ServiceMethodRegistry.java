@@ -1,5 +1,7 @@
 package io.scalecube.services.methods;
 
+import java.util.List;
+
 public interface ServiceMethodRegistry {
 
   void registerService(Object serviceInstance);
@@ -7,4 +9,6 @@ public interface ServiceMethodRegistry {
   boolean containsInvoker(String qualifier);
 
   ServiceMethodInvoker getInvoker(String qualifier);
+
+  List<ServiceMethodInvoker> listInvokers();
 }
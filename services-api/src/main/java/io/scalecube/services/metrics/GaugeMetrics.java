@@ -0,0 +1,40 @@
+package io.scalecube.services.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of gauges, i.e. values which are sampled whenever metrics are reported, such as queue
+ * depths and outstanding requests of transport. Lets modules which don't depend on metrics library
+ * publish gauges.
+ */
+public interface GaugeMetrics {
+
+  /** Gauge metrics which register nothing. */
+  GaugeMetrics NOOP =
+      new GaugeMetrics() {
+        @Override
+        public void gauge(String name, LongSupplier value) {
+          // no-op
+        }
+
+        @Override
+        public void removeGauge(String name) {
+          // no-op
+        }
+      };
+
+  /**
+   * Registers gauge, replacing gauge of the same name if there is one.
+   *
+   * @param name name of gauge
+   * @param value supplier of gauge value, called whenever gauge is sampled
+   */
+  void gauge(String name, LongSupplier value);
+
+  /**
+   * Removes gauge, if there is one.
+   *
+   * @param name name of gauge
+   */
+  void removeGauge(String name);
+}
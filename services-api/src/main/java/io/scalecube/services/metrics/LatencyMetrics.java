@@ -0,0 +1,38 @@
+package io.scalecube.services.metrics;
+
+import io.scalecube.services.CommunicationMode;
+
+/**
+ * Source of latency recorders per service method (qualifier and communication mode) and stage of
+ * service call. Recorders are resolved once per method and stage and kept by callers.
+ */
+public interface LatencyMetrics {
+
+  /** Time from request to the last response, measured by client. */
+  String STAGE_CLIENT = "client";
+
+  /** Time from subscription to termination of service method's response, measured by server. */
+  String STAGE_SERVER = "server";
+
+  /** Time of decoding request data on server. */
+  String STAGE_DECODE_REQUEST = "decodeRequest";
+
+  /** Time of encoding response message on server. */
+  String STAGE_ENCODE_RESPONSE = "encodeResponse";
+
+  /** Time of decoding response data on client. */
+  String STAGE_DECODE_RESPONSE = "decodeResponse";
+
+  /** Latency metrics which record nothing. */
+  LatencyMetrics NOOP = (qualifier, mode, stage) -> LatencyRecorder.NOOP;
+
+  /**
+   * Returns latency recorder of given method and stage.
+   *
+   * @param qualifier service method qualifier
+   * @param mode communication mode of service method
+   * @param stage stage of service call, one of STAGE_* constants
+   * @return latency recorder
+   */
+  LatencyRecorder recorder(String qualifier, CommunicationMode mode, String stage);
+}
@@ -0,0 +1,66 @@
+package io.scalecube.services.metrics;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Recorder of latencies of one stage of calls of one service method (see {@link LatencyMetrics}).
+ */
+public interface LatencyRecorder {
+
+  /** Recorder which records nothing and doesn't time publishers. */
+  LatencyRecorder NOOP =
+      new LatencyRecorder() {
+        @Override
+        public void record(long durationNanos) {
+          // no-op
+        }
+
+        @Override
+        public <T> Mono<T> timed(Mono<T> mono) {
+          return mono;
+        }
+
+        @Override
+        public <T> Flux<T> timed(Flux<T> flux) {
+          return flux;
+        }
+      };
+
+  /**
+   * Records latency.
+   *
+   * @param durationNanos duration in nanoseconds
+   */
+  void record(long durationNanos);
+
+  /**
+   * Records time from subscription to termination of given mono.
+   *
+   * @param mono mono
+   * @param <T> type of value
+   * @return timed mono
+   */
+  default <T> Mono<T> timed(Mono<T> mono) {
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          return mono.doOnSuccessOrError((value, ex) -> record(System.nanoTime() - start));
+        });
+  }
+
+  /**
+   * Records time from subscription to termination of given flux.
+   *
+   * @param flux flux
+   * @param <T> type of values
+   * @return timed flux
+   */
+  default <T> Flux<T> timed(Flux<T> flux) {
+    return Flux.defer(
+        () -> {
+          long start = System.nanoTime();
+          return flux.doOnTerminate(() -> record(System.nanoTime() - start));
+        });
+  }
+}
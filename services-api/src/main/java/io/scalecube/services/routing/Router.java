@@ -9,7 +9,9 @@ import java.util.Optional;
 public interface Router {
 
   /**
-   * Returns suitable service references for a given request message.
+   * Returns suitable service references for a given request message. Service call gives router
+   * registry which lookups only references of nodes available for new requests (see {@link
+   * io.scalecube.services.transport.api.ClientTransport#availability}), unless none is available.
    *
    * @param serviceRegistry service registry
    * @param request service message
@@ -0,0 +1,29 @@
+package io.scalecube.services.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Exporter which keeps spans in memory, intended for tests. */
+public final class InMemorySpanExporter implements SpanExporter {
+
+  private final ConcurrentLinkedQueue<Span> spans = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void export(Span span) {
+    spans.add(span);
+  }
+
+  /**
+   * Returns exported spans in order of export.
+   *
+   * @return copy of exported spans
+   */
+  public List<Span> spans() {
+    return new ArrayList<>(spans);
+  }
+
+  public void clear() {
+    spans.clear();
+  }
+}
@@ -0,0 +1,44 @@
+package io.scalecube.services.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Head-based sampler: decides whether new trace is recorded when service call is made outside of
+ * any trace. Calls made within a sampled trace are always recorded, other calls aren't.
+ */
+@FunctionalInterface
+public interface Sampler {
+
+  /** Samples every trace. */
+  Sampler ALWAYS = qualifier -> true;
+
+  /** Samples no trace. */
+  Sampler NEVER = qualifier -> false;
+
+  /**
+   * Returns whether trace started by call of given service method is sampled.
+   *
+   * @param qualifier service method qualifier
+   * @return true if sampled
+   */
+  boolean isSampled(String qualifier);
+
+  /**
+   * Returns sampler which samples given fraction of traces at random.
+   *
+   * @param probability probability of trace being sampled, from 0 to 1
+   * @return sampler
+   */
+  static Sampler probability(double probability) {
+    if (probability < 0 || probability > 1) {
+      throw new IllegalArgumentException("probability must be in [0..1]: " + probability);
+    }
+    if (probability == 0) {
+      return NEVER;
+    }
+    if (probability == 1) {
+      return ALWAYS;
+    }
+    return qualifier -> ThreadLocalRandom.current().nextDouble() < probability;
+  }
+}
@@ -0,0 +1,91 @@
+package io.scalecube.services.tracing;
+
+/** Finished span of service call, recorded either by client or by server. */
+public final class Span {
+
+  public enum Kind {
+    CLIENT,
+    SERVER
+  }
+
+  private final TraceContext context;
+  private final Kind kind;
+  private final String qualifier;
+  private final long startEpochMicros;
+  private final long durationNanos;
+  private final String error;
+
+  Span(
+      TraceContext context,
+      Kind kind,
+      String qualifier,
+      long startEpochMicros,
+      long durationNanos,
+      String error) {
+    this.context = context;
+    this.kind = kind;
+    this.qualifier = qualifier;
+    this.startEpochMicros = startEpochMicros;
+    this.durationNanos = durationNanos;
+    this.error = error;
+  }
+
+  public long traceId() {
+    return context.traceId();
+  }
+
+  public long spanId() {
+    return context.spanId();
+  }
+
+  public long parentSpanId() {
+    return context.parentSpanId();
+  }
+
+  public Kind kind() {
+    return kind;
+  }
+
+  public String qualifier() {
+    return qualifier;
+  }
+
+  public long startEpochMicros() {
+    return startEpochMicros;
+  }
+
+  public long durationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * Returns error which the call ended with.
+   *
+   * @return class name of error, null if call succeeded
+   */
+  public String error() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    return "Span{traceId="
+        + Long.toHexString(traceId())
+        + ", spanId="
+        + Long.toHexString(spanId())
+        + ", parentSpanId="
+        + Long.toHexString(parentSpanId())
+        + ", kind="
+        + kind
+        + ", qualifier='"
+        + qualifier
+        + '\''
+        + ", startEpochMicros="
+        + startEpochMicros
+        + ", durationNanos="
+        + durationNanos
+        + ", error="
+        + error
+        + '}';
+  }
+}
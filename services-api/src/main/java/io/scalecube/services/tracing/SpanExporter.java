@@ -0,0 +1,22 @@
+package io.scalecube.services.tracing;
+
+/**
+ * Exporter of finished spans. Called on thread which finished the span, so implementations are
+ * expected to hand spans off (e.g. to a queue) rather than to do blocking IO.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+  /** Exporter which drops spans. */
+  SpanExporter NOOP =
+      span -> {
+        // no-op
+      };
+
+  /**
+   * Exports finished span.
+   *
+   * @param span span
+   */
+  void export(Span span);
+}
@@ -0,0 +1,118 @@
+package io.scalecube.services.tracing;
+
+import io.scalecube.services.api.ServiceMessage;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identifiers of sampled trace and of its current span. Propagated to remote services in {@link
+ * #HEADER_TRACE_ID} and {@link #HEADER_SPAN_ID} headers of request message and within service in
+ * Reactor context (keyed by this class). Presence of headers means that trace is sampled.
+ */
+public final class TraceContext {
+
+  /** Request header with trace id in hex. */
+  public static final String HEADER_TRACE_ID = "_trace_id";
+
+  /** Request header with id (in hex) of caller's span, the parent of callee's span. */
+  public static final String HEADER_SPAN_ID = "_span_id";
+
+  private final long traceId;
+  private final long spanId;
+  private final long parentSpanId;
+
+  private TraceContext(long traceId, long spanId, long parentSpanId) {
+    this.traceId = traceId;
+    this.spanId = spanId;
+    this.parentSpanId = parentSpanId;
+  }
+
+  /**
+   * Starts new trace.
+   *
+   * @return context of root span of new trace
+   */
+  public static TraceContext newTrace() {
+    long id = nextId();
+    return new TraceContext(id, id, 0);
+  }
+
+  /**
+   * Reads trace context propagated by caller.
+   *
+   * @param message request message
+   * @return caller's context, null if message has no (valid) trace headers
+   */
+  public static TraceContext fromHeaders(ServiceMessage message) {
+    String traceId = message.header(HEADER_TRACE_ID);
+    if (traceId == null) {
+      return null;
+    }
+    String spanId = message.header(HEADER_SPAN_ID);
+    try {
+      return new TraceContext(
+          Long.parseUnsignedLong(traceId, 16),
+          spanId != null ? Long.parseUnsignedLong(spanId, 16) : 0,
+          0);
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Starts child span of this one.
+   *
+   * @return context of child span
+   */
+  public TraceContext newChild() {
+    return new TraceContext(traceId, nextId(), spanId);
+  }
+
+  /**
+   * Returns copy of request message with this context in headers.
+   *
+   * @param message request message
+   * @return message with trace headers
+   */
+  public ServiceMessage inject(ServiceMessage message) {
+    return ServiceMessage.from(message)
+        .header(HEADER_TRACE_ID, Long.toHexString(traceId))
+        .header(HEADER_SPAN_ID, Long.toHexString(spanId))
+        .build();
+  }
+
+  public long traceId() {
+    return traceId;
+  }
+
+  public long spanId() {
+    return spanId;
+  }
+
+  /**
+   * Returns id of parent span.
+   *
+   * @return id of parent span, 0 for root span
+   */
+  public long parentSpanId() {
+    return parentSpanId;
+  }
+
+  private static long nextId() {
+    long id;
+    do {
+      id = ThreadLocalRandom.current().nextLong();
+    } while (id == 0);
+    return id;
+  }
+
+  @Override
+  public String toString() {
+    return "TraceContext{traceId="
+        + Long.toHexString(traceId)
+        + ", spanId="
+        + Long.toHexString(spanId)
+        + ", parentSpanId="
+        + Long.toHexString(parentSpanId)
+        + '}';
+  }
+}
@@ -0,0 +1,271 @@
+package io.scalecube.services.tracing;
+
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.tracing.Span.Kind;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+/**
+ * Tracing of service calls. Client starts span of each call made within a trace found in Reactor
+ * context, or starts new trace if {@link Sampler} samples it, and propagates the span to callee in
+ * request headers. Server continues trace found in request headers with its own span, which is put
+ * into Reactor context of the service method's result, so that calls made by service method belong
+ * to the same trace. Sampling decision is made when call is assembled, and the Reactor context is
+ * looked up only on subscription, without extra operators in front of the call. Requests of traces
+ * which aren't sampled carry no headers and cost server a single header lookup. Finished spans go
+ * to {@link SpanExporter}.
+ */
+public final class Tracing {
+
+  /** Tracing which records nothing and doesn't touch messages or publishers. */
+  public static final Tracing NOOP = new Tracing(new Builder(), false);
+
+  private final Sampler sampler;
+  private final SpanExporter exporter;
+  private final boolean enabled;
+
+  private Tracing(Builder builder, boolean enabled) {
+    this.sampler = builder.sampler;
+    this.exporter = builder.exporter;
+    this.enabled = enabled;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Traces client call which returns mono.
+   *
+   * @param request request message
+   * @param call function which makes call with given request (with trace headers if sampled)
+   * @param <T> type of response
+   * @return mono of response
+   */
+  public <T> Mono<T> traceOne(ServiceMessage request, Function<ServiceMessage, Mono<T>> call) {
+    if (!enabled) {
+      return call.apply(request);
+    }
+    boolean sampled = sampler.isSampled(request.qualifier());
+    return new ContextualMono<>(
+        context -> {
+          TraceContext span = newClientSpan(context, sampled);
+          if (span == null) {
+            return call.apply(request);
+          }
+          return recorded(
+              span, Kind.CLIENT, request.qualifier(), call.apply(span.inject(request)));
+        });
+  }
+
+  /**
+   * Traces client call which returns flux.
+   *
+   * @param request request message, the first one for request-channel
+   * @param call function which makes call with given request (with trace headers if sampled)
+   * @param <T> type of responses
+   * @return flux of responses
+   */
+  public <T> Flux<T> traceMany(ServiceMessage request, Function<ServiceMessage, Flux<T>> call) {
+    if (!enabled) {
+      return call.apply(request);
+    }
+    boolean sampled = sampler.isSampled(request.qualifier());
+    return new ContextualFlux<>(
+        context -> {
+          TraceContext span = newClientSpan(context, sampled);
+          if (span == null) {
+            return call.apply(request);
+          }
+          return recorded(
+              span, Kind.CLIENT, request.qualifier(), call.apply(span.inject(request)));
+        });
+  }
+
+  /**
+   * Traces server invocation of service method if request carries trace headers.
+   *
+   * @param request request message
+   * @param response mono of service method's response
+   * @param <T> type of response
+   * @return mono of response
+   */
+  public <T> Mono<T> serve(ServiceMessage request, Mono<T> response) {
+    TraceContext parent = enabled ? TraceContext.fromHeaders(request) : null;
+    if (parent == null) {
+      return response;
+    }
+    TraceContext span = parent.newChild();
+    return recorded(span, Kind.SERVER, request.qualifier(), response)
+        .subscriberContext(context -> context.put(TraceContext.class, span));
+  }
+
+  /**
+   * Traces server invocation of service method if request carries trace headers.
+   *
+   * @param request request message, the first one for request-channel
+   * @param responses flux of service method's responses
+   * @param <T> type of responses
+   * @return flux of responses
+   */
+  public <T> Flux<T> serve(ServiceMessage request, Flux<T> responses) {
+    TraceContext parent = enabled ? TraceContext.fromHeaders(request) : null;
+    if (parent == null) {
+      return responses;
+    }
+    TraceContext span = parent.newChild();
+    return recorded(span, Kind.SERVER, request.qualifier(), responses)
+        .subscriberContext(context -> context.put(TraceContext.class, span));
+  }
+
+  private static TraceContext newClientSpan(Context context, boolean sampled) {
+    TraceContext parent = context.getOrDefault(TraceContext.class, null);
+    if (parent != null) {
+      return parent.newChild();
+    }
+    return sampled ? TraceContext.newTrace() : null;
+  }
+
+  private <T> Mono<T> recorded(TraceContext span, Kind kind, String qualifier, Mono<T> mono) {
+    return Mono.defer(
+        () -> {
+          SpanRecorder recorder = new SpanRecorder(span, kind, qualifier);
+          return mono.doOnSuccessOrError((value, ex) -> recorder.finish(ex))
+              .doOnCancel(recorder::cancel);
+        });
+  }
+
+  private <T> Flux<T> recorded(TraceContext span, Kind kind, String qualifier, Flux<T> flux) {
+    return Flux.defer(
+        () -> {
+          SpanRecorder recorder = new SpanRecorder(span, kind, qualifier);
+          return flux.doOnComplete(() -> recorder.finish(null))
+              .doOnError(recorder::finish)
+              .doOnCancel(recorder::cancel);
+        });
+  }
+
+  private final class SpanRecorder {
+
+    private final TraceContext span;
+    private final Kind kind;
+    private final String qualifier;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private boolean finished;
+
+    private SpanRecorder(TraceContext span, Kind kind, String qualifier) {
+      this.span = span;
+      this.kind = kind;
+      this.qualifier = qualifier;
+      this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+      this.startNanos = System.nanoTime();
+    }
+
+    private void finish(Throwable ex) {
+      export(ex != null ? ex.getClass().getName() : null);
+    }
+
+    private void cancel() {
+      export("cancelled");
+    }
+
+    private void export(String error) {
+      synchronized (this) {
+        if (finished) {
+          return;
+        }
+        finished = true;
+      }
+      exporter.export(
+          new Span(
+              span, kind, qualifier, startEpochMicros, System.nanoTime() - startNanos, error));
+    }
+  }
+
+  /**
+   * Mono which picks its source by Reactor context of subscriber, cheaper than {@code
+   * Mono.subscriberContext().flatMap(...)} as it adds no operators in front of the source.
+   */
+  private static final class ContextualMono<T> extends Mono<T> {
+
+    private final Function<Context, Mono<T>> source;
+
+    private ContextualMono(Function<Context, Mono<T>> source) {
+      this.source = source;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+      Mono<T> mono;
+      try {
+        mono = source.apply(actual.currentContext());
+      } catch (Throwable ex) {
+        Operators.error(actual, Operators.onOperatorError(ex, actual.currentContext()));
+        return;
+      }
+      mono.subscribe(actual);
+    }
+  }
+
+  /**
+   * Flux which picks its source by Reactor context of subscriber, see {@link ContextualMono}.
+   */
+  private static final class ContextualFlux<T> extends Flux<T> {
+
+    private final Function<Context, Flux<T>> source;
+
+    private ContextualFlux(Function<Context, Flux<T>> source) {
+      this.source = source;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+      Flux<T> flux;
+      try {
+        flux = source.apply(actual.currentContext());
+      } catch (Throwable ex) {
+        Operators.error(actual, Operators.onOperatorError(ex, actual.currentContext()));
+        return;
+      }
+      flux.subscribe(actual);
+    }
+  }
+
+  public static final class Builder {
+
+    private Sampler sampler = Sampler.ALWAYS;
+    private SpanExporter exporter = SpanExporter.NOOP;
+
+    private Builder() {}
+
+    /**
+     * Sets sampler of new traces, by default every trace is sampled.
+     *
+     * @param sampler sampler
+     * @return this builder
+     */
+    public Builder sampler(Sampler sampler) {
+      this.sampler = sampler;
+      return this;
+    }
+
+    public Builder exporter(SpanExporter exporter) {
+      this.exporter = exporter;
+      return this;
+    }
+
+    public Tracing build() {
+      return new Tracing(this, true);
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package io.scalecube.services.transport.api;
 
+import io.scalecube.services.ServiceEndpoint;
+import io.scalecube.services.ServiceReference;
 import io.scalecube.transport.Address;
+import reactor.core.publisher.Mono;
 
 /** Client service transport interface. */
 public interface ClientTransport {
@@ -12,4 +15,53 @@ public interface ClientTransport {
    * @return client channel instance.
    */
   ClientChannel create(Address address);
+
+  /**
+   * Creates a client channel ready for communication with service node of the given service
+   * reference. Transport may use endpoint properties advertised in endpoint metadata of reference
+   * (see {@link ServerTransport#endpointMetadata()}) to pick better way to reach the node; by
+   * default connects to reference address.
+   *
+   * @param reference service reference
+   * @return client channel instance.
+   */
+  default ClientChannel create(ServiceReference reference) {
+    return create(reference.address());
+  }
+
+  /**
+   * Returns availability of service node of the given service reference for new requests, from 0.0
+   * (node isn't expected to accept requests, e.g. it is overloaded) to 1.0. Service call routes
+   * requests to available nodes first (see {@link io.scalecube.services.routing.Router}). By
+   * default every node is fully available.
+   *
+   * @param reference service reference
+   * @return availability of service node
+   */
+  default double availability(ServiceReference reference) {
+    return 1.0;
+  }
+
+  /**
+   * Prepares connections to service node of the given endpoint ahead of requests, called once node
+   * is discovered. Transport which warms up connections should report node unavailable (see {@link
+   * #availability(ServiceReference)}) until they are established. By default does nothing.
+   *
+   * @param endpoint discovered service endpoint
+   * @return mono which completes once node is ready for requests
+   */
+  default Mono<Void> warmUp(ServiceEndpoint endpoint) {
+    return Mono.empty();
+  }
+
+  /**
+   * Releases connections to service node of the given endpoint, called once node left the
+   * cluster. By default does nothing.
+   *
+   * @param endpoint removed service endpoint
+   * @return mono which completes once connections are released
+   */
+  default Mono<Void> tearDown(ServiceEndpoint endpoint) {
+    return Mono.empty();
+  }
 }
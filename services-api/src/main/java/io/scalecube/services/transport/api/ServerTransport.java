@@ -2,6 +2,8 @@ package io.scalecube.services.transport.api;
 
 import io.scalecube.services.methods.ServiceMethodRegistry;
 import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
 import reactor.core.publisher.Mono;
 
 /** Server service transport interface. */
@@ -16,6 +18,18 @@ public interface ServerTransport {
    */
   InetSocketAddress bindAwait(InetSocketAddress address, ServiceMethodRegistry methodRegistry);
 
+  /**
+   * Transport specific properties of bound server (e.g. supported framings, alternative address
+   * for peers on the same host), which are advertised to other nodes in service endpoint metadata
+   * (see {@link io.scalecube.services.ServiceEndpoint#metadata()}), so that their client
+   * transports use them only with servers which support them.
+   *
+   * @return endpoint metadata, empty by default
+   */
+  default Map<String, String> endpointMetadata() {
+    return Collections.emptyMap();
+  }
+
   /**
    * Stops server transport.
    *
@@ -1,6 +1,7 @@
 package io.scalecube.services.transport.api;
 
 import io.scalecube.services.ServiceLoaderUtil;
+import io.scalecube.services.metrics.GaugeMetrics;
 import java.util.concurrent.ExecutorService;
 import reactor.core.publisher.Mono;
 
@@ -25,6 +26,19 @@ public interface ServiceTransport {
    */
   ClientTransport getClientTransport(ExecutorService executorService);
 
+  /**
+   * Getting client transport which publishes its health gauges, such as outstanding requests of
+   * connections. By default gauges are not published.
+   *
+   * @param executorService transport executor service
+   * @param gauges gauge metrics
+   * @return client transport
+   */
+  default ClientTransport getClientTransport(
+      ExecutorService executorService, GaugeMetrics gauges) {
+    return getClientTransport(executorService);
+  }
+
   /**
    * Getting server transport.
    *
@@ -33,6 +47,19 @@ public interface ServiceTransport {
    */
   ServerTransport getServerTransport(ExecutorService executorService);
 
+  /**
+   * Getting server transport which publishes its health gauges, such as outstanding requests of
+   * connections and pending tasks of event loops. By default gauges are not published.
+   *
+   * @param executorService transport executor service
+   * @param gauges gauge metrics
+   * @return server transport
+   */
+  default ServerTransport getServerTransport(
+      ExecutorService executorService, GaugeMetrics gauges) {
+    return getServerTransport(executorService);
+  }
+
   /**
    * Getting new service transport executor service.
    *
@@ -2,12 +2,19 @@ package io.scalecube.services;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
@@ -104,4 +111,56 @@ public class HeadAndTailTest {
                 }))
         .expectError(RuntimeException.class);
   }
+
+  @Test
+  public void testTailIsRequestedByItsSubscriber() {
+    List<Long> requests = new CopyOnWriteArrayList<>();
+    Flux<Integer> source = Flux.range(1, 10).doOnRequest(requests::add);
+
+    AtomicReference<HeadAndTail<Integer>> pair = new AtomicReference<>();
+    Flux.from(HeadAndTail.createFrom(source)).subscribe(pair::set);
+
+    StepVerifier.create(pair.get().tail(), 0)
+        .then(() -> assertEquals(Collections.singletonList(1L), requests))
+        .thenRequest(2)
+        .expectNext(2, 3)
+        .then(() -> assertEquals(Arrays.asList(1L, 2L), requests))
+        .thenCancel()
+        .verify();
+  }
+
+  @Test
+  public void testSourceIsCancelledWhenTailIsNotSubscribed() {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    Flux<Integer> source = Flux.range(1, 10).doOnCancel(() -> cancelled.set(true));
+
+    StepVerifier.create(Flux.from(HeadAndTail.createFrom(source)).map(HeadAndTail::head))
+        .expectNext(1)
+        .then(() -> assertFalse(cancelled.get()))
+        .thenCancel()
+        .verify();
+
+    assertTrue(cancelled.get());
+  }
+
+  @Test
+  public void testSourceIsCancelledWithTail() {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    Flux<Integer> source =
+        Flux.just(1, 2).concatWith(Flux.never()).doOnCancel(() -> cancelled.set(true));
+
+    StepVerifier.create(Flux.from(HeadAndTail.createFrom(source)).flatMap(HeadAndTail::tail), 1)
+        .expectNext(2)
+        .thenCancel()
+        .verify();
+
+    assertTrue(cancelled.get());
+  }
+
+  @Test
+  public void testCompletesWithoutTailSubscriber() {
+    StepVerifier.create(Flux.from(HeadAndTail.createFrom(Flux.just(1))).map(HeadAndTail::head))
+        .expectNext(1)
+        .verifyComplete();
+  }
 }
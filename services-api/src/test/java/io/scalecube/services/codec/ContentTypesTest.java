@@ -0,0 +1,105 @@
+package io.scalecube.services.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.CommunicationMode;
+import io.scalecube.services.ServiceEndpoint;
+import io.scalecube.services.ServiceMethodDefinition;
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.ServiceRegistration;
+import io.scalecube.services.api.ServiceMessage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+
+class ContentTypesTest {
+
+  @Test
+  void testIdIsStableAndDense() {
+    int id1 = ContentTypes.register("application/test-1");
+    int id2 = ContentTypes.register("application/test-2");
+
+    assertNotEquals(id1, id2);
+    assertEquals(id1, ContentTypes.register("application/test-1"));
+    assertEquals(id1, ContentTypes.idOf("application/test-1"));
+    assertEquals("application/test-1", ContentTypes.nameOf(id1));
+    assertEquals("application/test-2", ContentTypes.nameOf(id2));
+  }
+
+  @Test
+  void testNullAndUnknownIds() {
+    assertEquals(ContentTypes.UNKNOWN, ContentTypes.idOf(null));
+    assertNull(ContentTypes.nameOf(ContentTypes.UNKNOWN));
+    assertNull(ContentTypes.nameOf(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void testCodecContentTypesAreRegistered() {
+    DataCodec.getAllInstances()
+        .forEach(
+            codec ->
+                assertEquals(
+                    codec.contentType(),
+                    ContentTypes.nameOf(ContentTypes.idOf(codec.contentType()))));
+  }
+
+  @Test
+  void testUnregisteredContentTypeIsNotInterned() {
+    int size = ContentTypes.size();
+
+    for (int i = 0; i < 100; i++) {
+      String dataFormat = "application/unregistered-" + i;
+      assertEquals(ContentTypes.UNKNOWN, ContentTypes.idOf(dataFormat));
+      assertEquals(
+          ContentTypes.UNKNOWN,
+          ServiceMessage.builder().dataFormat(dataFormat).build().dataFormatId());
+    }
+    assertEquals(size, ContentTypes.size());
+  }
+
+  @Test
+  void testAdvertisedContentTypeIsNotInterned() {
+    int localId = ContentTypes.register("application/test-5");
+    int size = ContentTypes.size();
+    ServiceMethodDefinition method =
+        new ServiceMethodDefinition("test", CommunicationMode.REQUEST_RESPONSE);
+    ServiceRegistration registration =
+        new ServiceRegistration("test", Collections.emptyMap(), Collections.singleton(method));
+    ServiceEndpoint endpoint =
+        new ServiceEndpoint(
+            "endpoint",
+            "localhost",
+            4801,
+            new HashSet<>(Arrays.asList("application/test-5", "application/advertised")),
+            Collections.emptyMap(),
+            Collections.singleton(registration));
+
+    ServiceReference reference = new ServiceReference(method, registration, endpoint);
+
+    assertEquals(size, ContentTypes.size());
+    assertEquals(ContentTypes.UNKNOWN, ContentTypes.idOf("application/advertised"));
+    assertTrue(reference.supportsContentType(localId));
+    assertFalse(reference.supportsContentType(ContentTypes.UNKNOWN));
+  }
+
+  @Test
+  void testMessageDataFormatId() {
+    ContentTypes.register("application/test-3");
+    ContentTypes.register("application/test-4");
+    ServiceMessage message = ServiceMessage.builder().dataFormat("application/test-3").build();
+    int id = message.dataFormatId();
+
+    assertEquals(ContentTypes.idOf("application/test-3"), id);
+    assertEquals(id, ServiceMessage.from(message).build().dataFormatId());
+    assertEquals(
+        ContentTypes.idOf("application/test-4"),
+        ServiceMessage.from(message).dataFormat("application/test-4").build().dataFormatId());
+    assertEquals(
+        ContentTypes.idOf("application/json"), ServiceMessage.builder().build().dataFormatId());
+  }
+}
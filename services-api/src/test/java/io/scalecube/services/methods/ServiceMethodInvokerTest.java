@@ -1,8 +1,19 @@
 package io.scalecube.services.methods;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import io.scalecube.services.CommunicationMode;
 import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.metrics.LatencyMetrics;
+import io.scalecube.services.metrics.LatencyRecorder;
+import io.scalecube.services.tracing.Tracing;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.BiFunction;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -173,4 +184,49 @@ class ServiceMethodInvokerTest {
 
     StepVerifier.create(invokeOne).verifyError(RuntimeException.class);
   }
+
+  @Test
+  @DisplayName("invokeOne should time request decoding and service method call as server stage")
+  void testInvokeOneTimesDecodingAndInvocation() throws Exception {
+    final String methodName = "returnNull";
+    final Class<? extends StubService> serviceClass = stubService.getClass();
+    final Method method = serviceClass.getMethod(methodName);
+
+    final MethodInfo methodInfo =
+        new MethodInfo(
+            serviceClass.getName(),
+            methodName,
+            method.getReturnType(),
+            CommunicationMode.REQUEST_RESPONSE,
+            method.getParameterCount(),
+            Void.TYPE);
+
+    final List<Long> serverLatencies = new CopyOnWriteArrayList<>();
+    final LatencyMetrics latencyMetrics =
+        (qualifier, mode, stage) ->
+            LatencyMetrics.STAGE_SERVER.equals(stage)
+                ? serverLatencies::add
+                : LatencyRecorder.NOOP;
+    final AtomicInteger decoded = new AtomicInteger();
+    final BiFunction<ServiceMessage, Class<?>, ServiceMessage> slowDecoder =
+        (message, type) -> {
+          decoded.incrementAndGet();
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+          return message;
+        };
+
+    serviceMethodInvoker =
+        new ServiceMethodInvoker(method, stubService, methodInfo, latencyMetrics, Tracing.NOOP);
+
+    ServiceMessage message =
+        ServiceMessage.builder().qualifier(qualifierPrefix + methodName).streamId("1").build();
+
+    final Mono<ServiceMessage> invokeOne = serviceMethodInvoker.invokeOne(message, slowDecoder);
+    assertEquals(0, decoded.get());
+
+    StepVerifier.create(invokeOne).verifyComplete();
+    assertEquals(1, decoded.get());
+    assertEquals(1, serverLatencies.size());
+    assertTrue(serverLatencies.get(0) >= TimeUnit.MILLISECONDS.toNanos(20));
+  }
 }
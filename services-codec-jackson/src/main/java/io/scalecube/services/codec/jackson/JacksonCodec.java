@@ -3,31 +3,81 @@ package io.scalecube.services.codec.jackson;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.scalecube.services.codec.DataCodec;
 import io.scalecube.services.codec.HeadersCodec;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public final class JacksonCodec implements DataCodec, HeadersCodec {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(JacksonCodec.class);
+
   public static final String CONTENT_TYPE = "application/json";
 
+  /**
+   * System property which turns on Afterburner module (bytecode generated property accessors) for
+   * the codec created with default constructor. Requires {@code jackson-module-afterburner} in the
+   * classpath.
+   */
+  public static final String AFTERBURNER_PROPERTY =
+      "io.scalecube.services.codec.jackson.afterburner";
+
+  private static final String AFTERBURNER_MODULE_CLASS =
+      "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
   private final ObjectMapper mapper;
+  private final ObjectReader headersReader;
+  private final ObjectWriter headersWriter;
+  private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+  private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
 
   public JacksonCodec() {
-    this(initMapper());
+    this(Boolean.getBoolean(AFTERBURNER_PROPERTY));
   }
 
+  public JacksonCodec(boolean afterburner) {
+    this(initMapper(afterburner));
+  }
+
+  /**
+   * Creates codec on top of given object mapper.
+   *
+   * @param mapper object mapper
+   */
   public JacksonCodec(ObjectMapper mapper) {
     this.mapper = mapper;
+    this.headersReader = mapper.readerFor(HashMap.class);
+    this.headersWriter = mapper.writerFor(Map.class);
+  }
+
+  /**
+   * Returns object mapper the codec is built on.
+   *
+   * @return object mapper
+   */
+  public ObjectMapper mapper() {
+    return mapper;
   }
 
   @Override
@@ -35,29 +85,86 @@ public final class JacksonCodec implements DataCodec, HeadersCodec {
     return CONTENT_TYPE;
   }
 
+  @Override
+  public void warmUp(Class<?> type) {
+    reader(type);
+    writer(type);
+  }
+
   @Override
   public void encode(OutputStream stream, Map<String, String> headers) throws IOException {
-    mapper.writeValue(stream, headers);
+    headersWriter.writeValue(stream, headers);
   }
 
   @Override
   public void encode(OutputStream stream, Object value) throws IOException {
-    mapper.writeValue(stream, value);
+    writer(value.getClass()).writeValue(stream, value);
   }
 
   @Override
   public Map<String, String> decode(InputStream stream) throws IOException {
-    return stream.available() == 0
-        ? Collections.emptyMap()
-        : mapper.readValue(stream, HashMap.class);
+    return stream.available() == 0 ? Collections.emptyMap() : headersReader.readValue(stream);
   }
 
   @Override
   public Object decode(InputStream stream, Class<?> type) throws IOException {
-    return mapper.readValue(stream, type);
+    return reader(type).readValue(stream);
+  }
+
+  @Override
+  public Object decode(ByteBuf buffer, Class<?> type) throws IOException {
+    ObjectReader reader = reader(type);
+    if (buffer.hasArray()) {
+      // read straight from backing array, no stream and no intermediate copy
+      int offset = buffer.arrayOffset() + buffer.readerIndex();
+      return reader.readValue(buffer.array(), offset, buffer.readableBytes());
+    }
+    try (InputStream stream = new ByteBufInputStream(buffer)) {
+      return reader.readValue(stream);
+    }
+  }
+
+  @Override
+  public void encodeBatch(ByteBuf buffer, List<?> values) throws IOException {
+    // plain json array, so batch is readable by any json parser
+    try (JsonGenerator generator =
+        mapper.getFactory().createGenerator((OutputStream) new ByteBufOutputStream(buffer))) {
+      generator.writeStartArray();
+      for (Object value : values) {
+        writer(value.getClass()).writeValue(generator, value);
+      }
+      generator.writeEndArray();
+    }
+  }
+
+  @Override
+  public List<Object> decodeBatch(ByteBuf buffer, Class<?> type) throws IOException {
+    ObjectReader reader = reader(type);
+    // elements are parsed one by one from the array, without building the tree of whole batch
+    try (MappingIterator<Object> iterator =
+        buffer.hasArray()
+            ? reader.readValues(
+                buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes())
+            : reader.readValues((InputStream) new ByteBufInputStream(buffer))) {
+      List<Object> values = new ArrayList<>();
+      while (iterator.hasNextValue()) {
+        values.add(iterator.nextValue());
+      }
+      return values;
+    }
   }
 
-  private static ObjectMapper initMapper() {
+  private ObjectReader reader(Class<?> type) {
+    ObjectReader reader = readers.get(type);
+    return reader != null ? reader : readers.computeIfAbsent(type, mapper::readerFor);
+  }
+
+  private ObjectWriter writer(Class<?> type) {
+    ObjectWriter writer = writers.get(type);
+    return writer != null ? writer : writers.computeIfAbsent(type, mapper::writerFor);
+  }
+
+  private static ObjectMapper initMapper(boolean afterburner) {
     ObjectMapper mapper = new ObjectMapper();
     mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
@@ -67,6 +174,19 @@ public final class JacksonCodec implements DataCodec, HeadersCodec {
     mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
     mapper.configure(SerializationFeature.WRITE_ENUMS_USING_TO_STRING, true);
     mapper.registerModule(new JavaTimeModule());
+    if (afterburner) {
+      registerAfterburner(mapper);
+    }
     return mapper;
   }
+
+  private static void registerAfterburner(ObjectMapper mapper) {
+    try {
+      Class<?> moduleClass = Class.forName(AFTERBURNER_MODULE_CLASS);
+      mapper.registerModule((Module) moduleClass.getDeclaredConstructor().newInstance());
+      LOGGER.debug("Afterburner module registered");
+    } catch (Exception ex) {
+      LOGGER.warn("Cannot register Afterburner module, reflection will be used, cause: {}", ex);
+    }
+  }
 }
@@ -0,0 +1,203 @@
+package io.scalecube.services.codec.protostuff;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.protostuff.ByteString;
+import io.protostuff.Output;
+import io.protostuff.Schema;
+import io.protostuff.WireFormat;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Protobuf {@link Output} which writes straight into netty {@link ByteBuf}, without intermediate
+ * {@code LinkedBuffer} and {@code OutputStream}.
+ *
+ * <p>Length of nested message isn't known until message is written, so space for it is reserved
+ * upfront as fixed size (5 bytes) varint and filled in afterwards. Such padded varint is a valid
+ * protobuf varint, so the result can be read by any protobuf compatible input.
+ */
+final class ByteBufOutput implements Output {
+
+  private static final int PADDED_VARINT32_SIZE = 5;
+
+  private final ByteBuf buffer;
+
+  ByteBufOutput(ByteBuf buffer) {
+    this.buffer = buffer;
+  }
+
+  /**
+   * Writes message in protobuf format into given buffer.
+   *
+   * @param buffer target buffer
+   * @param message message
+   * @param schema message schema
+   * @param <T> message type
+   * @throws IOException in case message couldn't be written
+   */
+  static <T> void writeTo(ByteBuf buffer, T message, Schema<T> schema) throws IOException {
+    schema.writeTo(new ByteBufOutput(buffer), message);
+  }
+
+  @Override
+  public void writeInt32(int fieldNumber, int value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    if (value >= 0) {
+      writeVarInt32(value);
+    } else {
+      // negative int32 is always sign extended to ten bytes
+      writeVarInt64(value);
+    }
+  }
+
+  @Override
+  public void writeUInt32(int fieldNumber, int value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeVarInt32(value);
+  }
+
+  @Override
+  public void writeSInt32(int fieldNumber, int value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeVarInt32((value << 1) ^ (value >> 31));
+  }
+
+  @Override
+  public void writeFixed32(int fieldNumber, int value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED32);
+    buffer.writeIntLE(value);
+  }
+
+  @Override
+  public void writeSFixed32(int fieldNumber, int value, boolean repeated) {
+    writeFixed32(fieldNumber, value, repeated);
+  }
+
+  @Override
+  public void writeInt64(int fieldNumber, long value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeVarInt64(value);
+  }
+
+  @Override
+  public void writeUInt64(int fieldNumber, long value, boolean repeated) {
+    writeInt64(fieldNumber, value, repeated);
+  }
+
+  @Override
+  public void writeSInt64(int fieldNumber, long value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeVarInt64((value << 1) ^ (value >> 63));
+  }
+
+  @Override
+  public void writeFixed64(int fieldNumber, long value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED64);
+    buffer.writeLongLE(value);
+  }
+
+  @Override
+  public void writeSFixed64(int fieldNumber, long value, boolean repeated) {
+    writeFixed64(fieldNumber, value, repeated);
+  }
+
+  @Override
+  public void writeFloat(int fieldNumber, float value, boolean repeated) {
+    writeFixed32(fieldNumber, Float.floatToRawIntBits(value), repeated);
+  }
+
+  @Override
+  public void writeDouble(int fieldNumber, double value, boolean repeated) {
+    writeFixed64(fieldNumber, Double.doubleToRawLongBits(value), repeated);
+  }
+
+  @Override
+  public void writeBool(int fieldNumber, boolean value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    buffer.writeByte(value ? 1 : 0);
+  }
+
+  @Override
+  public void writeEnum(int fieldNumber, int value, boolean repeated) {
+    writeInt32(fieldNumber, value, repeated);
+  }
+
+  @Override
+  public void writeString(int fieldNumber, CharSequence value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    if (ByteBufUtil.utf8MaxBytes(value) < 0x80) {
+      // length surely fits into single byte, fill it in after string is written
+      int lengthIndex = buffer.writerIndex();
+      buffer.writeByte(0);
+      int length = ByteBufUtil.writeUtf8(buffer, value);
+      buffer.setByte(lengthIndex, length);
+    } else {
+      writeVarInt32(ByteBufUtil.utf8Bytes(value));
+      ByteBufUtil.writeUtf8(buffer, value);
+    }
+  }
+
+  @Override
+  public void writeBytes(int fieldNumber, ByteString value, boolean repeated) {
+    writeBytes(fieldNumber, value.asReadOnlyByteBuffer(), repeated);
+  }
+
+  @Override
+  public void writeBytes(int fieldNumber, ByteBuffer value, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    writeVarInt32(value.remaining());
+    buffer.writeBytes(value.duplicate());
+  }
+
+  @Override
+  public void writeByteArray(int fieldNumber, byte[] value, boolean repeated) {
+    writeByteRange(false, fieldNumber, value, 0, value.length, repeated);
+  }
+
+  @Override
+  public void writeByteRange(
+      boolean utf8String, int fieldNumber, byte[] value, int offset, int length, boolean repeated) {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    writeVarInt32(length);
+    buffer.writeBytes(value, offset, length);
+  }
+
+  @Override
+  public <T> void writeObject(int fieldNumber, T value, Schema<T> schema, boolean repeated)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    int lengthIndex = buffer.writerIndex();
+    buffer.writeZero(PADDED_VARINT32_SIZE);
+    schema.writeTo(this, value);
+    setPaddedVarInt32(lengthIndex, buffer.writerIndex() - lengthIndex - PADDED_VARINT32_SIZE);
+  }
+
+  private void writeTag(int fieldNumber, int wireType) {
+    writeVarInt32(WireFormat.makeTag(fieldNumber, wireType));
+  }
+
+  private void writeVarInt32(int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer.writeByte(value);
+  }
+
+  private void writeVarInt64(long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.writeByte(((int) value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer.writeByte((int) value);
+  }
+
+  private void setPaddedVarInt32(int index, int value) {
+    buffer.setByte(index, (value & 0x7F) | 0x80);
+    buffer.setByte(index + 1, ((value >>> 7) & 0x7F) | 0x80);
+    buffer.setByte(index + 2, ((value >>> 14) & 0x7F) | 0x80);
+    buffer.setByte(index + 3, ((value >>> 21) & 0x7F) | 0x80);
+    buffer.setByte(index + 4, value >>> 28);
+  }
+}
@@ -1,10 +1,11 @@
 package io.scalecube.services.codec.protostuff;
 
+import io.netty.buffer.ByteBuf;
+import io.protostuff.ByteBufferInput;
 import io.protostuff.ProtobufIOUtil;
 import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.Schema;
 import io.protostuff.StringMapSchema;
-import io.protostuff.runtime.RuntimeSchema;
 import io.scalecube.services.codec.DataCodec;
 import io.scalecube.services.codec.HeadersCodec;
 import java.io.IOException;
@@ -24,14 +25,25 @@ public class ProtostuffCodec implements HeadersCodec, DataCodec {
     return CONTENT_TYPE;
   }
 
+  @Override
+  public void warmUp(Class<?> type) {
+    SchemaRegistry.warmUp(type);
+  }
+
   @Override
   public void encode(OutputStream stream, Object value) throws IOException {
-    Schema schema = RuntimeSchema.getSchema(value.getClass());
+    Schema schema = SchemaRegistry.getSchema(value.getClass());
     try (RecyclableLinkedBuffer rlb = recyclableLinkedBuffer.get()) {
       ProtobufIOUtil.writeTo(stream, value, schema, rlb.buffer());
     }
   }
 
+  @Override
+  public void encode(ByteBuf buffer, Object value) throws IOException {
+    Schema schema = SchemaRegistry.getSchema(value.getClass());
+    ByteBufOutput.writeTo(buffer, value, schema);
+  }
+
   @Override
   public void encode(OutputStream stream, Map<String, String> headers) throws IOException {
     try (RecyclableLinkedBuffer rlb = recyclableLinkedBuffer.get()) {
@@ -41,7 +53,7 @@ public class ProtostuffCodec implements HeadersCodec, DataCodec {
 
   @Override
   public Object decode(InputStream stream, Class<?> type) throws IOException {
-    Schema schema = RuntimeSchema.getSchema(type);
+    Schema schema = SchemaRegistry.getSchema(type);
     Object result = schema.newMessage();
 
     try (RecyclableLinkedBuffer rlb = recyclableLinkedBuffer.get()) {
@@ -50,6 +62,18 @@ public class ProtostuffCodec implements HeadersCodec, DataCodec {
     return result;
   }
 
+  @Override
+  public Object decode(ByteBuf buffer, Class<?> type) throws IOException {
+    Schema schema = SchemaRegistry.getSchema(type);
+    Object result = schema.newMessage();
+
+    // nioBuffer() shares content with the buffer unless buffer is composite
+    ByteBufferInput input = new ByteBufferInput(buffer.nioBuffer(), false);
+    schema.mergeFrom(input, result);
+    input.checkLastTagWas(0);
+    return result;
+  }
+
   @Override
   public Map<String, String> decode(InputStream stream) throws IOException {
     HashMap<String, String> map = new HashMap<>();
@@ -0,0 +1,59 @@
+package io.scalecube.services.codec.protostuff;
+
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of protostuff schemas used by {@link ProtostuffCodec}. Schemas are either registered
+ * explicitly (hand written or generated, non-reflective schemas) or built by {@link RuntimeSchema}.
+ * Runtime schemas are built lazily on first use unless type was warmed up before.
+ */
+public final class SchemaRegistry {
+
+  private static final Map<Class<?>, Schema<?>> SCHEMAS = new ConcurrentHashMap<>();
+
+  private SchemaRegistry() {
+    // Do not instantiate
+  }
+
+  /**
+   * Registers explicit schema for given type. Also makes it visible for {@link RuntimeSchema}, so
+   * it's used for the nested fields of given type as well.
+   *
+   * @param type type class
+   * @param schema schema of the type
+   * @param <T> type
+   */
+  public static <T> void register(Class<T> type, Schema<T> schema) {
+    RuntimeSchema.register(type, schema);
+    SCHEMAS.put(type, schema);
+  }
+
+  /**
+   * Builds schema of given type (if it wasn't built yet), so first encode or decode of this type
+   * doesn't pay for schema creation.
+   *
+   * @param type type class
+   */
+  public static void warmUp(Class<?> type) {
+    getSchema(type);
+  }
+
+  /**
+   * Returns schema of given type.
+   *
+   * @param type type class
+   * @param <T> type
+   * @return schema
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Schema<T> getSchema(Class<T> type) {
+    Schema<T> schema = (Schema<T>) SCHEMAS.get(type);
+    if (schema == null) {
+      schema = (Schema<T>) SCHEMAS.computeIfAbsent(type, RuntimeSchema::getSchema);
+    }
+    return schema;
+  }
+}
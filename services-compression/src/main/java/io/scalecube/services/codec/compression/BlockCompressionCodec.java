@@ -0,0 +1,147 @@
+package io.scalecube.services.codec.compression;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.services.codec.CompressionCodec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class for codecs on top of pure java block compressors. Compressed block is prefixed with
+ * the length of original data (4 bytes), so target buffer is allocated exactly on decompression.
+ * Length comes from remote peer, so blocks which claim more than max decompressed length (see
+ * {@link #MAX_DECOMPRESSED_LENGTH_PROPERTY}) are rejected before anything is allocated.
+ *
+ * <p>Compressors access buffers through {@code sun.misc.Unsafe}, which isn't permitted on some
+ * JVMs. Codec probes its compressor once on creation and reports itself unavailable if it fails,
+ * so that it's neither advertised nor used.
+ */
+abstract class BlockCompressionCodec implements CompressionCodec {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BlockCompressionCodec.class);
+
+  /**
+   * System property with max length (in bytes) of decompressed data, default is 16 MiB.
+   */
+  public static final String MAX_DECOMPRESSED_LENGTH_PROPERTY =
+      "io.scalecube.services.codec.compression.maxDecompressedLength";
+
+  private static final int DEFAULT_MAX_DECOMPRESSED_LENGTH =
+      Integer.getInteger(MAX_DECOMPRESSED_LENGTH_PROPERTY, 16 * 1024 * 1024);
+
+  private final String contentEncoding;
+  private final int maxDecompressedLength;
+  private final boolean available;
+
+  // compressors keep hash tables between calls, so they aren't shared among threads
+  private final ThreadLocal<Compressor> compressors;
+  private final ThreadLocal<Decompressor> decompressors;
+
+  BlockCompressionCodec(
+      String contentEncoding,
+      Supplier<Compressor> compressorFactory,
+      Supplier<Decompressor> decompressorFactory) {
+    this(contentEncoding, compressorFactory, decompressorFactory, DEFAULT_MAX_DECOMPRESSED_LENGTH);
+  }
+
+  BlockCompressionCodec(
+      String contentEncoding,
+      Supplier<Compressor> compressorFactory,
+      Supplier<Decompressor> decompressorFactory,
+      int maxDecompressedLength) {
+    this.contentEncoding = contentEncoding;
+    this.maxDecompressedLength = maxDecompressedLength;
+    this.compressors = ThreadLocal.withInitial(compressorFactory);
+    this.decompressors = ThreadLocal.withInitial(decompressorFactory);
+    this.available = probe();
+  }
+
+  @Override
+  public String contentEncoding() {
+    return contentEncoding;
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return available;
+  }
+
+  private boolean probe() {
+    ByteBuf source = ByteBufAllocator.DEFAULT.heapBuffer().writeBytes(new byte[64]);
+    ByteBuf compressed = null;
+    ByteBuf decompressed = null;
+    try {
+      compressed = compress(source);
+      decompressed = decompress(compressed);
+      return source.equals(decompressed);
+    } catch (Throwable ex) {
+      // e.g. IncompatibleJvmException wrapped in ExceptionInInitializerError
+      LOGGER.warn("Compression codec {} isn't available on this jvm: {}", contentEncoding, ex);
+      return false;
+    } finally {
+      ReferenceCountUtil.safeRelease(source);
+      ReferenceCountUtil.safeRelease(compressed);
+      ReferenceCountUtil.safeRelease(decompressed);
+    }
+  }
+
+  @Override
+  public ByteBuf compress(ByteBuf source) throws IOException {
+    Compressor compressor = compressors.get();
+    int length = source.readableBytes();
+    ByteBuf target = source.alloc().buffer(Integer.BYTES + compressor.maxCompressedLength(length));
+    try {
+      target.writeInt(length);
+      ByteBuffer output = target.nioBuffer(target.writerIndex(), target.writableBytes());
+      compressor.compress(source.nioBuffer(), output);
+      target.writerIndex(target.writerIndex() + output.position());
+      return target;
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(target);
+      throw ex;
+    }
+  }
+
+  @Override
+  public ByteBuf decompress(ByteBuf source) throws IOException {
+    if (source.readableBytes() < Integer.BYTES) {
+      throw new IOException("Malformed " + contentEncoding + " data, no length prefix");
+    }
+    int length = source.getInt(source.readerIndex());
+    if (length < 0) {
+      throw new IOException("Malformed " + contentEncoding + " data, length: " + length);
+    }
+    if (length > maxDecompressedLength) {
+      throw new IOException(
+          "Decompressed length of "
+              + contentEncoding
+              + " data: "
+              + length
+              + " exceeds max: "
+              + maxDecompressedLength);
+    }
+    ByteBuf target = source.alloc().buffer(length);
+    try {
+      ByteBuffer input =
+          source.nioBuffer(
+              source.readerIndex() + Integer.BYTES, source.readableBytes() - Integer.BYTES);
+      ByteBuffer output = target.nioBuffer(0, length);
+      decompressors.get().decompress(input, output);
+      if (output.position() != length) {
+        throw new IOException(
+            "Malformed " + contentEncoding + " data, expected length: " + length
+                + ", actual: " + output.position());
+      }
+      return target.writerIndex(length);
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(target);
+      throw ex;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package io.scalecube.services.codec.compression;
+
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+
+/**
+ * LZ4 compression. Fast enough to pay off on relatively small messages, moderate ratio.
+ */
+public final class Lz4CompressionCodec extends BlockCompressionCodec {
+
+  public static final String CONTENT_ENCODING = "lz4";
+
+  public Lz4CompressionCodec() {
+    super(CONTENT_ENCODING, Lz4Compressor::new, Lz4Decompressor::new);
+  }
+}
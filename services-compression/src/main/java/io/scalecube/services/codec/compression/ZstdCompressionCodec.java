@@ -0,0 +1,16 @@
+package io.scalecube.services.codec.compression;
+
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+/**
+ * Zstandard compression. Better ratio than LZ4 at higher cpu cost, fits bandwidth bound links.
+ */
+public final class ZstdCompressionCodec extends BlockCompressionCodec {
+
+  public static final String CONTENT_ENCODING = "zstd";
+
+  public ZstdCompressionCodec() {
+    super(CONTENT_ENCODING, ZstdCompressor::new, ZstdDecompressor::new);
+  }
+}
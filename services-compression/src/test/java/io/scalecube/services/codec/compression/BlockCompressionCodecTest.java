@@ -0,0 +1,107 @@
+package io.scalecube.services.codec.compression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.codec.CompressionCodec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class BlockCompressionCodecTest {
+
+  private static final byte[] DATA =
+      String.join(",", Collections.nCopies(1000, "compressible"))
+          .getBytes(StandardCharsets.UTF_8);
+
+  static Stream<CompressionCodec> codecs() {
+    return Stream.of(new Lz4CompressionCodec(), new ZstdCompressionCodec());
+  }
+
+  @ParameterizedTest
+  @MethodSource("codecs")
+  void roundTrip(CompressionCodec codec) throws IOException {
+    assertTrue(codec.isAvailable(), codec.contentEncoding() + " isn't available on this jvm");
+    ByteBuf source = ByteBufAllocator.DEFAULT.directBuffer().writeBytes(DATA);
+    ByteBuf compressed = codec.compress(source);
+    ByteBuf decompressed = codec.decompress(compressed);
+    try {
+      assertEquals(DATA.length, source.readableBytes(), "source isn't modified");
+      assertTrue(compressed.readableBytes() < DATA.length / 10);
+      assertEquals(Unpooled.wrappedBuffer(DATA), decompressed);
+    } finally {
+      source.release();
+      compressed.release();
+      decompressed.release();
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("codecs")
+  void rejectsLengthAboveMax(CompressionCodec codec) {
+    // claims 1 GiB of decompressed data, nothing must be allocated for it
+    ByteBuf source = Unpooled.buffer().writeInt(1 << 30).writeBytes(new byte[16]);
+    try {
+      IOException ex = assertThrows(IOException.class, () -> codec.decompress(source));
+      assertTrue(ex.getMessage().contains("exceeds max"), ex.getMessage());
+    } finally {
+      source.release();
+    }
+  }
+
+  @Test
+  void rejectsLengthAboveConfiguredMax() throws IOException {
+    BlockCompressionCodec codec =
+        new BlockCompressionCodec("lz4", Lz4Compressor::new, Lz4Decompressor::new, 1024) {};
+    assertTrue(codec.isAvailable(), "lz4 isn't available on this jvm");
+    ByteBuf source = Unpooled.wrappedBuffer(DATA);
+    ByteBuf compressed = codec.compress(source);
+    try {
+      assertThrows(IOException.class, () -> codec.decompress(compressed));
+    } finally {
+      source.release();
+      compressed.release();
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("codecs")
+  void rejectsMissingLength(CompressionCodec codec) {
+    ByteBuf source = Unpooled.buffer().writeShort(1);
+    try {
+      assertThrows(IOException.class, () -> codec.decompress(source));
+    } finally {
+      source.release();
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("codecs")
+  void rejectsCorruptData(CompressionCodec codec) throws IOException {
+    assertTrue(codec.isAvailable(), codec.contentEncoding() + " isn't available on this jvm");
+    ByteBuf source = Unpooled.wrappedBuffer(DATA);
+    ByteBuf compressed = codec.compress(source);
+    // keep length prefix, damage compressed block
+    ByteBuf corrupt = compressed.copy(0, compressed.readableBytes() / 2);
+    for (int i = Integer.BYTES; i < corrupt.writerIndex(); i++) {
+      corrupt.setByte(i, corrupt.getByte(i) ^ 0x5A);
+    }
+    try {
+      assertThrows(Exception.class, () -> codec.decompress(corrupt).release());
+    } finally {
+      source.release();
+      compressed.release();
+      corrupt.release();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package io.scalecube.services.discovery;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import io.scalecube.services.ServiceEndpoint;
@@ -26,6 +27,8 @@ public class ClusterMetadataDecoder {
             .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
             .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
     objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+    // endpoints of newer versions may advertise more than this node knows about
+    objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     return objectMapper;
   }
 
@@ -0,0 +1,114 @@
+package io.scalecube.services.gateway.http;
+
+import io.netty.channel.EventLoopGroup;
+import io.scalecube.services.ServiceCall;
+import io.scalecube.services.gateway.Gateway;
+import io.scalecube.services.gateway.GatewayConfig;
+import io.scalecube.services.gateway.netty.GatewayLoopResources;
+import io.scalecube.services.metrics.Metrics;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+
+/**
+ * Gateway which serves {@code POST /{namespace}/{action}} http requests with request-response
+ * calls of service methods, and requests which accept {@code text/event-stream} with request-stream
+ * calls, sending responses as server-sent events (see {@link HttpGatewayAcceptor}). Connections
+ * are kept alive between requests.
+ *
+ * <p>Options:
+ *
+ * <ul>
+ *   <li>{@link #COALESCING} - if {@code true}, identical concurrent requests of service methods
+ *       annotated with {@link io.scalecube.services.annotations.Idempotent} share one call (see
+ *       {@link RequestCoalescing}). Not set by default
+ *   <li>{@link #MAX_CONTENT_LENGTH} - max length in bytes of request body, larger requests get
+ *       {@code 413 Payload Too Large} response. Default is {@link #DEFAULT_MAX_CONTENT_LENGTH}
+ * </ul>
+ *
+ * <p>Threads are chosen by {@link GatewayLoopResources}.
+ */
+public class HttpGateway implements Gateway {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpGateway.class);
+
+  public static final String COALESCING = "coalescing";
+  public static final String MAX_CONTENT_LENGTH = "maxContentLength";
+
+  public static final int DEFAULT_MAX_CONTENT_LENGTH = 1 << 20;
+
+  private NettyContext server;
+
+  @Override
+  public Mono<InetSocketAddress> start(
+      GatewayConfig config,
+      ExecutorService executorService,
+      ServiceCall.Call call,
+      Metrics metrics) {
+    return Mono.defer(
+        () -> {
+          EventLoopGroup eventLoopGroup =
+              GatewayLoopResources.eventLoopGroup(config, executorService);
+          Scheduler scheduler = GatewayLoopResources.workerScheduler(config);
+
+          ServiceCall serviceCall = call.create();
+          RequestCoalescing coalescing =
+              config.get(COALESCING).map(Boolean::parseBoolean).orElse(false)
+                  ? new RequestCoalescing(
+                      serviceCall,
+                      metrics != null
+                          ? metrics.getMeter(HttpGateway.class, config.name(), "coalesced")
+                          : null)
+                  : null;
+
+          HttpGatewayAcceptor acceptor =
+              new HttpGatewayAcceptor(
+                  serviceCall,
+                  scheduler,
+                  metrics != null
+                      ? metrics.getMeter(HttpGateway.class, config.name(), "request")
+                      : null,
+                  coalescing,
+                  config
+                      .get(MAX_CONTENT_LENGTH)
+                      .map(Integer::parseInt)
+                      .orElse(DEFAULT_MAX_CONTENT_LENGTH));
+
+          HttpServer httpServer =
+              HttpServer.create(
+                  options -> {
+                    options.listenAddress(new InetSocketAddress(config.port()));
+                    if (eventLoopGroup != null) {
+                      options.loopResources(GatewayLoopResources.loopResources(eventLoopGroup));
+                    }
+                  });
+
+          return httpServer
+              .newHandler(acceptor)
+              .map(
+                  context -> {
+                    this.server = context;
+                    InetSocketAddress address = context.address();
+                    LOGGER.info("HTTP gateway '{}' is started on {}", config.name(), address);
+                    return address;
+                  });
+        });
+  }
+
+  @Override
+  public Mono<Void> stop() {
+    return Mono.defer(
+        () -> {
+          if (server == null) {
+            return Mono.empty();
+          }
+          server.dispose();
+          return server.onClose().doOnTerminate(() -> LOGGER.info("HTTP gateway is stopped"));
+        });
+  }
+}
@@ -0,0 +1,307 @@
+package io.scalecube.services.gateway.http;
+
+import com.codahale.metrics.Meter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.services.ServiceCall;
+import io.scalecube.services.api.Qualifier;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.DataCodec;
+import io.scalecube.services.exceptions.ExceptionProcessor;
+import io.scalecube.services.exceptions.MessageCodecException;
+import io.scalecube.services.metrics.Metrics;
+import java.util.function.BiFunction;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.ipc.netty.ByteBufFlux;
+import reactor.ipc.netty.NettyPipeline;
+import reactor.ipc.netty.http.server.HttpServerRequest;
+import reactor.ipc.netty.http.server.HttpServerResponse;
+
+/**
+ * Handler of http requests of {@link HttpGateway}. Request {@code POST /{namespace}/{action}} is
+ * request-response call of service method with qualifier {@code /{namespace}/{action}}. Request
+ * body becomes message data as it is, without decoding at gateway, and its content type becomes
+ * message data format. Response data which is already encoded is sent back as it is too.
+ *
+ * <p>Service errors are sent with status of their error type (400, 401, 500 or 503) and {@link
+ * io.scalecube.services.api.ErrorData} body.
+ *
+ * <p>Request which accepts {@code text/event-stream} (which may be {@code GET} request without
+ * body too) is request-stream call instead, and responses are sent as server-sent events with data
+ * framed as it is (see {@link ServerSentEvents}). Service error is sent as {@code error} event,
+ * which ends the stream. Responses are requested as channel of request becomes writable, so slow
+ * client slows down the stream rather than makes gateway buffer its responses.
+ *
+ * <p>Identical concurrent requests of idempotent service methods share one call, if {@link
+ * RequestCoalescing} is used.
+ *
+ * <p>Request whose body is longer than max content length gets {@code 413 Payload Too Large}
+ * response, without body being buffered any further, and its connection is closed.
+ */
+final class HttpGatewayAcceptor
+    implements BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpGatewayAcceptor.class);
+
+  private static final String DEFAULT_DATA_FORMAT = "application/json";
+  private static final String ERROR_EVENT = "error";
+
+  private final ServiceCall serviceCall;
+  private final Scheduler scheduler;
+  private final Meter requests;
+  private final RequestCoalescing coalescing;
+  private final int maxContentLength;
+
+  /**
+   * Creates handler.
+   *
+   * @param serviceCall service call
+   * @param scheduler scheduler on which service calls are made, null means event loop of request
+   * @param requests meter of requests, null if metrics are disabled
+   * @param coalescing coalescing of identical requests, null if requests aren't coalesced
+   * @param maxContentLength max length of request body in bytes
+   */
+  HttpGatewayAcceptor(
+      ServiceCall serviceCall,
+      Scheduler scheduler,
+      Meter requests,
+      RequestCoalescing coalescing,
+      int maxContentLength) {
+    this.serviceCall = serviceCall;
+    this.scheduler = scheduler;
+    this.requests = requests;
+    this.coalescing = coalescing;
+    this.maxContentLength = maxContentLength;
+  }
+
+  @Override
+  public Publisher<Void> apply(HttpServerRequest request, HttpServerResponse response) {
+    boolean eventStream =
+        ServerSentEvents.isAccepted(request.requestHeaders().get(HttpHeaderNames.ACCEPT));
+    if (request.method() != HttpMethod.POST
+        && !(eventStream && request.method() == HttpMethod.GET)) {
+      return response.status(HttpResponseStatus.METHOD_NOT_ALLOWED).send();
+    }
+    String qualifier = qualifier(request.uri());
+    if (qualifier == null) {
+      return response.sendNotFound();
+    }
+    String dataFormat = dataFormat(request.requestHeaders().get(HttpHeaderNames.CONTENT_TYPE));
+
+    Metrics.mark(requests);
+    if (contentLength(request.requestHeaders().get(HttpHeaderNames.CONTENT_LENGTH))
+        > maxContentLength) {
+      return sendTooLarge(response); // declared length is known before body is received
+    }
+    return body(request)
+        .flatMap(
+            body ->
+                eventStream
+                    ? sendEvents(response, qualifier, callMany(qualifier, dataFormat, body))
+                    : call(qualifier, dataFormat, body)
+                        .onErrorResume(ex -> Mono.just(errorMessage(qualifier, ex)))
+                        .flatMap(message -> send(response, message)))
+        .onErrorResume(ContentTooLargeException.class, ex -> sendTooLarge(response));
+  }
+
+  /**
+   * Aggregates request body, failing once it exceeds max content length (chunked body has no
+   * declared length).
+   *
+   * @param request request
+   * @return body, empty buffer if request has no body
+   */
+  private Mono<ByteBuf> body(HttpServerRequest request) {
+    long[] length = {0};
+    Flux<ByteBuf> chunks =
+        request
+            .receive()
+            .handle(
+                (chunk, sink) -> {
+                  length[0] += chunk.readableBytes();
+                  if (length[0] > maxContentLength) {
+                    sink.error(new ContentTooLargeException());
+                  } else {
+                    sink.next(chunk);
+                  }
+                });
+    return ByteBufFlux.fromInbound(chunks)
+        .aggregate() // releases aggregated chunks if it fails
+        .retain()
+        .defaultIfEmpty(Unpooled.EMPTY_BUFFER);
+  }
+
+  private static Mono<Void> sendTooLarge(HttpServerResponse response) {
+    return response
+        .status(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE)
+        .keepAlive(false) // rest of body isn't read
+        .send()
+        .then();
+  }
+
+  private Mono<ServiceMessage> call(String qualifier, String dataFormat, ByteBuf body) {
+    ServiceMessage message = request(qualifier, dataFormat, body);
+    return coalescing != null ? coalescing.apply(message, this::requestOne) : requestOne(message);
+  }
+
+  private Mono<ServiceMessage> requestOne(ServiceMessage message) {
+    Mono<ServiceMessage> response = serviceCall.requestOne(message);
+    return scheduler != null ? response.subscribeOn(scheduler) : response;
+  }
+
+  private Flux<ServiceMessage> callMany(String qualifier, String dataFormat, ByteBuf body) {
+    ServiceMessage message = request(qualifier, dataFormat, body);
+    // deferred, since local service calls may fail before returning publisher
+    Flux<ServiceMessage> responses = Flux.defer(() -> serviceCall.requestMany(message));
+    return scheduler != null ? responses.subscribeOn(scheduler) : responses;
+  }
+
+  private static ServiceMessage request(String qualifier, String dataFormat, ByteBuf body) {
+    ServiceMessage.Builder builder =
+        ServiceMessage.builder().qualifier(qualifier).dataFormat(dataFormat);
+    if (body.isReadable()) {
+      builder.data(body);
+    } else {
+      ReferenceCountUtil.safeRelease(body); // no data, as remote service gets for empty payload
+    }
+    return builder.build();
+  }
+
+  private static Mono<Void> sendEvents(
+      HttpServerResponse response, String qualifier, Flux<ServiceMessage> messages) {
+    ByteBufAllocator allocator = response.alloc();
+    Flux<ByteBuf> events =
+        messages
+            .onErrorResume(ex -> Mono.just(errorMessage(qualifier, ex)))
+            .map(message -> event(allocator, message));
+    return response
+        .sse()
+        .header(HttpHeaderNames.CACHE_CONTROL, "no-cache")
+        .options(NettyPipeline.SendOptions::flushOnEach)
+        .send(events)
+        .then();
+  }
+
+  private static ByteBuf event(ByteBufAllocator allocator, ServiceMessage message) {
+    ByteBuf content;
+    try {
+      content = content(message);
+    } catch (MessageCodecException ex) {
+      message = errorMessage(message.qualifier(), ex);
+      content = content(message);
+    }
+    String event = ExceptionProcessor.isError(message) ? ERROR_EVENT : null;
+    return ServerSentEvents.event(allocator, event, content);
+  }
+
+  private static Mono<Void> send(HttpServerResponse response, ServiceMessage message) {
+    ByteBuf content;
+    try {
+      content = content(message);
+    } catch (MessageCodecException ex) {
+      message = errorMessage(message.qualifier(), ex);
+      content = content(message);
+    }
+    return response
+        .status(status(message))
+        .header(HttpHeaderNames.CONTENT_TYPE, message.dataFormatOrDefault())
+        .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(content.readableBytes()))
+        .send(Mono.just(content))
+        .then();
+  }
+
+  private static ByteBuf content(ServiceMessage message) {
+    if (message.hasData(ByteBuf.class)) {
+      return message.data(); // passed through as it is
+    }
+    if (!message.hasData()) {
+      return Unpooled.EMPTY_BUFFER;
+    }
+    ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
+    try {
+      DataCodec.getInstance(message.dataFormatOrDefault()).encode(buffer, message.data());
+      return buffer;
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(buffer);
+      LOGGER.error("Failed to encode data on: {}, cause: {}", message, ex);
+      throw new MessageCodecException(
+          "Failed to encode data on message q=" + message.qualifier(), ex);
+    }
+  }
+
+  private static ServiceMessage errorMessage(String qualifier, Throwable ex) {
+    LOGGER.debug("Request {} failed, cause: {}", qualifier, ex.toString());
+    return ExceptionProcessor.toMessage(ExceptionProcessor.mapException(ex));
+  }
+
+  private static HttpResponseStatus status(ServiceMessage message) {
+    if (!ExceptionProcessor.isError(message)) {
+      return HttpResponseStatus.OK;
+    }
+    try {
+      return HttpResponseStatus.valueOf(
+          Integer.parseInt(Qualifier.getQualifierAction(message.qualifier())));
+    } catch (IllegalArgumentException ex) {
+      return HttpResponseStatus.INTERNAL_SERVER_ERROR;
+    }
+  }
+
+  /**
+   * Returns service qualifier of request uri {@code /{namespace}/{action}}, with query string
+   * dropped.
+   *
+   * @param uri request uri
+   * @return qualifier, null if uri doesn't consist of namespace and action
+   */
+  static String qualifier(String uri) {
+    int end = uri.indexOf('?');
+    String path = end < 0 ? uri : uri.substring(0, end);
+    int delimiter = path.indexOf('/', 1);
+    if (!path.startsWith("/")
+        || delimiter < 2
+        || delimiter != path.lastIndexOf('/')
+        || delimiter == path.length() - 1) {
+      return null;
+    }
+    return path;
+  }
+
+  private static long contentLength(String contentLength) {
+    if (contentLength == null) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(contentLength.trim());
+    } catch (NumberFormatException ex) {
+      return 0; // invalid header, body length is checked as it is received
+    }
+  }
+
+  private static String dataFormat(String contentType) {
+    if (contentType == null) {
+      return DEFAULT_DATA_FORMAT;
+    }
+    int end = contentType.indexOf(';'); // drop parameters, such as charset
+    return (end < 0 ? contentType : contentType.substring(0, end)).trim();
+  }
+
+  /** Request body exceeds max content length. */
+  private static final class ContentTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private ContentTooLargeException() {
+      super(null, null, false, false); // control flow only, no stack trace
+    }
+  }
+}
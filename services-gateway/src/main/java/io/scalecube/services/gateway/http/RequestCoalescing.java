@@ -0,0 +1,229 @@
+package io.scalecube.services.gateway.http;
+
+import com.codahale.metrics.Meter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.services.ServiceCall;
+import io.scalecube.services.ServiceReference;
+import io.scalecube.services.annotations.Idempotent;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.metrics.Metrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Coalescing of identical concurrent requests of idempotent service methods (see {@link
+ * Idempotent}). While request-response call is in flight, identical requests (same headers,
+ * including qualifier and data format, and same data) join it instead of making calls of their own,
+ * and its response is fanned out to all of them. Call is cancelled once all requests which wait for
+ * it are cancelled.
+ *
+ * <p>Methods are idempotent if all service references which request may be routed to have {@link
+ * Idempotent#TAG} tag, so that requests of other methods are passed through as they are.
+ */
+final class RequestCoalescing {
+
+  private static final byte[] NO_DATA = new byte[0];
+
+  private final ServiceCall serviceCall;
+  private final Meter coalesced;
+
+  private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+
+  /**
+   * Creates coalescing.
+   *
+   * @param serviceCall service call which references of service methods are looked up by
+   * @param coalesced meter of requests which joined call in flight, null if metrics are disabled
+   */
+  RequestCoalescing(ServiceCall serviceCall, Meter coalesced) {
+    this.serviceCall = serviceCall;
+    this.coalesced = coalesced;
+  }
+
+  /**
+   * Applies coalescing to request.
+   *
+   * @param request request with data which is {@link ByteBuf}, if any
+   * @param call request-response call of request
+   * @return response, shared with identical requests in flight if method is idempotent
+   */
+  Mono<ServiceMessage> apply(
+      ServiceMessage request, Function<ServiceMessage, Mono<ServiceMessage>> call) {
+    if (!isIdempotent(request)) {
+      return call.apply(request);
+    }
+    byte[] data = request.hasData() ? ByteBufUtil.getBytes(request.data()) : NO_DATA;
+    Key key = new Key(new HashMap<>(request.headers()), data);
+    return Mono.create(sink -> join(key, request, call, sink));
+  }
+
+  private void join(
+      Key key,
+      ServiceMessage request,
+      Function<ServiceMessage, Mono<ServiceMessage>> call,
+      MonoSink<ServiceMessage> sink) {
+    while (true) {
+      Flight flight = new Flight(key);
+      Flight current = flights.putIfAbsent(key, flight);
+      if (current == null) {
+        flight.add(sink);
+        // deferred, since local service calls may fail before returning publisher
+        Mono<ServiceMessage> response = Mono.defer(() -> call.apply(request));
+        flight.upstream.update(
+            response.subscribe(flight::succeed, flight::fail, () -> flight.succeed(null)));
+        return;
+      }
+      if (current.add(sink)) {
+        release(request); // isn't sent, call in flight is joined
+        Metrics.mark(coalesced);
+        return;
+      }
+      // call in flight has just terminated, so new one is made
+    }
+  }
+
+  private boolean isIdempotent(ServiceMessage request) {
+    List<ServiceReference> references = serviceCall.serviceReferences(request);
+    if (references.isEmpty()) {
+      return false;
+    }
+    for (ServiceReference reference : references) {
+      if (!Boolean.parseBoolean(reference.tags().get(Idempotent.TAG))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Call in flight along with requests waiting for it. */
+  private final class Flight {
+
+    private final Key key;
+    private final Disposable.Swap upstream = Disposables.swap();
+    private final List<MonoSink<ServiceMessage>> sinks = new ArrayList<>(); // guarded by this
+    private boolean done; // guarded by this
+
+    private Flight(Key key) {
+      this.key = key;
+    }
+
+    private boolean add(MonoSink<ServiceMessage> sink) {
+      synchronized (this) {
+        if (done) {
+          return false;
+        }
+        sinks.add(sink);
+      }
+      sink.onCancel(() -> remove(sink));
+      return true;
+    }
+
+    private void remove(MonoSink<ServiceMessage> sink) {
+      synchronized (this) {
+        if (done || !sinks.remove(sink) || !sinks.isEmpty()) {
+          return;
+        }
+      }
+      if (terminate() != null) {
+        upstream.dispose(); // nobody waits for response
+      }
+    }
+
+    private void succeed(ServiceMessage response) {
+      List<MonoSink<ServiceMessage>> waiting = terminate();
+      if (waiting == null) {
+        release(response);
+        return;
+      }
+      for (MonoSink<ServiceMessage> sink : waiting) {
+        if (response == null) {
+          sink.success();
+        } else {
+          sink.success(copy(response));
+        }
+      }
+      release(response);
+    }
+
+    private void fail(Throwable throwable) {
+      List<MonoSink<ServiceMessage>> waiting = terminate();
+      if (waiting != null) {
+        waiting.forEach(sink -> sink.error(throwable));
+      }
+    }
+
+    /**
+     * Removes flight, so that further identical requests make new call.
+     *
+     * @return requests waiting for response, null if flight is already terminated
+     */
+    private List<MonoSink<ServiceMessage>> terminate() {
+      flights.remove(key, this);
+      synchronized (this) {
+        if (done) {
+          return null;
+        }
+        done = true;
+        return new ArrayList<>(sinks);
+      }
+    }
+  }
+
+  private static ServiceMessage copy(ServiceMessage response) {
+    if (!response.hasData(ByteBuf.class)) {
+      return response;
+    }
+    ByteBuf data = response.data();
+    return ServiceMessage.from(response).data(data.retainedDuplicate()).build();
+  }
+
+  private static void release(ServiceMessage message) {
+    if (message != null && message.hasData(ByteBuf.class)) {
+      ReferenceCountUtil.safeRelease(message.data());
+    }
+  }
+
+  /** Key of identical requests. */
+  private static final class Key {
+
+    private final Map<String, String> headers;
+    private final byte[] data;
+    private final int hash;
+
+    private Key(Map<String, String> headers, byte[] data) {
+      this.headers = headers;
+      this.data = data;
+      this.hash = 31 * headers.hashCode() + Arrays.hashCode(data);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return hash == other.hash
+          && headers.equals(other.headers)
+          && Arrays.equals(data, other.data);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
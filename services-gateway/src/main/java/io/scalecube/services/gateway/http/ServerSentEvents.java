@@ -0,0 +1,83 @@
+package io.scalecube.services.gateway.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCountUtil;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Framing of server-sent events ({@code text/event-stream}). Event data is framed as it is, without
+ * copying: each line of data becomes {@code data:} field which is composed of slice of data.
+ */
+final class ServerSentEvents {
+
+  static final String EVENT_STREAM = "text/event-stream";
+
+  private static final ByteBuf EVENT_FIELD = constant("event: ");
+  private static final ByteBuf DATA_FIELD = constant("data: ");
+  private static final ByteBuf NEW_LINE = constant("\n");
+
+  private ServerSentEvents() {
+    // Do not instantiate
+  }
+
+  /**
+   * Checks whether client accepts event stream.
+   *
+   * @param accept value of accept header of request, may be null
+   * @return true if {@code text/event-stream} is accepted
+   */
+  static boolean isAccepted(String accept) {
+    return accept != null && accept.contains(EVENT_STREAM);
+  }
+
+  /**
+   * Frames event. Data is released, since event holds slices of it.
+   *
+   * @param allocator allocator of event buffer
+   * @param event event type, null for default {@code message} type
+   * @param data event data, lines of which are separated by {@code \n} or {@code \r\n}
+   * @return event
+   */
+  static ByteBuf event(ByteBufAllocator allocator, String event, ByteBuf data) {
+    CompositeByteBuf buffer = allocator.compositeBuffer(Integer.MAX_VALUE);
+    try {
+      if (event != null) {
+        add(buffer, EVENT_FIELD.duplicate());
+        add(buffer, Unpooled.copiedBuffer(event, StandardCharsets.UTF_8));
+        add(buffer, NEW_LINE.duplicate());
+      }
+      int index = data.readerIndex();
+      int end = data.writerIndex();
+      do {
+        int newLine = data.indexOf(index, end, (byte) '\n');
+        int lineEnd = newLine < 0 ? end : newLine;
+        if (lineEnd > index && data.getByte(lineEnd - 1) == '\r') {
+          lineEnd--;
+        }
+        add(buffer, DATA_FIELD.duplicate());
+        add(buffer, data.retainedSlice(index, lineEnd - index));
+        add(buffer, NEW_LINE.duplicate());
+        index = newLine < 0 ? end : newLine + 1;
+      } while (index < end);
+      add(buffer, NEW_LINE.duplicate());
+      return buffer;
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(buffer);
+      throw ex;
+    } finally {
+      ReferenceCountUtil.safeRelease(data);
+    }
+  }
+
+  private static void add(CompositeByteBuf buffer, ByteBuf component) {
+    buffer.addComponent(true, component);
+  }
+
+  private static ByteBuf constant(String value) {
+    return Unpooled.unreleasableBuffer(
+        Unpooled.copiedBuffer(value, StandardCharsets.US_ASCII).asReadOnly());
+  }
+}
@@ -0,0 +1,66 @@
+package io.scalecube.services.gateway.netty;
+
+import io.netty.channel.EventLoopGroup;
+import io.scalecube.services.gateway.GatewayConfig;
+import java.util.concurrent.ExecutorService;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.ipc.netty.resources.LoopResources;
+
+/**
+ * Threads of gateways built on reactor-netty. Connections are served by {@link
+ * GatewayConfig#executorService()} if it's an event loop group, or by service transport event
+ * loops otherwise. Executor service which isn't an event loop group becomes worker pool on which
+ * service calls are made.
+ */
+public final class GatewayLoopResources {
+
+  private GatewayLoopResources() {
+    // Do not instantiate
+  }
+
+  /**
+   * Returns event loop group which serves gateway connections.
+   *
+   * @param config gateway config
+   * @param executorService service transport executor service
+   * @return event loop group, null if neither of executors is event loop group, meaning default
+   *     reactor-netty event loops
+   */
+  public static EventLoopGroup eventLoopGroup(
+      GatewayConfig config, ExecutorService executorService) {
+    ExecutorService gatewayExecutor = config.executorService();
+    if (gatewayExecutor instanceof EventLoopGroup) {
+      return (EventLoopGroup) gatewayExecutor;
+    }
+    return executorService instanceof EventLoopGroup ? (EventLoopGroup) executorService : null;
+  }
+
+  /**
+   * Returns scheduler on which service calls are made.
+   *
+   * @param config gateway config
+   * @return scheduler, null if service calls are made on event loop of connection
+   */
+  public static Scheduler workerScheduler(GatewayConfig config) {
+    ExecutorService gatewayExecutor = config.executorService();
+    return gatewayExecutor != null && !(gatewayExecutor instanceof EventLoopGroup)
+        ? Schedulers.fromExecutorService(gatewayExecutor)
+        : null;
+  }
+
+  /**
+   * Returns loop resources of server which runs on given event loop group.
+   *
+   * @param eventLoopGroup event loop group
+   * @return loop resources
+   */
+  public static LoopResources loopResources(EventLoopGroup eventLoopGroup) {
+    return new LoopResources() {
+      @Override
+      public EventLoopGroup onServer(boolean useNative) {
+        return eventLoopGroup;
+      }
+    };
+  }
+}
@@ -0,0 +1,258 @@
+package io.scalecube.services.gateway.ws;
+
+import static io.scalecube.services.gateway.ws.WebsocketGatewayMessageCodec.SIGNAL_FIELD;
+
+import com.codahale.metrics.Meter;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.exceptions.MessageCodecException;
+import io.scalecube.services.metrics.Metrics;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+/**
+ * Conflation of stream updates which are sent to slow client. While channel is writable and
+ * client takes frames, they pass through as they are. Once outbound buffer of channel is above its
+ * high watermark (or client has no demand or credits), updates are conflated instead of buffered:
+ * only the latest update per key is kept, and kept updates are sent at most once per interval, as
+ * long as channel is writable. Key is stream id, along with value of key field of data if it's
+ * configured. Signals, and updates of qualifiers which aren't conflated, are kept as they are, in
+ * order.
+ *
+ * <p>Frames are requested from streams as slots of connection are freed: frame takes slot while
+ * it's kept, and slot is freed once frame is sent or replaced by the latest update of its key. So
+ * updates of slow client are consumed from streams as fast as they come while their keys fit into
+ * slots, and memory of connection is bounded by number of slots rather than by rate of streams.
+ * Once slots are taken, say, by frames which aren't conflated, streams are slowed down instead.
+ */
+final class ConnectionConflation {
+
+  private final long intervalMillis;
+  private final int maxPending;
+  private final String keyField;
+  private final Set<String> qualifiers;
+  private final Meter conflated;
+
+  /**
+   * Creates conflation.
+   *
+   * @param intervalMillis min interval between updates of the same key while client is slow
+   * @param maxPending max number of frames which are kept (or requested from streams) by connection
+   * @param keyField top level field of json data which value is part of key, null if key is stream
+   * @param qualifiers qualifiers of conflated updates, null if updates of all streams are conflated
+   * @param conflated meter of dropped updates, null if metrics are disabled
+   */
+  ConnectionConflation(
+      long intervalMillis,
+      int maxPending,
+      String keyField,
+      Set<String> qualifiers,
+      Meter conflated) {
+    this.intervalMillis = intervalMillis;
+    this.maxPending = maxPending;
+    this.keyField = keyField;
+    this.qualifiers = qualifiers;
+    this.conflated = conflated;
+  }
+
+  /**
+   * Applies conflation to frames of connection.
+   *
+   * @param frames frames of all streams of connection
+   * @param channel channel of connection
+   * @return frames
+   */
+  Flux<ServiceMessage> apply(Flux<ServiceMessage> frames, Channel channel) {
+    Publisher<ServiceMessage> publisher =
+        subscriber -> frames.subscribe(new Conflator(subscriber, channel));
+    return Flux.from(publisher);
+  }
+
+  private Object key(ServiceMessage message) {
+    if (message.header(SIGNAL_FIELD) != null
+        || (qualifiers != null && !qualifiers.contains(message.qualifier()))) {
+      return new Object(); // never replaced
+    }
+    if (keyField == null || !message.hasData(ByteBuf.class)) {
+      return message.streamId();
+    }
+    String value = WebsocketGatewayMessageCodec.readField(message.data(), keyField);
+    return Arrays.asList(message.streamId(), value);
+  }
+
+  /** Conflates frames on event loop of channel, which is the only thread accessing its state. */
+  private final class Conflator implements Subscriber<ServiceMessage>, Subscription {
+
+    private final Subscriber<? super ServiceMessage> downstream;
+    private final Channel channel;
+    private final EventLoop eventLoop;
+    private final int replenish = Math.max(1, maxPending / 4);
+
+    private final Map<Object, ServiceMessage> pending = new LinkedHashMap<>();
+    private Subscription upstream;
+    private ScheduledFuture<?> flushes;
+    private long demand;
+    private int freed; // slots which are freed, but not yet requested from upstream
+    private boolean done;
+    private boolean cancelled;
+
+    private Conflator(Subscriber<? super ServiceMessage> downstream, Channel channel) {
+      this.downstream = downstream;
+      this.channel = channel;
+      this.eventLoop = channel.eventLoop();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(maxPending);
+    }
+
+    @Override
+    public void onNext(ServiceMessage message) {
+      execute(() -> offer(message));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      execute(
+          () -> {
+            clear();
+            downstream.onError(throwable);
+          });
+    }
+
+    @Override
+    public void onComplete() {
+      execute(
+          () -> {
+            done = true;
+            if (pending.isEmpty()) {
+              downstream.onComplete();
+            }
+          });
+    }
+
+    @Override
+    public void request(long n) {
+      execute(() -> demand = Operators.addCap(demand, n));
+    }
+
+    @Override
+    public void cancel() {
+      upstream.cancel();
+      execute(
+          () -> {
+            cancelled = true;
+            clear();
+          });
+    }
+
+    private void offer(ServiceMessage message) {
+      if (cancelled) {
+        release(message);
+        return;
+      }
+      if (pending.isEmpty() && demand > 0 && channel.isWritable()) {
+        demand--;
+        downstream.onNext(message);
+        freed++;
+        replenish();
+        return;
+      }
+      ServiceMessage update = withEncodedData(message);
+      Object key = update != null ? key(update) : new Object();
+      ServiceMessage previous = pending.put(key, update != null ? update : message);
+      if (previous != null) {
+        release(previous);
+        Metrics.mark(conflated);
+        freed++; // slot of previous update is taken by the latest one
+        replenish();
+      }
+      if (flushes == null) {
+        flushes =
+            eventLoop.scheduleAtFixedRate(
+                this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    private void flush() {
+      if (!channel.isWritable()) {
+        return; // client is still slow, updates keep being conflated
+      }
+      Iterator<ServiceMessage> iterator = pending.values().iterator();
+      while (demand > 0 && iterator.hasNext()) {
+        ServiceMessage message = iterator.next();
+        iterator.remove();
+        demand--;
+        downstream.onNext(message);
+        freed++;
+      }
+      replenish(); // after iteration, since upstream may emit frames on request
+      if (pending.isEmpty()) {
+        flushes.cancel(false);
+        flushes = null;
+        if (done) {
+          downstream.onComplete();
+        }
+      }
+    }
+
+    private void replenish() {
+      if (freed >= replenish && !cancelled) {
+        int n = freed;
+        freed = 0;
+        upstream.request(n);
+      }
+    }
+
+    private void clear() {
+      pending.values().forEach(ConnectionConflation::release);
+      pending.clear();
+      if (flushes != null) {
+        flushes.cancel(false);
+        flushes = null;
+      }
+    }
+
+    private void execute(Runnable task) {
+      if (eventLoop.inEventLoop()) {
+        task.run();
+      } else {
+        eventLoop.execute(task);
+      }
+    }
+  }
+
+  private static ServiceMessage withEncodedData(ServiceMessage message) {
+    if (!message.hasData() || message.hasData(ByteBuf.class)) {
+      return message;
+    }
+    try {
+      ByteBuf data = WebsocketGatewayMessageCodec.encodeData(message);
+      return ServiceMessage.from(message).data(data).build();
+    } catch (MessageCodecException ex) {
+      return null; // sent as it is, so that failure is reported to client on encoding of frame
+    }
+  }
+
+  private static void release(ServiceMessage message) {
+    if (message.hasData(ByteBuf.class)) {
+      ReferenceCountUtil.safeRelease(message.data());
+    }
+  }
+}
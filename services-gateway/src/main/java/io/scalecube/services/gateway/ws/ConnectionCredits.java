@@ -0,0 +1,124 @@
+package io.scalecube.services.gateway.ws;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+/**
+ * Credit-based flow control of frames which are sent to client over one connection. Client grants
+ * credits to connection and each frame consumes one credit, so frames are requested from upstream
+ * no faster than both demand of channel (which follows its writability) and credits allow.
+ */
+final class ConnectionCredits {
+
+  private long credits; // guarded by this
+  private long demand; // guarded by this
+  private Subscription upstream; // guarded by this
+
+  /**
+   * Creates flow control.
+   *
+   * @param initialCredits credits granted to connection once it's opened
+   */
+  ConnectionCredits(long initialCredits) {
+    this.credits = initialCredits;
+  }
+
+  /**
+   * Grants credits to connection.
+   *
+   * @param n number of credits
+   */
+  void grant(long n) {
+    if (n > 0) {
+      Subscription subscription;
+      long request;
+      synchronized (this) {
+        credits = Operators.addCap(credits, n);
+        subscription = upstream;
+        request = take();
+      }
+      if (request > 0) {
+        subscription.request(request);
+      }
+    }
+  }
+
+  /**
+   * Applies flow control to frames of connection.
+   *
+   * @param frames frames
+   * @param <T> type of frames
+   * @return frames, requested within granted credits
+   */
+  <T> Flux<T> apply(Flux<T> frames) {
+    return Flux.from((Publisher<T>) subscriber -> frames.subscribe(new Gate<>(subscriber)));
+  }
+
+  private long take() {
+    if (upstream == null) {
+      return 0;
+    }
+    long request = Math.min(demand, credits);
+    demand -= request;
+    credits -= request;
+    return request;
+  }
+
+  private final class Gate<T> implements Subscriber<T>, Subscription {
+
+    private final Subscriber<? super T> downstream;
+
+    private Gate(Subscriber<? super T> downstream) {
+      this.downstream = downstream;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      synchronized (ConnectionCredits.this) {
+        upstream = subscription;
+      }
+      downstream.onSubscribe(this); // upstream is requested once downstream requests
+    }
+
+    @Override
+    public void onNext(T frame) {
+      downstream.onNext(frame);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      downstream.onComplete();
+    }
+
+    @Override
+    public void request(long n) {
+      Subscription subscription;
+      long request;
+      synchronized (ConnectionCredits.this) {
+        demand = Operators.addCap(demand, n);
+        subscription = upstream;
+        request = take();
+      }
+      if (request > 0) {
+        subscription.request(request);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      Subscription subscription;
+      synchronized (ConnectionCredits.this) {
+        subscription = upstream;
+      }
+      subscription.cancel();
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package io.scalecube.services.gateway.ws;
+
+import com.codahale.metrics.Meter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.scalecube.services.ServiceCall;
+import io.scalecube.services.gateway.Gateway;
+import io.scalecube.services.gateway.GatewayConfig;
+import io.scalecube.services.gateway.netty.GatewayLoopResources;
+import io.scalecube.services.metrics.Metrics;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+
+/**
+ * Gateway which multiplexes streams of service calls over websocket connections, see {@link
+ * WebsocketGatewayMessageCodec} for frames and {@link WebsocketSession} for streams. Data of
+ * requests and responses is passed through without decoding at gateway.
+ *
+ * <p>Options:
+ *
+ * <ul>
+ *   <li>{@link #STREAM_PREFETCH} - max number of responses of one stream which are buffered by
+ *       gateway while connection can't take them, 32 by default. Also max number of requests of
+ *       one channel stream which are buffered by gateway while service doesn't take them, stream
+ *       fails once client sends more
+ *   <li>{@link #MAX_STREAMS} - max number of concurrent streams of one connection, 1024 by
+ *       default. Request which opens stream beyond it is rejected with error signal
+ *   <li>{@link #CREDITS} - credits which are granted to connection once it's opened. If set, client
+ *       has to grant more credits by frames with {@code rn} field, since each frame sent to client
+ *       consumes one credit. Not set by default, so frames are limited by writability of channel
+ *       only
+ *   <li>{@link #CONFLATION_INTERVAL} - turns on conflation of stream updates sent to slow clients
+ *       (see {@link ConnectionConflation}): the latest update per key is sent at most once per
+ *       this number of milliseconds while client is slow. Not set by default
+ *   <li>{@link #CONFLATION_MAX_PENDING} - max number of frames which are kept by connection while
+ *       client is slow, 1024 by default. Streams are slowed down once frames which can't be
+ *       conflated take all of them
+ *   <li>{@link #CONFLATION_KEY} - top level field of json data which value, along with stream id,
+ *       is key of conflated updates. Not set by default, so key is stream id
+ *   <li>{@link #CONFLATION_QUALIFIERS} - comma separated qualifiers of conflated updates. Not set
+ *       by default, so updates of all streams are conflated
+ *   <li>{@link #CONFLATION_WATERMARK} - size of outbound buffer of connection (in bytes), above
+ *       which client is slow. Netty default high watermark of channel by default
+ * </ul>
+ *
+ * <p>Threads are chosen by {@link GatewayLoopResources}.
+ */
+public class WebsocketGateway implements Gateway {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebsocketGateway.class);
+
+  public static final String STREAM_PREFETCH = "streamPrefetch";
+  public static final String MAX_STREAMS = "maxStreams";
+  public static final String CREDITS = "credits";
+  public static final String CONFLATION_INTERVAL = "conflationInterval";
+  public static final String CONFLATION_MAX_PENDING = "conflationMaxPending";
+  public static final String CONFLATION_KEY = "conflationKey";
+  public static final String CONFLATION_QUALIFIERS = "conflationQualifiers";
+  public static final String CONFLATION_WATERMARK = "conflationWatermark";
+
+  private static final int DEFAULT_STREAM_PREFETCH = 32;
+  private static final int DEFAULT_MAX_STREAMS = 1024;
+  private static final int DEFAULT_CONFLATION_MAX_PENDING = 1024;
+
+  private NettyContext server;
+
+  @Override
+  public Mono<InetSocketAddress> start(
+      GatewayConfig config,
+      ExecutorService executorService,
+      ServiceCall.Call call,
+      Metrics metrics) {
+    return Mono.defer(
+        () -> {
+          EventLoopGroup eventLoopGroup =
+              GatewayLoopResources.eventLoopGroup(config, executorService);
+          Scheduler scheduler = GatewayLoopResources.workerScheduler(config);
+          ServiceCall serviceCall = call.create();
+          Meter requests =
+              metrics != null
+                  ? metrics.getMeter(WebsocketGateway.class, config.name(), "request")
+                  : null;
+          int streamPrefetch =
+              config.get(STREAM_PREFETCH).map(Integer::parseInt).orElse(DEFAULT_STREAM_PREFETCH);
+          int maxStreams =
+              config.get(MAX_STREAMS).map(Integer::parseInt).orElse(DEFAULT_MAX_STREAMS);
+          Long credits = config.get(CREDITS).map(Long::parseLong).orElse(null);
+          ConnectionConflation conflation = conflation(config, metrics);
+          Integer watermark = config.get(CONFLATION_WATERMARK).map(Integer::parseInt).orElse(null);
+
+          HttpServer httpServer =
+              HttpServer.create(
+                  options -> {
+                    options.listenAddress(new InetSocketAddress(config.port()));
+                    if (eventLoopGroup != null) {
+                      options.loopResources(GatewayLoopResources.loopResources(eventLoopGroup));
+                    }
+                    if (watermark != null) {
+                      options.option(
+                          ChannelOption.WRITE_BUFFER_WATER_MARK,
+                          new WriteBufferWaterMark(watermark / 2, watermark));
+                    }
+                  });
+
+          return httpServer
+              .newHandler(
+                  (request, response) -> {
+                    WebsocketSession session =
+                        new WebsocketSession(
+                            serviceCall,
+                            scheduler,
+                            requests,
+                            streamPrefetch,
+                            maxStreams,
+                            credits != null ? new ConnectionCredits(credits) : null,
+                            conflation);
+                    return response.sendWebsocket(session::handle);
+                  })
+              .map(
+                  context -> {
+                    this.server = context;
+                    InetSocketAddress address = context.address();
+                    LOGGER.info("Websocket gateway '{}' is started on {}", config.name(), address);
+                    return address;
+                  });
+        });
+  }
+
+  @Override
+  public Mono<Void> stop() {
+    return Mono.defer(
+        () -> {
+          if (server == null) {
+            return Mono.empty();
+          }
+          server.dispose();
+          return server.onClose().doOnTerminate(() -> LOGGER.info("Websocket gateway is stopped"));
+        });
+  }
+
+  private static ConnectionConflation conflation(GatewayConfig config, Metrics metrics) {
+    return config
+        .get(CONFLATION_INTERVAL)
+        .map(
+            interval ->
+                new ConnectionConflation(
+                    Long.parseLong(interval),
+                    config
+                        .get(CONFLATION_MAX_PENDING)
+                        .map(Integer::parseInt)
+                        .orElse(DEFAULT_CONFLATION_MAX_PENDING),
+                    config.get(CONFLATION_KEY).orElse(null),
+                    config
+                        .get(CONFLATION_QUALIFIERS)
+                        .map(
+                            qualifiers ->
+                                Arrays.stream(qualifiers.split(","))
+                                    .map(String::trim)
+                                    .collect(Collectors.toSet()))
+                        .orElse(null),
+                    metrics != null
+                        ? metrics.getMeter(WebsocketGateway.class, config.name(), "conflated")
+                        : null))
+        .orElse(null);
+  }
+}
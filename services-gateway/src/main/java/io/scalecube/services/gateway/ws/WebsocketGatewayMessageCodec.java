@@ -0,0 +1,224 @@
+package io.scalecube.services.gateway.ws;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.DataCodec;
+import io.scalecube.services.exceptions.MessageCodecException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Codec of {@link WebsocketGateway} frames. Frame is json object with fields:
+ *
+ * <ul>
+ *   <li>{@code q} - qualifier of service method (of request) or of response
+ *   <li>{@code sid} - stream id, number chosen by client, unique among open streams of connection
+ *   <li>{@code sig} - signal: {@code 1} complete, {@code 2} error, {@code 3} cancel
+ *   <li>{@code m} - communication mode of stream opened by request: {@code REQUEST_RESPONSE},
+ *       {@code REQUEST_STREAM} (default) or {@code REQUEST_CHANNEL}
+ *   <li>{@code rn} - number of credits which client grants to connection
+ *   <li>{@code d} - data, any json value
+ * </ul>
+ *
+ * <p>Data isn't decoded: decoded message gets {@link ByteBuf} slice of frame with json of data, and
+ * {@link ByteBuf} data of encoded message is written to frame as it is. Other scalar fields become
+ * message headers of the same names.
+ */
+final class WebsocketGatewayMessageCodec {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebsocketGatewayMessageCodec.class);
+
+  static final String DATA_FORMAT = "application/json";
+
+  static final String QUALIFIER_FIELD = "q";
+  static final String STREAM_ID_FIELD = "sid";
+  static final String SIGNAL_FIELD = "sig";
+  static final String MODE_FIELD = "m";
+  static final String CREDITS_FIELD = "rn";
+  static final String DATA_FIELD = "d";
+
+  static final String SIGNAL_COMPLETE = "1";
+  static final String SIGNAL_ERROR = "2";
+  static final String SIGNAL_CANCEL = "3";
+
+  private static final byte[] DATA_FIELD_PREFIX =
+      (",\"" + DATA_FIELD + "\":").getBytes(StandardCharsets.UTF_8);
+  private static final byte[] OBJECT_END = "}".getBytes(StandardCharsets.UTF_8);
+
+  private static final JsonFactory JSON_FACTORY =
+      new JsonFactory()
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+          .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+  private WebsocketGatewayMessageCodec() {
+    // Do not instantiate
+  }
+
+  /**
+   * Decodes frame to message with {@link ByteBuf} data, which is retained slice of frame.
+   *
+   * @param frame frame content
+   * @return message
+   * @throws MessageCodecException if frame isn't json object
+   */
+  static ServiceMessage decode(ByteBuf frame) throws MessageCodecException {
+    ServiceMessage.Builder builder = ServiceMessage.builder().dataFormat(DATA_FORMAT);
+    ByteBuf data = null;
+    try (JsonParser parser =
+        JSON_FACTORY.createParser((InputStream) new ByteBufInputStream(frame.slice()))) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new MessageCodecException("Frame is not json object", null);
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+        if (DATA_FIELD.equals(field)) {
+          int start = (int) parser.getTokenLocation().getByteOffset();
+          parser.skipChildren();
+          parser.finishToken();
+          int end = (int) parser.getCurrentLocation().getByteOffset();
+          if (token != JsonToken.VALUE_NULL && data == null) {
+            data = frame.retainedSlice(frame.readerIndex() + start, end - start);
+          }
+        } else if (token.isScalarValue()) {
+          builder.header(field, parser.getValueAsString());
+        } else {
+          parser.skipChildren();
+        }
+      }
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(data);
+      LOGGER.debug(
+          "Failed to decode frame: {}, cause: {}",
+          frame.toString(StandardCharsets.UTF_8),
+          ex.toString());
+      throw ex instanceof MessageCodecException
+          ? (MessageCodecException) ex
+          : new MessageCodecException("Failed to decode frame", ex);
+    }
+    return builder.data(data).build();
+  }
+
+  /**
+   * Reads scalar field of json object without decoding the rest of it.
+   *
+   * @param data json data
+   * @param name name of top level field
+   * @return field value as string, null if data isn't json object or has no such scalar field
+   */
+  static String readField(ByteBuf data, String name) {
+    try (JsonParser parser =
+        JSON_FACTORY.createParser((InputStream) new ByteBufInputStream(data.slice()))) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+        if (name.equals(field) && token.isScalarValue()) {
+          return parser.getValueAsString();
+        }
+        parser.skipChildren();
+      }
+      return null;
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Encodes message to frame. {@link ByteBuf} data of message is released along with frame, data
+   * of other types is encoded by json {@link DataCodec}.
+   *
+   * @param message message with stream id and headers of other frame fields
+   * @return frame content
+   * @throws MessageCodecException if data can't be encoded
+   */
+  static ByteBuf encode(ServiceMessage message) throws MessageCodecException {
+    ByteBuf data = null;
+    ByteBuf fields = ByteBufAllocator.DEFAULT.buffer();
+    try {
+      data = encodeData(message);
+      try (JsonGenerator generator =
+          JSON_FACTORY.createGenerator((OutputStream) new ByteBufOutputStream(fields))) {
+        generator.writeStartObject();
+        for (Map.Entry<String, String> header : message.headers().entrySet()) {
+          writeField(generator, header.getKey(), header.getValue());
+        }
+      }
+      if (data == null) {
+        return fields.writeBytes(OBJECT_END);
+      }
+      CompositeByteBuf frame = ByteBufAllocator.DEFAULT.compositeBuffer(3);
+      frame.addComponent(true, fields.writeBytes(DATA_FIELD_PREFIX));
+      frame.addComponent(true, data);
+      frame.addComponent(true, ByteBufAllocator.DEFAULT.buffer(1).writeBytes(OBJECT_END));
+      return frame;
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(fields);
+      ReferenceCountUtil.safeRelease(data);
+      LOGGER.error("Failed to encode frame on: {}, cause: {}", message, ex);
+      throw ex instanceof MessageCodecException
+          ? (MessageCodecException) ex
+          : new MessageCodecException(
+              "Failed to encode frame on message q=" + message.qualifier(), ex);
+    }
+  }
+
+  private static void writeField(JsonGenerator generator, String name, String value)
+      throws IOException {
+    switch (name) {
+      case QUALIFIER_FIELD:
+      case MODE_FIELD:
+        generator.writeStringField(name, value);
+        break;
+      case STREAM_ID_FIELD:
+      case SIGNAL_FIELD:
+      case CREDITS_FIELD:
+        generator.writeFieldName(name);
+        generator.writeNumber(value); // written as is, as it was received from client
+        break;
+      default: // other headers of service messages aren't sent to client
+    }
+  }
+
+  /**
+   * Encodes data of message, unless it's already {@link ByteBuf}.
+   *
+   * @param message message
+   * @return data, null if message has no data
+   * @throws MessageCodecException if data can't be encoded
+   */
+  static ByteBuf encodeData(ServiceMessage message) throws MessageCodecException {
+    if (message.hasData(ByteBuf.class)) {
+      return message.data();
+    }
+    if (!message.hasData()) {
+      return null;
+    }
+    ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
+    try {
+      DataCodec.getInstance(DATA_FORMAT).encode(buffer, message.data());
+      return buffer;
+    } catch (Throwable ex) {
+      ReferenceCountUtil.safeRelease(buffer);
+      throw new MessageCodecException(
+          "Failed to encode data on message q=" + message.qualifier(), ex);
+    }
+  }
+}
@@ -0,0 +1,322 @@
+package io.scalecube.services.gateway.ws;
+
+import static io.scalecube.services.gateway.ws.WebsocketGatewayMessageCodec.CREDITS_FIELD;
+import static io.scalecube.services.gateway.ws.WebsocketGatewayMessageCodec.MODE_FIELD;
+import static io.scalecube.services.gateway.ws.WebsocketGatewayMessageCodec.SIGNAL_CANCEL;
+import static io.scalecube.services.gateway.ws.WebsocketGatewayMessageCodec.SIGNAL_COMPLETE;
+import static io.scalecube.services.gateway.ws.WebsocketGatewayMessageCodec.SIGNAL_ERROR;
+import static io.scalecube.services.gateway.ws.WebsocketGatewayMessageCodec.SIGNAL_FIELD;
+
+import com.codahale.metrics.Meter;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.services.CommunicationMode;
+import io.scalecube.services.ServiceCall;
+import io.scalecube.services.api.ErrorData;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.exceptions.BadRequestException;
+import io.scalecube.services.exceptions.ExceptionProcessor;
+import io.scalecube.services.exceptions.MessageCodecException;
+import io.scalecube.services.metrics.Metrics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.ipc.netty.NettyPipeline;
+import reactor.ipc.netty.http.websocket.WebsocketInbound;
+import reactor.ipc.netty.http.websocket.WebsocketOutbound;
+
+/**
+ * Websocket connection of {@link WebsocketGateway}, which multiplexes streams of service calls.
+ * Request with new stream id opens stream, client cancels it with cancel signal, and sends further
+ * requests of channel stream with its stream id, ending them with complete or error signal. Streams
+ * are cancelled once connection is closed. Request which opens stream beyond max number of
+ * concurrent streams is rejected with error signal.
+ *
+ * <p>Frames of all streams are merged into connection, which requests them as channel becomes
+ * writable (and within credits granted by client, if {@link ConnectionCredits} is used). Each
+ * stream prefetches limited number of responses, so slow client slows down streams rather than
+ * makes gateway buffer their responses, unless their updates are conflated by {@link
+ * ConnectionConflation}. Likewise, requests of channel stream are buffered up to the same limit
+ * while service doesn't take them, and stream fails with error signal once client sends more.
+ */
+final class WebsocketSession {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebsocketSession.class);
+
+  private final ServiceCall serviceCall;
+  private final Scheduler scheduler;
+  private final Meter requests;
+  private final int streamPrefetch;
+  private final int maxStreams;
+  private final ConnectionCredits credits;
+  private final ConnectionConflation conflation;
+
+  private final Map<Long, Stream> streams = new ConcurrentHashMap<>();
+  private final UnicastProcessor<Flux<ServiceMessage>> frames = UnicastProcessor.create();
+
+  /**
+   * Creates session.
+   *
+   * @param serviceCall service call
+   * @param scheduler scheduler on which service calls are made, null means event loop of connection
+   * @param requests meter of opened streams, null if metrics are disabled
+   * @param streamPrefetch max number of responses (and requests of channel) of stream which are
+   *     buffered by gateway
+   * @param maxStreams max number of concurrent streams
+   * @param credits credits of connection, null if client doesn't grant credits
+   * @param conflation conflation of updates sent to slow client, null if updates aren't conflated
+   */
+  WebsocketSession(
+      ServiceCall serviceCall,
+      Scheduler scheduler,
+      Meter requests,
+      int streamPrefetch,
+      int maxStreams,
+      ConnectionCredits credits,
+      ConnectionConflation conflation) {
+    this.serviceCall = serviceCall;
+    this.scheduler = scheduler;
+    this.requests = requests;
+    this.streamPrefetch = streamPrefetch;
+    this.maxStreams = maxStreams;
+    this.credits = credits;
+    this.conflation = conflation;
+  }
+
+  /**
+   * Serves connection.
+   *
+   * @param inbound inbound of connection
+   * @param outbound outbound of connection
+   * @return completes once connection is closed
+   */
+  Publisher<Void> handle(WebsocketInbound inbound, WebsocketOutbound outbound) {
+    Flux<ServiceMessage> messages =
+        frames.flatMap(stream -> stream, Integer.MAX_VALUE, streamPrefetch);
+    if (conflation != null) {
+      messages = conflation.apply(messages, inbound.context().channel());
+    }
+    if (credits != null) {
+      messages = credits.apply(messages);
+    }
+    Mono<Void> receive =
+        inbound.aggregateFrames().receive().doOnNext(this::onFrame).doFinally(s -> close()).then();
+    Mono<Void> send =
+        outbound
+            .options(NettyPipeline.SendOptions::flushOnEach)
+            .sendObject(messages.map(message -> new TextWebSocketFrame(encode(message))))
+            .then();
+    return Mono.when(receive, send);
+  }
+
+  private void onFrame(ByteBuf frame) {
+    ServiceMessage message;
+    try {
+      message = WebsocketGatewayMessageCodec.decode(frame);
+    } catch (MessageCodecException ex) {
+      LOGGER.warn("Received invalid frame, cause: {}", ex.toString());
+      return;
+    }
+
+    String rn = message.header(CREDITS_FIELD);
+    Long sid = parse(message.streamId());
+    if (rn != null && credits != null) {
+      Long n = parse(rn);
+      if (n != null) {
+        credits.grant(n);
+      }
+    }
+    if (sid == null) {
+      if (rn == null) {
+        LOGGER.warn("Received frame without stream id: {}", message);
+      }
+      release(message);
+      return;
+    }
+
+    String signal = message.header(SIGNAL_FIELD);
+    Stream stream = streams.get(sid);
+    if (stream != null) {
+      stream.onRequest(message, signal);
+    } else if (signal != null) {
+      release(message); // signal of stream which is already terminated
+    } else if (streams.size() >= maxStreams) {
+      release(message);
+      frames.onNext(
+          Flux.just(
+              error(sid, new BadRequestException("Max " + maxStreams + " streams are open"))));
+    } else {
+      open(sid, message);
+    }
+  }
+
+  private void open(long sid, ServiceMessage message) {
+    Metrics.mark(requests);
+    ServiceMessage request = request(message);
+    String mode = message.header(MODE_FIELD);
+    Stream stream =
+        new Stream(
+            sid,
+            request.qualifier(),
+            CommunicationMode.REQUEST_CHANNEL.name().equals(mode),
+            streamPrefetch);
+    streams.put(sid, stream);
+
+    // deferred, since local service calls may fail before returning publisher
+    Flux<ServiceMessage> responses = Flux.defer(() -> call(request, mode, stream));
+    if (scheduler != null) {
+      responses = responses.subscribeOn(scheduler);
+    }
+
+    frames.onNext(
+        responses
+            .map(response -> response(sid, response))
+            .concatWith(Mono.fromCallable(() -> signal(sid, SIGNAL_COMPLETE).build()))
+            .onErrorResume(ex -> Mono.just(error(sid, ex)))
+            .takeUntilOther(stream.cancel)
+            .doFinally(s -> streams.remove(sid, stream)));
+  }
+
+  private Flux<ServiceMessage> call(ServiceMessage request, String mode, Stream stream) {
+    if (request.qualifier() == null) {
+      release(request);
+      return Flux.error(new BadRequestException("Qualifier is required"));
+    }
+    if (CommunicationMode.REQUEST_RESPONSE.name().equals(mode)) {
+      return serviceCall.requestOne(request).flux();
+    }
+    if (stream.inbound != null) {
+      // overflow of requests fails stream, unless it's already completed
+      return serviceCall
+          .requestBidirectional(stream.requests().startWith(request))
+          .takeUntilOther(stream.overflow)
+          .concatWith(Mono.defer(stream::overflowError));
+    }
+    return serviceCall.requestMany(request);
+  }
+
+  private void close() {
+    streams.values().forEach(Stream::cancel);
+    frames.onComplete();
+  }
+
+  private static ServiceMessage request(ServiceMessage message) {
+    return ServiceMessage.builder()
+        .qualifier(message.qualifier())
+        .dataFormat(message.dataFormat())
+        .data(message.data())
+        .build();
+  }
+
+  private static ServiceMessage response(long sid, ServiceMessage response) {
+    if (ExceptionProcessor.isError(response)) {
+      // throws service exception of error data
+      ServiceMessageCodec.decodeData(response, ErrorData.class);
+    }
+    return ServiceMessage.builder()
+        .qualifier(response.qualifier())
+        .streamId(String.valueOf(sid))
+        .data(response.data())
+        .build();
+  }
+
+  private static ServiceMessage error(long sid, Throwable ex) {
+    LOGGER.debug("Stream {} failed, cause: {}", sid, ex.toString());
+    ServiceMessage error = ExceptionProcessor.toMessage(ExceptionProcessor.mapException(ex));
+    return signal(sid, SIGNAL_ERROR).qualifier(error.qualifier()).data(error.data()).build();
+  }
+
+  private static ServiceMessage.Builder signal(long sid, String signal) {
+    return ServiceMessage.builder().streamId(String.valueOf(sid)).header(SIGNAL_FIELD, signal);
+  }
+
+  private static ByteBuf encode(ServiceMessage message) {
+    try {
+      return WebsocketGatewayMessageCodec.encode(message);
+    } catch (MessageCodecException ex) {
+      return WebsocketGatewayMessageCodec.encode(
+          error(Long.parseLong(message.streamId()), ex));
+    }
+  }
+
+  private static Long parse(String value) {
+    try {
+      return value != null ? Long.valueOf(value) : null;
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+  }
+
+  private static void release(ServiceMessage message) {
+    if (message.hasData(ByteBuf.class)) {
+      ReferenceCountUtil.safeRelease(message.data());
+    }
+  }
+
+  private static final class Stream {
+
+    private final long sid;
+    private final String qualifier;
+    private final MonoProcessor<Void> cancel = MonoProcessor.create();
+    private final MonoProcessor<Void> overflow = MonoProcessor.create();
+    private final UnicastProcessor<ServiceMessage> inbound; // requests of channel stream
+    private final AtomicInteger buffered = new AtomicInteger(); // requests not yet taken
+    private final int maxBuffered;
+
+    private Stream(long sid, String qualifier, boolean channel, int maxBuffered) {
+      this.sid = sid;
+      this.qualifier = qualifier;
+      this.maxBuffered = maxBuffered;
+      this.inbound = channel ? UnicastProcessor.create() : null;
+    }
+
+    private Flux<ServiceMessage> requests() {
+      return inbound.doOnNext(request -> buffered.decrementAndGet());
+    }
+
+    private void onRequest(ServiceMessage message, String signal) {
+      if (SIGNAL_CANCEL.equals(signal)) {
+        release(message);
+        cancel();
+      } else if (overflow.isTerminated()) {
+        release(message); // stream is failing
+      } else if (inbound == null) {
+        LOGGER.warn("Received request on stream {} which isn't channel: {}", sid, message);
+        release(message);
+      } else if (SIGNAL_COMPLETE.equals(signal)) {
+        release(message);
+        inbound.onComplete();
+      } else if (SIGNAL_ERROR.equals(signal)) {
+        release(message);
+        inbound.onError(new BadRequestException("Stream " + sid + " is failed by client"));
+      } else if (buffered.incrementAndGet() > maxBuffered) {
+        release(message);
+        overflow.onComplete();
+      } else {
+        inbound.onNext(ServiceMessage.from(request(message)).qualifier(qualifier).build());
+      }
+    }
+
+    private Mono<ServiceMessage> overflowError() {
+      return overflow.isTerminated()
+          ? Mono.error(
+              new BadRequestException(
+                  "Stream " + sid + " exceeded " + maxBuffered + " buffered requests"))
+          : Mono.empty();
+    }
+
+    private void cancel() {
+      cancel.onComplete();
+    }
+  }
+}
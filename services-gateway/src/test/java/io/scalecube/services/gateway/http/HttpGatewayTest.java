@@ -0,0 +1,245 @@
+package io.scalecube.services.gateway.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.gateway.GatewayConfig;
+import io.scalecube.services.gateway.sut.EchoServiceImpl;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.http.client.HttpClientRequest;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+public class HttpGatewayTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final String GATEWAY_NAME = "http";
+  private static final int MAX_CONTENT_LENGTH = 1024;
+
+  private static Microservices provider;
+  private static Microservices gateway;
+  private static HttpClient client;
+
+  @BeforeAll
+  public static void setUp() throws Exception {
+    provider = Microservices.builder().services(new EchoServiceImpl()).startAwait();
+    gateway =
+        Microservices.builder()
+            .seeds(provider.discovery().address())
+            .gateway(
+                GatewayConfig.builder(GATEWAY_NAME, HttpGateway.class)
+                    .addOption(HttpGateway.MAX_CONTENT_LENGTH, String.valueOf(MAX_CONTENT_LENGTH))
+                    .build())
+            .startAwait();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (gateway.serviceRegistry().listServiceEndpoints().isEmpty()) {
+      assertTrue(System.currentTimeMillis() < deadline, "provider is not discovered");
+      Thread.sleep(100);
+    }
+
+    int port = gateway.gatewayAddress(GATEWAY_NAME, HttpGateway.class).getPort();
+    client =
+        HttpClient.create(
+            options -> options.connectAddress(() -> new InetSocketAddress("localhost", port)));
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    Stream.of(gateway, provider)
+        .filter(microservices -> microservices != null)
+        .forEach(
+            microservices -> {
+              try {
+                microservices.shutdown().block(TIMEOUT);
+              } catch (Exception ignore) {
+                // ignore
+              }
+            });
+  }
+
+  @Test
+  public void test_request_is_routed_to_service_method() {
+    assertEquals(Tuples.of(200, "\"joe\""), post("/echo/echo", "\"joe\""));
+    assertEquals(Tuples.of(200, "3"), post("/echo/length", "\"joe\""));
+  }
+
+  @Test
+  public void test_unknown_uri() {
+    assertEquals(404, post("/echo", "\"joe\"").getT1().intValue());
+    assertEquals(404, post("/echo/echo/joe", "\"joe\"").getT1().intValue());
+    // no such service method
+    assertEquals(503, post("/echo/unknown", "\"joe\"").getT1().intValue());
+  }
+
+  @Test
+  public void test_only_post_is_allowed() {
+    int status =
+        client
+            .get("/echo/echo", request -> request.failOnClientError(false).send())
+            .map(response -> response.status().code())
+            .block(TIMEOUT);
+    assertEquals(405, status);
+  }
+
+  @Test
+  public void test_service_errors_are_mapped_to_status() {
+    assertError(400, "bad request", post("/echo/fail", "400"));
+    assertError(401, "unauthorized", post("/echo/fail", "401"));
+    assertError(503, "unavailable", post("/echo/fail", "503"));
+    assertError(500, "failed", post("/echo/fail", "500"));
+  }
+
+  @Test
+  public void test_empty_body_calls_method_without_data() {
+    assertEquals(Tuples.of(200, "\"ok\""), post("/echo/noArgs", ""));
+  }
+
+  @Test
+  public void test_body_within_max_content_length() {
+    String value = value(MAX_CONTENT_LENGTH - 2); // quoted
+    assertEquals(Tuples.of(200, String.valueOf(value.length())), post("/echo/length", json(value)));
+  }
+
+  @Test
+  public void test_body_exceeding_max_content_length() {
+    assertEquals(413, post("/echo/length", json(value(MAX_CONTENT_LENGTH))).getT1().intValue());
+  }
+
+  @Test
+  public void test_chunked_body_exceeding_max_content_length() {
+    String body = json(value(MAX_CONTENT_LENGTH));
+    int status =
+        client
+            .post(
+                "/echo/length",
+                request ->
+                    request(request)
+                        .chunkedTransfer(true)
+                        .sendString(
+                            Flux.just(
+                                body.substring(0, body.length() / 2),
+                                body.substring(body.length() / 2))))
+            .map(response -> response.status().code())
+            .block(TIMEOUT);
+    assertEquals(413, status);
+
+    // gateway keeps serving requests over new connections
+    assertEquals(Tuples.of(200, "\"joe\""), post("/echo/echo", "\"joe\""));
+  }
+
+  @Test
+  public void test_stream_is_sent_as_events() {
+    assertEquals("data: 0\n\ndata: 1\n\ndata: 2\n\n", events("/echo/range", "3").block(TIMEOUT));
+  }
+
+  @Test
+  public void test_stream_error_is_sent_as_error_event() {
+    String events = events("/echo/unknown", "").block(TIMEOUT);
+    assertTrue(events.startsWith("event: error\ndata: {"), "events: " + events);
+    assertTrue(events.contains("\"errorCode\":503"), "events: " + events);
+    assertTrue(events.endsWith("}\n\n"), "events: " + events);
+  }
+
+  @Test
+  public void test_stream_is_cancelled_once_client_disconnects() throws Exception {
+    List<String> ticks = eventStream("/echo/ticks", "").take(2).collectList().block(TIMEOUT);
+    assertEquals(2, ticks.size());
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (EchoServiceImpl.TICKS.get() > 0) {
+      assertTrue(System.currentTimeMillis() < deadline, "stream is not cancelled");
+      Thread.sleep(100);
+    }
+  }
+
+  @Test
+  public void test_stream_is_slowed_down_by_slow_client() throws Exception {
+    int count = 100_000; // 100 MB of events
+    EchoServiceImpl.PAYLOADS.set(0);
+    BaseSubscriber<String> slowClient =
+        new BaseSubscriber<String>() {
+          @Override
+          protected void hookOnSubscribe(Subscription subscription) {
+            request(1); // and nothing more
+          }
+        };
+    eventStream("/echo/payloads", String.valueOf(count)).subscribe(slowClient);
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    long emitted;
+    do {
+      assertTrue(System.currentTimeMillis() < deadline, "stream is not slowed down");
+      emitted = EchoServiceImpl.PAYLOADS.get();
+      Thread.sleep(500);
+    } while (emitted == 0 || emitted != EchoServiceImpl.PAYLOADS.get());
+    slowClient.dispose();
+
+    assertTrue(emitted < count, "emitted: " + emitted);
+  }
+
+  private static void assertError(int status, String message, Tuple2<Integer, String> response) {
+    assertEquals(status, response.getT1().intValue());
+    assertTrue(
+        response.getT2().contains("\"errorCode\":" + status), "body: " + response.getT2());
+    assertTrue(response.getT2().contains(message), "body: " + response.getT2());
+  }
+
+  private static Tuple2<Integer, String> post(String uri, String body) {
+    return client
+        .post(uri, request -> request(request).sendString(Mono.just(body)))
+        .flatMap(
+            response ->
+                response
+                    .receive()
+                    .aggregate()
+                    .asString()
+                    .defaultIfEmpty("")
+                    .map(content -> Tuples.of(response.status().code(), content)))
+        .block(TIMEOUT);
+  }
+
+  private static Mono<String> events(String uri, String body) {
+    return eventStream(uri, body).reduce(String::concat);
+  }
+
+  private static Flux<String> eventStream(String uri, String body) {
+    return client
+        .post(
+            uri,
+            request ->
+                request(request)
+                    .header(HttpHeaderNames.ACCEPT, ServerSentEvents.EVENT_STREAM)
+                    .sendString(Mono.just(body)))
+        .flatMapMany(response -> response.receive().asString());
+  }
+
+  private static HttpClientRequest request(HttpClientRequest request) {
+    return request
+        .failOnClientError(false)
+        .failOnServerError(false)
+        .header(HttpHeaderNames.CONTENT_TYPE, "application/json");
+  }
+
+  private static String value(int length) {
+    return String.join("", Collections.nCopies(length, "x"));
+  }
+
+  private static String json(String value) {
+    return "\"" + value + "\"";
+  }
+}
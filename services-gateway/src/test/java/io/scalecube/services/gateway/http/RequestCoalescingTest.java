@@ -0,0 +1,187 @@
+package io.scalecube.services.gateway.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.gateway.sut.EchoServiceImpl;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+public class RequestCoalescingTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final String IDEMPOTENT = "/echo/echo";
+  private static final String NOT_IDEMPOTENT = "/echo/fail";
+
+  private static Microservices microservices;
+
+  private RequestCoalescing coalescing;
+  private final List<MonoProcessor<ServiceMessage>> calls = new ArrayList<>();
+
+  @BeforeAll
+  public static void setUp() {
+    microservices = Microservices.builder().services(new EchoServiceImpl()).startAwait();
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    if (microservices != null) {
+      microservices.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @BeforeEach
+  public void createCoalescing() {
+    coalescing = new RequestCoalescing(microservices.call().create(), null);
+  }
+
+  @Test
+  public void test_concurrent_identical_requests_make_one_call() {
+    ServiceMessage joined = request(IDEMPOTENT, "\"a\"");
+    MonoProcessor<ServiceMessage> first = apply(request(IDEMPOTENT, "\"a\""));
+    MonoProcessor<ServiceMessage> second = apply(joined);
+    MonoProcessor<ServiceMessage> third = apply(request(IDEMPOTENT, "\"a\""));
+
+    assertEquals(1, calls.size());
+    assertEquals(0, joined.<ByteBuf>data().refCnt(), "request which joins call is released");
+
+    ByteBuf data = Unpooled.copiedBuffer("\"a\"", StandardCharsets.UTF_8);
+    calls.get(0).onNext(ServiceMessage.builder().qualifier(IDEMPOTENT).data(data).build());
+    assertEquals("\"a\"", content(first));
+    assertEquals("\"a\"", content(second));
+    assertEquals("\"a\"", content(third));
+    assertEquals(0, data.refCnt(), "response is released once it's fanned out");
+  }
+
+  @Test
+  public void test_requests_with_different_data_are_not_merged() {
+    apply(request(IDEMPOTENT, "\"a\""));
+    apply(request(IDEMPOTENT, "\"b\""));
+
+    assertEquals(2, calls.size());
+  }
+
+  @Test
+  public void test_requests_with_different_headers_are_not_merged() {
+    apply(ServiceMessage.from(request(IDEMPOTENT, "\"a\"")).header("token", "1").build());
+    apply(ServiceMessage.from(request(IDEMPOTENT, "\"a\"")).header("token", "2").build());
+    apply(ServiceMessage.from(request(IDEMPOTENT, "\"a\"")).dataFormat("text/plain").build());
+
+    assertEquals(3, calls.size());
+  }
+
+  @Test
+  public void test_requests_of_not_idempotent_method_are_not_merged() {
+    apply(request(NOT_IDEMPOTENT, "400"));
+    apply(request(NOT_IDEMPOTENT, "400"));
+
+    assertEquals(2, calls.size());
+  }
+
+  @Test
+  public void test_error_is_fanned_out() {
+    MonoProcessor<ServiceMessage> first = apply(request(IDEMPOTENT, "\"a\""));
+    MonoProcessor<ServiceMessage> second = apply(request(IDEMPOTENT, "\"a\""));
+
+    calls.get(0).onError(new IllegalStateException("failed"));
+
+    assertEquals("failed", first.getError().getMessage());
+    assertEquals("failed", second.getError().getMessage());
+  }
+
+  @Test
+  public void test_cancel_of_one_request_keeps_call_of_others() {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    MonoProcessor<ServiceMessage> upstream = MonoProcessor.create();
+    Disposable first =
+        coalescing
+            .apply(request(IDEMPOTENT, "\"a\""), request -> cancellable(upstream, cancelled))
+            .subscribe();
+    MonoProcessor<ServiceMessage> second = apply(request(IDEMPOTENT, "\"a\""));
+
+    first.dispose();
+    assertFalse(cancelled.get());
+    assertTrue(calls.isEmpty(), "second request joins call in flight");
+
+    upstream.onNext(ServiceMessage.builder().qualifier(IDEMPOTENT).data("a").build());
+    assertEquals("a", second.block(TIMEOUT).data());
+  }
+
+  @Test
+  public void test_cancel_of_all_requests_cancels_call() {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    MonoProcessor<ServiceMessage> upstream = MonoProcessor.create();
+    Disposable first =
+        coalescing
+            .apply(request(IDEMPOTENT, "\"a\""), request -> cancellable(upstream, cancelled))
+            .subscribe();
+    Disposable second = coalescing.apply(request(IDEMPOTENT, "\"a\""), this::call).subscribe();
+
+    first.dispose();
+    second.dispose();
+    assertTrue(cancelled.get());
+
+    // further identical request makes new call
+    apply(request(IDEMPOTENT, "\"a\""));
+    assertEquals(1, calls.size());
+  }
+
+  @Test
+  public void test_request_after_completion_makes_new_call() {
+    MonoProcessor<ServiceMessage> first = apply(request(IDEMPOTENT, "\"a\""));
+    calls.get(0).onNext(ServiceMessage.builder().qualifier(IDEMPOTENT).data("a").build());
+    assertEquals("a", first.block(TIMEOUT).data());
+
+    MonoProcessor<ServiceMessage> second = apply(request(IDEMPOTENT, "\"a\""));
+    assertEquals(2, calls.size());
+    calls.get(1).onNext(ServiceMessage.builder().qualifier(IDEMPOTENT).data("b").build());
+    assertEquals("b", second.block(TIMEOUT).data());
+  }
+
+  private MonoProcessor<ServiceMessage> apply(ServiceMessage request) {
+    return coalescing.apply(request, this::call).toProcessor();
+  }
+
+  private Mono<ServiceMessage> call(ServiceMessage request) {
+    MonoProcessor<ServiceMessage> call = MonoProcessor.create();
+    calls.add(call);
+    return call;
+  }
+
+  private static Mono<ServiceMessage> cancellable(
+      Mono<ServiceMessage> upstream, AtomicBoolean cancelled) {
+    return upstream.doOnCancel(() -> cancelled.set(true));
+  }
+
+  private static ServiceMessage request(String qualifier, String data) {
+    return ServiceMessage.builder()
+        .qualifier(qualifier)
+        .dataFormat("application/json")
+        .data(Unpooled.copiedBuffer(data, StandardCharsets.UTF_8))
+        .build();
+  }
+
+  private static String content(MonoProcessor<ServiceMessage> response) {
+    ByteBuf data = response.block(TIMEOUT).data();
+    try {
+      return data.toString(StandardCharsets.UTF_8);
+    } finally {
+      data.release();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package io.scalecube.services.gateway.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class ServerSentEventsTest {
+
+  @Test
+  public void test_data_is_framed_as_data_field() {
+    assertEquals("data: {\"a\":1}\n\n", event(null, "{\"a\":1}"));
+  }
+
+  @Test
+  public void test_each_line_of_data_is_data_field() {
+    assertEquals("data: a\ndata: b\ndata: c\n\n", event(null, "a\nb\r\nc"));
+    assertEquals("data: a\ndata: \ndata: b\n\n", event(null, "a\n\nb"));
+  }
+
+  @Test
+  public void test_trailing_new_line_does_not_add_data_field() {
+    assertEquals("data: a\n\n", event(null, "a\n"));
+    assertEquals("data: a\n\n", event(null, "a\r\n"));
+  }
+
+  @Test
+  public void test_empty_data_is_empty_data_field() {
+    assertEquals("data: \n\n", event(null, ""));
+  }
+
+  @Test
+  public void test_event_type_precedes_data() {
+    assertEquals(
+        "event: error\ndata: {\"errorCode\":500}\n\n", event("error", "{\"errorCode\":500}"));
+  }
+
+  @Test
+  public void test_data_is_released_with_event() {
+    ByteBuf data = Unpooled.copiedBuffer("a\nb", StandardCharsets.UTF_8);
+    ByteBuf event = ServerSentEvents.event(ByteBufAllocator.DEFAULT, null, data);
+    assertEquals(2, data.refCnt(), "each line of event holds slice of data");
+
+    event.release();
+    assertEquals(0, data.refCnt());
+  }
+
+  @Test
+  public void test_event_stream_is_accepted() {
+    assertTrue(ServerSentEvents.isAccepted("text/event-stream"));
+    assertTrue(ServerSentEvents.isAccepted("application/json, text/event-stream"));
+    assertFalse(ServerSentEvents.isAccepted("application/json"));
+    assertFalse(ServerSentEvents.isAccepted(null));
+  }
+
+  private static String event(String type, String data) {
+    ByteBuf event =
+        ServerSentEvents.event(
+            ByteBufAllocator.DEFAULT, type, Unpooled.copiedBuffer(data, StandardCharsets.UTF_8));
+    try {
+      return event.toString(StandardCharsets.UTF_8);
+    } finally {
+      event.release();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package io.scalecube.services.gateway.sut;
+
+import io.scalecube.services.annotations.Idempotent;
+import io.scalecube.services.annotations.Service;
+import io.scalecube.services.annotations.ServiceMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service(EchoService.SERVICE_NAME)
+public interface EchoService {
+
+  String SERVICE_NAME = "echo";
+
+  @ServiceMethod
+  @Idempotent
+  Mono<String> echo(String value);
+
+  @ServiceMethod
+  Mono<String> noArgs();
+
+  @ServiceMethod
+  @Idempotent
+  Mono<Integer> length(String value);
+
+  @ServiceMethod
+  Mono<String> fail(Integer errorCode);
+
+  @ServiceMethod
+  Flux<Integer> range(Integer count);
+
+  @ServiceMethod
+  Flux<Long> ticks();
+
+  @ServiceMethod
+  Flux<String> payloads(Integer count);
+
+  @ServiceMethod
+  Flux<String> never();
+
+  @ServiceMethod
+  Flux<String> channel(Flux<String> values);
+
+  @ServiceMethod
+  Flux<String> stalledChannel(Flux<String> values);
+}
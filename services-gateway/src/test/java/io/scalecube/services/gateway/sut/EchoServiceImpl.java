@@ -0,0 +1,83 @@
+package io.scalecube.services.gateway.sut;
+
+import io.scalecube.services.exceptions.BadRequestException;
+import io.scalecube.services.exceptions.ServiceUnavailableException;
+import io.scalecube.services.exceptions.UnauthorizedException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class EchoServiceImpl implements EchoService {
+
+  /** Number of subscribed streams of {@link #ticks()}. */
+  public static final AtomicInteger TICKS = new AtomicInteger();
+
+  /** Number of payloads emitted by {@link #payloads(Integer)}. */
+  public static final AtomicLong PAYLOADS = new AtomicLong();
+
+  private static final String PAYLOAD = String.join("", Collections.nCopies(1024, "x"));
+
+  @Override
+  public Mono<String> echo(String value) {
+    return Mono.just(value);
+  }
+
+  @Override
+  public Mono<String> noArgs() {
+    return Mono.just("ok");
+  }
+
+  @Override
+  public Mono<Integer> length(String value) {
+    return Mono.just(value.length());
+  }
+
+  @Override
+  public Mono<String> fail(Integer errorCode) {
+    switch (errorCode) {
+      case 400:
+        return Mono.error(new BadRequestException(400, "bad request"));
+      case 401:
+        return Mono.error(new UnauthorizedException(401, "unauthorized"));
+      case 503:
+        return Mono.error(new ServiceUnavailableException("unavailable"));
+      default:
+        return Mono.error(new IllegalStateException("failed"));
+    }
+  }
+
+  @Override
+  public Flux<Integer> range(Integer count) {
+    return Flux.range(0, count);
+  }
+
+  @Override
+  public Flux<Long> ticks() {
+    return Flux.interval(Duration.ofMillis(10))
+        .doOnSubscribe(s -> TICKS.incrementAndGet())
+        .doFinally(s -> TICKS.decrementAndGet());
+  }
+
+  @Override
+  public Flux<String> payloads(Integer count) {
+    return Flux.range(0, count).map(i -> PAYLOAD).doOnNext(payload -> PAYLOADS.incrementAndGet());
+  }
+
+  @Override
+  public Flux<String> never() {
+    return Flux.never();
+  }
+
+  @Override
+  public Flux<String> channel(Flux<String> values) {
+    return values;
+  }
+
+  @Override
+  public Flux<String> stalledChannel(Flux<String> values) {
+    return Flux.never(); // values aren't requested
+  }
+}
@@ -0,0 +1,219 @@
+package io.scalecube.services.gateway.ws;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.services.api.ServiceMessage;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.UnicastProcessor;
+
+public class ConnectionConflationTest {
+
+  private static final long INTERVAL_MILLIS = 10;
+  private static final int MAX_PENDING = 8;
+  private static final String CONFLATED = "/echo/ticks";
+  private static final String NOT_CONFLATED = "/echo/range";
+
+  private final ConnectionConflation conflation =
+      new ConnectionConflation(
+          INTERVAL_MILLIS, MAX_PENDING, null, Collections.singleton(CONFLATED), null);
+
+  private EmbeddedChannel channel;
+  private Receiver receiver;
+
+  @BeforeEach
+  public void setUp() {
+    channel = new EmbeddedChannel();
+    channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(1, 2));
+    receiver = new Receiver();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    receiver.dispose();
+    receiver.received.forEach(message -> ReferenceCountUtil.safeRelease(message.data()));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void test_frames_pass_through_while_client_is_fast() {
+    conflation.apply(Flux.just(update(1, "a"), update(1, "b")), channel).subscribe(receiver);
+
+    assertEquals(listOf("1:a", "1:b"), receiver.frames());
+    assertTrue(receiver.completed);
+  }
+
+  @Test
+  public void test_latest_update_per_key_is_sent_to_slow_client() throws Exception {
+    UnicastProcessor<ServiceMessage> frames = UnicastProcessor.create();
+    conflation.apply(frames, channel).subscribe(receiver);
+
+    slowDown();
+    ServiceMessage replaced = update(1, "a");
+    frames.onNext(replaced);
+    frames.onNext(update(2, "x"));
+    frames.onNext(update(1, "b"));
+    frames.onNext(update(1, "c"));
+    assertEquals(0, replaced.<ByteBuf>data().refCnt(), "replaced update is released");
+
+    flush();
+    assertEquals(listOf("1:c", "2:x"), receiver.frames());
+  }
+
+  @Test
+  public void test_signals_and_termination_pass_through() throws Exception {
+    UnicastProcessor<ServiceMessage> frames = UnicastProcessor.create();
+    conflation.apply(frames, channel).subscribe(receiver);
+
+    slowDown();
+    frames.onNext(update(1, "a"));
+    frames.onNext(update(1, "b"));
+    frames.onNext(complete(1));
+    frames.onNext(ServiceMessage.from(update(2, "x")).qualifier(NOT_CONFLATED).build());
+    frames.onNext(ServiceMessage.from(update(2, "y")).qualifier(NOT_CONFLATED).build());
+    frames.onComplete();
+    assertFalse(receiver.completed, "completes once kept frames are sent");
+
+    flush();
+    assertEquals(listOf("1:b", "1:sig", "2:x", "2:y"), receiver.frames());
+    assertTrue(receiver.completed);
+  }
+
+  @Test
+  public void test_error_passes_through() {
+    UnicastProcessor<ServiceMessage> frames = UnicastProcessor.create();
+    conflation.apply(frames, channel).subscribe(receiver);
+
+    slowDown();
+    ServiceMessage update = update(1, "a");
+    frames.onNext(update);
+    frames.onError(new IllegalStateException("failed"));
+
+    assertEquals("failed", receiver.error.getMessage());
+    assertEquals(0, update.<ByteBuf>data().refCnt(), "kept update is released");
+  }
+
+  @Test
+  public void test_slow_client_bounds_frames_requested_from_streams() throws Exception {
+    AtomicLong requested = new AtomicLong();
+    Flux<ServiceMessage> frames =
+        Flux.range(0, 1000)
+            .map(i -> ServiceMessage.from(update(i, "x")).qualifier(NOT_CONFLATED).build())
+            .doOnRequest(n -> requested.addAndGet(n));
+
+    slowDown();
+    conflation.apply(frames, channel).subscribe(receiver);
+    Thread.sleep(INTERVAL_MILLIS * 2);
+    channel.runPendingTasks(); // client is still slow
+    assertEquals(MAX_PENDING, requested.get());
+    assertTrue(receiver.frames().isEmpty());
+
+    flush();
+    assertEquals(1000, receiver.frames().size());
+    assertTrue(receiver.completed);
+  }
+
+  @Test
+  public void test_updates_of_the_same_key_are_consumed_by_slow_client() throws Exception {
+    Flux<ServiceMessage> frames = Flux.range(0, 1000).map(i -> update(1, String.valueOf(i)));
+
+    slowDown();
+    conflation.apply(frames, channel).subscribe(receiver);
+    assertFalse(receiver.completed);
+
+    flush();
+    assertEquals(listOf("1:999"), receiver.frames());
+    assertTrue(receiver.completed);
+  }
+
+  private void slowDown() {
+    channel.write(Unpooled.buffer(16).writeZero(16));
+    assertFalse(channel.isWritable());
+  }
+
+  private void flush() throws InterruptedException {
+    channel.flush();
+    assertTrue(channel.isWritable());
+    Thread.sleep(INTERVAL_MILLIS * 2);
+    channel.runPendingTasks();
+  }
+
+  private static ServiceMessage update(int sid, String value) {
+    return ServiceMessage.builder()
+        .qualifier(CONFLATED)
+        .streamId(String.valueOf(sid))
+        .data(Unpooled.copiedBuffer(value, StandardCharsets.UTF_8))
+        .build();
+  }
+
+  private static ServiceMessage complete(int sid) {
+    return ServiceMessage.builder()
+        .streamId(String.valueOf(sid))
+        .header(
+            WebsocketGatewayMessageCodec.SIGNAL_FIELD, WebsocketGatewayMessageCodec.SIGNAL_COMPLETE)
+        .build();
+  }
+
+  private static List<String> listOf(String... values) {
+    List<String> list = new ArrayList<>();
+    Collections.addAll(list, values);
+    return list;
+  }
+
+  /** Subscriber of conflated frames, which takes them as fast as they come. */
+  private static final class Receiver extends BaseSubscriber<ServiceMessage> {
+
+    private final List<ServiceMessage> received = new ArrayList<>();
+    private boolean completed;
+    private Throwable error;
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      request(Long.MAX_VALUE);
+    }
+
+    @Override
+    protected void hookOnNext(ServiceMessage message) {
+      received.add(message);
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      completed = true;
+    }
+
+    @Override
+    protected void hookOnError(Throwable throwable) {
+      error = throwable;
+    }
+
+    private List<String> frames() {
+      return received.stream().map(Receiver::toString).collect(Collectors.toList());
+    }
+
+    private static String toString(ServiceMessage message) {
+      if (message.header(WebsocketGatewayMessageCodec.SIGNAL_FIELD) != null) {
+        return message.streamId() + ":sig";
+      }
+      ByteBuf data = message.data();
+      return message.streamId() + ":" + data.toString(StandardCharsets.UTF_8);
+    }
+  }
+}
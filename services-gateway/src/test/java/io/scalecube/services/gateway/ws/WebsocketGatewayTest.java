@@ -0,0 +1,291 @@
+package io.scalecube.services.gateway.ws;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.scalecube.services.Microservices;
+import io.scalecube.services.gateway.GatewayConfig;
+import io.scalecube.services.gateway.sut.EchoServiceImpl;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.ipc.netty.NettyPipeline;
+import reactor.ipc.netty.http.client.HttpClient;
+
+public class WebsocketGatewayTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final long QUIET_MILLIS = 300;
+  private static final String GATEWAY_NAME = "ws";
+  private static final String LIMITED_GATEWAY_NAME = "ws-limited";
+  private static final int LIMIT = 2;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static Microservices provider;
+  private static Microservices gateway;
+
+  private final List<Connection> connections = new ArrayList<>();
+
+  @BeforeAll
+  public static void setUp() throws Exception {
+    provider = Microservices.builder().services(new EchoServiceImpl()).startAwait();
+    gateway =
+        Microservices.builder()
+            .seeds(provider.discovery().address())
+            .gateway(GatewayConfig.builder(GATEWAY_NAME, WebsocketGateway.class).build())
+            .gateway(
+                GatewayConfig.builder(LIMITED_GATEWAY_NAME, WebsocketGateway.class)
+                    .addOption(WebsocketGateway.CREDITS, String.valueOf(LIMIT))
+                    .addOption(WebsocketGateway.MAX_STREAMS, String.valueOf(LIMIT))
+                    .addOption(WebsocketGateway.STREAM_PREFETCH, String.valueOf(LIMIT))
+                    .build())
+            .startAwait();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (gateway.serviceRegistry().listServiceEndpoints().isEmpty()) {
+      assertTrue(System.currentTimeMillis() < deadline, "provider is not discovered");
+      Thread.sleep(100);
+    }
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    Stream.of(gateway, provider)
+        .filter(microservices -> microservices != null)
+        .forEach(
+            microservices -> {
+              try {
+                microservices.shutdown().block(TIMEOUT);
+              } catch (Exception ignore) {
+                // ignore
+              }
+            });
+  }
+
+  @AfterEach
+  public void closeConnections() {
+    connections.forEach(Connection::close);
+  }
+
+  @Test
+  public void test_streams_are_multiplexed() throws Exception {
+    Connection connection = connect(GATEWAY_NAME);
+    connection.send("{\"q\":\"/echo/range\",\"sid\":1,\"d\":3}");
+    connection.send("{\"q\":\"/echo/echo\",\"sid\":2,\"m\":\"REQUEST_RESPONSE\",\"d\":\"joe\"}");
+    connection.send("{\"q\":\"/echo/range\",\"sid\":3,\"d\":2}");
+
+    Map<Long, List<String>> streams = connection.receiveStreams(3);
+
+    assertEquals(listOf("0", "1", "2", "sig:1"), streams.get(1L));
+    assertEquals(listOf("\"joe\"", "sig:1"), streams.get(2L));
+    assertEquals(listOf("0", "1", "sig:1"), streams.get(3L));
+  }
+
+  @Test
+  public void test_channel_stream() throws Exception {
+    Connection connection = connect(GATEWAY_NAME);
+    connection.send("{\"q\":\"/echo/channel\",\"sid\":1,\"m\":\"REQUEST_CHANNEL\",\"d\":\"a\"}");
+    connection.send("{\"sid\":1,\"d\":\"b\"}");
+    connection.send("{\"sid\":1,\"sig\":1}");
+
+    assertEquals(listOf("\"a\"", "\"b\"", "sig:1"), connection.receiveStreams(1).get(1L));
+  }
+
+  @Test
+  public void test_errors_are_sent_as_error_signal() throws Exception {
+    Connection connection = connect(GATEWAY_NAME);
+    connection.send("{\"q\":\"/echo/fail\",\"sid\":1,\"m\":\"REQUEST_RESPONSE\",\"d\":400}");
+    assertError(connection.receive(), 1, 400);
+
+    connection.send("{\"sid\":2,\"d\":\"no qualifier\"}");
+    assertError(connection.receive(), 2, 400);
+
+    connection.send("{\"q\":\"/echo/unknown\",\"sid\":3}");
+    assertError(connection.receive(), 3, 503);
+
+    // connection keeps serving streams
+    connection.send("{\"q\":\"/echo/echo\",\"sid\":4,\"d\":\"joe\"}");
+    assertEquals(listOf("\"joe\"", "sig:1"), connection.receiveStreams(1).get(4L));
+  }
+
+  @Test
+  public void test_cancel_stops_stream() throws Exception {
+    Connection connection = connect(GATEWAY_NAME);
+    connection.send("{\"q\":\"/echo/ticks\",\"sid\":1}");
+    assertEquals(1, connection.receive().get("sid").asLong());
+
+    connection.send("{\"sid\":1,\"sig\":3}");
+    connection.awaitQuiet();
+
+    // stream id is free once stream is cancelled
+    connection.send("{\"q\":\"/echo/range\",\"sid\":1,\"d\":1}");
+    assertEquals(listOf("0", "sig:1"), connection.receiveStreams(1).get(1L));
+  }
+
+  @Test
+  public void test_frames_are_limited_by_credits() throws Exception {
+    Connection connection = connect(LIMITED_GATEWAY_NAME);
+    connection.send("{\"q\":\"/echo/range\",\"sid\":1,\"d\":4}");
+
+    assertEquals("0", connection.receive().get("d").toString());
+    assertEquals("1", connection.receive().get("d").toString());
+    connection.assertQuiet();
+
+    connection.send("{\"rn\":2}");
+    assertEquals("2", connection.receive().get("d").toString());
+    assertEquals("3", connection.receive().get("d").toString());
+    connection.assertQuiet();
+
+    connection.send("{\"rn\":1}");
+    assertEquals("1", connection.receive().get("sig").asText());
+  }
+
+  @Test
+  public void test_streams_beyond_max_are_rejected() throws Exception {
+    Connection connection = connect(LIMITED_GATEWAY_NAME);
+    for (int sid = 1; sid <= LIMIT; sid++) {
+      connection.send("{\"q\":\"/echo/never\",\"sid\":" + sid + "}");
+    }
+    connection.send("{\"q\":\"/echo/never\",\"sid\":" + (LIMIT + 1) + "}");
+
+    assertError(connection.receive(), LIMIT + 1, 400);
+  }
+
+  @Test
+  public void test_channel_requests_beyond_prefetch_fail_stream() throws Exception {
+    Connection connection = connect(LIMITED_GATEWAY_NAME);
+    connection.send(
+        "{\"q\":\"/echo/stalledChannel\",\"sid\":1,\"m\":\"REQUEST_CHANNEL\",\"d\":\"a\"}");
+    for (int i = 0; i < 100; i++) {
+      connection.send("{\"sid\":1,\"d\":\"" + i + "\"}");
+    }
+
+    assertError(connection.receive(), 1, 400);
+  }
+
+  private Connection connect(String gatewayName) {
+    int port = gateway.gatewayAddress(gatewayName, WebsocketGateway.class).getPort();
+    Connection connection = new Connection(port);
+    connections.add(connection);
+    return connection;
+  }
+
+  private static void assertError(JsonNode frame, long sid, int errorCode) {
+    assertEquals(sid, frame.get("sid").asLong(), "frame: " + frame);
+    assertEquals("2", frame.get("sig").asText(), "frame: " + frame);
+    assertEquals(errorCode, frame.get("d").get("errorCode").asInt(), "frame: " + frame);
+  }
+
+  private static List<String> listOf(String... values) {
+    List<String> list = new ArrayList<>();
+    for (String value : values) {
+      list.add(value);
+    }
+    return list;
+  }
+
+  /** Client connection, which queues received frames. */
+  private static final class Connection {
+
+    private final UnicastProcessor<String> outbound = UnicastProcessor.create();
+    private final BlockingQueue<JsonNode> frames = new LinkedBlockingQueue<>();
+    private final Disposable disposable;
+
+    private Connection(int port) {
+      HttpClient client =
+          HttpClient.create(
+              options -> options.connectAddress(() -> new InetSocketAddress("localhost", port)));
+      disposable =
+          client
+              .ws("/")
+              .flatMap(
+                  response ->
+                      response.receiveWebsocket(
+                          (in, out) ->
+                              Mono.when(
+                                  in.aggregateFrames()
+                                      .receive()
+                                      .asString()
+                                      .doOnNext(this::onFrame)
+                                      .then(),
+                                  out.options(NettyPipeline.SendOptions::flushOnEach)
+                                      .sendString(outbound)
+                                      .then())))
+              .subscribe();
+    }
+
+    private void onFrame(String frame) {
+      try {
+        frames.add(MAPPER.readTree(frame));
+      } catch (Exception ex) {
+        throw new IllegalStateException(ex);
+      }
+    }
+
+    private void send(String frame) {
+      outbound.onNext(frame);
+    }
+
+    private JsonNode receive() throws InterruptedException {
+      JsonNode frame = frames.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+      assertNotNull(frame, "no frame is received");
+      return frame;
+    }
+
+    /**
+     * Receives frames until given number of streams are terminated.
+     *
+     * @return data and signals of frames per stream id
+     */
+    private Map<Long, List<String>> receiveStreams(int count) throws InterruptedException {
+      Map<Long, List<String>> streams = new HashMap<>();
+      int terminated = 0;
+      while (terminated < count) {
+        JsonNode frame = receive();
+        JsonNode sig = frame.get("sig");
+        streams
+            .computeIfAbsent(frame.get("sid").asLong(), sid -> new ArrayList<>())
+            .add(sig != null ? "sig:" + sig.asText() : frame.get("d").toString());
+        if (sig != null) {
+          terminated++;
+        }
+      }
+      return streams;
+    }
+
+    private void assertQuiet() throws InterruptedException {
+      assertNull(frames.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    private void awaitQuiet() throws InterruptedException {
+      long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+      while (frames.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS) != null) {
+        assertTrue(System.currentTimeMillis() < deadline, "stream isn't cancelled");
+      }
+    }
+
+    private void close() {
+      outbound.onComplete();
+      disposable.dispose();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package io.scalecube.services.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Encoding or decoding of service message data. Begun by codec after checking {@link
+ * ServiceEvents#isCodecEnabled()}.
+ */
+@Name("io.scalecube.services.Codec")
+@Label("Service Message Codec")
+@Category({"Scalecube", "Services"})
+@Description("Encoding or decoding of service message data")
+public final class CodecEvent extends jdk.jfr.Event
+    implements ServiceEventRecorder.CodecRecording {
+
+  private static final CodecEvent PROBE = new CodecEvent(null);
+
+  @Label("Operation")
+  private final String operation;
+
+  @Label("Qualifier")
+  private String qualifier;
+
+  @Label("Data Size")
+  @DataAmount
+  private long bytes;
+
+  /**
+   * Creates event, which is started by {@link #begin()}.
+   *
+   * @param operation {@link ServiceEvents#ENCODE} or {@link ServiceEvents#DECODE}
+   */
+  CodecEvent(String operation) {
+    this.operation = operation;
+  }
+
+  static boolean isTypeEnabled() {
+    return PROBE.isEnabled();
+  }
+
+  @Override
+  public void commit(String qualifier, long bytes) {
+    this.qualifier = qualifier;
+    this.bytes = bytes;
+    commit();
+  }
+}
@@ -0,0 +1,60 @@
+package io.scalecube.services.jfr;
+
+import java.util.function.Function;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lifecycle of client connection: connecting (phase {@link #CONNECT}, spanning connect attempt)
+ * and connection lifetime (phase {@link #CLOSE}, committed when connection closes).
+ */
+@Name("io.scalecube.services.Connection")
+@Label("Service Connection")
+@Category({"Scalecube", "Services"})
+@Description("Connecting to remote services and lifetime of connection")
+public final class ConnectionEvent extends jdk.jfr.Event {
+
+  public static final String CONNECT = "connect";
+  public static final String CLOSE = "close";
+
+  private static final ConnectionEvent PROBE = new ConnectionEvent(null, null);
+
+  @Label("Address")
+  private final String address;
+
+  @Label("Phase")
+  private final String phase;
+
+  @Label("Error")
+  private String error;
+
+  private ConnectionEvent(String address, String phase) {
+    this.address = address;
+    this.phase = phase;
+  }
+
+  static boolean isTypeEnabled() {
+    return PROBE.isEnabled();
+  }
+
+  static <T> Mono<T> recorded(String address, Mono<T> connect, Function<T, Mono<Void>> onClose) {
+    return Mono.defer(
+        () -> {
+          ConnectionEvent event = new ConnectionEvent(address, CONNECT);
+          event.begin();
+          return connect.doOnSuccessOrError(
+              (connection, ex) -> {
+                event.error = ex != null ? ex.getClass().getName() : null;
+                event.commit();
+                if (connection != null) {
+                  ConnectionEvent lifetime = new ConnectionEvent(address, CLOSE);
+                  lifetime.begin();
+                  onClose.apply(connection).doOnTerminate(lifetime::commit).subscribe();
+                }
+              });
+        });
+  }
+}
@@ -0,0 +1,64 @@
+package io.scalecube.services.jfr;
+
+import io.scalecube.services.CommunicationMode;
+import io.scalecube.services.ServiceReference;
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records service events as {@code jdk.jfr} events: {@link InvocationEvent}, {@link CodecEvent},
+ * {@link RoutingEvent} and {@link ConnectionEvent}. Loaded by {@link ServiceEvents}.
+ */
+public final class FlightRecorderEvents implements ServiceEventRecorder {
+
+  @Override
+  public boolean isInvocationEnabled() {
+    return InvocationEvent.isTypeEnabled();
+  }
+
+  @Override
+  public boolean isCodecEnabled() {
+    return CodecEvent.isTypeEnabled();
+  }
+
+  @Override
+  public boolean isRoutingEnabled() {
+    return RoutingEvent.isTypeEnabled();
+  }
+
+  @Override
+  public boolean isConnectionEnabled() {
+    return ConnectionEvent.isTypeEnabled();
+  }
+
+  @Override
+  public <T> Mono<T> invocation(
+      String side, String qualifier, CommunicationMode mode, Mono<T> mono) {
+    return InvocationEvent.recorded(side, qualifier, mode, mono);
+  }
+
+  @Override
+  public <T> Flux<T> invocation(
+      String side, String qualifier, CommunicationMode mode, Flux<T> flux) {
+    return InvocationEvent.recorded(side, qualifier, mode, flux);
+  }
+
+  @Override
+  public <T> Mono<T> connection(
+      String address, Mono<T> connect, Function<T, Mono<Void>> onClose) {
+    return ConnectionEvent.recorded(address, connect, onClose);
+  }
+
+  @Override
+  public void routing(String qualifier, int candidates, ServiceReference chosen) {
+    RoutingEvent.commit(qualifier, candidates, chosen);
+  }
+
+  @Override
+  public CodecRecording beginCodec(String operation) {
+    CodecEvent event = new CodecEvent(operation);
+    event.begin();
+    return event;
+  }
+}
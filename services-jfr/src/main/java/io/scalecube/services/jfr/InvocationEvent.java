@@ -0,0 +1,95 @@
+package io.scalecube.services.jfr;
+
+import io.scalecube.services.CommunicationMode;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Invocation of service method, from subscription to termination or cancellation of its result.
+ * Recorded on both client and server.
+ */
+@Name("io.scalecube.services.Invocation")
+@Label("Service Invocation")
+@Category({"Scalecube", "Services"})
+@Description("Service method invocation, from subscription to termination of its result")
+public final class InvocationEvent extends jdk.jfr.Event {
+
+  public static final String SUCCESS = "success";
+  public static final String ERROR = "error";
+  public static final String CANCEL = "cancel";
+
+  private static final InvocationEvent PROBE = new InvocationEvent(null, null, null);
+
+  @Label("Side")
+  private final String side;
+
+  @Label("Qualifier")
+  private final String qualifier;
+
+  @Label("Communication Mode")
+  private final String mode;
+
+  @Label("Outcome")
+  private String outcome;
+
+  @Label("Error")
+  private String error;
+
+  private transient boolean done;
+
+  private InvocationEvent(String side, String qualifier, CommunicationMode mode) {
+    this.side = side;
+    this.qualifier = qualifier;
+    this.mode = mode != null ? mode.name() : null;
+  }
+
+  static boolean isTypeEnabled() {
+    return PROBE.isEnabled();
+  }
+
+  static <T> Mono<T> recorded(String side, String qualifier, CommunicationMode mode, Mono<T> mono) {
+    return Mono.defer(
+        () -> {
+          InvocationEvent event = new InvocationEvent(side, qualifier, mode);
+          event.begin();
+          return mono.doOnSuccessOrError((value, ex) -> event.complete(ex))
+              .doOnCancel(event::cancel);
+        });
+  }
+
+  static <T> Flux<T> recorded(String side, String qualifier, CommunicationMode mode, Flux<T> flux) {
+    return Flux.defer(
+        () -> {
+          InvocationEvent event = new InvocationEvent(side, qualifier, mode);
+          event.begin();
+          return flux.doOnComplete(() -> event.complete(null))
+              .doOnError(event::complete)
+              .doOnCancel(event::cancel);
+        });
+  }
+
+  private void complete(Throwable ex) {
+    if (ex != null) {
+      commit(ERROR, ex.getClass().getName());
+    } else {
+      commit(SUCCESS, null);
+    }
+  }
+
+  private void cancel() {
+    commit(CANCEL, null);
+  }
+
+  private synchronized void commit(String outcome, String error) {
+    if (!done) {
+      done = true;
+      this.outcome = outcome;
+      this.error = error;
+      commit();
+    }
+  }
+}
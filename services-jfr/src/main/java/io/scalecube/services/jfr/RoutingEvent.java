@@ -0,0 +1,44 @@
+package io.scalecube.services.jfr;
+
+import io.scalecube.services.ServiceReference;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Routing decision of service call: number of candidates and chosen endpoint. */
+@Name("io.scalecube.services.Routing")
+@Label("Service Routing")
+@Category({"Scalecube", "Services"})
+@Description("Routing decision of service call")
+public final class RoutingEvent extends jdk.jfr.Event {
+
+  private static final RoutingEvent PROBE = new RoutingEvent();
+
+  @Label("Qualifier")
+  private String qualifier;
+
+  @Label("Candidates")
+  private int candidates;
+
+  @Label("Endpoint Id")
+  private String endpointId;
+
+  @Label("Address")
+  private String address;
+
+  static boolean isTypeEnabled() {
+    return PROBE.isEnabled();
+  }
+
+  static void commit(String qualifier, int candidates, ServiceReference chosen) {
+    RoutingEvent event = new RoutingEvent();
+    event.qualifier = qualifier;
+    event.candidates = candidates;
+    if (chosen != null) {
+      event.endpointId = chosen.endpointId();
+      event.address = String.valueOf(chosen.address());
+    }
+    event.commit();
+  }
+}
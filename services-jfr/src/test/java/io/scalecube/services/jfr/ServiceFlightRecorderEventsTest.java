@@ -0,0 +1,115 @@
+package io.scalecube.services.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.Microservices;
+import io.scalecube.services.annotations.Service;
+import io.scalecube.services.annotations.ServiceMethod;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class ServiceFlightRecorderEventsTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private Microservices provider;
+  private Microservices gateway;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    provider = Microservices.builder().services(new GreetingServiceImpl()).startAwait();
+    gateway = Microservices.builder().seeds(provider.discovery().address()).startAwait();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (gateway.serviceRegistry().listServiceEndpoints().isEmpty()) {
+      assertTrue(System.currentTimeMillis() < deadline, "provider is not discovered");
+      Thread.sleep(100);
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (gateway != null) {
+      gateway.shutdown().block(TIMEOUT);
+    }
+    if (provider != null) {
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void test_service_call_events() throws Exception {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable("io.scalecube.services.Invocation");
+      recording.enable("io.scalecube.services.Codec");
+      recording.enable("io.scalecube.services.Routing");
+      recording.enable("io.scalecube.services.Connection");
+      recording.start();
+
+      service.greeting("joe").block(TIMEOUT);
+
+      recording.stop();
+      Path file = Files.createTempFile("services", ".jfr");
+      try {
+        recording.dump(file);
+        events = RecordingFile.readAllEvents(file);
+      } finally {
+        Files.delete(file);
+      }
+    }
+
+    List<RecordedEvent> invocations = events("io.scalecube.services.Invocation", events);
+    assertEquals(2, invocations.size(), "client and server invocations");
+    for (RecordedEvent invocation : invocations) {
+      assertEquals("/jfr-greetings/greeting", invocation.getString("qualifier"));
+      assertEquals("REQUEST_RESPONSE", invocation.getString("mode"));
+      assertEquals("success", invocation.getString("outcome"));
+    }
+
+    List<RecordedEvent> routings = events("io.scalecube.services.Routing", events);
+    assertEquals(1, routings.size());
+    assertEquals(1, routings.get(0).getInt("candidates"));
+
+    List<RecordedEvent> codecs = events("io.scalecube.services.Codec", events);
+    assertTrue(codecs.stream().anyMatch(event -> "encode".equals(event.getString("operation"))));
+    assertTrue(codecs.stream().anyMatch(event -> "decode".equals(event.getString("operation"))));
+
+    assertFalse(events("io.scalecube.services.Connection", events).isEmpty());
+  }
+
+  @Service("jfr-greetings")
+  public interface GreetingService {
+
+    @ServiceMethod
+    Mono<String> greeting(String name);
+  }
+
+  public static class GreetingServiceImpl implements GreetingService {
+
+    @Override
+    public Mono<String> greeting(String name) {
+      return Mono.just("hello " + name);
+    }
+  }
+
+  private static List<RecordedEvent> events(String name, List<RecordedEvent> events) {
+    return events
+        .stream()
+        .filter(event -> name.equals(event.getEventType().getName()))
+        .collect(Collectors.toList());
+  }
+}
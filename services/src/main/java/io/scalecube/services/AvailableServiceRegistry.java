@@ -0,0 +1,64 @@
+package io.scalecube.services;
+
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.registry.api.ServiceRegistry;
+import io.scalecube.services.transport.api.ClientTransport;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service registry given to router by service call. Lookup leaves out references of nodes which
+ * client transport reports unavailable (e.g. overloaded server didn't grant lease), so that
+ * routers don't pick them while other nodes are available.
+ */
+final class AvailableServiceRegistry implements ServiceRegistry {
+
+  private final ServiceRegistry serviceRegistry;
+  private final ClientTransport transport;
+
+  AvailableServiceRegistry(ServiceRegistry serviceRegistry, ClientTransport transport) {
+    this.serviceRegistry = serviceRegistry;
+    this.transport = transport;
+  }
+
+  @Override
+  public List<ServiceEndpoint> listServiceEndpoints() {
+    return serviceRegistry.listServiceEndpoints();
+  }
+
+  @Override
+  public List<ServiceReference> listServiceReferences() {
+    return serviceRegistry.listServiceReferences();
+  }
+
+  @Override
+  public List<ServiceReference> lookupService(ServiceMessage request) {
+    List<ServiceReference> references = serviceRegistry.lookupService(request);
+    if (references.size() < 2) {
+      return references;
+    }
+    List<ServiceReference> available = null;
+    for (int i = 0; i < references.size(); i++) {
+      ServiceReference reference = references.get(i);
+      if (transport.availability(reference) > 0) {
+        if (available != null) {
+          available.add(reference);
+        }
+      } else if (available == null) {
+        // copy only once some node is unavailable
+        available = new ArrayList<>(references.subList(0, i));
+      }
+    }
+    return available == null || available.isEmpty() ? references : available;
+  }
+
+  @Override
+  public boolean registerService(ServiceEndpoint serviceEndpoint) {
+    return serviceRegistry.registerService(serviceEndpoint);
+  }
+
+  @Override
+  public ServiceEndpoint unregisterService(String endpointId) {
+    return serviceRegistry.unregisterService(endpointId);
+  }
+}
@@ -3,22 +3,28 @@ package io.scalecube.services;
 import com.codahale.metrics.MetricRegistry;
 import io.scalecube.cluster.membership.IdGenerator;
 import io.scalecube.services.ServiceCall.Call;
+import io.scalecube.services.codec.ServiceMessageCodec;
 import io.scalecube.services.discovery.ServiceScanner;
 import io.scalecube.services.discovery.api.DiscoveryConfig;
 import io.scalecube.services.discovery.api.ServiceDiscovery;
 import io.scalecube.services.gateway.Gateway;
 import io.scalecube.services.gateway.GatewayConfig;
+import io.scalecube.services.methods.ServiceMethodInvoker;
 import io.scalecube.services.methods.ServiceMethodRegistry;
 import io.scalecube.services.methods.ServiceMethodRegistryImpl;
+import io.scalecube.services.metrics.GaugeMetrics;
+import io.scalecube.services.metrics.LatencyMetrics;
 import io.scalecube.services.metrics.Metrics;
 import io.scalecube.services.registry.ServiceRegistryImpl;
 import io.scalecube.services.registry.api.ServiceRegistry;
+import io.scalecube.services.tracing.Tracing;
 import io.scalecube.services.transport.api.ClientTransport;
 import io.scalecube.services.transport.api.ServerTransport;
 import io.scalecube.services.transport.api.ServiceTransport;
 import io.scalecube.transport.Address;
 import io.scalecube.transport.Addressing;
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,6 +38,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -102,6 +109,7 @@ public class Microservices {
 
   private final String id;
   private final Metrics metrics;
+  private final Tracing tracing;
   private final Map<String, String> tags;
   private final List<ServiceInfo> serviceInfos = new ArrayList<>();
   private final List<Function<Call, Collection<Object>>> serviceProviders;
@@ -111,15 +119,21 @@ public class Microservices {
   private final GatewayBootstrap gatewayBootstrap;
   private final DiscoveryConfig.Builder discoveryConfig;
   private final ServiceDiscovery discovery;
+  private Disposable discoveryListener;
 
   private Microservices(Builder builder) {
     this.id = IdGenerator.generateId();
     this.metrics = builder.metrics;
+    this.tracing = builder.tracing;
     this.tags = new HashMap<>(builder.tags);
 
     this.serviceProviders = new ArrayList<>(builder.serviceProviders);
     this.serviceRegistry = builder.serviceRegistry;
-    this.methodRegistry = builder.methodRegistry;
+    this.methodRegistry =
+        builder.methodRegistry != null
+            ? builder.methodRegistry
+            : new ServiceMethodRegistryImpl(
+                metrics != null ? metrics : LatencyMetrics.NOOP, tracing);
 
     this.transportBootstrap = builder.transportBootstrap;
     this.gatewayBootstrap = builder.gatewayBootstrap;
@@ -133,14 +147,16 @@ public class Microservices {
 
   private Mono<Microservices> start() {
     return transportBootstrap
-        .start(methodRegistry)
+        .start(methodRegistry, metrics != null ? metrics : GaugeMetrics.NOOP)
         .flatMap(
             input -> {
               ClientTransport clientTransport = transportBootstrap.clientTransport();
               InetSocketAddress serviceAddress = transportBootstrap.listenAddress();
 
               Call call =
-                  new Call(clientTransport, methodRegistry, serviceRegistry).metrics(metrics);
+                  new Call(clientTransport, methodRegistry, serviceRegistry)
+                      .metrics(metrics)
+                      .tracing(tracing);
 
               // invoke service providers and register services
               serviceProviders
@@ -148,13 +164,26 @@ public class Microservices {
                   .flatMap(serviceProvider -> serviceProvider.apply(call).stream())
                   .forEach(this::collectAndRegister);
 
+              // build codec schemas for service methods ahead of the first call
+              methodRegistry
+                  .listInvokers()
+                  .stream()
+                  .map(ServiceMethodInvoker::methodInfo)
+                  .forEach(ServiceMessageCodec::warmUp);
+
               // register services in service registry
               if (!serviceInfos.isEmpty()) {
                 String serviceHost = serviceAddress.getHostString();
                 int servicePort = serviceAddress.getPort();
 
                 ServiceEndpoint endpoint =
-                    ServiceScanner.scan(serviceInfos, id, serviceHost, servicePort, tags);
+                    ServiceScanner.scan(
+                        serviceInfos,
+                        id,
+                        serviceHost,
+                        servicePort,
+                        tags,
+                        transportBootstrap.endpointMetadata());
 
                 serviceRegistry.registerService(endpoint);
                 discoveryConfig.endpoint(endpoint);
@@ -168,6 +197,7 @@ public class Microservices {
               return discovery
                   .start(discoveryConfig.serviceRegistry(serviceRegistry).build())
                   .then(Mono.defer(this::doInjection))
+                  .then(Mono.fromRunnable(this::listenDiscovery))
                   .then(Mono.defer(() -> startGateway(call)))
                   .then(Mono.just(this));
             });
@@ -178,6 +208,22 @@ public class Microservices {
     return gatewayBootstrap.start(executorService, call, metrics);
   }
 
+  private void listenDiscovery() {
+    // let transport prepare connections to other nodes ahead of requests
+    ClientTransport clientTransport = transportBootstrap.clientTransport();
+    discoveryListener =
+        discovery
+            .listen()
+            .filter(event -> !id.equals(event.serviceEndpoint().id()))
+            .flatMap(
+                event ->
+                    (event.isRegistered()
+                            ? clientTransport.warmUp(event.serviceEndpoint())
+                            : clientTransport.tearDown(event.serviceEndpoint()))
+                        .onErrorResume(ex -> Mono.empty())) // logged by transport
+            .subscribe();
+  }
+
   private Mono<Microservices> doInjection() {
     List<Object> serviceInstances =
         serviceInfos.stream().map(ServiceInfo::serviceInstance).collect(Collectors.toList());
@@ -202,10 +248,11 @@ public class Microservices {
   public static final class Builder {
 
     private Metrics metrics;
+    private Tracing tracing = Tracing.NOOP;
     private Map<String, String> tags = new HashMap<>();
     private List<Function<Call, Collection<Object>>> serviceProviders = new ArrayList<>();
     private ServiceRegistry serviceRegistry = new ServiceRegistryImpl();
-    private ServiceMethodRegistry methodRegistry = new ServiceMethodRegistryImpl();
+    private ServiceMethodRegistry methodRegistry;
     private ServiceDiscovery discovery = ServiceDiscovery.getDiscovery();
     private DiscoveryConfig.Builder discoveryConfig = DiscoveryConfig.builder();
     private ServiceTransportBootstrap transportBootstrap = new ServiceTransportBootstrap();
@@ -244,6 +291,13 @@ public class Microservices {
       return this;
     }
 
+    /**
+     * Sets service transport instead of one found by service loader. This is the way to pass
+     * transport specific configuration (threads, socket options, etc.) to the transport.
+     *
+     * @param transport service transport
+     * @return this builder
+     */
     public Builder transport(ServiceTransport transport) {
       this.transportBootstrap.transport(transport);
       return this;
@@ -274,6 +328,31 @@ public class Microservices {
       return this;
     }
 
+    /**
+     * Turns on metrics with given interval of latency snapshots, see {@link
+     * Metrics#getLatencyTimer(String, String)}.
+     *
+     * @param metrics metric registry
+     * @param latencyInterval interval of latency snapshots
+     * @return this builder
+     */
+    public Builder metrics(MetricRegistry metrics, Duration latencyInterval) {
+      this.metrics = new Metrics(metrics, latencyInterval);
+      return this;
+    }
+
+    /**
+     * Turns on tracing of service calls: spans of calls made and served by this node are exported
+     * to exporter of the tracing, and traces are propagated to the called services.
+     *
+     * @param tracing tracing
+     * @return this builder
+     */
+    public Builder tracing(Tracing tracing) {
+      this.tracing = tracing;
+      return this;
+    }
+
     public Builder tags(Map<String, String> tags) {
       this.tags = tags;
       return this;
@@ -363,9 +442,16 @@ public class Microservices {
     return transportBootstrap.listenAddress();
   }
 
+  /**
+   * Creates definition of service call made by this node, with its metrics and tracing.
+   *
+   * @return service call definition
+   */
   public Call call() {
     ClientTransport clientTransport = transportBootstrap.clientTransport();
-    return new Call(clientTransport, methodRegistry, serviceRegistry).metrics(metrics);
+    return new Call(clientTransport, methodRegistry, serviceRegistry)
+        .metrics(metrics)
+        .tracing(tracing);
   }
 
   public InetSocketAddress gatewayAddress(String name, Class<? extends Gateway> gatewayClass) {
@@ -380,7 +466,15 @@ public class Microservices {
     return this.discovery;
   }
 
+  /**
+   * Shuts down discovery, gateways and transport of this node.
+   *
+   * @return mono which completes once node is shut down
+   */
   public Mono<Void> shutdown() {
+    if (discoveryListener != null) {
+      discoveryListener.dispose();
+    }
     return Mono.when(
         discovery.shutdown(), gatewayBootstrap.shutdown(), transportBootstrap.shutdown());
   }
@@ -404,15 +498,16 @@ public class Microservices {
       return this;
     }
 
-    private Mono<ServiceTransportBootstrap> start(ServiceMethodRegistry methodRegistry) {
+    private Mono<ServiceTransportBootstrap> start(
+        ServiceMethodRegistry methodRegistry, GaugeMetrics gauges) {
       return Mono.defer(
           () -> {
             this.transport =
                 Optional.ofNullable(this.transport).orElseGet(ServiceTransport::getTransport);
 
             this.executorService = transport.getExecutorService();
-            this.clientTransport = transport.getClientTransport(executorService);
-            this.serverTransport = transport.getServerTransport(executorService);
+            this.clientTransport = transport.getClientTransport(executorService, gauges);
+            this.serverTransport = transport.getServerTransport(executorService, gauges);
 
             // bind service serverTransport transport
             String hostAddress = Addressing.getLocalIpAddress().getHostAddress();
@@ -432,6 +527,10 @@ public class Microservices {
       return clientTransport;
     }
 
+    private Map<String, String> endpointMetadata() {
+      return serverTransport.endpointMetadata();
+    }
+
     private ExecutorService executorService() {
       return executorService;
     }
@@ -6,6 +6,7 @@ import static io.scalecube.services.CommunicationMode.REQUEST_RESPONSE;
 import static io.scalecube.services.CommunicationMode.REQUEST_STREAM;
 
 import io.scalecube.services.annotations.AfterConstruct;
+import io.scalecube.services.annotations.Idempotent;
 import io.scalecube.services.annotations.Inject;
 import io.scalecube.services.annotations.RequestType;
 import io.scalecube.services.annotations.Service;
@@ -217,6 +218,18 @@ public final class Reflect {
     return methodAnnotation.value().length() > 0 ? methodAnnotation.value() : method.getName();
   }
 
+  /**
+   * Returns tags of service method, which are published along with its definition.
+   *
+   * @param method service method
+   * @return tags of method, {@link Idempotent#TAG} if method is annotated as idempotent
+   */
+  public static Map<String, String> methodTags(Method method) {
+    return method.isAnnotationPresent(Idempotent.class)
+        ? Collections.singletonMap(Idempotent.TAG, Boolean.TRUE.toString())
+        : Collections.emptyMap();
+  }
+
   public static String qualifier(Class<?> serviceInterface, Method method) {
     return Qualifier.asString(serviceName(serviceInterface), methodName(method));
   }
@@ -3,22 +3,33 @@ package io.scalecube.services;
 import static java.util.Objects.requireNonNull;
 
 import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.CompressionCodec;
 import io.scalecube.services.codec.ServiceMessageCodec;
 import io.scalecube.services.exceptions.ExceptionProcessor;
 import io.scalecube.services.exceptions.ServiceUnavailableException;
+import io.scalecube.services.jfr.ServiceEvents;
 import io.scalecube.services.methods.MethodInfo;
 import io.scalecube.services.methods.ServiceMethodRegistry;
+import io.scalecube.services.metrics.LatencyRecorder;
+import io.scalecube.services.metrics.MethodMetrics;
 import io.scalecube.services.metrics.Metrics;
 import io.scalecube.services.registry.api.ServiceRegistry;
 import io.scalecube.services.routing.RoundRobinServiceRouter;
 import io.scalecube.services.routing.Router;
 import io.scalecube.services.routing.Routers;
+import io.scalecube.services.tracing.Tracing;
+import io.scalecube.services.transport.api.ClientChannel;
 import io.scalecube.services.transport.api.ClientTransport;
 import io.scalecube.transport.Address;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
@@ -35,13 +46,24 @@ public class ServiceCall {
   private final ServiceRegistry serviceRegistry;
   private final Router router;
   private final Metrics metrics;
+  private final Tracing tracing;
+  private final int streamBatchSize;
+  private final String contentEncoding;
+  private final Map<CommunicationMode, ConcurrentMap<String, MethodMetrics>> methodMetricsByMode =
+      new EnumMap<>(CommunicationMode.class);
 
   private ServiceCall(Call call) {
     this.transport = call.transport;
     this.methodRegistry = call.methodRegistry;
-    this.serviceRegistry = call.serviceRegistry;
+    this.serviceRegistry = new AvailableServiceRegistry(call.serviceRegistry, call.transport);
     this.router = call.router;
     this.metrics = call.metrics;
+    this.tracing = call.tracing;
+    this.streamBatchSize = call.streamBatchSize;
+    this.contentEncoding = call.contentEncoding;
+    for (CommunicationMode mode : CommunicationMode.values()) {
+      methodMetricsByMode.put(mode, new ConcurrentHashMap<>());
+    }
   }
 
   /**
@@ -52,6 +74,9 @@ public class ServiceCall {
 
     private Router router = Routers.getRouter(RoundRobinServiceRouter.class);
     private Metrics metrics;
+    private Tracing tracing = Tracing.NOOP;
+    private int streamBatchSize = 1;
+    private String contentEncoding;
 
     private final ClientTransport transport;
     private final ServiceMethodRegistry methodRegistry;
@@ -91,6 +116,57 @@ public class ServiceCall {
       return this;
     }
 
+    /**
+     * Sets tracing of calls, see {@link Tracing}. Trace found in Reactor context of the call is
+     * continued, so calls made by service method invoked with a trace belong to it.
+     *
+     * @param tracing tracing
+     * @return this call
+     */
+    public Call tracing(Tracing tracing) {
+      this.tracing = tracing;
+      return this;
+    }
+
+    /**
+     * Sets max number of elements which remote service may pack into one frame of request-stream
+     * response. Batching cuts framing and headers overhead of large finite streams, though
+     * elements are held by the service until batch is full or stream completes, so it doesn't fit
+     * infrequent or infinite streams. Applied only when response type is known. By default each
+     * element is sent in its own frame.
+     *
+     * @param streamBatchSize max number of elements per frame
+     * @return this call
+     */
+    public Call streamBatchSize(int streamBatchSize) {
+      if (streamBatchSize < 1) {
+        throw new IllegalArgumentException("streamBatchSize must be positive: " + streamBatchSize);
+      }
+      this.streamBatchSize = streamBatchSize;
+      return this;
+    }
+
+    /**
+     * Turns on compression of data with given content encoding (see {@link
+     * CompressionCodec#contentEncoding()}). Compression is applied only to calls to endpoints which
+     * advertise support of the encoding and only to data reaching compression threshold of the
+     * transport, both requests and responses. If codec isn't available on this jvm, calls are sent
+     * uncompressed.
+     *
+     * @param contentEncoding content encoding, null turns compression off
+     * @return this call
+     */
+    public Call compression(String contentEncoding) {
+      if (contentEncoding != null && !CompressionCodec.INSTANCES.containsKey(contentEncoding)) {
+        LOGGER.warn(
+            "Compression codec '{}' isn't available, calls are sent uncompressed",
+            contentEncoding);
+        contentEncoding = null;
+      }
+      this.contentEncoding = contentEncoding;
+      return this;
+    }
+
     public ServiceCall create() {
       return new ServiceCall(this);
     }
@@ -135,15 +211,15 @@ public class ServiceCall {
    * @return mono publisher completing with single response message or with error.
    */
   public Mono<ServiceMessage> requestOne(ServiceMessage request, Class<?> responseType) {
-    String qualifier = request.qualifier();
-    if (methodRegistry.containsInvoker(qualifier)) { // local service.
-      return methodRegistry
-          .getInvoker(request.qualifier())
-          .invokeOne(request, ServiceMessageCodec::decodeData)
-          .onErrorMap(ExceptionProcessor::mapException);
-    } else { // remote service.
-      return addressLookup(request).flatMap(address -> requestOne(request, responseType, address));
-    }
+    return requestOne(
+        request,
+        responseType,
+        methodMetrics(request.qualifier(), CommunicationMode.REQUEST_RESPONSE));
+  }
+
+  private Mono<ServiceMessage> requestOne(
+      ServiceMessage request, Class<?> responseType, MethodMetrics methodMetrics) {
+    return tracing.traceOne(request, message -> routeOne(message, responseType, methodMetrics));
   }
 
   /**
@@ -157,10 +233,52 @@ public class ServiceCall {
   public Mono<ServiceMessage> requestOne(
       ServiceMessage request, Class<?> responseType, Address address) {
     requireNonNull(address, "requestOne address paramter is required and must not be null");
-    return transport
-        .create(address)
+    String qualifier = request.qualifier();
+    CommunicationMode mode = CommunicationMode.REQUEST_RESPONSE;
+    MethodMetrics methodMetrics = methodMetrics(qualifier, mode);
+    ClientChannel channel = transport.create(address);
+    return tracing.traceOne(
+        request,
+        message ->
+            recorded(
+                qualifier,
+                mode,
+                methodMetrics,
+                requestOne(message, responseType, channel, methodMetrics.decodeLatency())));
+  }
+
+  private Mono<ServiceMessage> requestOne(
+      ServiceMessage request,
+      Class<?> responseType,
+      ClientChannel channel,
+      LatencyRecorder decodeLatency) {
+    return channel
         .requestResponse(request)
-        .map(message -> ServiceMessageCodec.decodeData(message, responseType));
+        .map(message -> decodeData(message, responseType, decodeLatency));
+  }
+
+  private Mono<ServiceMessage> routeOne(
+      ServiceMessage request, Class<?> responseType, MethodMetrics methodMetrics) {
+    String qualifier = request.qualifier();
+    Mono<ServiceMessage> response;
+    if (methodRegistry.containsInvoker(qualifier)) { // local service.
+      response =
+          methodRegistry
+              .getInvoker(request.qualifier())
+              .invokeOne(request, ServiceMessageCodec::decodeData)
+              .onErrorMap(ExceptionProcessor::mapException);
+    } else { // remote service.
+      response =
+          serviceLookup(request)
+              .flatMap(
+                  reference ->
+                      requestOne(
+                          withAcceptEncoding(request, reference),
+                          responseType,
+                          transport.create(reference),
+                          methodMetrics.decodeLatency()));
+    }
+    return recorded(qualifier, CommunicationMode.REQUEST_RESPONSE, methodMetrics, response);
   }
 
   /**
@@ -181,16 +299,15 @@ public class ServiceCall {
    * @return flux publisher of service responses.
    */
   public Flux<ServiceMessage> requestMany(ServiceMessage request, Class<?> responseType) {
-    String qualifier = request.qualifier();
-    if (methodRegistry.containsInvoker(qualifier)) { // local service.
-      return methodRegistry
-          .getInvoker(request.qualifier())
-          .invokeMany(request, ServiceMessageCodec::decodeData)
-          .onErrorMap(ExceptionProcessor::mapException);
-    } else { // remote service.
-      return addressLookup(request)
-          .flatMapMany(address -> requestMany(request, responseType, address));
-    }
+    return requestMany(
+        request,
+        responseType,
+        methodMetrics(request.qualifier(), CommunicationMode.REQUEST_STREAM));
+  }
+
+  private Flux<ServiceMessage> requestMany(
+      ServiceMessage request, Class<?> responseType, MethodMetrics methodMetrics) {
+    return tracing.traceMany(request, message -> routeMany(message, responseType, methodMetrics));
   }
 
   /**
@@ -205,10 +322,61 @@ public class ServiceCall {
   public Flux<ServiceMessage> requestMany(
       ServiceMessage request, Class<?> responseType, Address address) {
     requireNonNull(address, "requestMany address paramter is required and must not be null");
-    return transport
-        .create(address)
+    String qualifier = request.qualifier();
+    CommunicationMode mode = CommunicationMode.REQUEST_STREAM;
+    MethodMetrics methodMetrics = methodMetrics(qualifier, mode);
+    ClientChannel channel = transport.create(address);
+    return tracing.traceMany(
+        request,
+        message ->
+            recorded(
+                qualifier,
+                mode,
+                methodMetrics,
+                requestMany(message, responseType, channel, methodMetrics.decodeLatency())));
+  }
+
+  private Flux<ServiceMessage> requestMany(
+      ServiceMessage request,
+      Class<?> responseType,
+      ClientChannel channel,
+      LatencyRecorder decodeLatency) {
+    if (streamBatchSize > 1 && responseType != null) {
+      ServiceMessage batchRequest =
+          ServiceMessage.from(request)
+              .header(ServiceMessageCodec.HEADER_STREAM_BATCH_SIZE, String.valueOf(streamBatchSize))
+              .build();
+      return channel
+          .requestStream(batchRequest)
+          .concatMapIterable(message -> decodeBatch(message, responseType, decodeLatency));
+    }
+    return channel
         .requestStream(request)
-        .map(message -> ServiceMessageCodec.decodeData(message, responseType));
+        .map(message -> decodeData(message, responseType, decodeLatency));
+  }
+
+  private Flux<ServiceMessage> routeMany(
+      ServiceMessage request, Class<?> responseType, MethodMetrics methodMetrics) {
+    String qualifier = request.qualifier();
+    Flux<ServiceMessage> responses;
+    if (methodRegistry.containsInvoker(qualifier)) { // local service.
+      responses =
+          methodRegistry
+              .getInvoker(request.qualifier())
+              .invokeMany(request, ServiceMessageCodec::decodeData)
+              .onErrorMap(ExceptionProcessor::mapException);
+    } else { // remote service.
+      responses =
+          serviceLookup(request)
+              .flatMapMany(
+                  reference ->
+                      requestMany(
+                          withAcceptEncoding(request, reference),
+                          responseType,
+                          transport.create(reference),
+                          methodMetrics.decodeLatency()));
+    }
+    return recorded(qualifier, CommunicationMode.REQUEST_STREAM, methodMetrics, responses);
   }
 
   /**
@@ -230,22 +398,24 @@ public class ServiceCall {
    */
   public Flux<ServiceMessage> requestBidirectional(
       Publisher<ServiceMessage> publisher, Class<?> responseType) {
+    return requestBidirectional(
+        publisher,
+        responseType,
+        qualifier -> methodMetrics(qualifier, CommunicationMode.REQUEST_CHANNEL));
+  }
+
+  private Flux<ServiceMessage> requestBidirectional(
+      Publisher<ServiceMessage> publisher,
+      Class<?> responseType,
+      Function<String, MethodMetrics> methodMetricsFunction) {
     return Flux.from(HeadAndTail.createFrom(publisher))
         .flatMap(
             pair -> {
-              ServiceMessage request = pair.head();
-              String qualifier = request.qualifier();
-              Flux<ServiceMessage> messages = Flux.from(pair.tail()).startWith(request);
-
-              if (methodRegistry.containsInvoker(qualifier)) { // local service.
-                return methodRegistry
-                    .getInvoker(qualifier)
-                    .invokeBidirectional(messages, ServiceMessageCodec::decodeData)
-                    .onErrorMap(ExceptionProcessor::mapException);
-              } else { // remote service.
-                return addressLookup(request)
-                    .flatMapMany(address -> requestBidirectional(messages, responseType, address));
-              }
+              MethodMetrics methodMetrics = methodMetricsFunction.apply(pair.head().qualifier());
+              return tracing.traceMany(
+                  pair.head(),
+                  request ->
+                      routeBidirectional(request, pair.tail(), responseType, methodMetrics));
             });
   }
 
@@ -262,14 +432,63 @@ public class ServiceCall {
       Publisher<ServiceMessage> publisher, Class<?> responseType, Address address) {
     requireNonNull(
         address, "requestBidirectional address paramter is required and must not be null");
-    return transport
-        .create(address)
+    return requestBidirectional(
+        publisher, responseType, transport.create(address), LatencyRecorder.NOOP);
+  }
+
+  private Flux<ServiceMessage> requestBidirectional(
+      Publisher<ServiceMessage> publisher,
+      Class<?> responseType,
+      ClientChannel channel,
+      LatencyRecorder decodeLatency) {
+    return channel
         .requestChannel(publisher)
-        .map(message -> ServiceMessageCodec.decodeData(message, responseType));
+        .map(message -> decodeData(message, responseType, decodeLatency));
+  }
+
+  private Flux<ServiceMessage> routeBidirectional(
+      ServiceMessage request,
+      Publisher<ServiceMessage> tail,
+      Class<?> responseType,
+      MethodMetrics methodMetrics) {
+    String qualifier = request.qualifier();
+    Flux<ServiceMessage> messages = Flux.from(tail).startWith(request);
+    Flux<ServiceMessage> responses;
+    if (methodRegistry.containsInvoker(qualifier)) { // local service.
+      responses =
+          methodRegistry
+              .getInvoker(qualifier)
+              .invokeBidirectional(messages, ServiceMessageCodec::decodeData)
+              .onErrorMap(ExceptionProcessor::mapException);
+    } else { // remote service.
+      responses =
+          serviceLookup(request)
+              .flatMapMany(
+                  reference ->
+                      requestBidirectional(
+                          messages.map(message -> withAcceptEncoding(message, reference)),
+                          responseType,
+                          transport.create(reference),
+                          methodMetrics.decodeLatency()));
+    }
+    return recorded(qualifier, CommunicationMode.REQUEST_CHANNEL, methodMetrics, responses);
+  }
+
+  /**
+   * Returns references of service methods which given request may be routed to, so that caller can
+   * look at their tags (e.g. {@link io.scalecube.services.annotations.Idempotent#TAG}) before
+   * issuing request.
+   *
+   * @param request request message.
+   * @return service references, empty if no service method is reachable.
+   */
+  public List<ServiceReference> serviceReferences(ServiceMessage request) {
+    return serviceRegistry.lookupService(request);
   }
 
   /**
-   * Create proxy creates a java generic proxy instance by a given service interface.
+   * Create proxy creates a java generic proxy instance by a given service interface. Metric
+   * handles of service methods are resolved here, once per method.
    *
    * @param serviceInterface Service Interface type.
    * @return newly created service proxy object.
@@ -279,6 +498,16 @@ public class ServiceCall {
 
     final ServiceCall serviceCall = this;
     final Map<Method, MethodInfo> genericReturnTypes = Reflect.methodsInfo(serviceInterface);
+    genericReturnTypes.values().forEach(ServiceMessageCodec::warmUp);
+    final Map<Method, MethodMetrics> methodMetrics = new HashMap<>();
+    final Map<Method, Function<String, MethodMetrics>> methodMetricsFunctions = new HashMap<>();
+    genericReturnTypes.forEach(
+        (method, methodInfo) -> {
+          MethodMetrics handles =
+              MethodMetrics.create(metrics, serviceInterface, method, methodInfo);
+          methodMetrics.put(method, handles);
+          methodMetricsFunctions.put(method, qualifier -> handles);
+        });
 
     // noinspection unchecked
     return (T)
@@ -296,20 +525,23 @@ public class ServiceCall {
                 return check.get(); // toString, hashCode was invoked.
               }
 
-              Metrics.mark(serviceInterface, metrics, method, "request");
+              final MethodMetrics handles = methodMetrics.get(method);
+              handles.markRequest();
 
               switch (methodInfo.communicationMode()) {
                 case FIRE_AND_FORGET:
-                  return serviceCall.oneWay(toServiceMessage(methodInfo, params));
+                  return serviceCall
+                      .requestOne(toServiceMessage(methodInfo, params), Void.class, handles)
+                      .then();
 
                 case REQUEST_RESPONSE:
                   return serviceCall
-                      .requestOne(toServiceMessage(methodInfo, params), returnType)
+                      .requestOne(toServiceMessage(methodInfo, params), returnType, handles)
                       .transform(asMono(isServiceMessage));
 
                 case REQUEST_STREAM:
                   return serviceCall
-                      .requestMany(toServiceMessage(methodInfo, params), returnType)
+                      .requestMany(toServiceMessage(methodInfo, params), returnType, handles)
                       .transform(asFlux(isServiceMessage));
 
                 case REQUEST_CHANNEL:
@@ -319,7 +551,8 @@ public class ServiceCall {
                       .requestBidirectional(
                           Flux.from((Publisher) params[0])
                               .map(data -> toServiceMessage(methodInfo, data)),
-                          returnType)
+                          returnType,
+                          methodMetricsFunctions.get(method))
                       .transform(asFlux(isServiceMessage));
 
                 default:
@@ -329,13 +562,80 @@ public class ServiceCall {
             });
   }
 
-  private Mono<Address> addressLookup(ServiceMessage request) {
-    return router
-        .route(serviceRegistry, request)
-        .map(serviceReference -> Mono.just(serviceReference.address()))
+  private MethodMetrics methodMetrics(String qualifier, CommunicationMode mode) {
+    if (metrics == null) {
+      return MethodMetrics.NOOP;
+    }
+    // resolved once per qualifier, as handles of proxy methods are
+    ConcurrentMap<String, MethodMetrics> byQualifier = methodMetricsByMode.get(mode);
+    MethodMetrics handles = byQualifier.get(qualifier);
+    return handles != null
+        ? handles
+        : byQualifier.computeIfAbsent(qualifier, key -> MethodMetrics.create(metrics, key, mode));
+  }
+
+  private static Mono<ServiceMessage> recorded(
+      String qualifier,
+      CommunicationMode mode,
+      MethodMetrics methodMetrics,
+      Mono<ServiceMessage> response) {
+    return ServiceEvents.invocation(
+        ServiceEvents.CLIENT, qualifier, mode, methodMetrics.clientLatency().timed(response));
+  }
+
+  private static Flux<ServiceMessage> recorded(
+      String qualifier,
+      CommunicationMode mode,
+      MethodMetrics methodMetrics,
+      Flux<ServiceMessage> responses) {
+    return ServiceEvents.invocation(
+        ServiceEvents.CLIENT, qualifier, mode, methodMetrics.clientLatency().timed(responses));
+  }
+
+  private static ServiceMessage decodeData(
+      ServiceMessage message, Class<?> responseType, LatencyRecorder latency) {
+    if (latency == LatencyRecorder.NOOP) {
+      return ServiceMessageCodec.decodeData(message, responseType);
+    }
+    long start = System.nanoTime();
+    ServiceMessage result = ServiceMessageCodec.decodeData(message, responseType);
+    latency.record(System.nanoTime() - start);
+    return result;
+  }
+
+  private static List<ServiceMessage> decodeBatch(
+      ServiceMessage message, Class<?> responseType, LatencyRecorder latency) {
+    if (latency == LatencyRecorder.NOOP) {
+      return ServiceMessageCodec.decodeBatch(message, responseType);
+    }
+    long start = System.nanoTime();
+    List<ServiceMessage> result = ServiceMessageCodec.decodeBatch(message, responseType);
+    latency.record(System.nanoTime() - start);
+    return result;
+  }
+
+  private Mono<ServiceReference> serviceLookup(ServiceMessage request) {
+    Optional<ServiceReference> reference = router.route(serviceRegistry, request);
+    if (ServiceEvents.isRoutingEnabled()) {
+      ServiceEvents.routing(
+          request.qualifier(),
+          serviceRegistry.lookupService(request).size(),
+          reference.orElse(null));
+    }
+    return reference
+        .map(Mono::just)
         .orElseGet(() -> Mono.error(noReachableMemberException(request)));
   }
 
+  private ServiceMessage withAcceptEncoding(ServiceMessage request, ServiceReference reference) {
+    if (contentEncoding == null || !reference.contentEncodings().contains(contentEncoding)) {
+      return request;
+    }
+    return ServiceMessage.from(request)
+        .header(ServiceMessageCodec.HEADER_ACCEPT_ENCODING, contentEncoding)
+        .build();
+  }
+
   private static ServiceMessage toServiceMessage(MethodInfo methodInfo, Object... params) {
     return ServiceMessage.builder()
         .qualifier(methodInfo.serviceName(), methodInfo.methodName())
@@ -8,8 +8,10 @@ import io.scalecube.services.ServiceMethodDefinition;
 import io.scalecube.services.ServiceRegistration;
 import io.scalecube.services.annotations.Service;
 import io.scalecube.services.annotations.ServiceMethod;
+import io.scalecube.services.codec.CompressionCodec;
 import io.scalecube.services.codec.DataCodec;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +43,28 @@ public class ServiceScanner {
       String host,
       int port,
       Map<String, String> endpointTags) {
+    return scan(serviceInstances, endpointId, host, port, endpointTags, Collections.emptyMap());
+  }
+
+  /**
+   * Scans all passed services instances along with service address information and builds a {@link
+   * ServiceEndpoint} object.
+   *
+   * @param serviceInstances services instances collection
+   * @param endpointId endpoint string identifier
+   * @param host endpoint service host
+   * @param port endpoint service port
+   * @param endpointTags map of tags defined at endpoint level
+   * @param endpointMetadata transport metadata of endpoint
+   * @return newly created instance of {@link ServiceEndpoint} object
+   */
+  public static ServiceEndpoint scan(
+      List<ServiceInfo> serviceInstances,
+      String endpointId,
+      String host,
+      int port,
+      Map<String, String> endpointTags,
+      Map<String, String> endpointMetadata) {
 
     Set<String> contentTypes =
         DataCodec.getAllInstances()
@@ -48,6 +72,12 @@ public class ServiceScanner {
             .map(DataCodec::contentType)
             .collect(Collectors.toSet());
 
+    Set<String> contentEncodings =
+        CompressionCodec.getAllInstances()
+            .stream()
+            .map(CompressionCodec::contentEncoding)
+            .collect(Collectors.toSet());
+
     List<ServiceRegistration> serviceRegistrations =
         serviceInstances
             .stream()
@@ -72,7 +102,8 @@ public class ServiceScanner {
                                 String action = Reflect.methodName(method);
                                 CommunicationMode communicationMode =
                                     Reflect.communicationMode(method);
-                                return new ServiceMethodDefinition(action, communicationMode);
+                                return new ServiceMethodDefinition(
+                                    action, Reflect.methodTags(method), communicationMode);
                               })
                           .collect(Collectors.toList());
                   return new ServiceRegistration(namespace, serviceTags, actions);
@@ -80,7 +111,14 @@ public class ServiceScanner {
             .collect(Collectors.toList());
 
     return new ServiceEndpoint(
-        endpointId, host, port, contentTypes, endpointTags, serviceRegistrations);
+        endpointId,
+        host,
+        port,
+        contentTypes,
+        contentEncodings,
+        endpointTags,
+        endpointMetadata,
+        serviceRegistrations);
   }
 
   /** Tuple class. Contains service interface along with tags map. */
@@ -1,6 +1,10 @@
 package io.scalecube.services.methods;
 
 import io.scalecube.services.Reflect;
+import io.scalecube.services.metrics.LatencyMetrics;
+import io.scalecube.services.tracing.Tracing;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -8,6 +12,32 @@ public final class ServiceMethodRegistryImpl implements ServiceMethodRegistry {
 
   private final ConcurrentMap<String, ServiceMethodInvoker> methodInvokers =
       new ConcurrentHashMap<>();
+  private final LatencyMetrics latencyMetrics;
+  private final Tracing tracing;
+
+  public ServiceMethodRegistryImpl() {
+    this(LatencyMetrics.NOOP);
+  }
+
+  /**
+   * Creates registry whose invokers record latencies of invocations.
+   *
+   * @param latencyMetrics latency metrics
+   */
+  public ServiceMethodRegistryImpl(LatencyMetrics latencyMetrics) {
+    this(latencyMetrics, Tracing.NOOP);
+  }
+
+  /**
+   * Creates registry whose invokers record latencies of invocations and continue traces.
+   *
+   * @param latencyMetrics latency metrics
+   * @param tracing tracing
+   */
+  public ServiceMethodRegistryImpl(LatencyMetrics latencyMetrics, Tracing tracing) {
+    this.latencyMetrics = latencyMetrics;
+    this.tracing = tracing;
+  }
 
   @Override
   public void registerService(Object serviceInstance) {
@@ -33,7 +63,8 @@ public final class ServiceMethodRegistryImpl implements ServiceMethodRegistry {
                         // register new service method invoker
                         methodInvokers.put(
                             methodInfo.qualifier(),
-                            new ServiceMethodInvoker(method, serviceInstance, methodInfo));
+                            new ServiceMethodInvoker(
+                                method, serviceInstance, methodInfo, latencyMetrics, tracing));
                       });
             });
   }
@@ -47,4 +78,9 @@ public final class ServiceMethodRegistryImpl implements ServiceMethodRegistry {
   public ServiceMethodInvoker getInvoker(String qualifier) {
     return methodInvokers.get(qualifier);
   }
+
+  @Override
+  public List<ServiceMethodInvoker> listInvokers() {
+    return new ArrayList<>(methodInvokers.values());
+  }
 }
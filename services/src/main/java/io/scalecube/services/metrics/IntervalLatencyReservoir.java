@@ -0,0 +1,280 @@
+package io.scalecube.services.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free reservoir of latencies in nanoseconds, in the manner of HdrHistogram recorder. Values
+ * are counted in log-linear buckets: values below 256 exactly, larger ones with relative error
+ * under 1%, up to about an hour. Recording is a single atomic increment and doesn't allocate.
+ *
+ * <p>Values are recorded into active interval, which is swapped with an empty one on a fixed
+ * schedule, every {@code interval}, so that reporters see recent latencies rather than latencies
+ * since start. {@link #getSnapshot()} returns the last completed interval and doesn't consume it,
+ * so any number of reporters and JMX reads see the same snapshot until the next swap. Swap is done
+ * by the first read after interval ends, so that the reservoir needs no timer; when nothing reads
+ * it for longer, the completed interval covers all values since the previous swap. Swap waits for
+ * recordings in progress by writer-reader phaser, as HdrHistogram recorder does.
+ */
+public final class IntervalLatencyReservoir implements Reservoir {
+
+  /** Default interval of snapshots. */
+  public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+
+  private static final int SUB_BUCKET_BITS = 8;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT >> 1;
+  private static final int MAX_VALUE_BITS = 42;
+  private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+  private static final int BUCKET_COUNT =
+      SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT;
+
+  private final long intervalNanos;
+  private final LongSupplier nanoClock;
+
+  // writer-reader phaser: writers of even phase have non-negative start epochs, of odd negative
+  private final AtomicLong startEpoch = new AtomicLong();
+  private final AtomicLong evenEndEpoch = new AtomicLong();
+  private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+
+  private volatile AtomicLongArray active = new AtomicLongArray(BUCKET_COUNT);
+  private AtomicLongArray inactive = new AtomicLongArray(BUCKET_COUNT); // guarded by this
+
+  private long intervalStart; // guarded by this
+  private Snapshot lastInterval = new BucketSnapshot(new long[BUCKET_COUNT]); // guarded by this
+
+  /**
+   * Creates reservoir with {@link #DEFAULT_INTERVAL}.
+   */
+  public IntervalLatencyReservoir() {
+    this(DEFAULT_INTERVAL);
+  }
+
+  /**
+   * Creates reservoir.
+   *
+   * @param interval interval of snapshots
+   */
+  public IntervalLatencyReservoir(Duration interval) {
+    this(interval.toNanos(), System::nanoTime);
+  }
+
+  IntervalLatencyReservoir(long intervalNanos, LongSupplier nanoClock) {
+    if (intervalNanos <= 0) {
+      throw new IllegalArgumentException("interval must be positive: " + intervalNanos);
+    }
+    this.intervalNanos = intervalNanos;
+    this.nanoClock = nanoClock;
+    this.intervalStart = nanoClock.getAsLong();
+  }
+
+  @Override
+  public int size() {
+    AtomicLongArray counts = active;
+    long size = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      size += counts.get(i);
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void update(long value) {
+    long epoch = startEpoch.getAndIncrement();
+    try {
+      active.incrementAndGet(bucket(value));
+    } finally {
+      (epoch < 0 ? oddEndEpoch : evenEndEpoch).getAndIncrement();
+    }
+  }
+
+  /**
+   * Returns snapshot of the last completed interval, completing active interval first if it has
+   * ended. Snapshot is empty until the first interval ends.
+   *
+   * @return snapshot of the last completed interval
+   */
+  @Override
+  public synchronized Snapshot getSnapshot() {
+    long now = nanoClock.getAsLong();
+    long elapsed = now - intervalStart;
+    if (elapsed >= intervalNanos) {
+      lastInterval = swap();
+      intervalStart = now - elapsed % intervalNanos; // keeps schedule fixed
+    }
+    return lastInterval;
+  }
+
+  private Snapshot swap() {
+    AtomicLongArray completed = active;
+    active = inactive;
+    flipPhase();
+
+    long[] snapshot = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = completed.get(i);
+      completed.set(i, 0);
+    }
+    inactive = completed;
+    return new BucketSnapshot(snapshot);
+  }
+
+  /** Waits until writers which might have seen the previous active interval are done. */
+  private void flipPhase() {
+    boolean nextPhaseIsEven = startEpoch.get() < 0;
+    long initialStartValue = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+    (nextPhaseIsEven ? evenEndEpoch : oddEndEpoch).set(initialStartValue);
+    long startValueAtFlip = startEpoch.getAndSet(initialStartValue);
+    AtomicLong previousEndEpoch = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+    while (previousEndEpoch.get() != startValueAtFlip) {
+      Thread.yield();
+    }
+  }
+
+  static int bucket(long value) {
+    long v = Math.max(0, Math.min(value, MAX_VALUE));
+    if (v < SUB_BUCKET_COUNT) {
+      return (int) v;
+    }
+    int shift = 64 - Long.numberOfLeadingZeros(v) - SUB_BUCKET_BITS;
+    return SUB_BUCKET_COUNT
+        + (shift - 1) * HALF_SUB_BUCKET_COUNT
+        + (int) (v >>> shift)
+        - HALF_SUB_BUCKET_COUNT;
+  }
+
+  static long bucketValue(int bucket) {
+    if (bucket < SUB_BUCKET_COUNT) {
+      return bucket;
+    }
+    int index = bucket - SUB_BUCKET_COUNT;
+    int shift = index / HALF_SUB_BUCKET_COUNT + 1;
+    long lowest = (long) (index % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT) << shift;
+    return lowest + (1L << (shift - 1)); // middle of the bucket
+  }
+
+  private static final class BucketSnapshot extends Snapshot {
+
+    private final long[] counts;
+    private final long size;
+    private final int minBucket;
+    private final int maxBucket;
+
+    private BucketSnapshot(long[] counts) {
+      this.counts = counts;
+      long size = 0;
+      int minBucket = -1;
+      int maxBucket = -1;
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] > 0) {
+          size += counts[i];
+          minBucket = minBucket < 0 ? i : minBucket;
+          maxBucket = i;
+        }
+      }
+      this.size = size;
+      this.minBucket = minBucket;
+      this.maxBucket = maxBucket;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+      if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+        throw new IllegalArgumentException(quantile + " is not in [0..1]");
+      }
+      if (size == 0) {
+        return 0.0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(quantile * size));
+      long seen = 0;
+      for (int i = minBucket; i < maxBucket; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return bucketValue(i);
+        }
+      }
+      return bucketValue(maxBucket);
+    }
+
+    /**
+     * Returns recorded values in ascending order, each one as the value of its bucket. Values are
+     * expanded from bucket counts, so array is as large as the snapshot (up to {@link
+     * Integer#MAX_VALUE} values).
+     *
+     * @return recorded values
+     */
+    @Override
+    public long[] getValues() {
+      long[] values = new long[size()];
+      int j = 0;
+      for (int i = minBucket; i >= 0 && i <= maxBucket && j < values.length; i++) {
+        long value = bucketValue(i);
+        for (long k = 0; k < counts[i] && j < values.length; k++) {
+          values[j++] = value;
+        }
+      }
+      return values;
+    }
+
+    @Override
+    public int size() {
+      return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getMax() {
+      return size == 0 ? 0 : bucketValue(maxBucket);
+    }
+
+    @Override
+    public double getMean() {
+      if (size == 0) {
+        return 0.0;
+      }
+      double sum = 0;
+      for (int i = minBucket; i <= maxBucket; i++) {
+        sum += (double) bucketValue(i) * counts[i];
+      }
+      return sum / size;
+    }
+
+    @Override
+    public long getMin() {
+      return size == 0 ? 0 : bucketValue(minBucket);
+    }
+
+    @Override
+    public double getStdDev() {
+      if (size <= 1) {
+        return 0.0;
+      }
+      double mean = getMean();
+      double sum = 0;
+      for (int i = minBucket; i <= maxBucket; i++) {
+        double diff = bucketValue(i) - mean;
+        sum += diff * diff * counts[i];
+      }
+      return Math.sqrt(sum / (size - 1));
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+      try (PrintWriter out =
+          new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+        for (int i = 0; i < counts.length; i++) {
+          if (counts[i] > 0) {
+            out.printf("%d %d%n", bucketValue(i), counts[i]);
+          }
+        }
+      }
+    }
+  }
+}
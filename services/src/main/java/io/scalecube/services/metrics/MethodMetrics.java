@@ -0,0 +1,98 @@
+package io.scalecube.services.metrics;
+
+import static io.scalecube.services.metrics.LatencyMetrics.STAGE_CLIENT;
+import static io.scalecube.services.metrics.LatencyMetrics.STAGE_DECODE_RESPONSE;
+
+import com.codahale.metrics.Meter;
+import io.scalecube.services.CommunicationMode;
+import io.scalecube.services.methods.MethodInfo;
+import java.lang.reflect.Method;
+
+/**
+ * Metric handles of client calls of one service method. Handles are resolved once, when service
+ * proxy is created, so that calls neither build metric names nor look metrics up in registry. When
+ * metrics are disabled {@link #NOOP} is used, which records nothing.
+ */
+public final class MethodMetrics {
+
+  /** Method metrics which record nothing. */
+  public static final MethodMetrics NOOP =
+      new MethodMetrics(new NoopMeter(), LatencyRecorder.NOOP, LatencyRecorder.NOOP);
+
+  private final Meter requests;
+  private final LatencyRecorder clientLatency;
+  private final LatencyRecorder decodeLatency;
+
+  private MethodMetrics(
+      Meter requests, LatencyRecorder clientLatency, LatencyRecorder decodeLatency) {
+    this.requests = requests;
+    this.clientLatency = clientLatency;
+    this.decodeLatency = decodeLatency;
+  }
+
+  /**
+   * Resolves metric handles of service method called through service proxy: meter of requests
+   * named {@code serviceInterface.method.request} and client latencies.
+   *
+   * @param metrics metrics, null if disabled
+   * @param serviceInterface service interface
+   * @param method method of service interface
+   * @param methodInfo service method info
+   * @return method metrics, {@link #NOOP} if metrics are disabled
+   */
+  public static MethodMetrics create(
+      Metrics metrics, Class<?> serviceInterface, Method method, MethodInfo methodInfo) {
+    if (metrics == null) {
+      return NOOP;
+    }
+    String qualifier = methodInfo.qualifier();
+    CommunicationMode mode = methodInfo.communicationMode();
+    return new MethodMetrics(
+        metrics.getMeter(serviceInterface, method.getName(), "request"),
+        metrics.recorder(qualifier, mode, STAGE_CLIENT),
+        metrics.recorder(qualifier, mode, STAGE_DECODE_RESPONSE));
+  }
+
+  /**
+   * Resolves client latencies of service method called by qualifier.
+   *
+   * @param metrics metrics, null if disabled
+   * @param qualifier service method qualifier
+   * @param mode communication mode
+   * @return method metrics, {@link #NOOP} if metrics are disabled
+   */
+  public static MethodMetrics create(Metrics metrics, String qualifier, CommunicationMode mode) {
+    if (metrics == null) {
+      return NOOP;
+    }
+    return new MethodMetrics(
+        NOOP.requests,
+        metrics.recorder(qualifier, mode, STAGE_CLIENT),
+        metrics.recorder(qualifier, mode, STAGE_DECODE_RESPONSE));
+  }
+
+  public void markRequest() {
+    requests.mark();
+  }
+
+  public LatencyRecorder clientLatency() {
+    return clientLatency;
+  }
+
+  public LatencyRecorder decodeLatency() {
+    return decodeLatency;
+  }
+
+  private static final class NoopMeter extends Meter {
+
+    @Override
+    public void mark() {
+      // no-op
+    }
+
+    @Override
+    public void mark(long n) {
+      // no-op
+    }
+  }
+}
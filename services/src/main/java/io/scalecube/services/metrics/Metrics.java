@@ -7,11 +7,20 @@ import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.codahale.metrics.Timer.Context;
+import io.scalecube.services.CommunicationMode;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
-public class Metrics {
+public class Metrics implements LatencyMetrics, GaugeMetrics {
 
   private final MetricRegistry registry;
+  private final Duration latencyInterval;
+  private final ConcurrentMap<String, LatencyRecorder> latencyRecorders =
+      new ConcurrentHashMap<>();
 
   public Meter getMeter(final String component, final String methodName, final String eventType) {
     return registry.meter(MetricRegistry.name(component, methodName, eventType));
@@ -30,6 +39,49 @@ public class Metrics {
     return getTimer(component.getName(), methodName);
   }
 
+  /**
+   * Returns timer of latencies which are recorded into {@link IntervalLatencyReservoir}. Snapshot
+   * of the timer covers the last completed latency interval of this metrics.
+   *
+   * @param component name of component
+   * @param methodName name of method
+   * @return registered timer
+   */
+  public Timer getLatencyTimer(String component, String methodName) {
+    return latencyTimer(MetricRegistry.name(component, methodName));
+  }
+
+  private Timer latencyTimer(String name) {
+    Timer timer = registry.getTimers().get(name);
+    if (timer != null) {
+      return timer;
+    }
+    try {
+      return registry.register(name, new Timer(new IntervalLatencyReservoir(latencyInterval)));
+    } catch (IllegalArgumentException ex) {
+      return registry.getTimers().get(name); // registered concurrently
+    }
+  }
+
+  /**
+   * Returns recorder of latencies of given service method and stage, registered as latency timer
+   * named {@code qualifier.mode.stage}.
+   *
+   * @param qualifier service method qualifier
+   * @param mode communication mode of service method
+   * @param stage stage of service call
+   * @return latency recorder
+   */
+  @Override
+  public LatencyRecorder recorder(String qualifier, CommunicationMode mode, String stage) {
+    return latencyRecorders.computeIfAbsent(
+        MetricRegistry.name(qualifier, mode.name(), stage),
+        name -> {
+          Timer timer = latencyTimer(name);
+          return durationNanos -> timer.update(durationNanos, TimeUnit.NANOSECONDS);
+        });
+  }
+
   public Counter getCounter(final String component, final String methodName) {
     return registry.counter(MetricRegistry.name(component, methodName));
   }
@@ -64,6 +116,17 @@ public class Metrics {
     return register(component.getName(), methodName, gauge);
   }
 
+  @Override
+  public void gauge(String name, LongSupplier value) {
+    registry.remove(name);
+    registry.register(name, (Gauge<Long>) value::getAsLong);
+  }
+
+  @Override
+  public void removeGauge(String name) {
+    registry.remove(name);
+  }
+
   public Histogram getHistogram(
       final String component, final String methodName, final boolean biased) {
     return registry.histogram(MetricRegistry.name(component, methodName));
@@ -75,7 +138,19 @@ public class Metrics {
   }
 
   public Metrics(final MetricRegistry registry) {
+    this(registry, IntervalLatencyReservoir.DEFAULT_INTERVAL);
+  }
+
+  /**
+   * Creates metrics.
+   *
+   * @param registry metric registry
+   * @param latencyInterval interval of snapshots of latency timers (see {@link
+   *     IntervalLatencyReservoir})
+   */
+  public Metrics(final MetricRegistry registry, Duration latencyInterval) {
     this.registry = registry;
+    this.latencyInterval = latencyInterval;
   }
 
   /**
@@ -3,6 +3,7 @@ package io.scalecube.services.registry;
 import io.scalecube.services.ServiceEndpoint;
 import io.scalecube.services.ServiceReference;
 import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ContentTypes;
 import io.scalecube.services.registry.api.ServiceRegistry;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -38,11 +39,16 @@ public class ServiceRegistryImpl implements ServiceRegistry {
     if (result == null || result.isEmpty()) {
       return Collections.emptyList();
     }
-    String contentType = request.dataFormatOrDefault();
-    return result
-        .stream()
-        .filter(ref -> ref.contentTypes().contains(contentType))
-        .collect(Collectors.toList());
+    int contentTypeId = request.dataFormatId();
+    List<ServiceReference> references = new ArrayList<>(result.size());
+    for (ServiceReference reference : result) {
+      if (contentTypeId != ContentTypes.UNKNOWN
+          ? reference.supportsContentType(contentTypeId)
+          : reference.contentTypes().contains(request.dataFormatOrDefault())) {
+        references.add(reference);
+      }
+    }
+    return references;
   }
 
   @Override
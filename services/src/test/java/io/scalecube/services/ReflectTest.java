@@ -5,10 +5,13 @@ import static io.scalecube.services.CommunicationMode.REQUEST_CHANNEL;
 import static io.scalecube.services.CommunicationMode.REQUEST_RESPONSE;
 import static io.scalecube.services.CommunicationMode.REQUEST_STREAM;
 
+import io.scalecube.services.annotations.Idempotent;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -40,6 +43,16 @@ public class ReflectTest {
         Arguments.of("requestChannel", REQUEST_CHANNEL));
   }
 
+  @Test
+  public void testMethodTags() throws Exception {
+    Method idempotent = TestService.class.getMethod("idempotentResponse", Integer.class);
+    Method requestResponse = TestService.class.getMethod("requestResponse", Integer.class);
+
+    Assertions.assertEquals(
+        Collections.singletonMap(Idempotent.TAG, "true"), Reflect.methodTags(idempotent));
+    Assertions.assertTrue(Reflect.methodTags(requestResponse).isEmpty());
+  }
+
   private interface TestService {
     void fireAndForget(Integer i);
 
@@ -47,6 +60,9 @@ public class ReflectTest {
 
     Mono<Integer> requestResponse(Integer i);
 
+    @Idempotent
+    Mono<Integer> idempotentResponse(Integer i);
+
     Flux<Integer> requestStream(Integer i);
 
     Flux<Integer> requestChannel(Flux<Integer> i);
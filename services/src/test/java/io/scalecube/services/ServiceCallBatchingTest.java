@@ -0,0 +1,154 @@
+package io.scalecube.services;
+
+import static io.scalecube.services.TestRequests.GREETING_FAIL_REQ;
+import static io.scalecube.services.TestRequests.GREETING_VOID_REQ;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.scalecube.services.exceptions.ServiceException;
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingResponse;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.util.function.Tuple3;
+
+public class ServiceCallBatchingTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final int BATCH_MAX_MESSAGES = 16;
+
+  private static final String CLIENT = "gateway.client";
+
+  private static final MetricRegistry gatewayRegistry = new MetricRegistry();
+
+  private static Microservices gateway;
+  private static Microservices provider;
+
+  @BeforeAll
+  public static void setup() {
+    RSocketTransportConfig config =
+        RSocketTransportConfig.builder()
+            .batchMaxMessages(BATCH_MAX_MESSAGES)
+            .batchMaxDelay(Duration.ofMillis(1))
+            .gaugePrefix("gateway")
+            .build();
+
+    gateway =
+        Microservices.builder()
+            .metrics(gatewayRegistry)
+            .transport(new RSocketServiceTransport(config))
+            .startAwait();
+
+    provider =
+        Microservices.builder()
+            .seeds(gateway.discovery().address())
+            .services(new GreetingServiceImpl())
+            .startAwait();
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    try {
+      gateway.shutdown().block();
+    } catch (Exception ignore) {
+      // ignore
+    }
+
+    try {
+      provider.shutdown().block();
+    } catch (Exception ignore) {
+      // ignore
+    }
+  }
+
+  @Test
+  public void test_single_request_is_flushed_by_delay() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+  }
+
+  @Test
+  public void test_concurrent_requests_are_batched() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    int count = BATCH_MAX_MESSAGES * 10 + 3;
+    long batchesBefore = value(CLIENT + ".batches");
+    long batchedRequestsBefore = value(CLIENT + ".batchedRequests");
+
+    List<String> responses =
+        Flux.range(0, count)
+            .flatMapSequential(i -> service.greeting("joe" + i), count)
+            .collectList()
+            .block(TIMEOUT);
+
+    assertEquals(
+        IntStream.range(0, count).mapToObj(i -> " hello to: joe" + i).collect(Collectors.toList()),
+        responses);
+
+    long batches = value(CLIENT + ".batches") - batchesBefore;
+    long batchedRequests = value(CLIENT + ".batchedRequests") - batchedRequestsBefore;
+    assertTrue(batches > 0, "no batch frames sent");
+    // each batch frame carries several requests, the rest are sent in frames of their own
+    long frames = batches + (count - batchedRequests);
+    assertTrue(frames < count, "sent " + frames + " frames for " + count + " requests");
+  }
+
+  @Test
+  public void test_slow_request_does_not_hold_back_batch() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    // replies of batch are streamed, so fast reply isn't held until the slow one is ready
+    Disposable pending =
+        service.greetingRequestTimeout(new GreetingRequest("slow", Duration.ofHours(1))).subscribe();
+    try {
+      assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+    } finally {
+      pending.dispose();
+    }
+  }
+
+  @Test
+  public void test_batched_void_and_failing_requests() {
+    ServiceCall serviceCall = gateway.call().create();
+    GreetingService service = serviceCall.api(GreetingService.class);
+
+    Mono<GreetingResponse> success = service.greetingRequest(new GreetingRequest("joe"));
+    Mono<Void> oneWay = serviceCall.oneWay(GREETING_VOID_REQ);
+    Mono<GreetingResponse> failure =
+        serviceCall.requestOne(GREETING_FAIL_REQ, GreetingResponse.class).map(m -> m.data());
+
+    // subscribed at once, so they are likely packed into one batch
+    Tuple3<Signal<GreetingResponse>, Signal<Void>, Signal<GreetingResponse>> signals =
+        Mono.zip(success.materialize(), oneWay.materialize(), failure.materialize())
+            .block(TIMEOUT);
+
+    assertEquals(" hello to: joe", signals.getT1().get().getResult());
+    assertTrue(signals.getT2().isOnComplete());
+    assertTrue(signals.getT3().isOnError());
+    assertThat(signals.getT3().getThrowable(), instanceOf(ServiceException.class));
+    assertEquals("GreetingRequest{name='joe'}", signals.getT3().getThrowable().getMessage());
+  }
+
+  private static long value(String name) {
+    Gauge gauge = gatewayRegistry.getGauges().get(name);
+    assertTrue(gauge != null, "no gauge " + name + " in " + gatewayRegistry.getGauges().keySet());
+    return ((Number) gauge.getValue()).longValue();
+  }
+}
@@ -12,15 +12,21 @@ import static io.scalecube.services.TestRequests.GREETING_VOID_REQ;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.CompressionCodec;
+import io.scalecube.services.codec.RecordingCompressionCodec;
+import io.scalecube.services.codec.ServiceMessageCodec;
 import io.scalecube.services.exceptions.ServiceException;
 import io.scalecube.services.sut.GreetingResponse;
+import io.scalecube.services.sut.GreetingService;
 import io.scalecube.services.sut.GreetingServiceImpl;
 import java.time.Duration;
+import java.util.Collections;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -76,6 +82,49 @@ public class ServiceCallRemoteTest extends BaseTest {
     assertTrue(((GreetingResponse) message.data()).getResult().equals("hello unknown"));
   }
 
+  @Test
+  public void test_remote_greeting_compressed() {
+    String name = String.join("", Collections.nCopies(1000, "compressible "));
+    long originalBytes = RecordingCompressionCodec.originalBytes();
+    long compressedBytes = RecordingCompressionCodec.compressedBytes();
+    long decompressedBytes = RecordingCompressionCodec.decompressedBytes();
+
+    GreetingService service =
+        gateway
+            .call()
+            .compression(RecordingCompressionCodec.CONTENT_ENCODING)
+            .create()
+            .api(GreetingService.class);
+
+    assertEquals(" hello to: " + name, service.greeting(name).block(timeout));
+
+    assertTrue(CompressionCodec.INSTANCES.containsKey(RecordingCompressionCodec.CONTENT_ENCODING));
+    long original = RecordingCompressionCodec.originalBytes() - originalBytes;
+    long compressed = RecordingCompressionCodec.compressedBytes() - compressedBytes;
+    // both request and response are compressed and decompressed
+    assertTrue(original > 2 * name.length(), "original bytes: " + original);
+    assertTrue(compressed < original / 10, "compressed bytes: " + compressed);
+    assertEquals(original, RecordingCompressionCodec.decompressedBytes() - decompressedBytes);
+  }
+
+  @Test
+  public void test_remote_greeting_compressed_hides_accept_encoding() {
+    ServiceCall serviceCall =
+        gateway.call().compression(RecordingCompressionCodec.CONTENT_ENCODING).create();
+
+    ServiceMessage request =
+        ServiceMessage.builder()
+            .qualifier(GreetingService.SERVICE_NAME, "greetingHeaders")
+            .data("joe")
+            .build();
+    ServiceMessage response =
+        serviceCall.requestOne(request, GreetingResponse.class).block(timeout);
+
+    String headers = ((GreetingResponse) response.data()).getResult();
+    assertFalse(headers.contains(ServiceMessageCodec.HEADER_ACCEPT_ENCODING), headers);
+    assertFalse(headers.contains(ServiceMessageCodec.HEADER_CONTENT_ENCODING), headers);
+  }
+
   @Test
   public void test_remote_void_greeting() {
     // When
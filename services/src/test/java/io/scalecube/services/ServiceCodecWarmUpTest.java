@@ -0,0 +1,141 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.annotations.Service;
+import io.scalecube.services.annotations.ServiceMethod;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.WarmUpRecordingCodec;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class ServiceCodecWarmUpTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private Microservices gateway;
+  private Microservices provider;
+
+  @AfterEach
+  public void tearDown() {
+    for (Microservices node : new Microservices[] {gateway, provider}) {
+      if (node != null) {
+        try {
+          node.shutdown().block();
+        } catch (Exception ignore) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  @Test
+  public void test_service_types_are_warmed_up_at_start() {
+    provider = Microservices.builder().services(new WarmUpServiceImpl()).startAwait();
+
+    // no call is made yet
+    assertTrue(WarmUpRecordingCodec.isWarmedUp(WarmUpRequest.class));
+    assertTrue(WarmUpRecordingCodec.isWarmedUp(WarmUpResponse.class));
+  }
+
+  @Test
+  public void test_proxy_types_are_warmed_up_before_first_call() {
+    gateway = Microservices.builder().startAwait();
+
+    assertFalse(WarmUpRecordingCodec.isWarmedUp(ProxyRequest.class));
+    gateway.call().create().api(ProxyService.class);
+
+    // no call is made through proxy, and no node provides its service
+    assertTrue(WarmUpRecordingCodec.isWarmedUp(ProxyRequest.class));
+    assertTrue(WarmUpRecordingCodec.isWarmedUp(ProxyResponse.class));
+  }
+
+  @Test
+  public void test_failed_warm_up_does_not_block_start() {
+    provider = Microservices.builder().services(new WarmUpServiceImpl()).startAwait();
+    gateway = Microservices.builder().seeds(provider.discovery().address()).startAwait();
+
+    assertFalse(WarmUpRecordingCodec.isWarmedUp(FailingRequest.class));
+    WarmUpService service = gateway.call().create().api(WarmUpService.class);
+
+    assertEquals("failing", service.failing(new FailingRequest()).block(TIMEOUT));
+    assertEquals(1, service.warmUp(new WarmUpRequest(1)).block(TIMEOUT).value);
+  }
+
+  @Test
+  public void test_messages_of_recording_codec_go_through() {
+    provider = Microservices.builder().services(new WarmUpServiceImpl()).startAwait();
+    gateway = Microservices.builder().seeds(provider.discovery().address()).startAwait();
+
+    ServiceMessage request =
+        ServiceMessage.builder()
+            .qualifier("codec-warm-up", "warmUp")
+            .dataFormat(WarmUpRecordingCodec.CONTENT_TYPE)
+            .data(new WarmUpRequest(2))
+            .build();
+    ServiceMessage response =
+        gateway.call().create().requestOne(request, WarmUpResponse.class).block(TIMEOUT);
+
+    assertEquals(2, ((WarmUpResponse) response.data()).value);
+  }
+
+  @Service("codec-warm-up")
+  public interface WarmUpService {
+
+    @ServiceMethod
+    Mono<WarmUpResponse> warmUp(WarmUpRequest request);
+
+    @ServiceMethod
+    Mono<String> failing(FailingRequest request);
+  }
+
+  @Service("codec-warm-up-proxy")
+  public interface ProxyService {
+
+    @ServiceMethod
+    Mono<ProxyResponse> proxy(ProxyRequest request);
+  }
+
+  public static class WarmUpServiceImpl implements WarmUpService {
+
+    @Override
+    public Mono<WarmUpResponse> warmUp(WarmUpRequest request) {
+      return Mono.just(new WarmUpResponse(request.value));
+    }
+
+    @Override
+    public Mono<String> failing(FailingRequest request) {
+      return Mono.just("failing");
+    }
+  }
+
+  public static class WarmUpRequest {
+    private int value;
+
+    WarmUpRequest() {}
+
+    WarmUpRequest(int value) {
+      this.value = value;
+    }
+  }
+
+  public static class WarmUpResponse {
+    private int value;
+
+    WarmUpResponse() {}
+
+    WarmUpResponse(int value) {
+      this.value = value;
+    }
+  }
+
+  public static class FailingRequest {}
+
+  public static class ProxyRequest {}
+
+  public static class ProxyResponse {}
+}
@@ -0,0 +1,122 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.sut.QuoteService;
+import io.scalecube.services.sut.SimpleQuoteService;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ServiceLatencyMetricsTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration LATENCY_INTERVAL = Duration.ofMillis(100);
+
+  private final MetricRegistry providerRegistry = new MetricRegistry();
+  private final MetricRegistry gatewayRegistry = new MetricRegistry();
+
+  private Microservices provider;
+  private Microservices gateway;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    provider =
+        Microservices.builder()
+            .metrics(providerRegistry, LATENCY_INTERVAL)
+            .services(new GreetingServiceImpl(), new SimpleQuoteService())
+            .startAwait();
+    gateway =
+        Microservices.builder()
+            .metrics(gatewayRegistry, LATENCY_INTERVAL)
+            .seeds(provider.discovery().address())
+            .startAwait();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (gateway.serviceRegistry().listServiceEndpoints().isEmpty()) {
+      assertTrue(System.currentTimeMillis() < deadline, "provider is not discovered");
+      Thread.sleep(100);
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (gateway != null) {
+      gateway.shutdown().block(TIMEOUT);
+    }
+    if (provider != null) {
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void test_request_response_latencies() throws Exception {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    for (int i = 0; i < 3; i++) {
+      service.greeting("joe").block(TIMEOUT);
+    }
+
+    String prefix = "/greetings/greeting.REQUEST_RESPONSE.";
+    assertCount(3, gatewayRegistry, prefix + "client");
+    assertCount(3, gatewayRegistry, prefix + "decodeResponse");
+    assertCount(3, providerRegistry, prefix + "server");
+    assertCount(3, providerRegistry, prefix + "decodeRequest");
+    assertCount(3, providerRegistry, prefix + "encodeResponse");
+  }
+
+  @Test
+  public void test_proxy_requests_meter() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    service.greeting("joe").block(TIMEOUT);
+    service.greeting("jane").block(TIMEOUT);
+
+    String name = MetricRegistry.name(GreetingService.class, "greeting", "request");
+    assertEquals(2, gatewayRegistry.getMeters().get(name).getCount());
+  }
+
+  @Test
+  public void test_message_request_response_latencies() throws Exception {
+    ServiceCall serviceCall = gateway.call().create();
+    ServiceMessage request =
+        ServiceMessage.builder()
+            .qualifier(GreetingService.SERVICE_NAME, "greeting")
+            .data("joe")
+            .build();
+    for (int i = 0; i < 3; i++) {
+      serviceCall.requestOne(request, String.class).block(TIMEOUT);
+    }
+
+    String prefix = "/greetings/greeting.REQUEST_RESPONSE.";
+    assertCount(3, gatewayRegistry, prefix + "client");
+    assertCount(3, gatewayRegistry, prefix + "decodeResponse");
+  }
+
+  @Test
+  public void test_request_stream_latencies() throws Exception {
+    QuoteService service = gateway.call().create().api(QuoteService.class);
+    assertEquals(10, service.snapshot(10).collectList().block(TIMEOUT).size());
+
+    String prefix = "/" + QuoteService.NAME + "/snapshot.REQUEST_STREAM.";
+    assertCount(1, gatewayRegistry, prefix + "client");
+    assertCount(10, gatewayRegistry, prefix + "decodeResponse");
+    assertCount(1, providerRegistry, prefix + "server");
+    assertCount(10, providerRegistry, prefix + "encodeResponse");
+  }
+
+  private static void assertCount(long expected, MetricRegistry registry, String name)
+      throws InterruptedException {
+    Timer timer = registry.getTimers().get(name);
+    assertNotNull(timer, "no timer " + name + " in " + registry.getTimers().keySet());
+    assertEquals(expected, timer.getCount(), name);
+    Thread.sleep(LATENCY_INTERVAL.toMillis()); // latencies are in snapshot once interval ends
+    assertTrue(timer.getSnapshot().getMax() > 0, name);
+  }
+}
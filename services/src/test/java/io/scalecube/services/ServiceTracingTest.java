@@ -0,0 +1,167 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.annotations.Service;
+import io.scalecube.services.annotations.ServiceMethod;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.tracing.InMemorySpanExporter;
+import io.scalecube.services.tracing.Sampler;
+import io.scalecube.services.tracing.Span;
+import io.scalecube.services.tracing.Span.Kind;
+import io.scalecube.services.tracing.Tracing;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class ServiceTracingTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private final InMemorySpanExporter exporter = new InMemorySpanExporter();
+
+  private Microservices provider;
+  private Microservices relay;
+  private Microservices gateway;
+
+  @AfterEach
+  public void tearDown() {
+    for (Microservices node : new Microservices[] {gateway, relay, provider}) {
+      if (node != null) {
+        node.shutdown().block(TIMEOUT);
+      }
+    }
+  }
+
+  @Test
+  public void test_trace_continued_by_downstream_call() throws Exception {
+    startNodes(Sampler.ALWAYS);
+
+    RelayService service = gateway.call().create().api(RelayService.class);
+    assertEquals(" hello to: joe", service.relay("joe").block(TIMEOUT));
+
+    List<Span> spans = awaitSpans(4);
+    Span gatewayClient = span(spans, Kind.CLIENT, "/relay/relay");
+    Span relayServer = span(spans, Kind.SERVER, "/relay/relay");
+    Span relayClient = span(spans, Kind.CLIENT, "/greetings/greeting");
+    Span providerServer = span(spans, Kind.SERVER, "/greetings/greeting");
+
+    assertEquals(0, gatewayClient.parentSpanId());
+    assertEquals(gatewayClient.spanId(), relayServer.parentSpanId());
+    assertEquals(relayServer.spanId(), relayClient.parentSpanId());
+    assertEquals(relayClient.spanId(), providerServer.parentSpanId());
+    for (Span span : spans) {
+      assertEquals(gatewayClient.traceId(), span.traceId());
+      assertNull(span.error());
+      assertTrue(span.durationNanos() > 0);
+    }
+    assertTrue(gatewayClient.durationNanos() >= providerServer.durationNanos());
+  }
+
+  @Test
+  public void test_unsampled_call_exports_nothing() throws Exception {
+    startNodes(Sampler.NEVER);
+
+    RelayService service = gateway.call().create().api(RelayService.class);
+    assertEquals(" hello to: joe", service.relay("joe").block(TIMEOUT));
+
+    Thread.sleep(200);
+    assertEquals(Collections.emptyList(), exporter.spans());
+  }
+
+  @Test
+  public void test_sampled_trace_continued_by_nodes_which_sample_nothing() throws Exception {
+    startNodes(Sampler.ALWAYS, Sampler.NEVER);
+
+    RelayService service = gateway.call().create().api(RelayService.class);
+    assertEquals(" hello to: joe", service.relay("joe").block(TIMEOUT));
+
+    List<Span> spans = awaitSpans(4);
+    Span relayClient = span(spans, Kind.CLIENT, "/greetings/greeting");
+    Span providerServer = span(spans, Kind.SERVER, "/greetings/greeting");
+    assertEquals(relayClient.spanId(), providerServer.parentSpanId());
+    assertEquals(span(spans, Kind.CLIENT, "/relay/relay").traceId(), providerServer.traceId());
+  }
+
+  private void startNodes(Sampler sampler) throws Exception {
+    startNodes(sampler, sampler);
+  }
+
+  private void startNodes(Sampler gatewaySampler, Sampler sampler) throws Exception {
+    Tracing tracing = Tracing.builder().sampler(sampler).exporter(exporter).build();
+    provider =
+        Microservices.builder().tracing(tracing).services(new GreetingServiceImpl()).startAwait();
+    relay =
+        Microservices.builder()
+            .tracing(tracing)
+            .seeds(provider.discovery().address())
+            .services(
+                call ->
+                    Collections.singletonList(
+                        new RelayServiceImpl(call.create().api(GreetingService.class))))
+            .startAwait();
+    gateway =
+        Microservices.builder()
+            .tracing(Tracing.builder().sampler(gatewaySampler).exporter(exporter).build())
+            .seeds(provider.discovery().address())
+            .startAwait();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (!hasService(gateway, "/relay/relay") || !hasService(relay, "/greetings/greeting")) {
+      assertTrue(System.currentTimeMillis() < deadline, "services are not discovered");
+      Thread.sleep(100);
+    }
+  }
+
+  private static boolean hasService(Microservices node, String qualifier) {
+    return node.serviceRegistry()
+        .listServiceReferences()
+        .stream()
+        .anyMatch(reference -> reference.qualifier().equals(qualifier));
+  }
+
+  private List<Span> awaitSpans(int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (exporter.spans().size() < count) {
+      assertTrue(System.currentTimeMillis() < deadline, "spans: " + exporter.spans());
+      Thread.sleep(10);
+    }
+    assertEquals(count, exporter.spans().size(), "spans: " + exporter.spans());
+    return exporter.spans();
+  }
+
+  private static Span span(List<Span> spans, Kind kind, String qualifier) {
+    return spans
+        .stream()
+        .filter(span -> span.kind() == kind && span.qualifier().equals(qualifier))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError(kind + " " + qualifier + " not in " + spans));
+  }
+
+  @Service("relay")
+  public interface RelayService {
+
+    @ServiceMethod
+    Mono<String> relay(String name);
+  }
+
+  private static class RelayServiceImpl implements RelayService {
+
+    private final GreetingService greetingService;
+
+    private RelayServiceImpl(GreetingService greetingService) {
+      this.greetingService = greetingService;
+    }
+
+    @Override
+    public Mono<String> relay(String name) {
+      return greetingService.greeting(name);
+    }
+  }
+}
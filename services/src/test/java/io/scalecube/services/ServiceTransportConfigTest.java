@@ -0,0 +1,152 @@
+package io.scalecube.services;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.sut.QuoteService;
+import io.scalecube.services.sut.SimpleQuoteService;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ServiceTransportConfigTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private static Microservices gateway;
+  private static Microservices provider;
+
+  @BeforeAll
+  public static void setup() {
+    RSocketTransportConfig gatewayConfig =
+        RSocketTransportConfig.builder()
+            .workerThreads(2)
+            .clientThreads(2)
+            .preferEpoll(false)
+            .pooledAllocator(false, 2)
+            .flushConsolidationMaxFlushes(64)
+            .sendBufferSize(256 * 1024)
+            .receiveBufferSize(256 * 1024)
+            .tcpNoDelay(true)
+            .writeBufferWaterMark(128 * 1024, 512 * 1024)
+            .build();
+
+    RSocketTransportConfig providerConfig =
+        RSocketTransportConfig.from(gatewayConfig)
+            .bossThreads(1)
+            .clientThreads(0)
+            .preferEpoll(true)
+            .pooledAllocator(true, 2)
+            .build();
+
+    gateway =
+        Microservices.builder()
+            .transport(new RSocketServiceTransport(gatewayConfig))
+            .startAwait();
+
+    provider =
+        Microservices.builder()
+            .seeds(gateway.discovery().address())
+            .transport(new RSocketServiceTransport(providerConfig))
+            .services(new GreetingServiceImpl(), new SimpleQuoteService())
+            .startAwait();
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    try {
+      gateway.shutdown().block();
+    } catch (Exception ignore) {
+      // ignore
+    }
+
+    try {
+      provider.shutdown().block();
+    } catch (Exception ignore) {
+      // ignore
+    }
+  }
+
+  @Test
+  public void test_concurrent_requests() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    int count = 1000;
+
+    List<String> responses =
+        Flux.range(0, count)
+            .flatMapSequential(i -> service.greeting("joe" + i), 256)
+            .collectList()
+            .block(TIMEOUT);
+
+    assertEquals(
+        IntStream.range(0, count).mapToObj(i -> " hello to: joe" + i).collect(Collectors.toList()),
+        responses);
+  }
+
+  @Test
+  public void test_stream() {
+    QuoteService service = gateway.call().create().api(QuoteService.class);
+    int count = 10_000;
+
+    Long received = service.snapshot(count).count().block(TIMEOUT);
+
+    assertEquals(count, received.intValue());
+  }
+
+  @Test
+  public void test_separate_boss_and_client_event_loops() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+
+    Set<String> threadNames =
+        Thread.getAllStackTraces().keySet().stream().map(Thread::getName).collect(toSet());
+
+    assertTrue(threadNames.stream().anyMatch(name -> name.startsWith("scalecube-rsocket-boss")));
+    assertTrue(threadNames.stream().anyMatch(name -> name.startsWith("scalecube-rsocket-client")));
+  }
+
+  @Test
+  public void test_allocator_is_created_lazily_per_event_loop_group() {
+    AtomicInteger created = new AtomicInteger();
+    RSocketTransportConfig config =
+        RSocketTransportConfig.builder()
+            .workerThreads(1)
+            .allocatorFactory(
+                () -> {
+                  created.incrementAndGet();
+                  return new PooledByteBufAllocator(false);
+                })
+            .build();
+    RSocketServiceTransport transport =
+        new RSocketServiceTransport(RSocketTransportConfig.from(config).build());
+    assertEquals(0, created.get());
+
+    ExecutorService first = transport.getExecutorService();
+    ExecutorService second = transport.getExecutorService();
+    try {
+      transport.getServerTransport(first);
+      transport.getClientTransport(first);
+      assertEquals(1, created.get());
+
+      transport.getClientTransport(second);
+      assertEquals(2, created.get());
+    } finally {
+      Mono.when(transport.shutdown(first), transport.shutdown(second)).block(TIMEOUT);
+    }
+  }
+}
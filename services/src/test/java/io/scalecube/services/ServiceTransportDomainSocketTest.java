@@ -0,0 +1,141 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.netty.channel.epoll.Epoll;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ServiceTransportDomainSocketTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final String ENDPOINT_METADATA = "_rsocket_uds_path";
+
+  private static final String CLIENT = "node.client";
+  private static final String SERVER = "node.server";
+
+  private static final MetricRegistry gatewayRegistry = new MetricRegistry();
+  private static final MetricRegistry tcpGatewayRegistry = new MetricRegistry();
+  private static final MetricRegistry providerRegistry = new MetricRegistry();
+
+  private static Path socketDir;
+  private static Microservices gateway;
+  private static Microservices tcpGateway;
+  private static Microservices provider;
+
+  @BeforeAll
+  public static void setup() throws Exception {
+    Assumptions.assumeTrue(Epoll.isAvailable(), "unix domain sockets require epoll");
+
+    socketDir = Files.createTempDirectory("scalecube-uds");
+
+    gateway =
+        Microservices.builder()
+            .metrics(gatewayRegistry)
+            .transport(
+                new RSocketServiceTransport(
+                    RSocketTransportConfig.builder().gaugePrefix("node").build()))
+            .startAwait();
+
+    provider =
+        Microservices.builder()
+            .seeds(gateway.discovery().address())
+            .metrics(providerRegistry)
+            .transport(
+                new RSocketServiceTransport(
+                    RSocketTransportConfig.builder()
+                        .unixDomainSocketDir(socketDir)
+                        .gaugePrefix("node")
+                        .build()))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+
+    tcpGateway =
+        Microservices.builder()
+            .seeds(provider.discovery().address())
+            .metrics(tcpGatewayRegistry)
+            .transport(
+                new RSocketServiceTransport(
+                    RSocketTransportConfig.builder()
+                        .preferUnixDomainSocket(false)
+                        .gaugePrefix("node")
+                        .build()))
+            .startAwait();
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    Stream.of(gateway, tcpGateway, provider)
+        .filter(microservices -> microservices != null)
+        .forEach(
+            microservices -> {
+              try {
+                microservices.shutdown().block();
+              } catch (Exception ignore) {
+                // ignore
+              }
+            });
+  }
+
+  @Test
+  public void test_endpoint_advertises_domain_socket() {
+    ServiceEndpoint endpoint = provider.serviceRegistry().listServiceEndpoints().get(0);
+    String path = endpoint.metadata().get(ENDPOINT_METADATA);
+
+    assertNotNull(path);
+    assertTrue(Paths.get(path).startsWith(socketDir));
+    assertTrue(Files.exists(Paths.get(path)));
+    // named after both port and server instance
+    String fileName = Paths.get(path).getFileName().toString();
+    assertTrue(
+        fileName.matches("scalecube-rsocket-" + endpoint.port() + "-[0-9a-f]+\\.sock"), fileName);
+    // advertised in endpoint metadata, not in tags of services
+    assertFalse(endpoint.tags().containsKey(ENDPOINT_METADATA));
+    provider
+        .serviceRegistry()
+        .listServiceReferences()
+        .forEach(reference -> assertFalse(reference.tags().containsKey(ENDPOINT_METADATA)));
+  }
+
+  @Test
+  public void test_same_host_call_goes_over_domain_socket() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+
+    assertTrue(value(gatewayRegistry, CLIENT + ".domainSocketChannels") >= 1);
+    assertTrue(value(providerRegistry, SERVER + ".domainSocketChannels") >= 1);
+  }
+
+  @Test
+  public void test_tcp_call_when_domain_socket_not_preferred() {
+    GreetingService service = tcpGateway.call().create().api(GreetingService.class);
+
+    assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+
+    assertEquals(0, value(tcpGatewayRegistry, CLIENT + ".domainSocketChannels"));
+    assertTrue(value(tcpGatewayRegistry, CLIENT + ".connections") >= 1);
+  }
+
+  private static long value(MetricRegistry registry, String name) {
+    Gauge gauge = registry.getGauges().get(name);
+    assertTrue(gauge != null, "no gauge " + name + " in " + registry.getGauges().keySet());
+    return ((Number) gauge.getValue()).longValue();
+  }
+}
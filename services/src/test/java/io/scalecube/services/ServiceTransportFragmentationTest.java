@@ -0,0 +1,140 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingResponse;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class ServiceTransportFragmentationTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private static final RSocketTransportConfig CONFIG =
+      RSocketTransportConfig.builder().fragmentation(256).build();
+
+  private Microservices provider;
+  private Microservices gateway;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    provider =
+        Microservices.builder()
+            .transport(new RSocketServiceTransport(CONFIG))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+    gateway =
+        Microservices.builder()
+            .seeds(provider.discovery().address())
+            .transport(new RSocketServiceTransport(CONFIG))
+            .startAwait();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (gateway.serviceRegistry().listServiceEndpoints().isEmpty()) {
+      assertTrue(System.currentTimeMillis() < deadline, "provider is not discovered");
+      Thread.sleep(100);
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (gateway != null) {
+      gateway.shutdown().block(TIMEOUT);
+    }
+    if (provider != null) {
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void test_large_and_small_requests() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    String large = name(100_000);
+
+    List<String> responses =
+        Flux.merge(
+                service.greeting(large),
+                Flux.range(0, 10).flatMap(i -> service.greeting("joe" + i)))
+            .collectList()
+            .block(TIMEOUT);
+
+    assertEquals(11, responses.size());
+    assertTrue(responses.contains(" hello to: " + large));
+    for (int i = 0; i < 10; i++) {
+      assertTrue(responses.contains(" hello to: joe" + i));
+    }
+  }
+
+  @Test
+  public void test_large_messages_of_channel() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    List<String> names =
+        IntStream.range(0, 10).mapToObj(i -> name(1000 * (i + 1))).collect(Collectors.toList());
+
+    List<String> responses =
+        service
+            .bidiGreeting(Flux.fromIterable(names).map(GreetingRequest::new))
+            .map(GreetingResponse::getResult)
+            .collectList()
+            .block(TIMEOUT);
+
+    assertEquals(
+        names.stream().map(name -> " hello to: " + name).collect(Collectors.toList()), responses);
+  }
+
+  @Test
+  public void test_frame_exceeding_max_length_closes_connection() throws Exception {
+    RSocketTransportConfig limited =
+        RSocketTransportConfig.builder().fragmentation(256, 64 * 1024).build();
+    Microservices limitedProvider =
+        Microservices.builder()
+            .transport(new RSocketServiceTransport(limited))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+    Microservices client =
+        Microservices.builder()
+            .seeds(limitedProvider.discovery().address())
+            .transport(new RSocketServiceTransport(CONFIG))
+            .startAwait();
+    try {
+      long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+      while (client.serviceRegistry().listServiceEndpoints().isEmpty()) {
+        assertTrue(System.currentTimeMillis() < deadline, "provider is not discovered");
+        Thread.sleep(100);
+      }
+      GreetingService service = client.call().create().api(GreetingService.class);
+
+      StepVerifier.create(service.greeting(name(100_000))).expectError().verify(TIMEOUT);
+
+      // frames within the limit are still reassembled, over new connection
+      StepVerifier.create(service.greeting(name(10_000)))
+          .expectNext(" hello to: " + name(10_000))
+          .expectComplete()
+          .verify(TIMEOUT);
+    } finally {
+      client.shutdown().block(TIMEOUT);
+      limitedProvider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  private static String name(int length) {
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      sb.append((char) ('a' + i % 26));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,161 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.scalecube.services.sut.QuoteService;
+import io.scalecube.services.sut.SimpleQuoteService;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+public class ServiceTransportGaugesTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private static final String CLIENT = "gateway.client";
+  private static final String SERVER = "provider.server";
+
+  private final MetricRegistry providerRegistry = new MetricRegistry();
+  private final MetricRegistry gatewayRegistry = new MetricRegistry();
+
+  private Microservices provider;
+  private Microservices gateway;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    provider =
+        Microservices.builder()
+            .metrics(providerRegistry)
+            .transport(transport("provider"))
+            .services(new SimpleQuoteService())
+            .startAwait();
+    gateway =
+        Microservices.builder()
+            .metrics(gatewayRegistry)
+            .transport(transport("gateway"))
+            .seeds(provider.discovery().address())
+            .startAwait();
+
+    awaitUntil(() -> !gateway.serviceRegistry().listServiceEndpoints().isEmpty());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (gateway != null) {
+      gateway.shutdown().block(TIMEOUT);
+    }
+    if (provider != null) {
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void test_outstanding_requests_and_credits() throws Exception {
+    QuoteService service = gateway.call().create().api(QuoteService.class);
+    Disposable request = service.justNever().subscribe();
+
+    awaitUntil(() -> value(providerRegistry, SERVER + ".outstandingRequests") == 1);
+    assertEquals(1, value(gatewayRegistry, CLIENT + ".outstandingRequests"));
+    assertEquals(1, value(gatewayRegistry, CLIENT + ".connections"));
+    assertEquals(1, value(gatewayRegistry, CLIENT + ".connection.1.outstandingRequests"));
+    assertEquals(1, value(gatewayRegistry, CLIENT + ".inboundCredits"));
+    assertEquals(1, value(providerRegistry, SERVER + ".outboundCredits"));
+
+    request.dispose();
+    awaitUntil(() -> value(providerRegistry, SERVER + ".outstandingRequests") == 0);
+    assertEquals(0, value(gatewayRegistry, CLIENT + ".outstandingRequests"));
+    assertEquals(0, value(gatewayRegistry, CLIENT + ".inboundCredits"));
+  }
+
+  @Test
+  public void test_pending_writes_and_tasks() throws Exception {
+    QuoteService service = gateway.call().create().api(QuoteService.class);
+    service.justOne().block(TIMEOUT);
+
+    // written bytes are pending until write completes, which may be after response is received
+    awaitUntil(() -> value(gatewayRegistry, CLIENT + ".pendingWriteBytes") == 0);
+    awaitUntil(() -> value(providerRegistry, SERVER + ".pendingWriteBytes") == 0);
+    // named after channel id, since remote address of channels may be the same
+    String channelGauge = CLIENT + "\\.channel\\.[0-9a-f]+\\.pendingWriteBytes";
+    assertTrue(
+        gatewayRegistry.getGauges().keySet().stream().anyMatch(name -> name.matches(channelGauge)),
+        "no channel gauges in " + gatewayRegistry.getGauges().keySet());
+
+    String eventLoops = "provider.scalecube-rsocket";
+    assertTrue(value(providerRegistry, eventLoops + ".pendingTasks") >= 0);
+    assertTrue(value(providerRegistry, eventLoops + ".0.pendingTasks") >= 0);
+  }
+
+  @Test
+  public void test_nodes_sharing_registry_have_distinct_gauges() throws Exception {
+    MetricRegistry sharedRegistry = new MetricRegistry();
+    Microservices first = Microservices.builder().metrics(sharedRegistry).startAwait();
+    Microservices second = Microservices.builder().metrics(sharedRegistry).startAwait();
+    try {
+      long connectionGauges =
+          sharedRegistry.getGauges().keySet().stream()
+              .filter(name -> name.startsWith(RSocketServiceTransport.class.getName()))
+              .filter(name -> name.endsWith(".server.connections"))
+              .count();
+      assertEquals(2, connectionGauges, "gauges: " + sharedRegistry.getGauges().keySet());
+    } finally {
+      second.shutdown().block(TIMEOUT);
+      first.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void test_gauges_are_removed_on_shutdown() {
+    MetricRegistry sharedRegistry = new MetricRegistry();
+    Microservices first = Microservices.builder().metrics(sharedRegistry).startAwait();
+    Microservices second =
+        Microservices.builder()
+            .metrics(sharedRegistry)
+            .seeds(first.discovery().address())
+            .startAwait();
+    String prefix = RSocketServiceTransport.class.getName();
+    assertTrue(
+        sharedRegistry.getGauges().keySet().stream().anyMatch(name -> name.startsWith(prefix)));
+
+    second.shutdown().block(TIMEOUT);
+    first.shutdown().block(TIMEOUT);
+
+    assertEquals(
+        Collections.emptyList(),
+        sharedRegistry
+            .getGauges()
+            .keySet()
+            .stream()
+            .filter(name -> name.startsWith(prefix))
+            .collect(Collectors.toList()));
+  }
+
+  private static RSocketServiceTransport transport(String gaugePrefix) {
+    return new RSocketServiceTransport(
+        RSocketTransportConfig.builder().gaugePrefix(gaugePrefix).build());
+  }
+
+  private static long value(MetricRegistry registry, String name) {
+    Gauge gauge = registry.getGauges().get(name);
+    assertTrue(gauge != null, "no gauge " + name + " in " + registry.getGauges().keySet());
+    return ((Number) gauge.getValue()).longValue();
+  }
+
+  private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.currentTimeMillis() < deadline, "condition is not met in time");
+      Thread.sleep(100);
+    }
+  }
+}
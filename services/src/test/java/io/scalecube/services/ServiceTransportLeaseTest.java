@@ -0,0 +1,124 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.exceptions.ServiceUnavailableException;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class ServiceTransportLeaseTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private final List<Microservices> nodes = new ArrayList<>();
+
+  @AfterEach
+  public void tearDown() {
+    nodes.forEach(
+        node -> {
+          try {
+            node.shutdown().block();
+          } catch (Exception ignore) {
+            // ignore
+          }
+        });
+  }
+
+  @Test
+  public void test_calls_within_lease() throws Exception {
+    Microservices provider = provider(Duration.ofMillis(200), 1000);
+    Microservices gateway = gateway(provider, 1);
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+    }
+  }
+
+  @Test
+  public void test_client_rejects_call_without_lease() throws Exception {
+    Microservices provider = provider(Duration.ofSeconds(10), 3);
+    Microservices gateway = gateway(provider, 1);
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    service.greeting("joe").block(TIMEOUT); // connect and receive lease
+    Thread.sleep(200);
+
+    int rejected = 0;
+    for (int i = 0; i < 5; i++) {
+      try {
+        service.greeting("joe").block(TIMEOUT);
+      } catch (ServiceUnavailableException ex) {
+        rejected++;
+      }
+    }
+    // lease of 3 permits is already partially used by first call
+    assertTrue(rejected >= 2, "rejected: " + rejected);
+  }
+
+  @Test
+  public void test_each_client_gets_permit_when_requests_are_fewer_than_clients()
+      throws Exception {
+    Microservices provider = provider(Duration.ofSeconds(10), 1);
+    Microservices first = gateway(provider, 1);
+    Microservices second = gateway(provider, 1);
+
+    for (Microservices gateway : new Microservices[] {first, second}) {
+      GreetingService service = gateway.call().create().api(GreetingService.class);
+      assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+    }
+  }
+
+  @Test
+  public void test_router_skips_node_without_lease() throws Exception {
+    Microservices leased = provider(Duration.ofSeconds(10), 1);
+    Microservices free = provider(null, 0);
+    Microservices gateway = gateway(leased, 2);
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    // connect to both nodes and receive lease
+    service.greeting("joe").block(TIMEOUT);
+    service.greeting("joe").block(TIMEOUT);
+    Thread.sleep(200);
+
+    for (int i = 0; i < 20; i++) {
+      assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+    }
+  }
+
+  private Microservices provider(Duration leaseTimeToLive, int leaseMaxRequests) {
+    RSocketTransportConfig.Builder config = RSocketTransportConfig.builder();
+    if (leaseTimeToLive != null) {
+      config.lease(leaseTimeToLive, leaseMaxRequests);
+    }
+    Microservices.Builder builder =
+        Microservices.builder()
+            .transport(new RSocketServiceTransport(config.build()))
+            .services(new GreetingServiceImpl());
+    if (!nodes.isEmpty()) {
+      builder.seeds(nodes.get(0).discovery().address());
+    }
+    Microservices provider = builder.startAwait();
+    nodes.add(provider);
+    return provider;
+  }
+
+  private Microservices gateway(Microservices seed, int expectedProviders) throws Exception {
+    Microservices gateway = Microservices.builder().seeds(seed.discovery().address()).startAwait();
+    nodes.add(gateway);
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (gateway.serviceRegistry().listServiceEndpoints().size() < expectedProviders) {
+      assertTrue(System.currentTimeMillis() < deadline, "providers are not discovered");
+      Thread.sleep(100);
+    }
+    return gateway;
+  }
+}
@@ -0,0 +1,226 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.sut.QuoteService;
+import io.scalecube.services.sut.SimpleQuoteService;
+import io.scalecube.services.transport.api.ClientChannel;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
+import io.scalecube.transport.Address;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class ServiceTransportResumeTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private static final RSocketTransportConfig CONFIG =
+      RSocketTransportConfig.builder().resume(Duration.ofSeconds(5), 64).build();
+
+  private Microservices provider;
+  private RSocketServiceTransport transport;
+  private ExecutorService executorService;
+  private Proxy proxy;
+  private ClientChannel channel;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    provider =
+        Microservices.builder()
+            .transport(new RSocketServiceTransport(CONFIG))
+            .services(new SimpleQuoteService(), new GreetingServiceImpl())
+            .startAwait();
+
+    // client connects through proxy, which breaks connections
+    proxy = new Proxy(provider.serviceAddress());
+    transport = new RSocketServiceTransport(CONFIG);
+    executorService = transport.getExecutorService();
+    channel =
+        transport
+            .getClientTransport(executorService)
+            .create(Address.create("localhost", proxy.port()));
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    if (proxy != null) {
+      proxy.close();
+    }
+    if (transport != null) {
+      transport.shutdown(executorService).block(TIMEOUT);
+    }
+    if (provider != null) {
+      provider.shutdown().block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void test_stream_survives_broken_connection() {
+    List<String> expected =
+        IntStream.range(0, 200).mapToObj(i -> "tick:" + i).collect(Collectors.toList());
+
+    StepVerifier.create(snapshot(200), 10)
+        .expectNextSequence(expected.subList(0, 10))
+        .then(proxy::breakConnections)
+        .thenRequest(Long.MAX_VALUE)
+        .expectNextSequence(expected.subList(10, 200))
+        .expectComplete()
+        .verify(TIMEOUT);
+
+    assertEquals(2, proxy.acceptedConnections());
+  }
+
+  @Test
+  public void test_requests_after_broken_connections() {
+    for (int i = 0; i < 3; i++) {
+      ServiceMessage request =
+          ServiceMessage.builder().qualifier(GreetingService.SERVICE_NAME, "greeting").data("joe").build();
+      ServiceMessage response = channel.requestResponse(request).block(TIMEOUT);
+      assertEquals(
+          " hello to: joe", ServiceMessageCodec.decodeData(response, String.class).data());
+      proxy.breakConnections();
+    }
+  }
+
+  @Test
+  public void test_stream_fails_once_session_expires() throws Exception {
+    Duration sessionDuration = Duration.ofMillis(500);
+    RSocketTransportConfig config =
+        RSocketTransportConfig.from(CONFIG).resume(sessionDuration, 64).build();
+    RSocketServiceTransport transport = new RSocketServiceTransport(config);
+    ExecutorService executorService = transport.getExecutorService();
+    try {
+      ClientChannel channel =
+          transport
+              .getClientTransport(executorService)
+              .create(Address.create("localhost", proxy.port()));
+      ServiceMessage request =
+          ServiceMessage.builder().qualifier(QuoteService.NAME, "onlyOneAndThenNever").build();
+
+      // the first element proves that session is established, only then connection is broken
+      StepVerifier.create(channel.requestStream(request))
+          .expectNextCount(1)
+          .then(proxy::close)
+          .expectError()
+          .verify(sessionDuration.plus(Duration.ofSeconds(2)));
+      assertEquals(1, proxy.acceptedConnections());
+    } finally {
+      transport.shutdown(executorService).block(TIMEOUT);
+    }
+  }
+
+  private Flux<String> snapshot(int size) {
+    ServiceMessage request =
+        ServiceMessage.builder().qualifier(QuoteService.NAME, "snapshot").data(size).build();
+    return channel
+        .requestStream(request)
+        .map(message -> ServiceMessageCodec.decodeData(message, String.class).<String>data());
+  }
+
+  /** TCP proxy which breaks connections on demand. */
+  private static final class Proxy implements AutoCloseable {
+
+    private final InetSocketAddress target;
+    private final ServerSocket serverSocket;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private volatile int acceptedConnections;
+
+    private Proxy(InetSocketAddress target) throws IOException {
+      this.target = target;
+      this.serverSocket = new ServerSocket(0);
+      Thread acceptor = new Thread(this::accept, "proxy-acceptor");
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+
+    private int port() {
+      return serverSocket.getLocalPort();
+    }
+
+    private int acceptedConnections() {
+      return acceptedConnections;
+    }
+
+    private void accept() {
+      while (!serverSocket.isClosed()) {
+        try {
+          Socket client = serverSocket.accept();
+          Socket server = new Socket(target.getHostString(), target.getPort());
+          sockets.add(client);
+          sockets.add(server);
+          acceptedConnections++;
+          pipe(client, server);
+          pipe(server, client);
+        } catch (IOException ex) {
+          // closed
+        }
+      }
+    }
+
+    private void pipe(Socket from, Socket to) {
+      Thread thread =
+          new Thread(
+              () -> {
+                byte[] buffer = new byte[8192];
+                try (InputStream in = from.getInputStream();
+                    OutputStream out = to.getOutputStream()) {
+                  int n;
+                  while ((n = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, n);
+                  }
+                } catch (IOException ex) {
+                  // broken
+                }
+                breakConnection(from, to);
+              },
+              "proxy-pipe");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    private void breakConnection(Socket... pair) {
+      for (Socket socket : pair) {
+        try {
+          socket.close();
+        } catch (IOException ignore) {
+          // ignore
+        }
+        sockets.remove(socket);
+      }
+    }
+
+    private void breakConnections() {
+      breakConnection(sockets.toArray(new Socket[0]));
+    }
+
+    @Override
+    public void close() {
+      try {
+        serverSocket.close();
+      } catch (IOException ignore) {
+        // ignore
+      }
+      breakConnections();
+    }
+  }
+}
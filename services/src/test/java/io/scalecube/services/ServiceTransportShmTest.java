@@ -0,0 +1,154 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.exceptions.InternalServiceException;
+import io.scalecube.services.sut.GreetingRequest;
+import io.scalecube.services.sut.GreetingResponse;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.sut.QuoteService;
+import io.scalecube.services.sut.SimpleQuoteService;
+import io.scalecube.services.transport.shm.ShmServiceTransport;
+import io.scalecube.services.transport.shm.ShmTransportConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class ServiceTransportShmTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private static Path shmDir;
+  private static Microservices gateway;
+  private static Microservices provider;
+
+  @BeforeAll
+  public static void setup() throws Exception {
+    shmDir = Files.createTempDirectory("scalecube-shm");
+
+    // small ring buffers, so that frames wrap around and wait for free space
+    ShmTransportConfig config =
+        ShmTransportConfig.builder().directory(shmDir).ringCapacity(64 * 1024).build();
+
+    gateway = Microservices.builder().transport(new ShmServiceTransport(config)).startAwait();
+
+    provider =
+        Microservices.builder()
+            .seeds(gateway.discovery().address())
+            .transport(new ShmServiceTransport(config))
+            .services(new GreetingServiceImpl(), new SimpleQuoteService())
+            .startAwait();
+  }
+
+  @AfterAll
+  public static void tearDown() throws Exception {
+    Stream.of(gateway, provider)
+        .filter(microservices -> microservices != null)
+        .forEach(
+            microservices -> {
+              try {
+                microservices.shutdown().block();
+              } catch (Exception ignore) {
+                // ignore
+              }
+            });
+    if (shmDir != null) {
+      try (Stream<Path> files = Files.list(shmDir)) {
+        assertEquals(0, files.count(), "shared memory files are left after shutdown");
+      }
+      Files.deleteIfExists(shmDir);
+    }
+  }
+
+  @Test
+  public void test_request_response() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+  }
+
+  @Test
+  public void test_request_response_void() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    StepVerifier.create(service.greetingVoid(new GreetingRequest("joe")))
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_request_response_error() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    GreetingRequest request = new GreetingRequest("joe");
+
+    StepVerifier.create(service.failingRequest(request))
+        .expectErrorSatisfies(
+            ex -> {
+              assertTrue(ex instanceof InternalServiceException);
+              assertEquals(request.toString(), ex.getMessage());
+            })
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_request_stream_honors_credit() {
+    QuoteService service = gateway.call().create().api(QuoteService.class);
+
+    StepVerifier.create(service.snapshot(10), 0)
+        .expectSubscription()
+        .expectNoEvent(Duration.ofMillis(100))
+        .thenRequest(3)
+        .expectNext("tick:0", "tick:1", "tick:2")
+        .expectNoEvent(Duration.ofMillis(100))
+        .thenRequest(Long.MAX_VALUE)
+        .expectNextCount(7)
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_request_stream_cancel() {
+    QuoteService service = gateway.call().create().api(QuoteService.class);
+
+    StepVerifier.create(service.quotes().take(3))
+        .expectNextCount(3)
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_request_channel() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+
+    StepVerifier.create(
+            service.bidiGreeting(
+                Flux.range(0, 100).map(i -> new GreetingRequest("joe-" + i))))
+        .expectNextCount(100)
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_concurrent_requests_exceed_ring_capacity() {
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    String name = String.join("", Collections.nCopies(1000, "x"));
+
+    List<GreetingResponse> responses =
+        Flux.range(0, 1000)
+            .flatMap(i -> service.greetingRequest(new GreetingRequest(name + i)), 256)
+            .collectList()
+            .block(TIMEOUT);
+
+    assertEquals(1000, responses.size());
+  }
+}
@@ -0,0 +1,144 @@
+package io.scalecube.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.discovery.api.DiscoveryEvent;
+import io.scalecube.services.sut.GreetingService;
+import io.scalecube.services.sut.GreetingServiceImpl;
+import io.scalecube.services.transport.api.ClientTransport;
+import io.scalecube.services.transport.rsocket.RSocketServiceTransport;
+import io.scalecube.services.transport.rsocket.RSocketTransportConfig;
+import io.scalecube.transport.Address;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class ServiceTransportWarmUpTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private static final RSocketTransportConfig CONFIG =
+      RSocketTransportConfig.builder().warmUpConnections(true).build();
+
+  private Microservices gateway;
+  private Microservices provider;
+
+  @AfterEach
+  public void tearDown() {
+    for (Microservices node : new Microservices[] {gateway, provider}) {
+      if (node != null) {
+        try {
+          node.shutdown().block();
+        } catch (Exception ignore) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  @Test
+  public void test_node_is_unavailable_until_connected() {
+    provider = Microservices.builder().services(new GreetingServiceImpl()).startAwait();
+    ServiceEndpoint endpoint = provider.discovery().endpoint();
+    ServiceReference reference = provider.serviceRegistry().listServiceReferences().get(0);
+
+    RSocketServiceTransport transport = new RSocketServiceTransport(CONFIG);
+    ExecutorService executorService = transport.getExecutorService();
+    try {
+      ClientTransport clientTransport = transport.getClientTransport(executorService);
+      assertEquals(1.0, clientTransport.availability(reference));
+
+      Mono<Void> ready = clientTransport.warmUp(endpoint);
+      assertEquals(0.0, clientTransport.availability(reference));
+      ready.block(TIMEOUT);
+      assertEquals(1.0, clientTransport.availability(reference));
+
+      clientTransport.tearDown(endpoint).block(TIMEOUT);
+      assertEquals(1.0, clientTransport.availability(reference));
+    } finally {
+      transport.shutdown(executorService).block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void test_connections_are_closed_on_tear_down_without_warm_up() throws Exception {
+    MetricRegistry registry = new MetricRegistry();
+    provider =
+        Microservices.builder()
+            .metrics(registry)
+            .transport(
+                new RSocketServiceTransport(
+                    RSocketTransportConfig.builder().gaugePrefix("provider").build()))
+            .services(new GreetingServiceImpl())
+            .startAwait();
+    ServiceEndpoint endpoint = provider.discovery().endpoint();
+    Gauge<?> connections = registry.getGauges().get("provider.server.connections");
+
+    RSocketServiceTransport transport =
+        new RSocketServiceTransport(RSocketTransportConfig.builder().build());
+    ExecutorService executorService = transport.getExecutorService();
+    try {
+      ClientTransport clientTransport = transport.getClientTransport(executorService);
+      ServiceMessage request =
+          ServiceMessage.builder()
+              .qualifier(GreetingService.SERVICE_NAME, "greeting")
+              .data("joe")
+              .build();
+      clientTransport
+          .create(Address.create(endpoint.host(), endpoint.port()))
+          .requestResponse(request)
+          .block(TIMEOUT);
+      assertEquals(1, ((Number) connections.getValue()).intValue());
+
+      clientTransport.tearDown(endpoint).block(TIMEOUT);
+
+      long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+      while (((Number) connections.getValue()).intValue() != 0) {
+        assertTrue(System.currentTimeMillis() < deadline, "connection is not closed");
+        Thread.sleep(100);
+      }
+    } finally {
+      transport.shutdown(executorService).block(TIMEOUT);
+    }
+  }
+
+  @Test
+  public void test_warm_up_and_tear_down_on_discovery_events() throws Exception {
+    gateway =
+        Microservices.builder().transport(new RSocketServiceTransport(CONFIG)).startAwait();
+
+    CountDownLatch unregistered = new CountDownLatch(1);
+    gateway
+        .discovery()
+        .listen()
+        .filter(DiscoveryEvent::isUnregistered)
+        .subscribe(event -> unregistered.countDown());
+
+    provider =
+        Microservices.builder()
+            .seeds(gateway.discovery().address())
+            .services(new GreetingServiceImpl())
+            .startAwait();
+
+    long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+    while (gateway.serviceRegistry().listServiceEndpoints().isEmpty()) {
+      assertTrue(System.currentTimeMillis() < deadline, "provider is not discovered");
+      Thread.sleep(100);
+    }
+
+    GreetingService service = gateway.call().create().api(GreetingService.class);
+    assertEquals(" hello to: joe", service.greeting("joe").block(TIMEOUT));
+
+    provider.shutdown().block(TIMEOUT);
+    provider = null;
+    assertTrue(unregistered.await(20, TimeUnit.SECONDS), "provider is not unregistered");
+  }
+}
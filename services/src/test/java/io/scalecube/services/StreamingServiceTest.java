@@ -187,4 +187,47 @@ public class StreamingServiceTest extends BaseTest {
 
     assertEquals(batchSize, serviceMessages.size());
   }
+
+  @Test
+  public void test_snapshot_batched() {
+    int size = 1000;
+
+    ServiceCall serviceCall = gateway.call().streamBatchSize(64).create();
+
+    ServiceMessage message =
+        ServiceMessage.builder().qualifier(QuoteService.NAME, "snapshot").data(size).build();
+
+    List<ServiceMessage> serviceMessages =
+        serviceCall
+            .requestMany(message, String.class)
+            .timeout(Duration.ofSeconds(5))
+            .collectList()
+            .block();
+
+    assertEquals(size, serviceMessages.size());
+    for (int i = 0; i < size; i++) {
+      assertEquals("tick:" + i, serviceMessages.get(i).data());
+      assertEquals(message.qualifier(), serviceMessages.get(i).qualifier());
+    }
+  }
+
+  @Test
+  public void test_snapshot_batched_api() {
+    QuoteService service = gateway.call().streamBatchSize(100).create().api(QuoteService.class);
+
+    List<String> list = service.snapshot(250).collectList().block(Duration.ofSeconds(5));
+
+    assertEquals(250, list.size());
+    assertEquals("tick:249", list.get(249));
+  }
+
+  @Test
+  public void test_slow_stream_batched() {
+    QuoteService service = gateway.call().streamBatchSize(64).create().api(QuoteService.class);
+
+    // incomplete batch is sent after max delay instead of waiting for 63 more elements
+    String first = service.onlyOneAndThenNever().blockFirst(Duration.ofSeconds(3));
+
+    assertEquals("only first", first);
+  }
 }
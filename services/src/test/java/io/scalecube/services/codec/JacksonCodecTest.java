@@ -0,0 +1,134 @@
+package io.scalecube.services.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.codec.jackson.JacksonCodec;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class JacksonCodecTest extends BaseTest {
+
+  private final CountingMapper mapper = new CountingMapper();
+  private final JacksonCodec codec = new JacksonCodec(mapper);
+
+  @Test
+  void readersAndWritersAreCreatedOncePerType() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      ByteBuf heap = Unpooled.buffer();
+      ByteBuf direct = ByteBufAllocator.DEFAULT.directBuffer();
+      try {
+        codec.encode(heap, new Bean("heap", i));
+        codec.encode(direct, new Bean("direct", i));
+        assertEquals(new Bean("heap", i), codec.decode(heap, Bean.class));
+        assertEquals(new Bean("direct", i), codec.decode(direct, Bean.class));
+      } finally {
+        heap.release();
+        direct.release();
+      }
+    }
+
+    assertEquals(1, mapper.readers(Bean.class));
+    assertEquals(1, mapper.writers(Bean.class));
+  }
+
+  @Test
+  void warmUpCreatesReaderAndWriter() throws Exception {
+    codec.warmUp(Bean.class);
+    assertEquals(1, mapper.readers(Bean.class));
+    assertEquals(1, mapper.writers(Bean.class));
+
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(buffer, new Bean("warm", 1));
+      codec.decode(buffer, Bean.class);
+    } finally {
+      buffer.release();
+    }
+    assertEquals(1, mapper.readers(Bean.class));
+    assertEquals(1, mapper.writers(Bean.class));
+  }
+
+  @Test
+  void batchReusesReaderAndWriter() throws Exception {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encodeBatch(buffer, Arrays.asList(new Bean("a", 1), new Bean("b", 2)));
+      assertEquals(
+          Arrays.asList(new Bean("a", 1), new Bean("b", 2)),
+          codec.decodeBatch(buffer, Bean.class));
+    } finally {
+      buffer.release();
+    }
+    codec.warmUp(Bean.class);
+
+    assertEquals(1, mapper.readers(Bean.class));
+    assertEquals(1, mapper.writers(Bean.class));
+  }
+
+  private static class CountingMapper extends ObjectMapper {
+
+    private final Map<Class<?>, AtomicInteger> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, AtomicInteger> writers = new ConcurrentHashMap<>();
+
+    @Override
+    public ObjectReader readerFor(Class<?> type) {
+      readers.computeIfAbsent(type, key -> new AtomicInteger()).incrementAndGet();
+      return super.readerFor(type);
+    }
+
+    @Override
+    public ObjectWriter writerFor(Class<?> type) {
+      writers.computeIfAbsent(type, key -> new AtomicInteger()).incrementAndGet();
+      return super.writerFor(type);
+    }
+
+    private int readers(Class<?> type) {
+      return readers.getOrDefault(type, new AtomicInteger()).get();
+    }
+
+    private int writers(Class<?> type) {
+      return writers.getOrDefault(type, new AtomicInteger()).get();
+    }
+  }
+
+  public static class Bean {
+
+    public String name;
+    public int value;
+
+    public Bean() {}
+
+    Bean(String name, int value) {
+      this.name = name;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Bean that = (Bean) o;
+      return value == that.value && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, value);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package io.scalecube.services.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.codec.protostuff.ProtostuffCodec;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ProtostuffCodecTest extends BaseTest {
+
+  private final ProtostuffCodec codec = new ProtostuffCodec();
+
+  @Test
+  void encodeAndDecodeHeapBuffer() throws Exception {
+    Bean expected = bean();
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(buffer, expected);
+      assertEquals(expected, codec.decode(buffer, Bean.class));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void encodeAndDecodeDirectBuffer() throws Exception {
+    Bean expected = bean();
+    ByteBuf buffer = ByteBufAllocator.DEFAULT.directBuffer(16);
+    try {
+      codec.encode(buffer, expected);
+      assertEquals(expected, codec.decode(buffer, Bean.class));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void decodeCompositeBuffer() throws Exception {
+    Bean expected = bean();
+    ByteBuf buffer = Unpooled.buffer();
+    codec.encode(buffer, expected);
+    int half = buffer.readableBytes() / 2;
+    ByteBuf composite =
+        Unpooled.wrappedBuffer(
+            buffer.retainedSlice(0, half),
+            buffer.retainedSlice(half, buffer.readableBytes() - half));
+    try {
+      assertEquals(expected, codec.decode(composite, Bean.class));
+    } finally {
+      composite.release();
+      buffer.release();
+    }
+  }
+
+  @Test
+  void bufferAndStreamFormatsAreCompatible() throws Exception {
+    Bean expected = bean();
+
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      codec.encode(buffer, expected);
+      try (InputStream stream = new ByteBufInputStream(buffer.slice())) {
+        assertEquals(expected, codec.decode(stream, Bean.class));
+      }
+    } finally {
+      buffer.release();
+    }
+
+    ByteBuf streamBuffer = Unpooled.buffer();
+    try {
+      try (OutputStream stream = new ByteBufOutputStream(streamBuffer)) {
+        codec.encode(stream, expected);
+      }
+      assertEquals(expected, codec.decode(streamBuffer, Bean.class));
+    } finally {
+      streamBuffer.release();
+    }
+  }
+
+  private static Bean bean() {
+    Bean bean = new Bean();
+    bean.intValue = -42;
+    bean.longValue = Long.MIN_VALUE;
+    bean.doubleValue = Math.PI;
+    bean.floatValue = -1.5f;
+    bean.boolValue = true;
+    bean.kind = Kind.SECOND;
+    bean.bytes = new byte[] {0, 1, -1, 127, -128};
+    bean.shortString = "Привет, 世界";
+    bean.longString = IntStream.range(0, 100).mapToObj(i -> "ё" + i).collect(Collectors.joining());
+    bean.timestamp = LocalDateTime.now();
+    bean.child = new Bean();
+    bean.child.shortString = "child";
+    bean.child.longString =
+        IntStream.range(0, 2000).mapToObj(String::valueOf).collect(Collectors.joining());
+    bean.children = Arrays.asList(new Bean(), bean.child);
+    bean.attributes = new HashMap<>(Collections.singletonMap("key", "value"));
+    return bean;
+  }
+
+  private enum Kind {
+    FIRST,
+    SECOND
+  }
+
+  private static class Bean {
+    private int intValue;
+    private long longValue;
+    private double doubleValue;
+    private float floatValue;
+    private boolean boolValue;
+    private Kind kind;
+    private byte[] bytes;
+    private String shortString;
+    private String longString;
+    private LocalDateTime timestamp;
+    private Bean child;
+    private List<Bean> children;
+    private Map<String, String> attributes;
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Bean that = (Bean) o;
+      return intValue == that.intValue
+          && longValue == that.longValue
+          && Double.compare(doubleValue, that.doubleValue) == 0
+          && Float.compare(floatValue, that.floatValue) == 0
+          && boolValue == that.boolValue
+          && kind == that.kind
+          && Arrays.equals(bytes, that.bytes)
+          && Objects.equals(shortString, that.shortString)
+          && Objects.equals(longString, that.longString)
+          && Objects.equals(timestamp, that.timestamp)
+          && Objects.equals(child, that.child)
+          && Objects.equals(children, that.children)
+          && Objects.equals(attributes, that.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(intValue, longValue, kind, shortString, longString, timestamp);
+    }
+  }
+}
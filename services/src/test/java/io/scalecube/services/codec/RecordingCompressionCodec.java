@@ -0,0 +1,58 @@
+package io.scalecube.services.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.scalecube.services.codec.compression.Lz4CompressionCodec;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test compression codec which compresses with LZ4 and records how many bytes went through it, so
+ * tests can tell that data really went over the wire compressed.
+ */
+public final class RecordingCompressionCodec implements CompressionCodec {
+
+  public static final String CONTENT_ENCODING = "x-recording-lz4";
+
+  private static final AtomicLong ORIGINAL_BYTES = new AtomicLong();
+  private static final AtomicLong COMPRESSED_BYTES = new AtomicLong();
+  private static final AtomicLong DECOMPRESSED_BYTES = new AtomicLong();
+
+  private final CompressionCodec delegate = new Lz4CompressionCodec();
+
+  public static long originalBytes() {
+    return ORIGINAL_BYTES.get();
+  }
+
+  public static long compressedBytes() {
+    return COMPRESSED_BYTES.get();
+  }
+
+  public static long decompressedBytes() {
+    return DECOMPRESSED_BYTES.get();
+  }
+
+  @Override
+  public String contentEncoding() {
+    return CONTENT_ENCODING;
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return delegate.isAvailable();
+  }
+
+  @Override
+  public ByteBuf compress(ByteBuf source) throws IOException {
+    ByteBuf target = delegate.compress(source);
+    ORIGINAL_BYTES.addAndGet(source.readableBytes());
+    COMPRESSED_BYTES.addAndGet(target.readableBytes());
+    return target;
+  }
+
+  @Override
+  public ByteBuf decompress(ByteBuf source) throws IOException {
+    ByteBuf target = delegate.decompress(source);
+    DECOMPRESSED_BYTES.addAndGet(target.readableBytes());
+    return target;
+  }
+}
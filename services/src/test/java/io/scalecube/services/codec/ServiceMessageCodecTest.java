@@ -2,25 +2,41 @@ package io.scalecube.services.codec;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.rsocket.Payload;
 import io.rsocket.util.ByteBufPayload;
 import io.scalecube.services.BaseTest;
 import io.scalecube.services.api.ServiceMessage;
 import io.scalecube.services.codec.jackson.JacksonCodec;
 import io.scalecube.services.codec.protostuff.ProtostuffCodec;
+import io.scalecube.services.exceptions.ExceptionProcessor;
+import io.scalecube.services.exceptions.InternalServiceException;
+import io.scalecube.services.exceptions.MessageCodecException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
 import java.util.UUID;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ArgumentsProvider;
 import org.junit.jupiter.params.provider.ArgumentsSource;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class ServiceMessageCodecTest extends BaseTest {
 
@@ -55,6 +71,152 @@ class ServiceMessageCodecTest extends BaseTest {
         () -> assertEquals(message.data(), actual.data()));
   }
 
+  @ParameterizedTest(name = "{0}")
+  @ArgumentsSource(MessageCodecProvider.class)
+  void encodeAndDecodeBatch(String contentType, ServiceMessageCodec codec) {
+    ServiceMessage first =
+        ServiceMessage.builder().qualifier(qualifier()).dataFormat(contentType).data(data()).build();
+    ServiceMessage second = ServiceMessage.from(first).data(data()).build();
+    ServiceMessage error = ExceptionProcessor.toMessage(new RuntimeException("error"));
+
+    List<Payload> payloads =
+        codec.encodeBatchAndTransform(
+            Arrays.asList(first, second, error), null, ByteBufPayload::create);
+
+    assertEquals(2, payloads.size());
+
+    List<ServiceMessage> actual =
+        ServiceMessageCodec.decodeBatch(toMessage(codec, payloads.get(0)), PlaceOrderRequest.class);
+
+    assertEquals(2, actual.size());
+    assertAll(
+        () -> assertEquals(first.headers(), actual.get(0).headers()),
+        () -> assertEquals(first.data(), actual.get(0).data()),
+        () -> assertEquals(second.headers(), actual.get(1).headers()),
+        () -> assertEquals(second.data(), actual.get(1).data()));
+
+    assertThrows(
+        InternalServiceException.class,
+        () ->
+            ServiceMessageCodec.decodeBatch(
+                toMessage(codec, payloads.get(1)), PlaceOrderRequest.class));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @ValueSource(strings = {"lz4", "zstd"})
+  void encodeAndDecodeCompressed(String contentEncoding) {
+    assertTrue(
+        CompressionCodec.INSTANCES.containsKey(contentEncoding),
+        contentEncoding + " isn't available on this jvm");
+    ServiceMessageCodec codec =
+        new ServiceMessageCodec(HeadersCodec.getInstance(JacksonCodec.CONTENT_TYPE), 128);
+    PlaceOrderRequest data = data();
+    data.token = String.join(".", Collections.nCopies(100, data.token));
+    ServiceMessage message = ServiceMessage.builder().qualifier(qualifier()).data(data).build();
+
+    Payload plain = codec.encodeAndTransform(message, ByteBufPayload::create);
+    Payload compressed =
+        codec.encodeAndTransform(message, contentEncoding, ByteBufPayload::create);
+
+    assertTrue(compressed.getMetadataUtf8().contains(ServiceMessageCodec.HEADER_CONTENT_ENCODING));
+    assertTrue(compressed.sliceData().readableBytes() < plain.sliceData().readableBytes() / 10);
+
+    ServiceMessage actual =
+        ServiceMessageCodec.decodeData(toMessage(codec, compressed), PlaceOrderRequest.class);
+
+    assertAll(
+        () -> assertEquals(message.headers(), actual.headers()),
+        () -> assertEquals(message.data(), actual.data()));
+  }
+
+  @Test
+  void encodeWithGivenAllocator() {
+    ByteBufAllocator allocator = new UnpooledByteBufAllocator(false);
+    ServiceMessageCodec codec =
+        new ServiceMessageCodec(HeadersCodec.getInstance(JacksonCodec.CONTENT_TYPE), allocator);
+    ServiceMessage message =
+        ServiceMessage.builder().qualifier(qualifier()).data(data()).headers(headers()).build();
+
+    Payload payload = codec.encodeAndTransform(message, ByteBufPayload::create);
+    try {
+      assertEquals(allocator, payload.sliceData().alloc());
+      assertEquals(allocator, payload.sliceMetadata().alloc());
+    } finally {
+      payload.release();
+    }
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @ValueSource(strings = {"lz4", "unknown"})
+  void incompressibleDataIsSentAsItIs(String contentEncoding) {
+    ServiceMessageCodec codec =
+        new ServiceMessageCodec(HeadersCodec.getInstance(JacksonCodec.CONTENT_TYPE), 128);
+    PlaceOrderRequest data = data();
+    byte[] random = new byte[4096];
+    new Random(42).nextBytes(random);
+    data.token = Base64.getEncoder().encodeToString(random);
+    ServiceMessage message = ServiceMessage.builder().qualifier(qualifier()).data(data).build();
+
+    Payload payload = codec.encodeAndTransform(message, contentEncoding, ByteBufPayload::create);
+
+    assertFalse(payload.getMetadataUtf8().contains(ServiceMessageCodec.HEADER_CONTENT_ENCODING));
+    ServiceMessage actual =
+        ServiceMessageCodec.decodeData(toMessage(codec, payload), PlaceOrderRequest.class);
+    assertEquals(message.data(), actual.data());
+  }
+
+  @ParameterizedTest(name = "{0} -> {1}")
+  @CsvSource({"16, 16", "64, 64", "100000, 64", "0, 1", "-5, 1", "abc, 1", "'', 1", "' 8 ', 8"})
+  void streamBatchSizeIsValidatedAndClamped(String header, int expected) {
+    ServiceMessage request =
+        ServiceMessage.builder()
+            .qualifier(qualifier())
+            .header(ServiceMessageCodec.HEADER_STREAM_BATCH_SIZE, header)
+            .build();
+
+    assertEquals(expected, ServiceMessageCodec.streamBatchSize(request, 64));
+  }
+
+  @Test
+  void streamBatchSizeDefaultsToOne() {
+    ServiceMessage request = ServiceMessage.builder().qualifier(qualifier()).build();
+
+    assertEquals(1, ServiceMessageCodec.streamBatchSize(request, 64));
+  }
+
+  @Test
+  void unknownContentTypeIdIsReported() {
+    IllegalArgumentException ex =
+        assertThrows(IllegalArgumentException.class, () -> DataCodec.getInstance(12345));
+
+    assertTrue(ex.getMessage().contains("12345"), ex.getMessage());
+  }
+
+  @Test
+  void unregisteredDataFormatIsNamed() {
+    ServiceMessageCodec codec =
+        new ServiceMessageCodec(HeadersCodec.getInstance(JacksonCodec.CONTENT_TYPE));
+    ServiceMessage message =
+        ServiceMessage.builder()
+            .qualifier(qualifier())
+            .dataFormat("application/unregistered")
+            .data(data())
+            .build();
+
+    MessageCodecException ex =
+        assertThrows(
+            MessageCodecException.class,
+            () -> codec.encodeAndTransform(message, ByteBufPayload::create));
+
+    assertTrue(
+        ex.getCause().getMessage().contains("application/unregistered"),
+        ex.getCause().getMessage());
+  }
+
+  private ServiceMessage toMessage(ServiceMessageCodec codec, Payload payload) {
+    return codec.decode(payload.sliceData(), payload.sliceMetadata());
+  }
+
   private String qualifier() {
     return "io.scalecube.services.tests/SomeService/test";
   }
@@ -0,0 +1,55 @@
+package io.scalecube.services.codec;
+
+import io.scalecube.services.codec.jackson.JacksonCodec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Test data codec which records types it's warmed up for, and fails to warm up types named {@code
+ * Failing*}. It is registered for the whole test classpath, so encoding and decoding are delegated
+ * to JSON codec and messages with its content type still go through.
+ */
+public final class WarmUpRecordingCodec implements DataCodec {
+
+  public static final String CONTENT_TYPE = "application/x-warm-up-recording";
+
+  private static final Set<Class<?>> WARMED_UP = new CopyOnWriteArraySet<>();
+
+  private final DataCodec delegate = new JacksonCodec();
+
+  /**
+   * Checks whether codec was warmed up for given type.
+   *
+   * @param type type class
+   * @return true if type was warmed up
+   */
+  public static boolean isWarmedUp(Class<?> type) {
+    return WARMED_UP.contains(type);
+  }
+
+  @Override
+  public String contentType() {
+    return CONTENT_TYPE;
+  }
+
+  @Override
+  public void warmUp(Class<?> type) {
+    if (type.getSimpleName().startsWith("Failing")) {
+      throw new IllegalStateException("Failed to warm up " + type);
+    }
+    WARMED_UP.add(type);
+  }
+
+  @Override
+  public void encode(OutputStream stream, Object value) throws IOException {
+    delegate.encode(stream, value);
+  }
+
+  @Override
+  public Object decode(InputStream stream, Class<?> type) throws IOException {
+    return delegate.decode(stream, type);
+  }
+}
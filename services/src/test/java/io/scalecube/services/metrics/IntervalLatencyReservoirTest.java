@@ -0,0 +1,153 @@
+package io.scalecube.services.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.Snapshot;
+import io.scalecube.services.BaseTest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class IntervalLatencyReservoirTest extends BaseTest {
+
+  private static final long INTERVAL = 1_000;
+
+  private final AtomicLong clock = new AtomicLong();
+  private final IntervalLatencyReservoir reservoir =
+      new IntervalLatencyReservoir(INTERVAL, clock::get);
+
+  /** Ends current interval and returns its snapshot. */
+  private Snapshot nextSnapshot() {
+    clock.addAndGet(INTERVAL);
+    return reservoir.getSnapshot();
+  }
+
+  @Test
+  public void test_small_values_are_exact() {
+    for (int i = 1; i <= 100; i++) {
+      reservoir.update(i);
+    }
+
+    Snapshot snapshot = nextSnapshot();
+    assertEquals(100, snapshot.size());
+    assertEquals(1, snapshot.getMin());
+    assertEquals(100, snapshot.getMax());
+    assertEquals(50.0, snapshot.getMedian());
+    assertEquals(99.0, snapshot.get99thPercentile());
+    assertEquals(50.5, snapshot.getMean(), 0.001);
+  }
+
+  @Test
+  public void test_large_values_within_relative_error() {
+    long[] values = {1_000, 123_456, 10_000_000, 987_654_321, 60_000_000_000L};
+    for (long value : values) {
+      reservoir.update(value);
+      Snapshot snapshot = nextSnapshot();
+      double error = Math.abs(snapshot.getMax() - value) / (double) value;
+      assertTrue(error < 0.01, "value: " + value + ", recorded: " + snapshot.getMax());
+    }
+  }
+
+  @Test
+  public void test_buckets_are_contiguous() {
+    long previous = -1;
+    for (long value = 0; value < 1 << 20; value++) {
+      int bucket = IntervalLatencyReservoir.bucket(value);
+      assertTrue(bucket == previous || bucket == previous + 1, "value: " + value);
+      previous = bucket;
+    }
+  }
+
+  @Test
+  public void test_interval_snapshot_covers_interval() {
+    reservoir.update(10);
+    reservoir.update(20);
+    assertEquals(2, nextSnapshot().size());
+
+    reservoir.update(30);
+    Snapshot snapshot = nextSnapshot();
+    assertEquals(1, snapshot.size());
+    assertEquals(30, snapshot.getMin());
+
+    assertEquals(0, nextSnapshot().size());
+  }
+
+  @Test
+  public void test_snapshot_is_kept_until_interval_ends() {
+    reservoir.update(10);
+    reservoir.update(20);
+    assertEquals(2, reservoir.size());
+    assertEquals(0, reservoir.getSnapshot().size());
+
+    clock.addAndGet(INTERVAL);
+    assertEquals(2, reservoir.getSnapshot().size());
+    reservoir.update(30);
+    // several readers see the same completed interval
+    for (int i = 0; i < 3; i++) {
+      assertEquals(2, reservoir.getSnapshot().size());
+    }
+    assertEquals(1, reservoir.size());
+
+    clock.addAndGet(INTERVAL - 1);
+    assertEquals(2, reservoir.getSnapshot().size());
+    clock.addAndGet(1);
+    assertEquals(1, reservoir.getSnapshot().size());
+    assertEquals(0, reservoir.size());
+  }
+
+  @Test
+  public void test_interval_schedule_is_fixed() {
+    clock.addAndGet(INTERVAL + INTERVAL / 2);
+    assertEquals(0, reservoir.getSnapshot().size()); // first interval, read late
+    reservoir.update(10);
+
+    clock.addAndGet(INTERVAL / 2);
+    assertEquals(1, reservoir.getSnapshot().size()); // second interval ended on schedule
+  }
+
+  @Test
+  public void test_values_are_expanded_by_count() {
+    reservoir.update(20);
+    reservoir.update(10);
+    reservoir.update(20);
+
+    assertArrayEquals(new long[] {10, 20, 20}, nextSnapshot().getValues());
+  }
+
+  @Test
+  public void test_interval_snapshots_lose_no_values() throws Exception {
+    int writers = 4;
+    int values = 100_000;
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < values; i++) {
+                    reservoir.update(i);
+                  }
+                }));
+      }
+      long total = 0;
+      while (!futures.stream().allMatch(Future::isDone)) {
+        total += nextSnapshot().size();
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      total += nextSnapshot().size();
+
+      assertEquals((long) writers * values, total);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
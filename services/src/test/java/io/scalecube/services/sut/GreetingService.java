@@ -36,6 +36,9 @@ public interface GreetingService {
   @ServiceMethod
   Mono<ServiceMessage> greetingMessage(ServiceMessage request);
 
+  @ServiceMethod
+  Mono<ServiceMessage> greetingHeaders(ServiceMessage request);
+
   @ServiceMethod
   Mono<Void> greetingVoid(GreetingRequest request);
 
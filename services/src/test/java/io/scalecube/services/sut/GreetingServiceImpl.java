@@ -4,6 +4,7 @@ import io.scalecube.services.Microservices;
 import io.scalecube.services.annotations.Inject;
 import io.scalecube.services.api.ServiceMessage;
 import io.scalecube.services.exceptions.UnauthorizedException;
+import java.util.TreeSet;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -104,6 +105,16 @@ public final class GreetingServiceImpl implements GreetingService {
     return Mono.just(ServiceMessage.builder().data(resp).build());
   }
 
+  @Override
+  public Mono<ServiceMessage> greetingHeaders(ServiceMessage request) {
+    String headers = String.join(",", new TreeSet<>(request.headers().keySet()));
+    return Mono.just(
+        ServiceMessage.builder()
+            .qualifier(request.qualifier())
+            .data(new GreetingResponse(headers, "1"))
+            .build());
+  }
+
   @Override
   public Mono<Void> greetingVoid(GreetingRequest request) {
     print("[greetingVoid] Hello... i am a service an just recived a message:" + request);
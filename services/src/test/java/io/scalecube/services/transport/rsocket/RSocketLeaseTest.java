@@ -0,0 +1,51 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.scalecube.services.BaseTest;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks availability of server over leases of connections opened to it by different threads.
+ */
+public class RSocketLeaseTest extends BaseTest {
+
+  private static final long TIME_TO_LIVE = 10_000;
+
+  @Test
+  public void test_server_without_leases_is_available() {
+    assertEquals(1.0, RSocketLease.availability(Collections.emptyList()));
+    assertEquals(1.0, RSocketLease.availability(Arrays.asList(lease(4, 4), new RSocketLease())));
+  }
+
+  @Test
+  public void test_permits_are_summed_over_connections() {
+    assertEquals(0.5, RSocketLease.availability(Arrays.asList(lease(4, 4), lease(4, 0))));
+    assertEquals(0.25, RSocketLease.availability(Arrays.asList(lease(4, 1), lease(4, 1))));
+  }
+
+  @Test
+  public void test_exhausted_leases_of_all_connections_make_server_unavailable() {
+    assertEquals(0.0, RSocketLease.availability(Arrays.asList(lease(2, 0), lease(2, 0))));
+    assertEquals(0.0, RSocketLease.availability(Arrays.asList(lease(0, 0), lease(0, 0))));
+  }
+
+  @Test
+  public void test_expired_lease_has_no_permits_left() {
+    RSocketLease expired = new RSocketLease();
+    expired.update(4, -1);
+
+    assertEquals(0.5, RSocketLease.availability(Arrays.asList(lease(4, 4), expired)));
+  }
+
+  private static RSocketLease lease(int issued, int left) {
+    RSocketLease lease = new RSocketLease();
+    lease.update(issued, TIME_TO_LIVE);
+    for (int i = left; i < issued; i++) {
+      lease.tryAcquire();
+    }
+    return lease;
+  }
+}
@@ -0,0 +1,106 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import io.rsocket.AbstractRSocket;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.ByteBufPayload;
+import io.scalecube.services.BaseTest;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.HeadersCodec;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.util.function.Tuple2;
+
+public class RSocketRequestBatcherTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private final ByteBufAllocator allocator = new UnpooledByteBufAllocator(false);
+  private final ServiceMessageCodec codec =
+      new ServiceMessageCodec(HeadersCodec.getInstance("application/json"), allocator);
+  private final EventLoop eventLoop = new DefaultEventLoop();
+
+  private final RSocketTransportConfig config =
+      RSocketTransportConfig.builder().batchMaxMessages(2).batchMaxDelay(TIMEOUT).build();
+
+  @AfterEach
+  public void tearDown() {
+    eventLoop.shutdownGracefully();
+  }
+
+  @Test
+  public void test_replies_are_delivered_by_index() {
+    Tuple2<Signal<Payload>, Signal<Payload>> signals = sendBatch(reply("1"), reply("0"));
+
+    assertAll(
+        () -> assertEquals("reply", signals.getT1().get().getDataUtf8()),
+        () -> assertEquals("reply", signals.getT2().get().getDataUtf8()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "one", "-1", "2", "2147483648"})
+  public void test_invalid_reply_index_fails_whole_batch(String index) {
+    Tuple2<Signal<Payload>, Signal<Payload>> signals = sendBatch(reply(index));
+
+    for (Signal<Payload> signal : Arrays.asList(signals.getT1(), signals.getT2())) {
+      assertTrue(signal.isOnError(), "expected error, got " + signal);
+      assertEquals(IllegalStateException.class, signal.getThrowable().getClass());
+      assertTrue(
+          signal.getThrowable().getMessage().contains("Invalid index '" + index + "'"),
+          signal.getThrowable().getMessage());
+    }
+  }
+
+  @Test
+  public void test_invalid_reply_index_fails_requests_not_replied_yet() {
+    Tuple2<Signal<Payload>, Signal<Payload>> signals = sendBatch(reply("0"), reply("one"));
+
+    assertEquals("reply", signals.getT1().get().getDataUtf8());
+    assertTrue(signals.getT2().isOnError(), "expected error, got " + signals.getT2());
+  }
+
+  private Tuple2<Signal<Payload>, Signal<Payload>> sendBatch(Payload... replies) {
+    RSocket rsocket =
+        new AbstractRSocket() {
+          @Override
+          public Flux<Payload> requestStream(Payload payload) {
+            payload.release();
+            return Flux.fromArray(replies);
+          }
+        };
+    RSocketRequestBatcher batcher =
+        new RSocketRequestBatcher(config, eventLoop, codec, Mono.just(rsocket), size -> {});
+
+    Mono<Payload> first = Mono.create(sink -> batcher.add(ByteBufPayload.create("a"), sink));
+    Mono<Payload> second = Mono.create(sink -> batcher.add(ByteBufPayload.create("b"), sink));
+    return Mono.zip(first.materialize(), second.materialize()).block(TIMEOUT);
+  }
+
+  private Payload reply(String index) {
+    ServiceMessage message =
+        ServiceMessage.builder()
+            .header(PayloadBatch.HEADER_MESSAGE_BATCH_INDEX, index)
+            .data(
+                PayloadBatch.pack(
+                    allocator, Collections.singletonList(ByteBufPayload.create("reply"))))
+            .build();
+    return codec.encodeAndTransform(message, ByteBufPayload::create);
+  }
+}
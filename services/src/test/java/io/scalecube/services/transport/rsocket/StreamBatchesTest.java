@@ -0,0 +1,71 @@
+package io.scalecube.services.transport.rsocket;
+
+import io.scalecube.services.BaseTest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class StreamBatchesTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Test
+  public void test_full_batches_are_emitted_in_order() {
+    StepVerifier.create(StreamBatches.batch(Flux.range(0, 7), 3, TIMEOUT))
+        .expectNext(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5), Collections.singletonList(6))
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_incomplete_batch_is_emitted_after_max_delay() {
+    Flux<Integer> slow =
+        Flux.concat(Flux.just(0, 1), Flux.just(2).delaySubscription(Duration.ofMillis(500)));
+
+    StepVerifier.create(StreamBatches.batch(slow, 3, Duration.ofMillis(50)))
+        .expectNext(Arrays.asList(0, 1))
+        .expectNoEvent(Duration.ofMillis(200))
+        .expectNext(Collections.singletonList(2))
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_timer_is_rearmed_for_each_incomplete_batch() {
+    Flux<Integer> slow = Flux.range(0, 5).delayElements(Duration.ofMillis(100));
+
+    StepVerifier.create(StreamBatches.batch(slow, 3, Duration.ofMillis(20)))
+        .expectNext(
+            Collections.singletonList(0),
+            Collections.singletonList(1),
+            Collections.singletonList(2),
+            Collections.singletonList(3),
+            Collections.singletonList(4))
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_batch_waits_for_demand() {
+    StepVerifier.create(StreamBatches.batch(Flux.range(0, 4), 2, Duration.ofMillis(10)), 1)
+        .expectNext(Arrays.asList(0, 1))
+        .expectNoEvent(Duration.ofMillis(100))
+        .thenRequest(1)
+        .expectNext(Arrays.asList(2, 3))
+        .expectComplete()
+        .verify(TIMEOUT);
+  }
+
+  @Test
+  public void test_error_is_signaled_after_pending_batch() {
+    Flux<Integer> failing = Flux.concat(Flux.just(0), Flux.error(new IllegalStateException()));
+
+    StepVerifier.create(StreamBatches.batch(failing, 3, TIMEOUT))
+        .expectNext(Collections.singletonList(0))
+        .expectError(IllegalStateException.class)
+        .verify(TIMEOUT);
+  }
+}
@@ -0,0 +1,94 @@
+package io.scalecube.services.transport.rsocket;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.scalecube.services.BaseTest;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.MonoProcessor;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.tcp.TcpClient;
+import reactor.ipc.netty.tcp.TcpServer;
+
+/**
+ * Checks that socket options and flush consolidation of {@link RSocketTransportConfig} end up on
+ * both client channel and channel accepted by server (see {@code ServiceTransportConfigTest} for
+ * calls over transport configured this way).
+ */
+public class TcpChannelOptionsTest extends BaseTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int LOW_WATER_MARK = 128 * 1024;
+  private static final int HIGH_WATER_MARK = 512 * 1024;
+
+  private final ByteBufAllocator allocator = new UnpooledByteBufAllocator(false);
+
+  private final RSocketTransportConfig config =
+      RSocketTransportConfig.builder()
+          .flushConsolidationMaxFlushes(64)
+          .sendBufferSize(BUFFER_SIZE)
+          .receiveBufferSize(BUFFER_SIZE)
+          .tcpNoDelay(true)
+          .writeBufferWaterMark(LOW_WATER_MARK, HIGH_WATER_MARK)
+          .build();
+
+  @Test
+  public void test_options_are_applied_to_client_and_accepted_channels() {
+    MonoProcessor<Channel> accepted = MonoProcessor.create();
+    NettyContext server =
+        TcpServer.create(
+                options -> {
+                  options
+                      .listenAddress(new InetSocketAddress("localhost", 0))
+                      .afterNettyContextInit(context -> accepted.onNext(context.channel()));
+                  TcpChannelOptions.apply(options, config, allocator);
+                })
+            .newHandler((in, out) -> out.neverComplete())
+            .block(TIMEOUT);
+
+    NettyContext client = null;
+    try {
+      client =
+          TcpClient.create(
+                  options -> {
+                    options.disablePool().connectAddress(server::address);
+                    TcpChannelOptions.apply(options, config, allocator);
+                  })
+              .newHandler((in, out) -> out.neverComplete())
+              .block(TIMEOUT);
+
+      assertOptions(client.channel());
+      assertOptions(accepted.block(TIMEOUT));
+    } finally {
+      if (client != null) {
+        client.dispose();
+      }
+      server.dispose();
+    }
+  }
+
+  private void assertOptions(Channel channel) {
+    ChannelConfig channelConfig = channel.config();
+    assertAll(
+        () -> assertNotNull(channel.pipeline().get(FlushConsolidationHandler.class)),
+        () -> assertSame(allocator, channelConfig.getAllocator()),
+        () -> assertTrue(channelConfig.getOption(ChannelOption.TCP_NODELAY)),
+        // kernel may round buffer sizes up (linux doubles them)
+        () -> assertTrue(channelConfig.getOption(ChannelOption.SO_SNDBUF) >= BUFFER_SIZE),
+        () -> assertTrue(channelConfig.getOption(ChannelOption.SO_RCVBUF) >= BUFFER_SIZE),
+        () -> assertEquals(LOW_WATER_MARK, channelConfig.getWriteBufferLowWaterMark()),
+        () -> assertEquals(HIGH_WATER_MARK, channelConfig.getWriteBufferHighWaterMark()));
+  }
+}
@@ -0,0 +1,94 @@
+package io.scalecube.services.transport.shm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.scalecube.services.BaseTest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ShmRingBufferTest extends BaseTest {
+
+  private static final int CAPACITY = 1024;
+
+  private Path file;
+  private ShmRingBuffer ringBuffer;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    file = Files.createTempDirectory("scalecube-shm").resolve("ring");
+    ringBuffer = ShmRingBuffer.create(file, CAPACITY);
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    ringBuffer.unmap();
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(file.getParent());
+  }
+
+  @Test
+  public void test_records_wrap_around() {
+    List<String> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      write("record-" + i);
+      ringBuffer.read(
+          (buffer, index, length) ->
+              records.add(buffer.toString(index, length, StandardCharsets.UTF_8)),
+          1);
+      assertEquals("record-" + i, records.get(i));
+    }
+  }
+
+  @Test
+  public void test_record_length_out_of_bounds_is_rejected() {
+    int index = write("record");
+    ringBuffer.buffer().setInt(index - 4, CAPACITY * 2);
+
+    assertCorrupted();
+  }
+
+  @Test
+  public void test_record_length_shorter_than_header_is_rejected() {
+    int index = write("record");
+    ringBuffer.buffer().setInt(index - 4, 2);
+
+    assertCorrupted();
+  }
+
+  @Test
+  public void test_padding_length_out_of_bounds_is_rejected() {
+    int index = write("record");
+    ringBuffer.buffer().setInt(index - 4, Integer.MIN_VALUE);
+
+    assertCorrupted();
+  }
+
+  private void assertCorrupted() {
+    ShmRingBuffer.CorruptedException ex =
+        assertThrows(
+            ShmRingBuffer.CorruptedException.class,
+            () -> ringBuffer.read((buffer, index, length) -> {}, Integer.MAX_VALUE));
+    assertTrue(ex.getMessage().contains(file.toString()), ex.getMessage());
+    // corrupted record isn't skipped
+    assertThrows(
+        ShmRingBuffer.CorruptedException.class,
+        () -> ringBuffer.read((buffer, index, length) -> {}, Integer.MAX_VALUE));
+  }
+
+  private int write(String record) {
+    byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+    int index = ringBuffer.claim(bytes.length);
+    assertTrue(index >= 0, "no space for record");
+    ringBuffer.buffer().setBytes(index, bytes);
+    ringBuffer.commit();
+    return index;
+  }
+}
@@ -0,0 +1,31 @@
+package io.scalecube.services.transport.shm;
+
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.transport.api.ClientChannel;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+final class ShmClientChannel implements ClientChannel {
+
+  private final Mono<ShmConnection> connection;
+
+  ShmClientChannel(Mono<ShmConnection> connection) {
+    this.connection = connection;
+  }
+
+  @Override
+  public Mono<ServiceMessage> requestResponse(ServiceMessage message) {
+    return connection.flatMap(connection1 -> connection1.requestResponse(message));
+  }
+
+  @Override
+  public Flux<ServiceMessage> requestStream(ServiceMessage message) {
+    return connection.flatMapMany(connection1 -> connection1.requestStream(message));
+  }
+
+  @Override
+  public Flux<ServiceMessage> requestChannel(Publisher<ServiceMessage> publisher) {
+    return connection.flatMapMany(connection1 -> connection1.requestChannel(publisher));
+  }
+}
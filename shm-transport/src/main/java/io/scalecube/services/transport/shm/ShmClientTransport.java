@@ -0,0 +1,152 @@
+package io.scalecube.services.transport.shm;
+
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.transport.api.ClientChannel;
+import io.scalecube.services.transport.api.ClientTransport;
+import io.scalecube.transport.Address;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Shared memory client transport. Connects to server transport of the same host by creating pair
+ * of ring buffer files in server directory, one connection per server address.
+ */
+public class ShmClientTransport implements ClientTransport {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ShmClientTransport.class);
+
+  private static final Map<String, Boolean> LOCAL_HOSTS = new ConcurrentHashMap<>();
+
+  private final Map<Address, Mono<ShmConnection>> connections = new ConcurrentHashMap<>();
+
+  private final ServiceMessageCodec codec;
+  private final ShmEventLoop eventLoop;
+  private final ShmTransportConfig config;
+
+  ShmClientTransport(
+      ServiceMessageCodec codec, ShmEventLoop eventLoop, ShmTransportConfig config) {
+    this.codec = codec;
+    this.eventLoop = eventLoop;
+    this.config = config;
+  }
+
+  @Override
+  public ClientChannel create(Address address) {
+    Mono<ShmConnection> connection =
+        connections.computeIfAbsent(
+            address,
+            address1 -> {
+              Mono<ShmConnection> connection1 = connect(address1).cache();
+              connection1
+                  .flatMap(ShmConnection::onClose)
+                  .onErrorResume(ex -> Mono.empty()) // logged on connect
+                  .doFinally(s -> connections.remove(address1))
+                  .subscribe();
+              return connection1;
+            });
+    return new ShmClientChannel(connection);
+  }
+
+  private Mono<ShmConnection> connect(Address address) {
+    return Mono.fromCallable(() -> doConnect(address))
+        .doOnSuccess(
+            connection -> LOGGER.info("Connected successfully to {} via shared memory", address))
+        .doOnError(
+            ex -> LOGGER.warn("Failed to connect to {} via shared memory, cause: {}", address, ex));
+  }
+
+  private ShmConnection doConnect(Address address) throws IOException {
+    if (!isLocalHost(address.host())) {
+      throw new ConnectException("Shared memory transport can't reach remote host " + address);
+    }
+    if (!isServerAlive(address.port())) {
+      throw new ConnectException("No shared memory server transport on " + address);
+    }
+
+    Path serverDir = ShmServerTransport.serverDir(config.directory(), address.port());
+    String id = UUID.randomUUID().toString();
+    ShmRingBuffer outbound = null;
+    ShmRingBuffer inbound = null;
+    try {
+      outbound =
+          ShmRingBuffer.create(
+              serverDir.resolve(id + ShmServerTransport.CLIENT_TO_SERVER_SUFFIX),
+              config.ringCapacity());
+      inbound =
+          ShmRingBuffer.create(
+              serverDir.resolve(id + ShmServerTransport.SERVER_TO_CLIENT_SUFFIX),
+              config.ringCapacity());
+      Files.createFile(serverDir.resolve(id + ShmServerTransport.CONNECTION_SUFFIX));
+    } catch (IOException ex) {
+      release(outbound);
+      release(inbound);
+      throw ex;
+    }
+
+    ShmConnection connection =
+        new ShmConnection(id, inbound, outbound, codec, eventLoop, null, config);
+    eventLoop.register(connection);
+    return connection;
+  }
+
+  private boolean isServerAlive(int port) throws IOException {
+    Path lockPath = ShmServerTransport.lockPath(config.directory(), port);
+    if (ShmServerTransport.isLockedLocally(lockPath)) {
+      return true;
+    }
+    if (!Files.exists(lockPath)) {
+      return false;
+    }
+    try (FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.WRITE)) {
+      FileLock lock = channel.tryLock();
+      if (lock != null) {
+        lock.release(); // nobody holds the lock, server is dead
+        return false;
+      }
+      return true;
+    } catch (OverlappingFileLockException ex) {
+      return true; // checked concurrently by another client of this process
+    }
+  }
+
+  private static void release(ShmRingBuffer ringBuffer) {
+    if (ringBuffer != null) {
+      ringBuffer.unmap();
+      try {
+        Files.deleteIfExists(ringBuffer.path());
+      } catch (IOException ex) {
+        LOGGER.warn("Failed to delete {}, cause: {}", ringBuffer.path(), ex.toString());
+      }
+    }
+  }
+
+  private static boolean isLocalHost(String host) {
+    return LOCAL_HOSTS.computeIfAbsent(
+        host,
+        host1 -> {
+          try {
+            InetAddress address = InetAddress.getByName(host1);
+            return address.isLoopbackAddress()
+                || address.isAnyLocalAddress()
+                || NetworkInterface.getByInetAddress(address) != null;
+          } catch (Exception ex) {
+            LOGGER.warn("Failed to check whether {} is local host, cause: {}", host1, ex);
+            return false;
+          }
+        });
+  }
+}
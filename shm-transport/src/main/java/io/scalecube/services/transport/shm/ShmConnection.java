@@ -0,0 +1,474 @@
+package io.scalecube.services.transport.shm;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.services.api.ErrorData;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.exceptions.ExceptionProcessor;
+import io.scalecube.services.exceptions.MessageCodecException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+/**
+ * Connection between two processes over pair of ring buffers, one per direction. Frames are
+ * written to outbound ring buffer by any thread (under lock, since ring buffer has single
+ * producer) and read from inbound ring buffer by event loop. Frame which doesn't fit into
+ * outbound ring buffer waits in pending queue until peer frees space. Pending queue is bounded by
+ * {@link ShmTransportConfig#maxPendingBytes()}, connection is closed once peer falls that far
+ * behind.
+ */
+final class ShmConnection implements ShmEventLoop.Agent {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ShmConnection.class);
+
+  private static final int READ_LIMIT = 256;
+
+  private final String name;
+  private final ShmRingBuffer inbound;
+  private final ShmRingBuffer outbound;
+  private final ServiceMessageCodec codec;
+  private final ShmEventLoop eventLoop;
+  private final ShmServiceAcceptor acceptor;
+  private final long heartbeatInterval;
+  private final long peerTimeout;
+  private final int maxPendingBytes;
+
+  private final Map<Long, ShmStream> streams = new ConcurrentHashMap<>();
+  private final AtomicLong streamIds = new AtomicLong();
+  private final Object writeLock = new Object();
+  private final Queue<ByteBuf> pending = new ConcurrentLinkedQueue<>();
+  private final MonoProcessor<Void> onClose = MonoProcessor.create();
+
+  private volatile boolean closed;
+  private long pendingBytes; // guarded by writeLock
+  private boolean released; // event loop only
+  private long lastHeartbeat; // event loop only
+
+  /**
+   * Creates connection.
+   *
+   * @param name connection name
+   * @param inbound ring buffer of frames sent by peer
+   * @param outbound ring buffer of frames sent to peer
+   * @param codec message codec
+   * @param eventLoop event loop which polls the connection
+   * @param acceptor acceptor of requests sent by peer, null for client side connection
+   * @param config transport config
+   */
+  ShmConnection(
+      String name,
+      ShmRingBuffer inbound,
+      ShmRingBuffer outbound,
+      ServiceMessageCodec codec,
+      ShmEventLoop eventLoop,
+      ShmServiceAcceptor acceptor,
+      ShmTransportConfig config) {
+    this.name = name;
+    this.inbound = inbound;
+    this.outbound = outbound;
+    this.codec = codec;
+    this.eventLoop = eventLoop;
+    this.acceptor = acceptor;
+    this.heartbeatInterval = config.heartbeatInterval().toMillis();
+    this.peerTimeout = config.peerTimeout().toMillis();
+    this.maxPendingBytes = config.maxPendingBytes();
+  }
+
+  Mono<Void> onClose() {
+    return onClose;
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Sends request-response request.
+   *
+   * @param request request message
+   * @return response message
+   */
+  Mono<ServiceMessage> requestResponse(ServiceMessage request) {
+    return Mono.defer(
+        () -> {
+          ShmStream stream = newStream(true, false, null);
+          Mono<ServiceMessage> response = stream.receive(false).singleOrEmpty();
+          return sendRequest(stream, ShmFrame.REQUEST_RESPONSE, 1, request).then(response);
+        });
+  }
+
+  /**
+   * Sends request-stream request, each request of response subscriber is sent as credit.
+   *
+   * @param request request message
+   * @return response messages
+   */
+  Flux<ServiceMessage> requestStream(ServiceMessage request) {
+    return Flux.defer(
+        () -> {
+          ShmStream stream = newStream(true, false, null);
+          Flux<ServiceMessage> responses = stream.receive(true);
+          return sendRequest(stream, ShmFrame.REQUEST_STREAM, 0, request).thenMany(responses);
+        });
+  }
+
+  /**
+   * Sends request-channel request, request messages are sent as peer grants credit.
+   *
+   * @param requests request messages
+   * @return response messages
+   */
+  Flux<ServiceMessage> requestChannel(Publisher<ServiceMessage> requests) {
+    return Flux.defer(
+        () -> {
+          ShmStream stream = newStream(true, true, null);
+          Flux<ServiceMessage> responses = stream.receive(true);
+          return sendRequest(stream, ShmFrame.REQUEST_CHANNEL, 0, null)
+              .doOnSuccess(empty -> stream.send(requests, 0, false))
+              .thenMany(responses);
+        });
+  }
+
+  private ShmStream newStream(boolean receiving, boolean sending, String contentEncoding) {
+    ShmStream stream =
+        new ShmStream(
+            this, streamIds.incrementAndGet(), receiving, sending, contentEncoding);
+    streams.put(stream.streamId(), stream);
+    if (closed) {
+      // connection might be released before the stream was registered
+      stream.onConnectionClosed();
+    }
+    return stream;
+  }
+
+  private Mono<Void> sendRequest(
+      ShmStream stream, int type, int credit, ServiceMessage request) {
+    return Mono.<Void>fromRunnable(() -> writeRequest(stream.streamId(), type, credit, request))
+        .doOnError(ex -> streams.remove(stream.streamId()));
+  }
+
+  private void writeRequest(long streamId, int type, int credit, ServiceMessage request) {
+    if (request == null) {
+      writeFrame(streamId, type, credit, null, null);
+      return;
+    }
+    // accept encoding is set only when responder is known to support it
+    String contentEncoding = request.header(ServiceMessageCodec.HEADER_ACCEPT_ENCODING);
+    codec.encodeAndTransform(
+        request,
+        contentEncoding,
+        (data, headers) -> {
+          writeFrame(streamId, type, credit, headers, data);
+          return null;
+        });
+  }
+
+  /**
+   * Registers stream opened by peer.
+   *
+   * @param streamId stream id
+   * @param receiving whether stream receives messages from peer
+   * @param sending whether stream sends messages to peer
+   * @param contentEncoding content encoding to compress responses with, may be null
+   * @return stream
+   */
+  ShmStream acceptStream(
+      long streamId, boolean receiving, boolean sending, String contentEncoding) {
+    ShmStream stream = new ShmStream(this, streamId, receiving, sending, contentEncoding);
+    streams.put(streamId, stream);
+    return stream;
+  }
+
+  void remove(ShmStream stream) {
+    streams.remove(stream.streamId(), stream);
+  }
+
+  /**
+   * Sends frame without message.
+   *
+   * @param streamId stream id
+   * @param type frame type
+   * @param credit credit
+   */
+  void send(long streamId, int type, int credit) {
+    writeFrame(streamId, type, credit, null, null);
+  }
+
+  /**
+   * Sends frame with message.
+   *
+   * @param streamId stream id
+   * @param type frame type
+   * @param message message
+   * @param contentEncoding content encoding to compress message with, may be null
+   */
+  void send(long streamId, int type, ServiceMessage message, String contentEncoding) {
+    codec.encodeAndTransform(
+        message,
+        contentEncoding,
+        (data, headers) -> {
+          writeFrame(streamId, type, 0, headers, data);
+          return null;
+        });
+  }
+
+  private void writeFrame(long streamId, int type, int credit, ByteBuf headers, ByteBuf data) {
+    try {
+      int length = ShmFrame.length(headers, data);
+      if (length > outbound.maxRecordLength()) {
+        throw new MessageCodecException(
+            "Message of length "
+                + length
+                + " exceeds max length "
+                + outbound.maxRecordLength()
+                + " of shared memory transport",
+            null);
+      }
+      synchronized (writeLock) {
+        if (closed) {
+          return;
+        }
+        if (pending.isEmpty()) {
+          int index = outbound.claim(length);
+          if (index >= 0) {
+            ShmFrame.write(outbound.buffer(), index, streamId, type, credit, headers, data);
+            outbound.commit();
+            return;
+          }
+        }
+        // ring buffer is full, keep order of frames
+        if (pendingBytes + length > maxPendingBytes) {
+          LOGGER.warn(
+              "Closing connection {}, peer didn't read {} bytes of pending frames",
+              name,
+              pendingBytes);
+          close(); // streams fail with ConnectionClosedException
+          return;
+        }
+        ByteBuf frame = ByteBufAllocator.DEFAULT.buffer(length);
+        ShmFrame.write(frame, 0, streamId, type, credit, headers, data);
+        frame.writerIndex(length);
+        pending.add(frame);
+        pendingBytes += length;
+      }
+    } finally {
+      ReferenceCountUtil.safeRelease(headers);
+      ReferenceCountUtil.safeRelease(data);
+    }
+  }
+
+  private int flushPending() {
+    if (pending.isEmpty()) {
+      return 0;
+    }
+    int count = 0;
+    synchronized (writeLock) {
+      ByteBuf frame;
+      while ((frame = pending.peek()) != null) {
+        int length = frame.readableBytes();
+        int index = outbound.claim(length);
+        if (index < 0) {
+          break;
+        }
+        outbound.buffer().setBytes(index, frame, frame.readerIndex(), length);
+        outbound.commit();
+        pending.poll();
+        pendingBytes -= length;
+        frame.release();
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int doWork(long now) {
+    if (released) {
+      return 0;
+    }
+    int work = flushPending();
+    try {
+      work += inbound.read(this::onRecord, READ_LIMIT);
+    } catch (ShmRingBuffer.CorruptedException ex) {
+      LOGGER.error("Closing connection {}, cause: {}", name, ex.getMessage());
+      close();
+      return work;
+    }
+
+    if (now - lastHeartbeat >= heartbeatInterval) {
+      lastHeartbeat = now;
+      outbound.heartbeat(now);
+    }
+
+    if (work == 0) {
+      if (inbound.isClosed()) {
+        LOGGER.debug("Connection {} closed by peer", name);
+        close();
+      } else if (now - inbound.heartbeat() > peerTimeout) {
+        LOGGER.warn("Closing connection {}, peer didn't send heartbeat in time", name);
+        close();
+      }
+    }
+    return work;
+  }
+
+  private void onRecord(ByteBuf buffer, int index, int length) {
+    // frame is written by peer process, so its headers length isn't trusted
+    if (length < ShmFrame.HEADER_LENGTH
+        || ShmFrame.headersLength(buffer, index) > length - ShmFrame.HEADER_LENGTH) {
+      LOGGER.error("Dropped invalid frame of length {} on {}", length, name);
+      return;
+    }
+    int headersLength = ShmFrame.headersLength(buffer, index);
+    long streamId = ShmFrame.streamId(buffer, index);
+    int type = ShmFrame.type(buffer, index);
+
+    ServiceMessage message = null;
+    if (headersLength >= 0) {
+      int dataLength = length - ShmFrame.HEADER_LENGTH - headersLength;
+      ByteBuf data = Unpooled.EMPTY_BUFFER;
+      if (dataLength > 0) {
+        // record space is reused by peer once read, so data is copied
+        data = ByteBufAllocator.DEFAULT.buffer(dataLength);
+        data.writeBytes(buffer, index + ShmFrame.HEADER_LENGTH + headersLength, dataLength);
+      }
+      ByteBuf headers =
+          headersLength > 0
+              ? buffer.retainedSlice(index + ShmFrame.HEADER_LENGTH, headersLength)
+              : Unpooled.EMPTY_BUFFER;
+      try {
+        message = codec.decode(data, headers); // releases headers
+      } catch (Throwable ex) {
+        ReferenceCountUtil.safeRelease(data);
+        LOGGER.error("Failed to decode frame of stream {} on {}, cause: {}", streamId, name, ex);
+        return;
+      }
+    }
+
+    if (type == ShmFrame.REQUEST_RESPONSE
+        || type == ShmFrame.REQUEST_STREAM
+        || type == ShmFrame.REQUEST_CHANNEL) {
+      if (acceptor == null) {
+        LOGGER.warn("Rejected request of stream {} on client connection {}", streamId, name);
+        releaseData(message);
+        return;
+      }
+      acceptor.accept(this, streamId, type, ShmFrame.credit(buffer, index), message);
+      return;
+    }
+
+    ShmStream stream = streams.get(streamId);
+    if (stream == null) {
+      releaseData(message);
+      return;
+    }
+
+    switch (type) {
+      case ShmFrame.REQUEST_N:
+        stream.onRequestN(ShmFrame.credit(buffer, index));
+        break;
+      case ShmFrame.CANCEL:
+        stream.onCancel();
+        break;
+      case ShmFrame.NEXT:
+        stream.onNext(message);
+        break;
+      case ShmFrame.NEXT_COMPLETE:
+        stream.onNext(message);
+        stream.onComplete();
+        break;
+      case ShmFrame.COMPLETE:
+        stream.onComplete();
+        break;
+      case ShmFrame.ERROR:
+        stream.onError(toException(message));
+        break;
+      default:
+        LOGGER.warn("Unknown frame type {} of stream {} on {}", type, streamId, name);
+        releaseData(message);
+    }
+  }
+
+  private static Throwable toException(ServiceMessage message) {
+    ServiceMessage errorMessage = ServiceMessageCodec.decodeData(message, ErrorData.class);
+    return ExceptionProcessor.toException(errorMessage.qualifier(), errorMessage.data());
+  }
+
+  private static void releaseData(ServiceMessage message) {
+    if (message != null && message.hasData(ByteBuf.class)) {
+      ReferenceCountUtil.safeRelease(message.data());
+    }
+  }
+
+  /**
+   * Closes connection: tells peer that no more frames will be sent, terminates streams and
+   * releases ring buffers.
+   */
+  void close() {
+    synchronized (writeLock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      outbound.markClosed();
+      ByteBuf frame;
+      while ((frame = pending.poll()) != null) {
+        frame.release();
+      }
+      pendingBytes = 0;
+    }
+    eventLoop.execute(this::release);
+  }
+
+  @Override
+  public void onEventLoopTerminated() {
+    close();
+    release();
+  }
+
+  private void release() {
+    if (released) {
+      return;
+    }
+    released = true;
+    eventLoop.unregister(this);
+    for (ShmStream stream : new ArrayList<>(streams.values())) {
+      stream.onConnectionClosed();
+    }
+    streams.clear();
+    inbound.unmap();
+    outbound.unmap();
+    deleteFile(inbound);
+    deleteFile(outbound);
+    LOGGER.debug("Connection {} closed", name);
+    onClose.onComplete();
+  }
+
+  private static void deleteFile(ShmRingBuffer ringBuffer) {
+    try {
+      Files.deleteIfExists(ringBuffer.path());
+    } catch (IOException ex) {
+      LOGGER.warn("Failed to delete {}, cause: {}", ringBuffer.path(), ex.toString());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ShmConnection{" + name + '}';
+  }
+}
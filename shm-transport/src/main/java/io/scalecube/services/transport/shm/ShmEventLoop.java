@@ -0,0 +1,201 @@
+package io.scalecube.services.transport.shm;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+/**
+ * Single thread which polls ring buffers of all connections of shared memory transport and runs
+ * submitted tasks. Idle thread spins, then yields, then parks for exponentially growing time up
+ * to {@link ShmTransportConfig#maxIdlePark()}, or only spins if that is zero. This is the
+ * transport executor service.
+ */
+final class ShmEventLoop extends AbstractExecutorService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ShmEventLoop.class);
+
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  private static final int MAX_SPINS = 100;
+  private static final int MAX_YIELDS = 100;
+  private static final long MIN_PARK_NANOS = 1_000;
+
+  private final long maxParkNanos;
+  private final Thread thread;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final List<Agent> agents = new CopyOnWriteArrayList<>();
+  private final MonoProcessor<Void> onTerminate = MonoProcessor.create();
+
+  private volatile boolean running = true;
+  private volatile boolean terminated;
+
+  // idle state
+  private int spins;
+  private int yields;
+  private long parkNanos = MIN_PARK_NANOS;
+
+  /**
+   * Unit of work polled by event loop.
+   */
+  interface Agent {
+
+    /**
+     * Does a portion of work, never blocks.
+     *
+     * @param now current time millis
+     * @return amount of work done, 0 if agent was idle
+     */
+    int doWork(long now);
+
+    /** Releases agent resources when event loop terminates. */
+    void onEventLoopTerminated();
+  }
+
+  ShmEventLoop(ShmTransportConfig config) {
+    this.maxParkNanos = config.maxIdlePark().toNanos();
+    this.thread = new Thread(this::run, "scalecube-shm-" + COUNTER.incrementAndGet());
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  void register(Agent agent) {
+    agents.add(agent);
+    LockSupport.unpark(thread);
+  }
+
+  void unregister(Agent agent) {
+    agents.remove(agent);
+  }
+
+  boolean inEventLoop() {
+    return Thread.currentThread() == thread;
+  }
+
+  /**
+   * Runs task on this event loop. Task submitted after event loop terminated is run by the caller,
+   * so that resources released by tasks are not leaked.
+   *
+   * @param task task
+   */
+  @Override
+  public void execute(Runnable task) {
+    tasks.add(task);
+    LockSupport.unpark(thread);
+    if (terminated) {
+      runTasks();
+    }
+  }
+
+  private void run() {
+    while (running) {
+      int work = runTasks();
+      long now = System.currentTimeMillis();
+      for (Agent agent : agents) {
+        try {
+          work += agent.doWork(now);
+        } catch (Throwable ex) {
+          LOGGER.error("Failed to do work of {}, cause: {}", agent, ex);
+        }
+      }
+      idle(work);
+    }
+
+    runTasks();
+    for (Agent agent : agents) {
+      try {
+        agent.onEventLoopTerminated();
+      } catch (Throwable ex) {
+        LOGGER.warn("Failed to close {}, cause: {}", agent, ex);
+      }
+    }
+    agents.clear();
+    terminated = true;
+    runTasks();
+    onTerminate.onComplete();
+  }
+
+  private int runTasks() {
+    int count = 0;
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      try {
+        task.run();
+      } catch (Throwable ex) {
+        LOGGER.error("Failed to run task {}, cause: {}", task, ex);
+      }
+      count++;
+    }
+    return count;
+  }
+
+  private void idle(int work) {
+    if (work > 0) {
+      spins = 0;
+      yields = 0;
+      parkNanos = MIN_PARK_NANOS;
+    } else if (maxParkNanos == 0) {
+      // busy spin, parking is disabled
+    } else if (spins < MAX_SPINS) {
+      spins++;
+    } else if (yields < MAX_YIELDS) {
+      yields++;
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(this, Math.min(parkNanos, maxParkNanos));
+      parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+    }
+  }
+
+  /**
+   * Stops event loop, agents are closed on the event loop thread.
+   *
+   * @return termination signal
+   */
+  Mono<Void> shutdownGracefully() {
+    shutdown();
+    return onTerminate;
+  }
+
+  @Override
+  public void shutdown() {
+    running = false;
+    LockSupport.unpark(thread);
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return !running;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return onTerminate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) {
+    try {
+      onTerminate.block(Duration.ofNanos(unit.toNanos(timeout)));
+    } catch (IllegalStateException ex) {
+      // timeout
+    }
+    return isTerminated();
+  }
+}
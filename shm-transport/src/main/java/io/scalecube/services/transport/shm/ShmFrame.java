@@ -0,0 +1,115 @@
+package io.scalecube.services.transport.shm;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Frame of shared memory transport, one per ring buffer record:
+ * {@code [long streamId][int type][int credit][int headersLength][headers][data]}. Headers length
+ * is -1 for frames without message.
+ *
+ * <p>Client opens a stream with one of request frames, further frames of the stream go in both
+ * directions: {@link #REQUEST_N} grants peer credit to send that many more messages, {@link
+ * #NEXT}, {@link #COMPLETE}, {@link #ERROR} carry messages and termination, {@link #CANCEL}
+ * tells peer to stop sending.
+ */
+final class ShmFrame {
+
+  static final int REQUEST_RESPONSE = 1;
+  static final int REQUEST_STREAM = 2;
+  static final int REQUEST_CHANNEL = 3;
+  static final int REQUEST_N = 4;
+  static final int NEXT = 5;
+  static final int NEXT_COMPLETE = 6;
+  static final int COMPLETE = 7;
+  static final int ERROR = 8;
+  static final int CANCEL = 9;
+
+  static final int HEADER_LENGTH = 20;
+
+  private static final int STREAM_ID_OFFSET = 0;
+  private static final int TYPE_OFFSET = 8;
+  private static final int CREDIT_OFFSET = 12;
+  private static final int HEADERS_LENGTH_OFFSET = 16;
+
+  private ShmFrame() {
+    // Do not instantiate
+  }
+
+  static int length(ByteBuf headers, ByteBuf data) {
+    return HEADER_LENGTH
+        + (headers != null ? headers.readableBytes() : 0)
+        + (data != null ? data.readableBytes() : 0);
+  }
+
+  /**
+   * Writes frame to buffer at the given index.
+   *
+   * @param buffer target buffer
+   * @param index index in target buffer
+   * @param streamId stream id
+   * @param type frame type
+   * @param credit credit of {@link #REQUEST_N} frame
+   * @param headers message headers, null for frame without message
+   * @param data message data, may be null
+   */
+  static void write(
+      ByteBuf buffer,
+      int index,
+      long streamId,
+      int type,
+      int credit,
+      ByteBuf headers,
+      ByteBuf data) {
+    buffer.setLong(index + STREAM_ID_OFFSET, streamId);
+    buffer.setInt(index + TYPE_OFFSET, type);
+    buffer.setInt(index + CREDIT_OFFSET, credit);
+    if (headers == null) {
+      buffer.setInt(index + HEADERS_LENGTH_OFFSET, -1);
+      return;
+    }
+    int headersLength = headers.readableBytes();
+    buffer.setInt(index + HEADERS_LENGTH_OFFSET, headersLength);
+    buffer.setBytes(index + HEADER_LENGTH, headers, headers.readerIndex(), headersLength);
+    if (data != null && data.isReadable()) {
+      buffer.setBytes(
+          index + HEADER_LENGTH + headersLength, data, data.readerIndex(), data.readableBytes());
+    }
+  }
+
+  static long streamId(ByteBuf buffer, int index) {
+    return buffer.getLong(index + STREAM_ID_OFFSET);
+  }
+
+  static int type(ByteBuf buffer, int index) {
+    return buffer.getInt(index + TYPE_OFFSET);
+  }
+
+  static int credit(ByteBuf buffer, int index) {
+    return buffer.getInt(index + CREDIT_OFFSET);
+  }
+
+  static int headersLength(ByteBuf buffer, int index) {
+    return buffer.getInt(index + HEADERS_LENGTH_OFFSET);
+  }
+
+  /**
+   * Converts reactive streams demand to frame credit, unbounded demand is {@link
+   * Integer#MAX_VALUE}.
+   *
+   * @param demand demand
+   * @return credit
+   */
+  static int toCredit(long demand) {
+    return (int) Math.min(demand, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Converts frame credit to reactive streams demand.
+   *
+   * @param credit credit
+   * @return demand
+   */
+  static long toDemand(int credit) {
+    return credit == Integer.MAX_VALUE ? Long.MAX_VALUE : credit;
+  }
+}
@@ -0,0 +1,294 @@
+package io.scalecube.services.transport.shm;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.internal.PlatformDependent;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import sun.misc.Unsafe;
+
+/**
+ * Single producer single consumer ring buffer over memory mapped file, shared by two processes.
+ *
+ * <p>File consists of data area of power of two capacity followed by trailer with producer
+ * position (tail), consumer position (head), producer heartbeat and closed flag, each on its own
+ * cache line. Records in data area are {@code [int length][bytes]} aligned to 8 bytes, record
+ * which doesn't fit till the end of data area is preceded by padding record of negative length.
+ * Producer publishes records by ordered store of tail, consumer frees space by ordered store of
+ * head.
+ *
+ * <p>Only single producer is supported: {@link #claim(int)} and {@link #commit()} aren't safe to
+ * call concurrently, so threads writing to the same ring buffer must serialize (see {@link
+ * ShmConnection}). There is no multi producer variant, as each ring buffer is written by one
+ * process only.
+ *
+ * <p>Positions and record lengths are read from memory which the peer process writes, so they are
+ * checked against capacity before records are read; ring buffer which fails the check is {@link
+ * CorruptedException corrupted} and can't be read anymore.
+ */
+final class ShmRingBuffer {
+
+  private static final Unsafe UNSAFE = unsafe();
+
+  private static final int TAIL_OFFSET = 0;
+  private static final int HEAD_OFFSET = 64;
+  private static final int HEARTBEAT_OFFSET = 128;
+  private static final int CLOSED_OFFSET = 192;
+  static final int TRAILER_LENGTH = 256;
+
+  private static final int RECORD_HEADER_LENGTH = 4;
+  private static final int RECORD_ALIGNMENT = 8;
+
+  private final Path path;
+  private final MappedByteBuffer mappedBuffer;
+  private final ByteBuf buffer;
+  private final int capacity;
+  private final int mask;
+  private final long tailAddress;
+  private final long headAddress;
+  private final long heartbeatAddress;
+  private final long closedAddress;
+
+  // producer side
+  private long tail;
+  private long headCache;
+  private long claimedTail;
+
+  // consumer side
+  private long head;
+
+  private ShmRingBuffer(Path path, MappedByteBuffer mappedBuffer) {
+    this.path = path;
+    this.mappedBuffer = mappedBuffer;
+    this.buffer = Unpooled.wrappedBuffer(mappedBuffer);
+    this.capacity = mappedBuffer.capacity() - TRAILER_LENGTH;
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Invalid ring buffer file: " + path);
+    }
+    this.mask = capacity - 1;
+
+    long address = PlatformDependent.directBufferAddress(mappedBuffer);
+    this.tailAddress = address + capacity + TAIL_OFFSET;
+    this.headAddress = address + capacity + HEAD_OFFSET;
+    this.heartbeatAddress = address + capacity + HEARTBEAT_OFFSET;
+    this.closedAddress = address + capacity + CLOSED_OFFSET;
+
+    this.tail = UNSAFE.getLongVolatile(null, tailAddress);
+    this.head = UNSAFE.getLongVolatile(null, headAddress);
+    this.headCache = head;
+  }
+
+  /**
+   * Creates ring buffer file.
+   *
+   * @param path file path
+   * @param capacity capacity of data area, power of two
+   * @return ring buffer
+   * @throws IOException if file exists or can't be mapped
+   */
+  static ShmRingBuffer create(Path path, int capacity) throws IOException {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be power of two: " + capacity);
+    }
+    ShmRingBuffer ringBuffer =
+        map(path, capacity + TRAILER_LENGTH, StandardOpenOption.CREATE_NEW);
+    ringBuffer.heartbeat(System.currentTimeMillis());
+    return ringBuffer;
+  }
+
+  /**
+   * Opens ring buffer file created by another process.
+   *
+   * @param path file path
+   * @return ring buffer
+   * @throws IOException if file doesn't exist or can't be mapped
+   */
+  static ShmRingBuffer open(Path path) throws IOException {
+    return map(path, -1);
+  }
+
+  private static ShmRingBuffer map(Path path, long size, StandardOpenOption... options)
+      throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            path, concat(options, StandardOpenOption.READ, StandardOpenOption.WRITE))) {
+      long mapSize = size < 0 ? channel.size() : size;
+      return new ShmRingBuffer(path, channel.map(MapMode.READ_WRITE, 0, mapSize));
+    }
+  }
+
+  private static StandardOpenOption[] concat(
+      StandardOpenOption[] options, StandardOpenOption... more) {
+    StandardOpenOption[] result = new StandardOpenOption[options.length + more.length];
+    System.arraycopy(options, 0, result, 0, options.length);
+    System.arraycopy(more, 0, result, options.length, more.length);
+    return result;
+  }
+
+  Path path() {
+    return path;
+  }
+
+  /**
+   * Returns max length of record which can be written to this ring buffer.
+   *
+   * @return max record length
+   */
+  int maxRecordLength() {
+    return capacity / 8 - RECORD_HEADER_LENGTH;
+  }
+
+  /**
+   * Returns buffer over the data area, which is used to write claimed record and read records.
+   *
+   * @return buffer
+   */
+  ByteBuf buffer() {
+    return buffer;
+  }
+
+  /**
+   * Claims space for record of the given length. Record is written to {@link #buffer()} at
+   * returned index and published by {@link #commit()}.
+   *
+   * @param length record length
+   * @return index of the record in {@link #buffer()}, or -1 if there is no space for it
+   */
+  int claim(int length) {
+    int recordLength = length + RECORD_HEADER_LENGTH;
+    if (length > maxRecordLength()) {
+      throw new IllegalArgumentException(
+          "Record length " + length + " exceeds max length " + maxRecordLength());
+    }
+    int alignedLength = align(recordLength);
+    int index = (int) (tail & mask);
+    int toEnd = capacity - index;
+    int required = alignedLength > toEnd ? toEnd + alignedLength : alignedLength;
+
+    if (tail + required - headCache > capacity) {
+      headCache = UNSAFE.getLongVolatile(null, headAddress);
+      if (tail + required - headCache > capacity) {
+        return -1;
+      }
+    }
+
+    long recordTail = tail;
+    if (alignedLength > toEnd) {
+      buffer.setInt(index, -toEnd); // padding till the end of data area
+      recordTail += toEnd;
+      index = 0;
+    }
+    buffer.setInt(index, recordLength);
+    claimedTail = recordTail + alignedLength;
+    return index + RECORD_HEADER_LENGTH;
+  }
+
+  /** Publishes claimed record to consumer. */
+  void commit() {
+    tail = claimedTail;
+    UNSAFE.putOrderedLong(null, tailAddress, tail);
+  }
+
+  /**
+   * Reads available records.
+   *
+   * @param handler record handler, must not retain record buffer
+   * @param limit max number of records to read
+   * @return number of read records
+   */
+  int read(RecordHandler handler, int limit) {
+    long position = head;
+    long available = UNSAFE.getLongVolatile(null, tailAddress);
+    if (available - position > capacity) {
+      throw new CorruptedException(
+          "Tail " + available + " is ahead of head " + position + " by more than capacity", path);
+    }
+    int count = 0;
+    try {
+      while (position < available && count < limit) {
+        int index = (int) (position & mask);
+        int recordLength = buffer.getInt(index);
+        if (recordLength < 0) {
+          // padding is written only till the end of data area
+          if (-recordLength != capacity - index || position - recordLength > available) {
+            throw new CorruptedException(
+                "Invalid padding length " + -recordLength + " at index " + index, path);
+          }
+          position -= recordLength;
+          continue;
+        }
+        if (recordLength < RECORD_HEADER_LENGTH
+            || recordLength - RECORD_HEADER_LENGTH > maxRecordLength()
+            || position + align(recordLength) > available) {
+          throw new CorruptedException(
+              "Invalid record length " + recordLength + " at index " + index, path);
+        }
+        position += align(recordLength);
+        count++;
+        handler.onRecord(
+            buffer, index + RECORD_HEADER_LENGTH, recordLength - RECORD_HEADER_LENGTH);
+      }
+    } finally {
+      if (position != head) {
+        head = position;
+        UNSAFE.putOrderedLong(null, headAddress, position);
+      }
+    }
+    return count;
+  }
+
+  void heartbeat(long timestamp) {
+    UNSAFE.putOrderedLong(null, heartbeatAddress, timestamp);
+  }
+
+  long heartbeat() {
+    return UNSAFE.getLongVolatile(null, heartbeatAddress);
+  }
+
+  /** Marks ring buffer as closed by producer. */
+  void markClosed() {
+    UNSAFE.putOrderedInt(null, closedAddress, 1);
+  }
+
+  boolean isClosed() {
+    return UNSAFE.getIntVolatile(null, closedAddress) != 0;
+  }
+
+  /** Unmaps the file, ring buffer must not be used after that. */
+  void unmap() {
+    PlatformDependent.freeDirectBuffer(mappedBuffer);
+  }
+
+  private static int align(int length) {
+    return (length + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+  }
+
+  private static Unsafe unsafe() {
+    try {
+      Field field = Unsafe.class.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      return (Unsafe) field.get(null);
+    } catch (Exception ex) {
+      throw new IllegalStateException("Shared memory transport requires sun.misc.Unsafe", ex);
+    }
+  }
+
+  /** Thrown when ring buffer holds position or record length which is out of its bounds. */
+  static final class CorruptedException extends IllegalStateException {
+
+    private CorruptedException(String message, Path path) {
+      super(message + " in ring buffer file " + path);
+    }
+  }
+
+  @FunctionalInterface
+  interface RecordHandler {
+
+    void onRecord(ByteBuf buffer, int index, int length);
+  }
+}
@@ -0,0 +1,248 @@
+package io.scalecube.services.transport.shm;
+
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.methods.ServiceMethodRegistry;
+import io.scalecube.services.transport.api.ServerTransport;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Shared memory server transport. Server owns directory of its port, where each client creates
+ * pair of ring buffer files followed by connection marker file, which server polls for. Port is
+ * not a network port but a key in the shared directory, claimed by holding lock on a lock file,
+ * so a crashed server is detected by clients and its port is reclaimed on next bind.
+ */
+public class ShmServerTransport implements ServerTransport {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ShmServerTransport.class);
+
+  static final String FILE_PREFIX = "scalecube-shm-";
+  static final String LOCK_SUFFIX = ".lock";
+  static final String CONNECTION_SUFFIX = ".conn";
+  static final String CLIENT_TO_SERVER_SUFFIX = ".c2s";
+  static final String SERVER_TO_CLIENT_SUFFIX = ".s2c";
+
+  private static final int MIN_PORT = 49152;
+  private static final int MAX_PORT = 65535;
+  private static final int MAX_BIND_ATTEMPTS = 100;
+  private static final long ACCEPT_INTERVAL_MILLIS = 10;
+
+  // lock files held by this process, closing any channel of such file would release its lock
+  private static final Set<Path> LOCAL_LOCKS = ConcurrentHashMap.newKeySet();
+
+  private final ServiceMessageCodec codec;
+  private final ShmEventLoop eventLoop;
+  private final ShmTransportConfig config;
+  private final List<ShmConnection> connections = new CopyOnWriteArrayList<>();
+
+  private Path lockPath;
+  private FileChannel lockChannel;
+  private Path serverDir;
+  private Acceptor acceptor;
+
+  ShmServerTransport(
+      ServiceMessageCodec codec, ShmEventLoop eventLoop, ShmTransportConfig config) {
+    this.codec = codec;
+    this.eventLoop = eventLoop;
+    this.config = config;
+  }
+
+  static Path lockPath(Path directory, int port) {
+    return directory.resolve(FILE_PREFIX + port + LOCK_SUFFIX);
+  }
+
+  static Path serverDir(Path directory, int port) {
+    return directory.resolve(FILE_PREFIX + port);
+  }
+
+  static boolean isLockedLocally(Path lockPath) {
+    return LOCAL_LOCKS.contains(lockPath);
+  }
+
+  @Override
+  public InetSocketAddress bindAwait(
+      InetSocketAddress address, ServiceMethodRegistry methodRegistry) {
+    try {
+      Files.createDirectories(config.directory());
+      int port = lockPort(address.getPort());
+      serverDir = serverDir(config.directory(), port);
+      if (Files.exists(serverDir)) {
+        deleteContent(serverDir); // left by crashed server
+      }
+      Files.createDirectories(serverDir);
+
+      acceptor = new Acceptor(new ShmServiceAcceptor(methodRegistry));
+      eventLoop.register(acceptor);
+      LOGGER.info("Bound shared memory server transport on {}", serverDir);
+      return InetSocketAddress.createUnresolved(address.getHostString(), port);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to bind shared memory server transport", ex);
+    }
+  }
+
+  private int lockPort(int port) throws IOException {
+    if (port > 0) {
+      if (!tryLock(port)) {
+        throw new IOException("Shared memory transport port " + port + " is already in use");
+      }
+      return port;
+    }
+    for (int i = 0; i < MAX_BIND_ATTEMPTS; i++) {
+      int randomPort = ThreadLocalRandom.current().nextInt(MIN_PORT, MAX_PORT + 1);
+      if (tryLock(randomPort)) {
+        return randomPort;
+      }
+    }
+    throw new IOException("Failed to find free shared memory transport port");
+  }
+
+  private boolean tryLock(int port) throws IOException {
+    Path path = lockPath(config.directory(), port);
+    if (!LOCAL_LOCKS.add(path)) {
+      return false;
+    }
+    FileLock fileLock = null;
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      fileLock = channel.tryLock();
+    } catch (OverlappingFileLockException ex) {
+      // checked concurrently by client of this process
+    } finally {
+      if (fileLock == null) {
+        LOCAL_LOCKS.remove(path);
+        if (channel != null) {
+          channel.close();
+        }
+      }
+    }
+    if (fileLock == null) {
+      return false;
+    }
+    lockPath = path;
+    lockChannel = channel;
+    return true;
+  }
+
+  @Override
+  public Mono<Void> stop() {
+    return Mono.defer(
+        () -> {
+          if (acceptor == null) {
+            return Mono.empty();
+          }
+          eventLoop.unregister(acceptor);
+          List<Mono<Void>> onCloseList =
+              connections
+                  .stream()
+                  .map(
+                      connection -> {
+                        connection.close();
+                        return connection.onClose();
+                      })
+                  .collect(Collectors.toList());
+          return Mono.when(onCloseList).doFinally(s -> release());
+        });
+  }
+
+  private void release() {
+    try {
+      deleteContent(serverDir);
+      Files.deleteIfExists(serverDir);
+      Files.deleteIfExists(lockPath);
+    } catch (IOException ex) {
+      LOGGER.warn("Failed to delete {}, cause: {}", serverDir, ex.toString());
+    }
+    try {
+      lockChannel.close(); // releases lock
+    } catch (IOException ex) {
+      LOGGER.warn("Failed to release lock {}, cause: {}", lockPath, ex.toString());
+    } finally {
+      LOCAL_LOCKS.remove(lockPath);
+    }
+  }
+
+  private static void deleteContent(Path dir) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+      for (Path file : files) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  /** Polls server directory for connection marker files created by clients. */
+  private final class Acceptor implements ShmEventLoop.Agent {
+
+    private final ShmServiceAcceptor serviceAcceptor;
+    private long lastAccept;
+
+    private Acceptor(ShmServiceAcceptor serviceAcceptor) {
+      this.serviceAcceptor = serviceAcceptor;
+    }
+
+    @Override
+    public int doWork(long now) {
+      if (now - lastAccept < ACCEPT_INTERVAL_MILLIS) {
+        return 0;
+      }
+      lastAccept = now;
+      int accepted = 0;
+      try (DirectoryStream<Path> markers =
+          Files.newDirectoryStream(serverDir, "*" + CONNECTION_SUFFIX)) {
+        for (Path marker : markers) {
+          accept(marker);
+          accepted++;
+        }
+      } catch (IOException ex) {
+        LOGGER.warn("Failed to poll connections of {}, cause: {}", serverDir, ex.toString());
+      }
+      return accepted;
+    }
+
+    private void accept(Path marker) {
+      String fileName = marker.getFileName().toString();
+      String id = fileName.substring(0, fileName.length() - CONNECTION_SUFFIX.length());
+      ShmRingBuffer inbound = null;
+      try {
+        Files.delete(marker);
+        inbound = ShmRingBuffer.open(serverDir.resolve(id + CLIENT_TO_SERVER_SUFFIX));
+        ShmRingBuffer outbound =
+            ShmRingBuffer.open(serverDir.resolve(id + SERVER_TO_CLIENT_SUFFIX));
+        ShmConnection connection =
+            new ShmConnection(
+                id, inbound, outbound, codec, eventLoop, serviceAcceptor, config);
+        connections.add(connection);
+        connection.onClose().doFinally(s -> connections.remove(connection)).subscribe();
+        eventLoop.register(connection);
+        LOGGER.info("Accepted shared memory connection {} on {}", id, serverDir);
+      } catch (Exception ex) {
+        if (inbound != null) {
+          inbound.unmap();
+        }
+        LOGGER.warn("Failed to accept shared memory connection {}, cause: {}", id, ex.toString());
+      }
+    }
+
+    @Override
+    public void onEventLoopTerminated() {
+      // connections are closed by themselves
+    }
+  }
+}
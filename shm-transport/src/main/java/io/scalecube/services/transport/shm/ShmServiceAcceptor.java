@@ -0,0 +1,113 @@
+package io.scalecube.services.transport.shm;
+
+import io.scalecube.services.HeadAndTail;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.exceptions.ExceptionProcessor;
+import io.scalecube.services.exceptions.ServiceUnavailableException;
+import io.scalecube.services.methods.ServiceMethodRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Invokes service methods on requests received by server side shared memory connections.
+ */
+final class ShmServiceAcceptor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ShmServiceAcceptor.class);
+
+  private final ServiceMethodRegistry methodRegistry;
+
+  ShmServiceAcceptor(ServiceMethodRegistry methodRegistry) {
+    this.methodRegistry = methodRegistry;
+  }
+
+  /**
+   * Accepts request which opens a stream.
+   *
+   * @param connection connection
+   * @param streamId stream id
+   * @param type request frame type
+   * @param credit credit granted by requester along with request
+   * @param message request message, null for request-channel
+   */
+  void accept(
+      ShmConnection connection, long streamId, int type, int credit, ServiceMessage message) {
+    switch (type) {
+      case ShmFrame.REQUEST_RESPONSE:
+        connection
+            .acceptStream(streamId, false, true, acceptEncoding(message))
+            .send(requestResponse(message), credit, true);
+        break;
+      case ShmFrame.REQUEST_STREAM:
+        connection
+            .acceptStream(streamId, false, true, acceptEncoding(message))
+            .send(requestStream(message), credit, false);
+        break;
+      case ShmFrame.REQUEST_CHANNEL:
+        ShmStream stream = connection.acceptStream(streamId, true, true, null);
+        stream.send(requestChannel(stream), credit, false);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown request type: " + type);
+    }
+  }
+
+  private Mono<ServiceMessage> requestResponse(ServiceMessage message) {
+    return Mono.just(ServiceMessageCodec.withoutAcceptEncoding(message))
+        .doOnNext(this::checkMethodInvokerExist)
+        .flatMap(
+            request ->
+                methodRegistry
+                    .getInvoker(request.qualifier())
+                    .invokeOne(request, ServiceMessageCodec::decodeData))
+        .onErrorResume(t -> Mono.just(ExceptionProcessor.toMessage(t)));
+  }
+
+  private Flux<ServiceMessage> requestStream(ServiceMessage message) {
+    return Flux.just(ServiceMessageCodec.withoutAcceptEncoding(message))
+        .doOnNext(this::checkMethodInvokerExist)
+        .flatMap(
+            request ->
+                methodRegistry
+                    .getInvoker(request.qualifier())
+                    .invokeMany(request, ServiceMessageCodec::decodeData))
+        .onErrorResume(t -> Flux.just(ExceptionProcessor.toMessage(t)));
+  }
+
+  private Flux<ServiceMessage> requestChannel(ShmStream stream) {
+    return Flux.from(HeadAndTail.createFrom(stream.receive(true)))
+        .flatMap(
+            pair -> {
+              ServiceMessage message = pair.head();
+              stream.contentEncoding(acceptEncoding(message));
+              checkMethodInvokerExist(message);
+              Flux<ServiceMessage> messages =
+                  Flux.from(pair.tail())
+                      .startWith(message)
+                      .map(ServiceMessageCodec::withoutAcceptEncoding);
+              return methodRegistry
+                  .getInvoker(message.qualifier())
+                  .invokeBidirectional(messages, ServiceMessageCodec::decodeData);
+            })
+        .onErrorResume(t -> Flux.just(ExceptionProcessor.toMessage(t)));
+  }
+
+  private static String acceptEncoding(ServiceMessage request) {
+    return request.header(ServiceMessageCodec.HEADER_ACCEPT_ENCODING);
+  }
+
+  private void checkMethodInvokerExist(ServiceMessage message) {
+    if (!methodRegistry.containsInvoker(message.qualifier())) {
+      LOGGER.error(
+          "Failed to invoke service with args[{}], No service invoker found by qualifier: {}",
+          message,
+          message.qualifier());
+      throw new ServiceUnavailableException(
+          "No service invoker registered at service method registry by qualifier: "
+              + message.qualifier());
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package io.scalecube.services.transport.shm;
+
+import io.scalecube.services.codec.HeadersCodec;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.transport.api.ClientTransport;
+import io.scalecube.services.transport.api.ServerTransport;
+import io.scalecube.services.transport.api.ServiceTransport;
+import java.util.concurrent.ExecutorService;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service transport for nodes running on the same host, which exchanges messages over memory
+ * mapped ring buffers instead of sockets. Messages are passed without system calls, at the cost of
+ * a transport thread polling ring buffers. Nodes of other hosts are not reachable by this
+ * transport.
+ */
+public class ShmServiceTransport implements ServiceTransport {
+
+  private static final String DEFAULT_HEADERS_FORMAT = "application/json";
+
+  private final ShmTransportConfig config;
+
+  public ShmServiceTransport() {
+    this(ShmTransportConfig.builder().build());
+  }
+
+  public ShmServiceTransport(ShmTransportConfig config) {
+    this.config = config;
+  }
+
+  @Override
+  public ClientTransport getClientTransport(ExecutorService executorService) {
+    HeadersCodec headersCodec = HeadersCodec.getInstance(DEFAULT_HEADERS_FORMAT);
+    return new ShmClientTransport(
+        new ServiceMessageCodec(headersCodec), (ShmEventLoop) executorService, config);
+  }
+
+  @Override
+  public ServerTransport getServerTransport(ExecutorService executorService) {
+    HeadersCodec headersCodec = HeadersCodec.getInstance(DEFAULT_HEADERS_FORMAT);
+    return new ShmServerTransport(
+        new ServiceMessageCodec(headersCodec), (ShmEventLoop) executorService, config);
+  }
+
+  @Override
+  public ExecutorService getExecutorService() {
+    return new ShmEventLoop(config);
+  }
+
+  @Override
+  public Mono<Void> shutdown(ExecutorService executorService) {
+    return Mono.defer(() -> ((ShmEventLoop) executorService).shutdownGracefully());
+  }
+}
@@ -0,0 +1,215 @@
+package io.scalecube.services.transport.shm;
+
+import io.netty.util.ReferenceCountUtil;
+import io.scalecube.services.api.ServiceMessage;
+import io.scalecube.services.codec.ServiceMessageCodec;
+import io.scalecube.services.exceptions.ConnectionClosedException;
+import io.scalecube.services.exceptions.ExceptionProcessor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.UnicastProcessor;
+
+/**
+ * Stream of shared memory connection. Stream has up to two parts: receiver of messages sent by
+ * peer, demand of which is sent to peer as credit, and sender of local messages, which requests
+ * them as peer grants credit. Stream is removed from connection once both parts terminate.
+ */
+final class ShmStream {
+
+  private final ShmConnection connection;
+  private final long streamId;
+  private final AtomicInteger activeParts;
+
+  private final AtomicReference<UnicastProcessor<ServiceMessage>> receiver =
+      new AtomicReference<>();
+  private volatile Sender sender;
+  private volatile String contentEncoding;
+
+  /**
+   * Creates stream.
+   *
+   * @param connection connection
+   * @param streamId stream id
+   * @param receiving whether stream receives messages from peer
+   * @param sending whether stream sends messages to peer
+   * @param contentEncoding content encoding to compress sent messages with, null to use accept
+   *     encoding of each sent request
+   */
+  ShmStream(
+      ShmConnection connection,
+      long streamId,
+      boolean receiving,
+      boolean sending,
+      String contentEncoding) {
+    this.connection = connection;
+    this.streamId = streamId;
+    this.contentEncoding = contentEncoding;
+    this.activeParts = new AtomicInteger((receiving ? 1 : 0) + (sending ? 1 : 0));
+    if (receiving) {
+      receiver.set(UnicastProcessor.create());
+    }
+  }
+
+  long streamId() {
+    return streamId;
+  }
+
+  /**
+   * Sets content encoding to compress sent messages with, when it is known only after stream is
+   * opened.
+   *
+   * @param contentEncoding content encoding, may be null
+   */
+  void contentEncoding(String contentEncoding) {
+    this.contentEncoding = contentEncoding;
+  }
+
+  /**
+   * Returns messages received from peer.
+   *
+   * @param grantCredit whether each request of subscriber is sent to peer as credit, false when
+   *     peer sends single message
+   * @return received messages
+   */
+  Flux<ServiceMessage> receive(boolean grantCredit) {
+    UnicastProcessor<ServiceMessage> processor = receiver.get();
+    if (processor == null) {
+      return Flux.error(new ConnectionClosedException("Connection closed"));
+    }
+    Flux<ServiceMessage> messages = processor;
+    if (grantCredit) {
+      messages =
+          messages.doOnRequest(
+              n -> connection.send(streamId, ShmFrame.REQUEST_N, ShmFrame.toCredit(n)));
+    }
+    return messages.doOnCancel(
+        () -> {
+          if (receiver.getAndSet(null) != null) {
+            connection.send(streamId, ShmFrame.CANCEL, 0);
+            partTerminated();
+          }
+        });
+  }
+
+  /**
+   * Sends messages of the given publisher to peer as peer grants credit.
+   *
+   * @param publisher messages to send
+   * @param initialCredit credit granted by peer in advance
+   * @param single whether the only message is sent along with completion
+   */
+  void send(Publisher<ServiceMessage> publisher, long initialCredit, boolean single) {
+    Sender sender = new Sender(initialCredit, single);
+    this.sender = sender;
+    publisher.subscribe(sender);
+  }
+
+  void onRequestN(int credit) {
+    Sender sender = this.sender;
+    if (sender != null) {
+      sender.request(ShmFrame.toDemand(credit));
+    }
+  }
+
+  void onCancel() {
+    Sender sender = this.sender;
+    if (sender != null) {
+      sender.cancel();
+    }
+  }
+
+  void onNext(ServiceMessage message) {
+    UnicastProcessor<ServiceMessage> processor = receiver.get();
+    if (processor != null) {
+      processor.onNext(message);
+    } else {
+      ReferenceCountUtil.safeRelease(message.data());
+    }
+  }
+
+  void onComplete() {
+    UnicastProcessor<ServiceMessage> processor = receiver.getAndSet(null);
+    if (processor != null) {
+      processor.onComplete();
+      partTerminated();
+    }
+  }
+
+  void onError(Throwable error) {
+    UnicastProcessor<ServiceMessage> processor = receiver.getAndSet(null);
+    if (processor != null) {
+      processor.onError(error);
+      partTerminated();
+    }
+  }
+
+  /** Terminates both parts of stream, since connection is closed. */
+  void onConnectionClosed() {
+    onError(new ConnectionClosedException("Connection closed"));
+    onCancel();
+  }
+
+  private void partTerminated() {
+    if (activeParts.decrementAndGet() == 0) {
+      connection.remove(this);
+    }
+  }
+
+  private final class Sender extends BaseSubscriber<ServiceMessage> {
+
+    private final long initialCredit;
+    private final boolean single;
+    private boolean completed;
+
+    private Sender(long initialCredit, boolean single) {
+      this.initialCredit = initialCredit;
+      this.single = single;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      if (initialCredit > 0) {
+        request(initialCredit);
+      }
+    }
+
+    @Override
+    protected void hookOnNext(ServiceMessage message) {
+      String contentEncoding = ShmStream.this.contentEncoding;
+      if (contentEncoding == null) {
+        // request accept encoding is set only when responder is known to support it
+        contentEncoding = message.header(ServiceMessageCodec.HEADER_ACCEPT_ENCODING);
+      }
+      if (single) {
+        completed = true;
+        connection.send(streamId, ShmFrame.NEXT_COMPLETE, message, contentEncoding);
+      } else {
+        connection.send(streamId, ShmFrame.NEXT, message, contentEncoding);
+      }
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      if (!completed) {
+        connection.send(streamId, ShmFrame.COMPLETE, 0);
+      }
+    }
+
+    @Override
+    protected void hookOnError(Throwable throwable) {
+      connection.send(
+          streamId, ShmFrame.ERROR, ExceptionProcessor.toMessage(throwable), contentEncoding);
+    }
+
+    @Override
+    protected void hookFinally(SignalType type) {
+      sender = null;
+      partTerminated();
+    }
+  }
+}
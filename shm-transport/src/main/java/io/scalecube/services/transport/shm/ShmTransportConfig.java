@@ -0,0 +1,227 @@
+package io.scalecube.services.transport.shm;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Represents shared memory service transport configuration.
+ */
+public final class ShmTransportConfig {
+
+  public static final int DEFAULT_RING_CAPACITY = 1 << 20;
+  public static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofMillis(500);
+  public static final Duration DEFAULT_PEER_TIMEOUT = Duration.ofSeconds(10);
+  public static final Duration DEFAULT_MAX_IDLE_PARK = Duration.ofNanos(100_000);
+  public static final int DEFAULT_MAX_PENDING_BYTES = 4 << 20;
+
+  private final Path directory;
+  private final int ringCapacity;
+  private final Duration heartbeatInterval;
+  private final Duration peerTimeout;
+  private final Duration maxIdlePark;
+  private final int maxPendingBytes;
+
+  private ShmTransportConfig(Builder builder) {
+    directory = builder.directory;
+    ringCapacity = builder.ringCapacity;
+    heartbeatInterval = builder.heartbeatInterval;
+    peerTimeout = builder.peerTimeout;
+    maxIdlePark = builder.maxIdlePark;
+    maxPendingBytes = builder.maxPendingBytes;
+  }
+
+  /**
+   * Directory of ring buffer files, shared by server and client processes. Default is /dev/shm
+   * when it exists (so files are backed by memory only), otherwise java.io.tmpdir.
+   *
+   * @return ring buffer directory
+   */
+  public Path directory() {
+    return directory;
+  }
+
+  /**
+   * Capacity in bytes of each of two ring buffers (one per direction) of a connection, power of
+   * two. Message which doesn't fit into 1/8 of the capacity can't be sent. Default is 1 MB.
+   *
+   * @return ring buffer capacity
+   */
+  public int ringCapacity() {
+    return ringCapacity;
+  }
+
+  /**
+   * Interval at which each side of a connection reports that its process is alive.
+   *
+   * @return heartbeat interval
+   */
+  public Duration heartbeatInterval() {
+    return heartbeatInterval;
+  }
+
+  /**
+   * Time without heartbeat after which connection is closed since peer process is considered
+   * dead.
+   *
+   * @return peer timeout
+   */
+  public Duration peerTimeout() {
+    return peerTimeout;
+  }
+
+  /**
+   * Max time idle transport thread parks between polls of ring buffers, after spinning and
+   * yielding. Zero means the thread neither yields nor parks (busy spin), which gives the lowest
+   * latency at the cost of a core.
+   *
+   * @return max idle park time
+   */
+  public Duration maxIdlePark() {
+    return maxIdlePark;
+  }
+
+  /**
+   * Max total length in bytes of frames which wait for space in outbound ring buffer of a
+   * connection, while peer doesn't read it. Connection is closed once the limit is exceeded, since
+   * peer doesn't keep up. Default is 4 MB.
+   *
+   * @return max length of pending frames
+   */
+  public int maxPendingBytes() {
+    return maxPendingBytes;
+  }
+
+  public static Builder from(ShmTransportConfig config) {
+    return new Builder(config);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("ShmTransportConfig{");
+    sb.append("directory=").append(directory);
+    sb.append(", ringCapacity=").append(ringCapacity);
+    sb.append(", heartbeatInterval=").append(heartbeatInterval);
+    sb.append(", peerTimeout=").append(peerTimeout);
+    sb.append(", maxIdlePark=").append(maxIdlePark);
+    sb.append(", maxPendingBytes=").append(maxPendingBytes);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  public static class Builder {
+
+    private Path directory = defaultDirectory();
+    private int ringCapacity = DEFAULT_RING_CAPACITY;
+    private Duration heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
+    private Duration peerTimeout = DEFAULT_PEER_TIMEOUT;
+    private Duration maxIdlePark = DEFAULT_MAX_IDLE_PARK;
+    private int maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+
+    private Builder() {}
+
+    private Builder(ShmTransportConfig config) {
+      this.directory = config.directory;
+      this.ringCapacity = config.ringCapacity;
+      this.heartbeatInterval = config.heartbeatInterval;
+      this.peerTimeout = config.peerTimeout;
+      this.maxIdlePark = config.maxIdlePark;
+      this.maxPendingBytes = config.maxPendingBytes;
+    }
+
+    private static Path defaultDirectory() {
+      Path devShm = Paths.get("/dev/shm");
+      return Files.isDirectory(devShm) && Files.isWritable(devShm)
+          ? devShm
+          : Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    public Builder directory(Path directory) {
+      this.directory = Objects.requireNonNull(directory, "directory");
+      return this;
+    }
+
+    /**
+     * Sets capacity of connection ring buffers.
+     *
+     * @param ringCapacity ring buffer capacity in bytes, power of two
+     * @return this builder
+     */
+    public Builder ringCapacity(int ringCapacity) {
+      if (ringCapacity < 1024 || Integer.bitCount(ringCapacity) != 1) {
+        throw new IllegalArgumentException("ringCapacity must be power of two, at least 1024");
+      }
+      this.ringCapacity = ringCapacity;
+      return this;
+    }
+
+    /**
+     * Sets heartbeat interval.
+     *
+     * @param heartbeatInterval heartbeat interval
+     * @return this builder
+     */
+    public Builder heartbeatInterval(Duration heartbeatInterval) {
+      Objects.requireNonNull(heartbeatInterval, "heartbeatInterval");
+      if (heartbeatInterval.isNegative() || heartbeatInterval.isZero()) {
+        throw new IllegalArgumentException("heartbeatInterval must be positive");
+      }
+      this.heartbeatInterval = heartbeatInterval;
+      return this;
+    }
+
+    /**
+     * Sets peer timeout.
+     *
+     * @param peerTimeout peer timeout
+     * @return this builder
+     */
+    public Builder peerTimeout(Duration peerTimeout) {
+      Objects.requireNonNull(peerTimeout, "peerTimeout");
+      if (peerTimeout.isNegative() || peerTimeout.isZero()) {
+        throw new IllegalArgumentException("peerTimeout must be positive");
+      }
+      this.peerTimeout = peerTimeout;
+      return this;
+    }
+
+    /**
+     * Sets max time idle transport thread parks.
+     *
+     * @param maxIdlePark max idle park time, zero for busy spin
+     * @return this builder
+     */
+    public Builder maxIdlePark(Duration maxIdlePark) {
+      Objects.requireNonNull(maxIdlePark, "maxIdlePark");
+      if (maxIdlePark.isNegative()) {
+        throw new IllegalArgumentException("maxIdlePark must not be negative");
+      }
+      this.maxIdlePark = maxIdlePark;
+      return this;
+    }
+
+    /**
+     * Sets max total length of frames waiting for space in outbound ring buffer of a connection.
+     *
+     * @param maxPendingBytes max length of pending frames in bytes
+     * @return this builder
+     */
+    public Builder maxPendingBytes(int maxPendingBytes) {
+      if (maxPendingBytes <= 0) {
+        throw new IllegalArgumentException("maxPendingBytes must be positive");
+      }
+      this.maxPendingBytes = maxPendingBytes;
+      return this;
+    }
+
+    public ShmTransportConfig build() {
+      return new ShmTransportConfig(this);
+    }
+  }
+}